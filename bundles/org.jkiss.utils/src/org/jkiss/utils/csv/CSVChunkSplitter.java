@@ -0,0 +1,194 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits CSV data into chunks at record boundaries.
+ * <p>
+ * Data is scanned as bytes, quote state is tracked with the same rules as in {@link CSVTokenizer}.
+ * So each chunk can be parsed independently with the same result as the sequential parse of the whole data.
+ * Scanning works only for encodings where special characters are encoded as the same single bytes
+ * and never appear inside of multibyte sequences (see {@link #isCharsetSupported(Charset)}).
+ */
+public class CSVChunkSplitter {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final char separator;
+    private final char quotechar;
+    private final char escape;
+
+    public CSVChunkSplitter(char separator, char quotechar, char escape) {
+        this.separator = separator;
+        this.quotechar = quotechar;
+        this.escape = escape;
+    }
+
+    /**
+     * Checks whether data in the specified charset can be split by this splitter
+     */
+    public boolean isCharsetSupported(Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        if (!StandardCharsets.UTF_8.equals(charset) && charset.newEncoder().maxBytesPerChar() > 1) {
+            return false;
+        }
+        for (char c : new char[]{separator, quotechar, escape, '\n', '\r'}) {
+            if (c >= 0x80) {
+                return false;
+            }
+            byte[] bytes = String.valueOf(c).getBytes(charset);
+            if (bytes.length != 1 || bytes[0] != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds chunk boundaries. Reads the whole input.
+     *
+     * @param length          data length in bytes
+     * @param chunkCount      desired number of chunks. Less chunks are returned if records are too long
+     * @param skipFirstRecord skip the first record (header)
+     * @return offsets of chunks starts followed by the data length. The first offset is the start of the data
+     * (after the header). Each chunk starts at a record start.
+     */
+    public long[] split(InputStream input, long length, int chunkCount, boolean skipFirstRecord) throws IOException {
+        RecordScanner scanner = new RecordScanner(input);
+        long dataStart = 0;
+        if (skipFirstRecord) {
+            dataStart = scanner.nextRecordStart(1);
+            if (dataStart < 0) {
+                // No data after the header
+                return new long[]{length, length};
+            }
+        }
+        List<Long> boundaries = new ArrayList<>(chunkCount + 1);
+        boundaries.add(dataStart);
+        for (int i = 1; i < chunkCount; i++) {
+            long target = dataStart + (length - dataStart) * i / chunkCount;
+            long recordStart = scanner.nextRecordStart(Math.max(target, boundaries.get(boundaries.size() - 1) + 1));
+            if (recordStart < 0 || recordStart >= length) {
+                break;
+            }
+            boundaries.add(recordStart);
+        }
+        boundaries.add(length);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    private class RecordScanner {
+        private final InputStream input;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int bufferPosition;
+        private int bufferLimit;
+        // Offset of the next byte
+        private long position;
+        private boolean inQuotes;
+        private boolean inField;
+
+        RecordScanner(InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Returns offset of the first record start which is not less than the specified offset or -1 at the end of data
+         */
+        long nextRecordStart(long minPosition) throws IOException {
+            for (;;) {
+                int c = read();
+                if (c < 0) {
+                    return -1;
+                }
+                if (c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    if (!inQuotes) {
+                        inField = false;
+                        if (position >= minPosition) {
+                            return position;
+                        }
+                    }
+                } else if (c == escape) {
+                    int nextChar = peekInLine();
+                    if ((inQuotes || inField) && (nextChar == quotechar || nextChar == escape)) {
+                        read();
+                    }
+                } else if (c == quotechar) {
+                    if ((inQuotes || inField) && peekInLine() == quotechar) {
+                        read();
+                    } else {
+                        inQuotes = !inQuotes;
+                    }
+                    inField = !inField;
+                } else {
+                    inField = c != separator || inQuotes;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (bufferPosition >= bufferLimit && !fill()) {
+                return -1;
+            }
+            position++;
+            return buffer[bufferPosition++] & 0xFF;
+        }
+
+        private int peek() throws IOException {
+            if (bufferPosition >= bufferLimit && !fill()) {
+                return -1;
+            }
+            return buffer[bufferPosition] & 0xFF;
+        }
+
+        private int peekInLine() throws IOException {
+            int c = peek();
+            return c == '\n' || c == '\r' ? -1 : c;
+        }
+
+        private boolean fill() throws IOException {
+            for (;;) {
+                int count = input.read(buffer, 0, buffer.length);
+                if (count < 0) {
+                    return false;
+                }
+                if (count > 0) {
+                    bufferPosition = 0;
+                    bufferLimit = count;
+                    return true;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Allocation-free CSV tokenizer.
+ * <p>
+ * Reads characters into a reusable buffer and splits records into fields without creating intermediate strings.
+ * Field values are exposed as slices of the buffer which are valid until the next call of {@link #nextRecord()}.
+ * Strings are created only for fields requested with {@link #getField(int, boolean)}.
+ * <p>
+ * Parsing rules are the same as in {@link CSVReader} with {@link CSVParser} in non-strict mode:
+ * quoted fields may span multiple lines (line breaks in them are converted to {@code \n}),
+ * doubled quote and escape character followed by quote or escape character are unescaped in quoted fields.
+ */
+public class CSVTokenizer implements Closeable {
+
+    /**
+     * Default size of the character buffer. Buffer grows if a single record does not fit in it.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_FIELD_COUNT = 32;
+    private static final int NO_CHAR = -1;
+
+    private final Reader reader;
+    private final char separator;
+    private final char quotechar;
+    private final char escape;
+
+    private char[] buffer;
+    private int limit;
+    private boolean eof;
+
+    // Parser state. All positions are absolute buffer offsets and are shifted on buffer compaction
+    private int position;
+    private int recordStart;
+    private int lineStart;
+    private int writePosition;
+    private int fieldStart;
+
+    private int fieldCount;
+    private int[] fieldStarts = new int[INITIAL_FIELD_COUNT];
+    private int[] fieldEnds = new int[INITIAL_FIELD_COUNT];
+    private boolean[] fieldQuoted = new boolean[INITIAL_FIELD_COUNT];
+
+    public CSVTokenizer(Reader reader, char separator, char quotechar, char escape) {
+        this(reader, separator, quotechar, escape, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CSVTokenizer(Reader reader, char separator, char quotechar, char escape, int bufferSize) {
+        if (separator == quotechar || separator == escape || (quotechar != CSVParser.NULL_CHARACTER && quotechar == escape)) {
+            throw new UnsupportedOperationException("The separator, quote, and escape characters must be different!");
+        }
+        if (separator == CSVParser.NULL_CHARACTER) {
+            throw new UnsupportedOperationException("The separator character must be defined!");
+        }
+        this.reader = reader;
+        this.separator = separator;
+        this.quotechar = quotechar;
+        this.escape = escape;
+        this.buffer = new char[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return false if there are no more records
+     * @throws IOException on read error or if the stream ends inside of a quoted field
+     */
+    public boolean nextRecord() throws IOException {
+        if (position >= limit && !fill()) {
+            return false;
+        }
+        recordStart = position;
+        lineStart = position;
+        writePosition = position;
+        fieldStart = position;
+        fieldCount = 0;
+
+        boolean inQuotes = false;
+        boolean inField = false;
+        boolean quoted = false;
+        int prevChar = NO_CHAR;
+        for (;;) {
+            if (position >= limit && !fill()) {
+                if (inQuotes) {
+                    throw new IOException("Un-terminated quote sequence was detected");
+                }
+                addField(quoted);
+                return true;
+            }
+            final char c = buffer[position];
+            if (c == '\n' || c == '\r') {
+                position++;
+                if (c == '\r' && (position < limit || fill()) && buffer[position] == '\n') {
+                    position++;
+                }
+                if (!inQuotes) {
+                    addField(quoted);
+                    return true;
+                }
+                // Quoted field continues on the next line
+                buffer[writePosition++] = '\n';
+                lineStart = position;
+                prevChar = NO_CHAR;
+            } else if (c == escape) {
+                int nextChar = peekNextChar();
+                if ((inQuotes || inField) && (nextChar == quotechar || nextChar == escape) && nextChar != NO_CHAR) {
+                    buffer[writePosition++] = (char) nextChar;
+                    position += 2;
+                    prevChar = nextChar;
+                } else {
+                    // Escape character which doesn't escape anything is skipped
+                    position++;
+                    prevChar = c;
+                }
+            } else if (c == quotechar) {
+                int nextChar = peekNextChar();
+                if ((inQuotes || inField) && nextChar == quotechar) {
+                    // Doubled quote
+                    buffer[writePosition++] = c;
+                    position += 2;
+                    prevChar = nextChar;
+                } else {
+                    inQuotes = !inQuotes;
+                    if (writePosition == fieldStart) {
+                        quoted = true;
+                    }
+                    // Embedded quote in the middle of the field: a,bc"d"ef,g
+                    if (position - lineStart > 2 && prevChar != separator && nextChar != NO_CHAR && nextChar != separator) {
+                        if (writePosition > fieldStart && hasWhitespace(fieldStart, writePosition)) {
+                            writePosition = fieldStart;
+                        } else {
+                            buffer[writePosition++] = c;
+                        }
+                    }
+                    position++;
+                    prevChar = c;
+                }
+                // CSVParser toggles field state on doubled quotes too
+                inField = !inField;
+            } else if (c == separator && !inQuotes) {
+                addField(quoted);
+                quoted = false;
+                inField = false;
+                position++;
+                fieldStart = writePosition;
+                prevChar = c;
+            } else {
+                buffer[writePosition++] = c;
+                inField = true;
+                position++;
+                prevChar = c;
+            }
+        }
+    }
+
+    /**
+     * Number of fields in the current record
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Character buffer which contains values of the current record fields.
+     * Buffer contents are valid until the next call of {@link #nextRecord()}.
+     */
+    public char[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Offset of the field value in the {@link #getBuffer() buffer}
+     */
+    public int getFieldStart(int index) {
+        checkFieldIndex(index);
+        return fieldStarts[index];
+    }
+
+    /**
+     * Length of the unescaped field value
+     */
+    public int getFieldLength(int index) {
+        checkFieldIndex(index);
+        return fieldEnds[index] - fieldStarts[index];
+    }
+
+    /**
+     * Checks whether field value started with a quote character
+     */
+    public boolean isFieldQuoted(int index) {
+        checkFieldIndex(index);
+        return fieldQuoted[index];
+    }
+
+    public String getField(int index) {
+        return getField(index, false);
+    }
+
+    /**
+     * Creates string value of the field.
+     *
+     * @param trim remove leading and trailing whitespaces (the same way as {@link String#trim()} does)
+     */
+    public String getField(int index, boolean trim) {
+        checkFieldIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (trim) {
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+            while (end > start && buffer[end - 1] <= ' ') {
+                end--;
+            }
+        }
+        return start == end ? "" : new String(buffer, start, end - start);
+    }
+
+    /**
+     * Checks whether field value is empty without creating a string.
+     */
+    public boolean isFieldEmpty(int index, boolean trim) {
+        checkFieldIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (trim) {
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+        }
+        return start == end;
+    }
+
+    /**
+     * Compares field value with the specified string without creating a string.
+     */
+    public boolean fieldEquals(int index, String value, boolean trim) {
+        checkFieldIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (trim) {
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+            while (end > start && buffer[end - 1] <= ' ') {
+                end--;
+            }
+        }
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (buffer[i] != value.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void checkFieldIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field index " + index + " is out of range [0.." + fieldCount + ")");
+        }
+    }
+
+    private void addField(boolean quoted) {
+        if (fieldCount == fieldStarts.length) {
+            int newSize = fieldCount * 2;
+            fieldStarts = Arrays.copyOf(fieldStarts, newSize);
+            fieldEnds = Arrays.copyOf(fieldEnds, newSize);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, newSize);
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = writePosition;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+    }
+
+    /**
+     * Returns character which follows the current one in the same line or {@link #NO_CHAR}
+     */
+    private int peekNextChar() throws IOException {
+        if (position + 1 >= limit && !fill()) {
+            return NO_CHAR;
+        }
+        char nextChar = buffer[position + 1];
+        return nextChar == '\n' || nextChar == '\r' ? NO_CHAR : nextChar;
+    }
+
+    private boolean hasWhitespace(int start, int end) {
+        // Same check as in CSVParser.isAllWhiteSpace
+        for (int i = start; i < end; i++) {
+            if (Character.isWhitespace(buffer[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads more characters in the buffer. Processed records are discarded from the buffer,
+     * buffer is enlarged if it is occupied by the current record completely.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (limit == buffer.length) {
+            if (recordStart > 0) {
+                int shift = recordStart;
+                System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+                limit -= shift;
+                position -= shift;
+                recordStart = 0;
+                lineStart -= shift;
+                writePosition -= shift;
+                fieldStart -= shift;
+                for (int i = 0; i < fieldCount; i++) {
+                    fieldStarts[i] -= shift;
+                    fieldEnds[i] -= shift;
+                }
+            } else {
+                char[] newBuffer = new char[buffer.length * 2];
+                System.arraycopy(buffer, 0, newBuffer, 0, limit);
+                buffer = newBuffer;
+            }
+        }
+        for (;;) {
+            int count = reader.read(buffer, limit, buffer.length - limit);
+            if (count < 0) {
+                eof = true;
+                return false;
+            }
+            if (count > 0) {
+                limit += count;
+                return true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import org.jkiss.code.NotNull;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.jkiss.utils.rest.BinaryJsonWriter.*;
+
+/**
+ * Reads data written by {@link BinaryJsonWriter}.
+ * <p>
+ * Values are decoded while they are read, so the whole document is never kept in memory.
+ * Binary values are converted to JSON tokens for the base reader: this way all Gson type adapters
+ * (including maps, which access reader internals) work the same way for both JSON and binary formats.
+ */
+public class BinaryJsonReader extends JsonReader {
+
+    public BinaryJsonReader(@NotNull InputStream in) {
+        super(new BinaryTokenDecoder(in));
+    }
+
+    /**
+     * Reads a single value from the stream into a JSON tree. Returns {@link JsonNull} for empty stream.
+     */
+    @NotNull
+    public static JsonElement read(@NotNull InputStream in) {
+        return JsonParser.parseReader(new BinaryJsonReader(in));
+    }
+
+    /**
+     * Converts binary values into JSON text on demand
+     */
+    private static class BinaryTokenDecoder extends Reader {
+
+        private static final int STRUCTURE_OBJECT = 1;
+        private static final int STRUCTURE_NOT_EMPTY = 2;
+
+        private final InputStream in;
+        private final List<String> stringTable = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private int textPosition;
+        // Flags of open objects and arrays
+        private int[] structures = new int[32];
+        private int depth;
+        private boolean started;
+        private boolean finished;
+
+        BinaryTokenDecoder(@NotNull InputStream in) {
+            this.in = new BufferedInputStream(in);
+        }
+
+        @Override
+        public int read(@NotNull char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (textPosition >= text.length()) {
+                if (finished) {
+                    return -1;
+                }
+                text.setLength(0);
+                textPosition = 0;
+                decodeNext();
+            }
+            int count = Math.min(length, text.length() - textPosition);
+            text.getChars(textPosition, textPosition + count, buffer, offset);
+            textPosition += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private void decodeNext() throws IOException {
+            if (!started) {
+                started = true;
+                byte[] header = new byte[HEADER.length];
+                int headerLength = in.readNBytes(header, 0, header.length);
+                if (headerLength == 0) {
+                    finished = true;
+                    return;
+                }
+                if (headerLength != header.length || !Arrays.equals(header, HEADER)) {
+                    throw new JsonSyntaxException("Bad binary JSON header");
+                }
+                decodeValue(readTag());
+            } else {
+                int structure = structures[depth - 1];
+                int tag = readTag();
+                if ((structure & STRUCTURE_OBJECT) != 0) {
+                    if (tag == TAG_END_OBJECT) {
+                        text.append('}');
+                        depth--;
+                    } else {
+                        if ((structure & STRUCTURE_NOT_EMPTY) != 0) {
+                            text.append(',');
+                        }
+                        structures[depth - 1] |= STRUCTURE_NOT_EMPTY;
+                        String name = readString(tag);
+                        appendString(name);
+                        text.append(':');
+                        int valueTag = readTag();
+                        if (valueTag == TAG_END_OBJECT || valueTag == TAG_END_ARRAY) {
+                            throw new JsonSyntaxException("Missing value of '" + name + "'");
+                        }
+                        decodeValue(valueTag);
+                    }
+                } else {
+                    if (tag == TAG_END_ARRAY) {
+                        text.append(']');
+                        depth--;
+                    } else {
+                        if ((structure & STRUCTURE_NOT_EMPTY) != 0) {
+                            text.append(',');
+                        }
+                        structures[depth - 1] |= STRUCTURE_NOT_EMPTY;
+                        decodeValue(tag);
+                    }
+                }
+            }
+            if (depth == 0) {
+                finished = true;
+            }
+        }
+
+        private void decodeValue(int tag) throws IOException {
+            switch (tag) {
+                case TAG_NULL:
+                    text.append("null");
+                    break;
+                case TAG_FALSE:
+                    text.append("false");
+                    break;
+                case TAG_TRUE:
+                    text.append("true");
+                    break;
+                case TAG_LONG: {
+                    long value = readVarLong();
+                    text.append((value >>> 1) ^ -(value & 1));
+                    break;
+                }
+                case TAG_DOUBLE:
+                    text.append(Double.longBitsToDouble(readFixedLong()));
+                    break;
+                case TAG_NUMBER: {
+                    String value = new String(readStringBytes(), StandardCharsets.UTF_8);
+                    try {
+                        new BigDecimal(value);
+                    } catch (NumberFormatException e) {
+                        throw new JsonSyntaxException("Bad number value", e);
+                    }
+                    text.append(value);
+                    break;
+                }
+                case TAG_STRING:
+                case TAG_STRING_REF:
+                    appendString(readString(tag));
+                    break;
+                case TAG_BEGIN_OBJECT:
+                    text.append('{');
+                    pushStructure(STRUCTURE_OBJECT);
+                    break;
+                case TAG_BEGIN_ARRAY:
+                    text.append('[');
+                    pushStructure(0);
+                    break;
+                default:
+                    throw new JsonSyntaxException("Unexpected binary JSON tag " + tag);
+            }
+        }
+
+        private void pushStructure(int structure) {
+            if (depth == structures.length) {
+                structures = Arrays.copyOf(structures, depth * 2);
+            }
+            structures[depth++] = structure;
+        }
+
+        private void appendString(@NotNull String value) {
+            text.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    text.append('\\').append(c);
+                } else if (c < 0x20) {
+                    text.append(String.format("\\u%04x", (int) c));
+                } else {
+                    text.append(c);
+                }
+            }
+            text.append('"');
+        }
+
+        @NotNull
+        private String readString(int tag) throws IOException {
+            if (tag == TAG_STRING_REF) {
+                long index = readVarLong();
+                if (index < 0 || index >= stringTable.size()) {
+                    throw new JsonSyntaxException("Bad string reference " + index);
+                }
+                return stringTable.get((int) index);
+            } else if (tag != TAG_STRING) {
+                throw new JsonSyntaxException("String expected but tag " + tag + " found");
+            }
+            byte[] bytes = readStringBytes();
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            // Must match the writer table rules
+            if (bytes.length <= MAX_TABLE_STRING_LENGTH && stringTable.size() < MAX_TABLE_SIZE) {
+                stringTable.add(value);
+            }
+            return value;
+        }
+
+        @NotNull
+        private byte[] readStringBytes() throws IOException {
+            long length = readVarLong();
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new JsonSyntaxException("Bad string length " + length);
+            }
+            byte[] bytes = in.readNBytes((int) length);
+            if (bytes.length != length) {
+                throw new EOFException();
+            }
+            return bytes;
+        }
+
+        private int readTag() throws IOException {
+            int tag = in.read();
+            if (tag < 0) {
+                throw new EOFException();
+            }
+            return tag;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readTag();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new JsonSyntaxException("Malformed variable length number");
+        }
+
+        private long readFixedLong() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readTag();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON writer which produces compact binary representation of JSON values.
+ * <p>
+ * Each value is prefixed with a type tag. Numbers are written in binary form.
+ * Object member names and short strings are written once and then referenced by index,
+ * so arrays of similar objects (e.g. rows) do not repeat attribute names.
+ * Written data can be read with {@link BinaryJsonReader}.
+ */
+public class BinaryJsonWriter extends JsonWriter {
+
+    static final byte[] HEADER = {'D', 'B', 'J', 1};
+
+    static final int TAG_NULL = 0;
+    static final int TAG_FALSE = 1;
+    static final int TAG_TRUE = 2;
+    static final int TAG_LONG = 3;
+    static final int TAG_DOUBLE = 4;
+    static final int TAG_NUMBER = 5;
+    static final int TAG_STRING = 6;
+    static final int TAG_STRING_REF = 7;
+    static final int TAG_BEGIN_OBJECT = 8;
+    static final int TAG_END_OBJECT = 9;
+    static final int TAG_BEGIN_ARRAY = 10;
+    static final int TAG_END_ARRAY = 11;
+
+    // Only short strings are added to the string table
+    static final int MAX_TABLE_STRING_LENGTH = 256;
+    static final int MAX_TABLE_SIZE = 1 << 16;
+
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(@NotNull char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private final OutputStream out;
+    private final Map<String, Integer> stringTable = new HashMap<>();
+    private String deferredName;
+    private boolean headerWritten;
+    private boolean closed;
+
+    public BinaryJsonWriter(@NotNull OutputStream out) {
+        super(UNWRITABLE_WRITER);
+        this.out = new BufferedOutputStream(out);
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write(TAG_BEGIN_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        checkNoDeferredName();
+        out.write(TAG_END_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write(TAG_BEGIN_OBJECT);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        checkNoDeferredName();
+        out.write(TAG_END_OBJECT);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        checkNoDeferredName();
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeElement(JsonParser.parseString(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null && !getSerializeNulls()) {
+            // Skip the name and the value
+            deferredName = null;
+            return this;
+        }
+        beforeValue();
+        out.write(TAG_NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? TAG_TRUE : TAG_FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) throws IOException {
+        return value((double) value);
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        beforeValue();
+        out.write(TAG_DOUBLE);
+        writeFixedLong(Double.doubleToRawLongBits(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(TAG_LONG);
+        // Zig-zag encoding keeps small negative numbers short
+        writeVarLong((value << 1) ^ (value >> 63));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ||
+            value instanceof AtomicInteger || value instanceof AtomicLong)
+        {
+            return value(value.longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return value(value.doubleValue());
+        }
+        // Big numbers and lazily parsed numbers are written as is
+        beforeValue();
+        out.write(TAG_NUMBER);
+        writeStringBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeHeader();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            flush();
+            out.close();
+        }
+    }
+
+    private void writeElement(@NotNull JsonElement element) throws IOException {
+        if (element.isJsonNull()) {
+            nullValue();
+        } else if (element.isJsonObject()) {
+            beginObject();
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+                name(entry.getKey());
+                writeElement(entry.getValue());
+            }
+            endObject();
+        } else if (element.isJsonArray()) {
+            beginArray();
+            for (JsonElement item : (JsonArray) element) {
+                writeElement(item);
+            }
+            endArray();
+        } else {
+            JsonPrimitive primitive = (JsonPrimitive) element;
+            if (primitive.isBoolean()) {
+                value(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                value(primitive.getAsNumber());
+            } else {
+                value(primitive.getAsString());
+            }
+        }
+    }
+
+    private void beforeValue() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        writeHeader();
+        if (deferredName != null) {
+            String name = deferredName;
+            deferredName = null;
+            writeString(name);
+        }
+    }
+
+    private void checkNoDeferredName() {
+        if (deferredName != null) {
+            throw new IllegalStateException("Dangling name: " + deferredName);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            headerWritten = true;
+            out.write(HEADER);
+        }
+    }
+
+    private void writeString(@NotNull String value) throws IOException {
+        Integer index = stringTable.get(value);
+        if (index != null) {
+            out.write(TAG_STRING_REF);
+            writeVarLong(index);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(TAG_STRING);
+        writeStringBytes(bytes);
+        if (bytes.length <= MAX_TABLE_STRING_LENGTH && stringTable.size() < MAX_TABLE_SIZE) {
+            stringTable.put(value, stringTable.size());
+        }
+    }
+
+    private void writeStringBytes(@NotNull byte[] bytes) throws IOException {
+        writeVarLong(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private void writeFixedLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
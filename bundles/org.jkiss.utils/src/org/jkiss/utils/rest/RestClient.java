@@ -18,17 +18,23 @@ package org.jkiss.utils.rest;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import org.jkiss.code.NotNull;
 import org.jkiss.utils.BeanUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.*;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
@@ -47,10 +53,20 @@ public class RestClient {
 
     @NotNull
     public static <T> T create(@NotNull URI uri, @NotNull Class<T> cls, @NotNull Gson gson) {
+        return create(uri, cls, gson, false);
+    }
+
+    /**
+     * Creates client proxy.
+     *
+     * @param binaryProtocol use binary format if server supports it. Format is negotiated by the first call.
+     */
+    @NotNull
+    public static <T> T create(@NotNull URI uri, @NotNull Class<T> cls, @NotNull Gson gson, boolean binaryProtocol) {
         final Object proxy = Proxy.newProxyInstance(
             cls.getClassLoader(),
             new Class[]{cls, RestProxy.class},
-            new ClientInvocationHandler(cls, uri, gson)
+            new ClientInvocationHandler(cls, uri, gson, binaryProtocol)
         );
 
         return cls.cast(proxy);
@@ -65,6 +81,7 @@ public class RestClient {
         private final URI uri;
         private final Class<T> cls;
         private Gson gson;
+        private boolean binaryProtocol;
 
         private Builder(@NotNull URI uri, @NotNull Class<T> cls) {
             this.uri = uri;
@@ -78,9 +95,19 @@ public class RestClient {
             return this;
         }
 
+        /**
+         * Enables compact binary format for requests and responses.
+         * Client falls back to JSON if server doesn't support binary format.
+         */
+        @NotNull
+        public Builder<T> setBinaryProtocol(boolean binaryProtocol) {
+            this.binaryProtocol = binaryProtocol;
+            return this;
+        }
+
         @NotNull
         public T create() {
-            return RestClient.create(uri, cls, gson);
+            return RestClient.create(uri, cls, gson, binaryProtocol);
         }
     }
 
@@ -92,19 +119,30 @@ public class RestClient {
         private final ExecutorService httpExecutor;
         private final HttpClient client;
         private final ThreadLocal<Type> resultType = new ThreadLocal<>();
-
-        private ClientInvocationHandler(@NotNull Class<?> clientClass, @NotNull URI uri, @NotNull Gson gson) {
+        private final boolean binaryProtocol;
+        // Set once server responded in binary format
+        private volatile boolean binaryRequests;
+
+        private ClientInvocationHandler(
+            @NotNull Class<?> clientClass,
+            @NotNull URI uri,
+            @NotNull Gson gson,
+            boolean binaryProtocol
+        ) {
             this.clientClass = clientClass;
             this.uri = uri;
             this.gson = gson;
-            this.httpExecutor = Executors.newSingleThreadExecutor();
+            this.binaryProtocol = binaryProtocol;
+            // Calls may be performed by several threads at once
+            this.httpExecutor = Executors.newCachedThreadPool();
             this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
                 .executor(httpExecutor)
                 .build();
         }
 
         @Override
-        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws RestException {
+        public Object invoke(Object proxy, Method method, Object[] args) throws RestException {
             Class<?> declaringClass = method.getDeclaringClass();
             if (declaringClass == Object.class) {
                 return BeanUtils.handleObjectMethod(proxy, method, args);
@@ -115,6 +153,12 @@ public class RestClient {
                 closeClient();
                 return null;
             }
+            // Result type is set for the next call only, so it is cleared even if the call fails
+            Type returnType = resultType.get();
+            resultType.remove();
+            if (returnType == null) {
+                returnType = method.getReturnType();
+            }
             if (httpExecutor.isShutdown() || httpExecutor.isTerminated()) {
                 throw new RestException("Rest client has been terminated");
             }
@@ -154,51 +198,51 @@ public class RestClient {
                 url.append(uri);
                 if (url.charAt(url.length() - 1) != '/') url.append('/');
                 url.append(endpoint);
-                HttpResponse.BodyHandler<String> readerBodyHandler =
-                    info -> BodySubscribers.ofString(StandardCharsets.UTF_8);
-                String requestString = gson.toJson(values);
 
                 final HttpRequest.Builder builder = HttpRequest.newBuilder()
-                    .uri(URI.create(url.toString()))
-                    .header("Content-Type", "application/json")
-                    .POST(BodyPublishers.ofString(requestString));
+                    .uri(URI.create(url.toString()));
+                if (binaryRequests) {
+                    JsonObject request = new JsonObject();
+                    values.forEach(request::add);
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    try (BinaryJsonWriter writer = new BinaryJsonWriter(buffer)) {
+                        gson.toJson(request, writer);
+                    }
+                    builder.header("Content-Type", RestConstants.CONTENT_TYPE_BINARY)
+                        .POST(BodyPublishers.ofByteArray(buffer.toByteArray()));
+                } else {
+                    builder.header("Content-Type", RestConstants.CONTENT_TYPE_JSON)
+                        .POST(BodyPublishers.ofString(gson.toJson(values), StandardCharsets.UTF_8));
+                }
+                if (binaryProtocol) {
+                    builder.header("Accept", RestConstants.CONTENT_TYPE_BINARY + ", " + RestConstants.CONTENT_TYPE_JSON);
+                }
 
                 if (mapping.timeout() > 0) {
                     builder.timeout(Duration.ofSeconds(mapping.timeout()));
                 }
 
-                final HttpResponse<String> response = client.send(
+                final HttpResponse<InputStream> response = client.send(
                     builder.build(),
-                    readerBodyHandler
+                    BodyHandlers.ofInputStream()
                 );
 
-                String contents = response.body();
-                if (response.statusCode() != RestConstants.SC_OK) {
-                    handleError(contents);
-                }
-
-                Type returnType = resultType.get();
-                if (returnType == null) {
-                    returnType = method.getReturnType();
-                } else {
-                    resultType.remove();
-                }
-                if (returnType == void.class) {
-                    return null;
-                }
-                if (returnType instanceof TypeVariable) {
-                    Type[] bounds = ((TypeVariable<?>) returnType).getBounds();
-                    if (bounds.length > 0) {
-                        returnType = bounds[0];
+                // Response is parsed while it is read, without reading the whole contents into a string
+                try (InputStream contents = response.body()) {
+                    if (response.statusCode() != RestConstants.SC_OK) {
+                        handleError(new String(contents.readAllBytes(), StandardCharsets.UTF_8));
                     }
+                    if (returnType == void.class) {
+                        return null;
+                    }
+                    boolean binaryResponse = RestConstants.CONTENT_TYPE_BINARY.equals(
+                        response.headers().firstValue("Content-Type").orElse(null));
+                    if (binaryResponse && !binaryRequests) {
+                        // Server supports binary format, use it for requests too
+                        binaryRequests = true;
+                    }
+                    return readResult(contents, returnType, binaryResponse);
                 }
-                if (returnType instanceof ParameterizedType && ((ParameterizedType) returnType).getRawType() == Class.class) {
-                    // Convert to raw class type to force our serializer to work
-                    returnType = Class.class;
-                }
-System.out.println("RESPONSE:\n\t" + contents);
-
-                return gson.fromJson(contents, returnType);
             } catch (RuntimeException e) {
                 throw e;
             } catch (Exception e) {
@@ -206,6 +250,26 @@ System.out.println("RESPONSE:\n\t" + contents);
             }
         }
 
+        private Object readResult(@NotNull InputStream contents, @NotNull Type returnType, boolean binary) throws IOException {
+            if (returnType instanceof TypeVariable) {
+                Type[] bounds = ((TypeVariable<?>) returnType).getBounds();
+                if (bounds.length > 0) {
+                    returnType = bounds[0];
+                }
+            }
+            if (returnType instanceof ParameterizedType && ((ParameterizedType) returnType).getRawType() == Class.class) {
+                // Convert to raw class type to force our serializer to work
+                returnType = Class.class;
+            }
+
+            if (binary) {
+                return gson.fromJson(new BinaryJsonReader(contents), returnType);
+            }
+            try (Reader reader = new InputStreamReader(contents, StandardCharsets.UTF_8)) {
+                return gson.fromJson(reader, returnType);
+            }
+        }
+
         private void closeClient() {
             if (!httpExecutor.isShutdown()) {
                 httpExecutor.shutdown();
@@ -26,6 +26,9 @@ public class RestConstants {
     public static final int SC_NOT_FOUND = 404;
     public static final int SC_SERVER_ERROR = 500;
 
+    public static final String CONTENT_TYPE_JSON = "application/json";
+    public static final String CONTENT_TYPE_BINARY = "application/x-jkiss-binary-json";
+
     static final Gson DEFAULT_GSON = new GsonBuilder()
         .setLenient()
         .disableHtmlEscaping()
@@ -46,7 +46,12 @@ import java.util.logging.Logger;
 
 public class RestServer<T> {
     private static final Logger log = Logger.getLogger(RestServer.class.getName());
+
+    // Responses up to this size are sent with content length, larger ones are streamed in chunks
+    private static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
+
     private HttpServer server;
+    private final int threadCount;
 
     public RestServer(
         @NotNull Class<T> cls,
@@ -56,6 +61,19 @@ public class RestServer<T> {
         int port,
         int backlog
     ) throws IOException {
+        this(cls, object, gson, filter, port, backlog, 1);
+    }
+
+    public RestServer(
+        @NotNull Class<T> cls,
+        @NotNull T object,
+        @NotNull Gson gson,
+        @NotNull Predicate<InetSocketAddress> filter,
+        int port,
+        int backlog,
+        int threadCount
+    ) throws IOException {
+        this.threadCount = Math.max(threadCount, 1);
         InetSocketAddress listenAddr = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
         server = HttpServer.create(listenAddr, backlog);
         server.createContext("/", createHandler(cls, object, gson, filter));
@@ -94,9 +112,20 @@ public class RestServer<T> {
         return server.getAddress();
     }
 
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Creates executor for requests processing.
+     * Pool with unbounded queue never grows past its core size, so core size is the number of parallel requests.
+     */
     @NotNull
     protected Executor createExecutor() {
-        return new ThreadPoolExecutor(1, 10, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threadCount, threadCount, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @NotNull
@@ -147,28 +176,15 @@ public class RestServer<T> {
                     responseObject = "Internal error";
                 }
                 if (response.code == RestConstants.SC_OK) {
-                    String responseText;
                     if (response.type == void.class) {
-                        responseText = CommonUtils.toString(response.object);
+                        byte[] responseBytes = CommonUtils.toString(response.object).getBytes(StandardCharsets.UTF_8);
                         exchange.getResponseHeaders().add("Content-Type", "text/plain");
-                    } else {
-                        try {
-                            responseText = gson.toJson(response.object, response.type);
-                        } catch (Throwable e) {
-                            // Serialization error
-                            StringWriter buf = new StringWriter();
-                            new RestException("JSON serialization error: " + e.getMessage(), e).printStackTrace(new PrintWriter(buf, true));
-
-                            sendError(exchange, RestConstants.SC_SERVER_ERROR, buf.toString());
-                            return;
+                        exchange.sendResponseHeaders(RestConstants.SC_OK, responseBytes.length);
+                        try (OutputStream responseBody = exchange.getResponseBody()) {
+                            responseBody.write(responseBytes);
                         }
-                        exchange.getResponseHeaders().add("Content-Type", "application/json");
-                    }
-                    byte[] responseBytes = responseText.getBytes(StandardCharsets.UTF_8);
-
-                    exchange.sendResponseHeaders(RestConstants.SC_OK, responseBytes.length);
-                    try (OutputStream responseBody = exchange.getResponseBody()) {
-                        responseBody.write(responseBytes);
+                    } else {
+                        sendJsonResponse(exchange, response, isBinaryAccepted(exchange));
                     }
                 } else {
                     sendError(exchange, response.code, responseObject);
@@ -181,6 +197,57 @@ public class RestServer<T> {
             }
         }
 
+        /**
+         * Serializes response directly into the response body.
+         * Small responses are buffered and sent with content length. Large responses are sent in chunks
+         * while they are serialized, so the whole JSON text is never kept in memory.
+         */
+        private void sendJsonResponse(
+            @NotNull HttpExchange exchange,
+            @NotNull Response<?> response,
+            boolean binary
+        ) throws IOException {
+            exchange.getResponseHeaders().add(
+                "Content-Type", binary ? RestConstants.CONTENT_TYPE_BINARY : RestConstants.CONTENT_TYPE_JSON);
+            ResponseBodyStream responseBody = new ResponseBodyStream(exchange, RESPONSE_BUFFER_SIZE);
+            try {
+                if (binary) {
+                    BinaryJsonWriter writer = new BinaryJsonWriter(responseBody);
+                    gson.toJson(response.object, response.type, writer);
+                    writer.flush();
+                } else {
+                    Writer writer = new OutputStreamWriter(responseBody, StandardCharsets.UTF_8);
+                    gson.toJson(response.object, response.type, writer);
+                    writer.flush();
+                }
+            } catch (Throwable e) {
+                if (responseBody.isStreaming()) {
+                    // Response headers were already sent. Client will get incomplete response.
+                    log.log(Level.SEVERE, "JSON serialization error in streamed response", e);
+                    return;
+                }
+                // Serialization error
+                StringWriter buf = new StringWriter();
+                new RestException("JSON serialization error: " + e.getMessage(), e).printStackTrace(new PrintWriter(buf, true));
+
+                sendError(exchange, RestConstants.SC_SERVER_ERROR, buf.toString());
+                return;
+            }
+            responseBody.close();
+        }
+
+        /**
+         * Binary responses are sent only to clients which explicitly accept them
+         */
+        private static boolean isBinaryAccepted(@NotNull HttpExchange exchange) {
+            for (String accept : exchange.getRequestHeaders().getOrDefault("Accept", Collections.emptyList())) {
+                if (accept.contains(RestConstants.CONTENT_TYPE_BINARY)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         private void sendError(HttpExchange exchange, int resultCode, Object responseObject) throws IOException {
             String responseText = responseObject.toString();
             byte[] result = responseText.getBytes(StandardCharsets.UTF_8);
@@ -212,8 +279,14 @@ public class RestServer<T> {
 
             final Map<String, JsonElement> request;
 
-            try (Reader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody()))) {
-                request = gson.fromJson(reader, REQUEST_TYPE);
+            if (RestConstants.CONTENT_TYPE_BINARY.equals(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+                try (InputStream in = exchange.getRequestBody()) {
+                    request = gson.fromJson(new BinaryJsonReader(in), REQUEST_TYPE);
+                }
+            } else {
+                try (Reader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                    request = gson.fromJson(reader, REQUEST_TYPE);
+                }
             }
 
             final Parameter[] parameters = method.getParameters();
@@ -282,6 +355,7 @@ public class RestServer<T> {
         private Gson gson;
         private int port;
         private int backlog;
+        private int threadCount;
         private Predicate<InetSocketAddress> filter = DEFAULT_PREDICATE;
 
         private Builder(@NotNull T object, @NotNull Class<T> cls) {
@@ -290,6 +364,7 @@ public class RestServer<T> {
             this.gson = RestConstants.DEFAULT_GSON;
             this.port = 0;
             this.backlog = 0;
+            this.threadCount = 1;
         }
 
         @NotNull
@@ -310,6 +385,15 @@ public class RestServer<T> {
             return this;
         }
 
+        /**
+         * Sets the maximum number of requests processed in parallel. Requests are processed one by one by default.
+         */
+        @NotNull
+        public Builder<T> setThreadCount(int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
         @NotNull
         public Builder<T> setFilter(@NotNull Predicate<InetSocketAddress> filter) {
             this.filter = filter;
@@ -319,13 +403,67 @@ public class RestServer<T> {
         @NotNull
         public RestServer<T> create() {
             try {
-                return new RestServer<>(cls, object, gson, filter, port, backlog);
+                return new RestServer<>(cls, object, gson, filter, port, backlog, threadCount);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
         }
     }
 
+    /**
+     * Response body which keeps the first bytes in memory.
+     * Headers with exact content length are sent on close if the whole response fits into the buffer.
+     * Otherwise, headers for chunked response are sent once the buffer is full and the rest is written directly.
+     */
+    private static class ResponseBodyStream extends OutputStream {
+        private final HttpExchange exchange;
+        private final int bufferSize;
+        private ByteArrayOutputStream buffer;
+        private OutputStream responseBody;
+
+        ResponseBodyStream(@NotNull HttpExchange exchange, int bufferSize) {
+            this.exchange = exchange;
+            this.bufferSize = bufferSize;
+            this.buffer = new ByteArrayOutputStream(Math.min(bufferSize, 8192));
+        }
+
+        boolean isStreaming() {
+            return responseBody != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            if (responseBody == null) {
+                if (buffer.size() + len <= bufferSize) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                // Response doesn't fit into the buffer. Switch to chunked mode.
+                exchange.sendResponseHeaders(RestConstants.SC_OK, 0);
+                responseBody = exchange.getResponseBody();
+                buffer.writeTo(responseBody);
+                buffer = null;
+            }
+            responseBody.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (responseBody == null) {
+                exchange.sendResponseHeaders(RestConstants.SC_OK, buffer.size());
+                responseBody = exchange.getResponseBody();
+                buffer.writeTo(responseBody);
+                buffer = null;
+            }
+            responseBody.close();
+        }
+    }
+
     private static class Response<T> {
         private final T object;
         private final Type type;
@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.time;
+
+import java.util.Objects;
+
+/**
+ * Fixed-size time series buffer with primitive storage.
+ * <p>
+ * When the buffer is full, adjacent points are merged pairwise and the number of source points
+ * aggregated into each stored point is doubled. Downsampling keeps the whole time range of long intervals
+ * within the buffer capacity.
+ */
+public class TimeSeriesBuffer {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private int size;
+
+    // Number of source points aggregated into one stored point
+    private int step = 1;
+    private long pendingTimestamp;
+    private double pendingSum;
+    private int pendingCount;
+
+    public TimeSeriesBuffer(int capacity) {
+        if (capacity < 2) {
+            capacity = 2;
+        }
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    public int getCapacity() {
+        return timestamps.length;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Timestamp of the point. Points are ordered from the oldest to the newest one.
+     */
+    public long getTimestamp(int index) {
+        return timestamps[Objects.checkIndex(index, size)];
+    }
+
+    public double getValue(int index) {
+        return values[Objects.checkIndex(index, size)];
+    }
+
+    public void add(long timestamp, double value) {
+        if (pendingCount == 0) {
+            pendingTimestamp = timestamp;
+        }
+        pendingSum += value;
+        pendingCount++;
+        if (pendingCount >= step) {
+            flush();
+        }
+    }
+
+    /**
+     * Stores partially aggregated point (if any)
+     */
+    public void flush() {
+        if (pendingCount == 0) {
+            return;
+        }
+        double value = pendingSum / pendingCount;
+        pendingSum = 0;
+        pendingCount = 0;
+        if (size == timestamps.length) {
+            compact();
+        }
+        timestamps[size] = pendingTimestamp;
+        values[size] = value;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+        step = 1;
+        pendingSum = 0;
+        pendingCount = 0;
+    }
+
+    /**
+     * Merges adjacent points pairwise. Merged point gets the timestamp of the first point.
+     */
+    private void compact() {
+        int newSize = 0;
+        for (int i = 0; i + 1 < size; i += 2) {
+            timestamps[newSize] = timestamps[i];
+            values[newSize] = (values[i] + values[i + 1]) / 2;
+            newSize++;
+        }
+        if (size % 2 != 0) {
+            // The last point can't be paired
+            timestamps[newSize] = timestamps[size - 1];
+            values[newSize] = values[size - 1];
+            newSize++;
+        }
+        size = newSize;
+        step *= 2;
+    }
+
+}
@@ -137,6 +137,16 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
     private CompareReport generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
     {
         monitor.beginTask("Compare objects", 1000);
+        executor.setReportListener((nodes, hasDifference) -> {
+            if (hasDifference) {
+                for (DBNDatabaseNode node : nodes) {
+                    if (node != null) {
+                        monitor.subTask("Difference found in " + node.getNodeFullName());
+                        break;
+                    }
+                }
+            }
+        });
         CompareReport report = executor.compareObjects(monitor, getSettings().getNodes());
         monitor.done();
         return report;
@@ -17,10 +17,12 @@
 package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.eclipse.core.runtime.IStatus;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
@@ -30,14 +32,31 @@ import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class CompareObjectsExecutor {
 
+    /**
+     * Receives compare results while comparison is in progress
+     */
+    public interface CompareReportListener {
+
+        /**
+         * Called when properties of objects were compared.
+         * Objects are reported in the same order as lines of the final report, parents before children.
+         *
+         * @param nodes compared nodes, one per root node. Missing objects are null.
+         */
+        void objectsCompared(@NotNull DBNDatabaseNode[] nodes, boolean hasDifference);
+    }
+
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
     private final Object PROPS_LOCK = new Object();
@@ -47,12 +66,16 @@ public class CompareObjectsExecutor {
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
 
-    private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
-    private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
     private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    // Property descriptors (with compiled getters) of each object class. Filter may be null.
+    private final Map<DataSourcePropertyFilter, Map<Class<?>, List<ObjectPropertyDescriptor>>> objectProperties = new HashMap<>();
+
+    private CompareReportListener reportListener;
+    // Loads children of different data sources in parallel
+    private ExecutorService loadExecutor;
 
     private final List<CompareReportLine> reportLines = new ArrayList<>();
     private int reportDepth = 0;
@@ -110,6 +133,13 @@ public class CompareObjectsExecutor {
         }
     }
 
+    private void reportObjectsCompared()
+    {
+        if (reportListener != null) {
+            reportListener.objectsCompared(lastLine.nodes, lastLine.hasDifference);
+        }
+    }
+
     private void reportObjectsCompareEnd()
     {
         reportDepth--;
@@ -120,17 +150,6 @@ public class CompareObjectsExecutor {
         this.settings = settings;
         this.rootNodes = settings.getNodes();
 
-        initializeFinisher = new DBRProgressListener() {
-            @Override
-            public void onTaskFinished(IStatus status)
-            {
-                if (!status.isOK()) {
-                    initializeError = status;
-                } else {
-                    initializedCount++;
-                }
-            }
-        };
         lazyPropertyLoadListener = new ILazyPropertyLoadListener() {
             @Override
             public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
@@ -151,6 +170,11 @@ public class CompareObjectsExecutor {
         return initializeError;
     }
 
+    public void setReportListener(CompareReportListener reportListener)
+    {
+        this.reportListener = reportListener;
+    }
+
     public void dispose()
     {
         PropertiesContributor.getInstance().removeLazyListener(lazyPropertyLoadListener);
@@ -162,10 +186,32 @@ public class CompareObjectsExecutor {
         reportLines.clear();
         lastLine = null;
 
-        compareNodes(monitor, nodes);
+        loadExecutor = createLoadExecutor();
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            if (loadExecutor != null) {
+                loadExecutor.shutdownNow();
+                loadExecutor = null;
+            }
+        }
         return new CompareReport(rootNodes, reportLines);
     }
 
+    private ExecutorService createLoadExecutor()
+    {
+        int dataSourceCount = getDataSourceGroups(rootNodes).size();
+        if (dataSourceCount < 2) {
+            return null;
+        }
+        // The first data source is loaded by the compare thread itself
+        return Executors.newFixedThreadPool(dataSourceCount - 1, runnable -> {
+            Thread thread = new Thread(runnable, "Compare objects loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
@@ -177,8 +223,11 @@ public class CompareObjectsExecutor {
                 if (!(nodes.get(0) instanceof DBNDatabaseFolder)) {
                     compareProperties(monitor, nodes);
                 }
+                reportObjectsCompared();
 
                 compareChildren(monitor, nodes);
+            } else {
+                reportObjectsCompared();
             }
         } finally {
             reportObjectsCompareEnd();
@@ -190,39 +239,17 @@ public class CompareObjectsExecutor {
         boolean onlyStruct = settings.isCompareOnlyStructure();
 
         // Clear compare singletons
-        this.initializedCount = 0;
         this.initializeError = null;
         this.propertyValues.clear();
 
         StringBuilder title = new StringBuilder();
-        // Initialize nodes
-        {
-            monitor.subTask("Initialize nodes");
-            for (DBNDatabaseNode node : nodes) {
-                if (title.length() > 0) title.append(", ");
-                title.append(node.getNodeFullName());
-                node.initializeNode(null, initializeFinisher);
-                monitor.worked(1);
-            }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(50);
-                if (monitor.isCanceled()) {
-                    throw new InterruptedException();
-                }
-            }
-        }
+        initializeNodes(monitor, nodes, title);
 
         monitor.subTask("Compare " + title.toString());
         boolean compareLazyProperties = false;
 
         DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            ObjectPropertyDescriptor.getObjectClass(firstNode.getObject()),
-            getDataSourceFilter(firstNode), null);
+        List<ObjectPropertyDescriptor> properties = getObjectProperties(firstNode);
         for (ObjectPropertyDescriptor prop : properties) {
             if (prop.isLazy()) {
                 compareLazyProperties = true;
@@ -237,6 +264,32 @@ public class CompareObjectsExecutor {
             return;
         }
 
+        // Select properties to read once for all nodes
+        List<ObjectPropertyDescriptor> readProperties = new ArrayList<>(properties.size());
+        for (ObjectPropertyDescriptor prop : properties) {
+            boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
+            if (prop.isLazy()) {
+                if (!compareLazyProperties) {
+                    if (compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!isScriptProperty) {
+                            continue;
+                        }
+                    } else {
+                        continue;
+                    }
+                }
+            } else {
+                if (prop.isHidden()) {
+                    continue;
+                }
+            }
+            if (onlyStruct && !isScriptProperty) {
+                continue;
+            }
+            readProperties.add(prop);
+        }
+
         // Load all properties
         for (DBNDatabaseNode node : nodes) {
             if (monitor.isCanceled()) {
@@ -248,29 +301,8 @@ public class CompareObjectsExecutor {
                 nodeProperties = new IdentityHashMap<>();
                 propertyValues.put(databaseObject, nodeProperties);
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!isScriptProperty) {
-                                continue;
-                            }
-                        } else {
-                            continue;
-                        }
-                    }
-                } else {
-                    if (prop.isHidden()) {
-                        continue;
-                    }
-                }
-                if (onlyStruct && !isScriptProperty) {
-                    continue;
-                }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
+            for (ObjectPropertyDescriptor prop : readProperties) {
+                Object propertyValue = readPropertyValue(monitor, databaseObject, prop);
                 synchronized (PROPS_LOCK) {
                     if (propertyValue instanceof DBPNamedObject) {
                         // Compare just object names
@@ -288,32 +320,77 @@ public class CompareObjectsExecutor {
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void initializeNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, StringBuilder title)
+        throws DBException, InterruptedException
     {
-        // Compare children
-        int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+        monitor.subTask("Initialize nodes");
+        CountDownLatch initializeLatch = new CountDownLatch(nodes.size());
+        DBRProgressListener initializeFinisher = status -> {
+            if (!status.isOK()) {
+                initializeError = status;
             }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+            initializeLatch.countDown();
+        };
+        for (DBNDatabaseNode node : nodes) {
+            if (title.length() > 0) title.append(", ");
+            title.append(node.getNodeFullName());
+            node.initializeNode(null, initializeFinisher);
+            monitor.worked(1);
+        }
+        while (!initializeLatch.await(100, TimeUnit.MILLISECONDS)) {
+            if (initializeError != null) {
+                break;
+            }
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
             }
         }
+        if (initializeError != null) {
+            throw new DBException(initializeError.getMessage());
+        }
+    }
+
+    private List<ObjectPropertyDescriptor> getObjectProperties(DBNDatabaseNode node)
+    {
+        DataSourcePropertyFilter dataSourceFilter = getDataSourceFilter(node);
+        return objectProperties
+            .computeIfAbsent(dataSourceFilter, filter -> new HashMap<>())
+            .computeIfAbsent(
+                ObjectPropertyDescriptor.getObjectClass(node.getObject()),
+                objectClass -> ObjectPropertyDescriptor.extractAnnotations(null, objectClass, dataSourceFilter, null));
+    }
+
+    private static Object readPropertyValue(DBRProgressMonitor monitor, DBSObject object, ObjectPropertyDescriptor prop)
+    {
+        try {
+            // Read through compiled property getter
+            return prop.readValue(object, monitor, true);
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            log.error("Error reading property '" + prop.getId() + "' from " + object, e);
+            return e.getMessage();
+        }
+    }
+
+    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    {
+        // Compare children
+        int nodeCount = nodes.size();
+        DBNDatabaseNode[][] allChildren = loadChildren(monitor, nodes);
 
         Set<String> allChildNames = new LinkedHashSet<>();
+        List<Map<String, DBNDatabaseNode>> childrenByName = new ArrayList<>(nodeCount);
         for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, DBNDatabaseNode> nameMap = new HashMap<>();
+            childrenByName.add(nameMap);
             if (childList == null) continue;
             for (DBNDatabaseNode child : childList) {
+                String childName = child.getNodeDisplayName();
+                // First child with the same name wins
+                nameMap.putIfAbsent(childName, child);
+
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -323,47 +400,105 @@ public class CompareObjectsExecutor {
                     // Skip system objects
                     continue;
                 }
-                allChildNames.add(child.getNodeDisplayName());
+                allChildNames.add(childName);
             }
         }
 
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
             for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeDisplayName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+                DBNDatabaseNode child = childrenByName.get(i).get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
+            // Compare children recursively
+            compareNodes(monitor, nodesToCompare);
+        }
+    }
 
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
+    /**
+     * Reads children of all nodes. Nodes of different data sources are read in parallel.
+     * Read errors are propagated: skipped child lists would be reported as missing objects.
+     */
+    private DBNDatabaseNode[][] loadChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+        throws DBException, InterruptedException
+    {
+        DBNDatabaseNode[][] allChildren = new DBNDatabaseNode[nodes.size()][];
+        List<List<Integer>> dataSourceGroups = getDataSourceGroups(nodes);
+        List<Future<?>> loaders = new ArrayList<>();
+        // Background loaders get their own monitors. Only the current thread reports to the parent monitor.
+        List<WorkerProgressMonitor> loaderMonitors = new ArrayList<>();
+        try {
+            if (loadExecutor != null) {
+                for (int i = 1; i < dataSourceGroups.size(); i++) {
+                    List<Integer> group = dataSourceGroups.get(i);
+                    WorkerProgressMonitor loaderMonitor = new WorkerProgressMonitor(monitor);
+                    loaderMonitors.add(loaderMonitor);
+                    loaders.add(loadExecutor.submit(() -> {
+                        loadChildren(loaderMonitor, nodes, group, allChildren);
+                        return null;
+                    }));
+                }
+            }
+            for (int i = 0; i < dataSourceGroups.size(); i++) {
+                if (i == 0 || loaders.isEmpty()) {
+                    loadChildren(new SubTaskProgressMonitor(monitor), nodes, dataSourceGroups.get(i), allChildren);
+                }
+            }
+            for (Future<?> loader : loaders) {
+                try {
+                    loader.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof DBException dbException) {
+                        throw dbException;
                     }
+                    throw new DBException("Error reading child nodes for compare", e.getCause());
                 }
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+        } finally {
+            // Stop loaders which are still running if we failed or were interrupted
+            for (WorkerProgressMonitor loaderMonitor : loaderMonitors) {
+                loaderMonitor.cancel();
+            }
+            for (Future<?> loader : loaders) {
+                loader.cancel(true);
+            }
+        }
+        return allChildren;
+    }
+
+    private void loadChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, List<Integer> indexes, DBNDatabaseNode[][] allChildren)
+        throws DBException
+    {
+        for (int index : indexes) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBNDatabaseNode node = nodes.get(index);
+            try {
+                // Cache structure if possible
+                if (node.getObject() instanceof DBSObjectContainer) {
+                    ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+                }
+                allChildren[index] = node.getChildren(monitor);
+            } catch (DBException e) {
+                throw new DBException("Error reading child nodes of '" + node.getNodeDisplayName() + "' for compare", e);
+            }
         }
     }
 
+    /**
+     * Groups node indexes by data source
+     */
+    private static List<List<Integer>> getDataSourceGroups(List<DBNDatabaseNode> nodes)
+    {
+        Map<DBPDataSourceContainer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            groups.computeIfAbsent(nodes.get(i).getDataSourceContainer(), container -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(groups.values());
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -18,10 +18,19 @@ package org.jkiss.dbeaver.ui.actions.datasource;
 
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.handlers.HandlerUtil;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.navigator.DBNDataSource;
+import org.jkiss.dbeaver.model.navigator.DBNLocalFolder;
 import org.jkiss.dbeaver.registry.DataSourceDescriptor;
 import org.jkiss.dbeaver.ui.actions.AbstractDataSourceHandler;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 public class DataSourceConnectHandler extends AbstractDataSourceHandler
 {
 
@@ -29,6 +38,25 @@ public class DataSourceConnectHandler extends AbstractDataSourceHandler
     @Override
     public Object execute(ExecutionEvent event) throws ExecutionException
     {
+        ISelection selection = HandlerUtil.getCurrentSelection(event);
+        if (selection instanceof IStructuredSelection structSelection && structSelection.size() > 1) {
+            // Connect all selected datasources in parallel
+            // A folder and its child may both be selected
+            Set<DBPDataSourceContainer> containers = new LinkedHashSet<>();
+            for (Object element : structSelection.toList()) {
+                if (element instanceof DBNDataSource dsNode) {
+                    containers.add(dsNode.getDataSourceContainer());
+                } else if (element instanceof DBNLocalFolder folder) {
+                    for (DBNDataSource dsNode : folder.getNestedDataSources()) {
+                        containers.add(dsNode.getDataSourceContainer());
+                    }
+                }
+            }
+            if (!containers.isEmpty()) {
+                DataSourceHandler.connectToDataSources(containers);
+                return null;
+            }
+        }
         final DataSourceDescriptor dataSourceContainer = (DataSourceDescriptor) getActiveDataSourceContainer(event, false);
         if (dataSourceContainer != null) {
             DataSourceHandler.connectToDataSource(null, dataSourceContainer, null);
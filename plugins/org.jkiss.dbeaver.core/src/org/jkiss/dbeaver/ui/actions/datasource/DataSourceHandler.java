@@ -41,11 +41,13 @@ import org.jkiss.dbeaver.model.DBPDataSourceTask;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.registry.DataSourceConnectOrchestrator;
 import org.jkiss.dbeaver.registry.DataSourceDescriptor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.ConnectJob;
@@ -59,6 +61,9 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 public class DataSourceHandler {
@@ -143,6 +148,58 @@ public class DataSourceHandler {
         }
     }
 
+    /**
+     * Connects several datasources in parallel in a background job.
+     * Number of simultaneous connects is limited by connect preferences.
+     */
+    public static void connectToDataSources(@NotNull Collection<? extends DBPDataSourceContainer> dataSourceContainers) {
+        List<DataSourceDescriptor> dataSources = new ArrayList<>();
+        for (DBPDataSourceContainer container : dataSourceContainers) {
+            if (container instanceof DataSourceDescriptor && !container.isConnected() &&
+                ArrayUtils.isEmpty(Job.getJobManager().find(container))) {
+                dataSources.add((DataSourceDescriptor) container);
+            }
+        }
+        if (dataSources.isEmpty()) {
+            return;
+        }
+        if (dataSources.size() == 1) {
+            connectToDataSource(null, dataSources.get(0), null);
+            return;
+        }
+        for (DataSourceDescriptor dataSource : dataSources) {
+            CoreFeatures.CONNECTION_OPEN.use(Map.of(
+                "driver", dataSource.getDriver().getPreconfiguredId()
+            ));
+        }
+        AbstractJob connectJob = new AbstractJob("Connect to " + dataSources.size() + " data sources") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                List<DataSourceConnectOrchestrator.ConnectResult> results = new DataSourceConnectOrchestrator().connect(monitor, dataSources);
+                List<String> failedNames = new ArrayList<>();
+                Throwable firstError = null;
+                for (DataSourceConnectOrchestrator.ConnectResult result : results) {
+                    if (result.getError() != null) {
+                        failedNames.add(result.getDataSource().getName());
+                        if (firstError == null) {
+                            firstError = result.getError();
+                        }
+                    }
+                }
+                if (firstError != null && !monitor.isCanceled()) {
+                    DBWorkbench.getPlatformUI().showError(
+                        getName(),
+                        "Can't connect to " + String.join(", ", failedNames),
+                        firstError);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        connectJob.setUser(true);
+        // Schedule in UI for the same reason as single datasource connect
+        UIUtils.asyncExec(connectJob::schedule);
+    }
+
     public static void disconnectDataSource(DBPDataSourceContainer dataSourceContainer, @Nullable final Runnable onFinish) {
 
         // Save users
@@ -50,6 +50,9 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     private Text segmentSizeText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelinedTransferCheckbox;
+    private Text partitionCountText;
+    private Button partitionPreserveOrderCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
@@ -138,6 +141,35 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 }
             });
 
+            pipelinedTransferCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, DTUIMessages.database_producer_page_extract_settings_pipelined_transfer_checkbox_tooltip, false, 4);
+            pipelinedTransferCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPipelinedTransfer(pipelinedTransferCheckbox.getSelection());
+                }
+            });
+
+            partitionCountText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_partition_count, "", SWT.BORDER);
+            partitionCountText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            ((GridData)partitionCountText.getLayoutData()).widthHint = UIUtils.getFontHeight(partitionCountText) * 10;
+            partitionCountText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_partition_count_tooltip);
+            partitionCountText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            partitionCountText.addModifyListener(e -> {
+                try {
+                    settings.setPartitionCount(Integer.parseInt(partitionCountText.getText()));
+                } catch (NumberFormatException e1) {
+                    // just skip it
+                }
+            });
+
+            partitionPreserveOrderCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_partition_preserve_order, DTUIMessages.database_producer_page_extract_settings_partition_preserve_order_tooltip, false, 2);
+            partitionPreserveOrderCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPartitionPreserveOrder(partitionPreserveOrderCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             ((GridData)fetchSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(fetchSizeText) * 10;
@@ -229,6 +261,9 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelinedTransferCheckbox.setSelection(settings.isPipelinedTransfer());
+        partitionCountText.setText(String.valueOf(settings.getPartitionCount()));
+        partitionPreserveOrderCheckbox.setSelection(settings.isPartitionPreserveOrder());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
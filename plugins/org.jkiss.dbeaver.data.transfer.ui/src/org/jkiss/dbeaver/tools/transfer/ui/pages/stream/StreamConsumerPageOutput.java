@@ -165,6 +165,7 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Button asyncWriteCheckbox;
     private Button clipboardCheck;
     private Button singleFileCheck;
     private Button showFinalMessageCheckbox;
@@ -264,6 +265,13 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
                     updateControlsEnablement();
                 }
             });
+            asyncWriteCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_async_write, DTMessages.data_transfer_wizard_output_checkbox_async_write_tip, false, 4);
+            asyncWriteCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setAsyncWrite(asyncWriteCheckbox.getSelection());
+                }
+            });
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -419,6 +427,7 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard && compressableByConflictResolution && !singleFileCheck.getSelection());
+        asyncWriteCheckbox.setEnabled(!isBinary && !clipboard);
         splitFilesCheckbox.setEnabled(!clipboard);
         maximumFileSizeLabel.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
         maximumFileSizeText.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
@@ -445,6 +454,7 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        asyncWriteCheckbox.setSelection(settings.isAsyncWrite());
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
@@ -0,0 +1,156 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractResultSet;
+
+import java.util.List;
+
+/**
+ * Result set which serves rows already read from another result set.
+ * Used to pass rows to a data receiver which runs in a different thread than the source cursor.
+ */
+public class DataTransferBufferedResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+
+    private final DBCResultSetMetaData meta;
+    private final String resultSetName;
+    private Object[] curRow;
+
+    public DataTransferBufferedResultSet(@NotNull DBCSession session, @NotNull DBCResultSet source, @NotNull DBCResultSetMetaData meta) throws DBCException {
+        super(session, source.getSourceStatement());
+        this.meta = meta;
+        this.resultSetName = source.getResultSetName();
+    }
+
+    /**
+     * Creates result set which doesn't depend on the source result set, its statement and session.
+     * Used when rows are served after the source session is closed.
+     */
+    public DataTransferBufferedResultSet(@NotNull DBCSession session, @NotNull List<DBCAttributeMetaData> attributes, @Nullable String resultSetName) {
+        super(session, null);
+        this.meta = () -> attributes;
+        this.resultSetName = resultSetName;
+    }
+
+    /**
+     * Checks that all values of the result set can be read ahead of the consumer.
+     * LOB and complex values may depend on the source cursor state.
+     */
+    public static boolean isBufferable(@NotNull DBCSession session, @NotNull List<DBCAttributeMetaData> attributes) {
+        if (session.getDataSource().getInfo().isDynamicMetadata()) {
+            return false;
+        }
+        for (DBCAttributeMetaData attr : attributes) {
+            DBPDataKind dataKind = attr.getDataKind();
+            if (dataKind == DBPDataKind.CONTENT || dataKind.isComplex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    public static DBDValueHandler[] getValueHandlers(@NotNull DBCSession session, @NotNull DBCAttributeMetaData[] attributes) {
+        DBDValueHandler[] valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+        return valueHandlers;
+    }
+
+    /**
+     * Reads current row of the source result set
+     */
+    @NotNull
+    public static Object[] readRow(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @NotNull DBCAttributeMetaData[] attributes,
+        @NotNull DBDValueHandler[] valueHandlers) throws DBCException
+    {
+        Object[] row = new Object[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            row[i] = valueHandlers[i].fetchValueObject(session, resultSet, attributes[i], i);
+        }
+        return row;
+    }
+
+    public void setCurrentRow(@Nullable Object[] row) {
+        this.curRow = row;
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        if (curRow == null || index < 0 || index >= curRow.length) {
+            throw new DBCException("Attribute index out of range (" + index + ")");
+        }
+        return curRow[index];
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(String name) throws DBCException {
+        List<DBCAttributeMetaData> metaAttributes = meta.getAttributes();
+        for (int i = 0; i < metaAttributes.size(); i++) {
+            if (metaAttributes.get(i).getName().equals(name)) {
+                return getAttributeValue(i);
+            }
+        }
+        throw new DBCException("Bad attribute name: " + name);
+    }
+
+    @Override
+    public boolean nextRow() {
+        return false;
+    }
+
+    @Override
+    public boolean moveTo(int position) {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() {
+        return meta;
+    }
+
+    @Override
+    public String getResultSetName() {
+        return resultSetName;
+    }
+
+    @Override
+    public Object getFeature(String name) {
+        if (FEATURE_NAME_LOCAL.equals(name)) {
+            return true;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        curRow = null;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data receiver which runs the target receiver in a separate thread.
+ * <p>
+ * Rows are read from the source result set on the producer thread and passed to the consumer thread
+ * in batches through a bounded queue. The producer blocks when the queue is full, so memory usage is
+ * limited by {@code batchSize * queueSize} rows. Consumer errors and monitor cancellation stop both sides.
+ * The consumer thread uses its own session and progress monitor; cancellation of the producer monitor is inherited.
+ * <p>
+ * Consumer errors are rethrown from the next {@link #fetchRow} or from {@link #fetchEnd}. Callers which don't propagate
+ * fetchEnd errors must call {@link #checkTransferError()} after the read.
+ * <p>
+ * Result sets with LOB or complex attributes are passed to the target receiver directly because
+ * such values may depend on the source cursor state.
+ */
+public class DataTransferPipelinedReceiver implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DataTransferPipelinedReceiver.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_QUEUE_SIZE = 8;
+
+    private static final long QUEUE_POLL_TIMEOUT = 100;
+    private static final List<Object[]> END_OF_DATA = new ArrayList<>();
+
+    private final DBDDataReceiver target;
+    private final int batchSize;
+    private final BlockingQueue<List<Object[]>> queue;
+
+    private boolean pipelined;
+    private DBCAttributeMetaData[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private List<Object[]> currentBatch;
+    private ConsumerThread consumerThread;
+    private volatile Throwable consumerError;
+    private DBCException transferError;
+
+    public DataTransferPipelinedReceiver(@NotNull DBDDataReceiver target, int batchSize, int queueSize) {
+        this.target = target;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.queue = new ArrayBlockingQueue<>(queueSize > 0 ? queueSize : DEFAULT_QUEUE_SIZE);
+    }
+
+    @NotNull
+    public DBDDataReceiver getTarget() {
+        return target;
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        transferError = null;
+        target.fetchStart(session, resultSet, offset, maxRows);
+
+        DBCResultSetMetaData meta = resultSet.getMeta();
+        List<DBCAttributeMetaData> metaAttributes = meta.getAttributes();
+        pipelined = DataTransferBufferedResultSet.isBufferable(session, metaAttributes);
+        if (!pipelined) {
+            log.debug("Result set contains LOB or complex attributes. Pipelined transfer disabled.");
+            return;
+        }
+
+        attributes = metaAttributes.toArray(new DBCAttributeMetaData[0]);
+        valueHandlers = DataTransferBufferedResultSet.getValueHandlers(session, attributes);
+        currentBatch = new ArrayList<>(batchSize);
+        consumerError = null;
+        queue.clear();
+        consumerThread = new ConsumerThread(session, resultSet, meta);
+        consumerThread.start();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (!pipelined) {
+            target.fetchRow(session, resultSet);
+            return;
+        }
+        checkConsumerError();
+        currentBatch.add(DataTransferBufferedResultSet.readRow(session, resultSet, attributes, valueHandlers));
+        if (currentBatch.size() >= batchSize) {
+            putBatch(session.getProgressMonitor(), currentBatch);
+            currentBatch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        try {
+            if (pipelined) {
+                DBRProgressMonitor monitor = session.getProgressMonitor();
+                try {
+                    if (!monitor.isCanceled() && consumerError == null) {
+                        if (!currentBatch.isEmpty()) {
+                            putBatch(monitor, currentBatch);
+                        }
+                        putBatch(monitor, END_OF_DATA);
+                    }
+                } finally {
+                    currentBatch = null;
+                    if (consumerThread != null && (monitor.isCanceled() || consumerError != null)) {
+                        consumerThread.monitor.cancel();
+                    }
+                    waitForConsumer();
+                }
+                checkConsumerError();
+            }
+            target.fetchEnd(session, resultSet);
+        } catch (DBCException e) {
+            transferError = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Throws the error of the last transfer, if any.
+     * Data containers may swallow errors thrown by fetchEnd, so the caller must check the transfer result explicitly.
+     */
+    public void checkTransferError() throws DBCException {
+        if (transferError != null) {
+            throw transferError;
+        }
+        checkConsumerError();
+    }
+
+    @Override
+    public void close() {
+        if (consumerThread != null) {
+            consumerThread.interrupt();
+            waitForConsumer();
+        }
+        queue.clear();
+        target.close();
+    }
+
+    private void putBatch(@NotNull DBRProgressMonitor monitor, @NotNull List<Object[]> batch) throws DBCException {
+        try {
+            while (!queue.offer(batch, QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkConsumerError();
+                if (monitor.isCanceled()) {
+                    throw new DBCException("Data transfer canceled");
+                }
+                if (!consumerThread.isAlive()) {
+                    throw new DBCException("Data transfer consumer stopped unexpectedly");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBCException("Data transfer interrupted", e);
+        }
+    }
+
+    private void waitForConsumer() {
+        if (consumerThread == null) {
+            return;
+        }
+        try {
+            consumerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.debug("Interrupted while waiting for data transfer consumer");
+        }
+        consumerThread = null;
+    }
+
+    private void checkConsumerError() throws DBCException {
+        Throwable error = consumerError;
+        if (error instanceof DBCException) {
+            throw (DBCException) error;
+        } else if (error != null) {
+            throw new DBCException("Error in data transfer consumer", error);
+        }
+    }
+
+    private class ConsumerThread extends Thread {
+        private final DBCSession producerSession;
+        private final DBCResultSet sourceResultSet;
+        private final DBCResultSetMetaData meta;
+        private final WorkerProgressMonitor monitor;
+
+        ConsumerThread(@NotNull DBCSession producerSession, @NotNull DBCResultSet sourceResultSet, @NotNull DBCResultSetMetaData meta) {
+            super("Data transfer consumer");
+            setDaemon(true);
+            this.producerSession = producerSession;
+            this.sourceResultSet = sourceResultSet;
+            this.meta = meta;
+            this.monitor = new WorkerProgressMonitor(producerSession.getProgressMonitor());
+        }
+
+        @Override
+        public void run() {
+            // Sessions and monitors are not thread-safe, so consumer works in its own session
+            try (DBCSession session = producerSession.getExecutionContext().openSession(
+                monitor, producerSession.getPurpose(), "Data transfer consumer"))
+            {
+                session.enableLogging(false);
+                consume(session, new DataTransferBufferedResultSet(session, sourceResultSet, meta));
+            } catch (Throwable e) {
+                if (consumerError == null) {
+                    consumerError = e;
+                }
+            }
+        }
+
+        private void consume(@NotNull DBCSession session, @NotNull DataTransferBufferedResultSet resultSet) {
+            try {
+                while (!monitor.isCanceled()) {
+                    List<Object[]> batch = queue.poll(QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (batch == null) {
+                        continue;
+                    }
+                    if (batch == END_OF_DATA) {
+                        break;
+                    }
+                    for (Object[] row : batch) {
+                        resultSet.setCurrentRow(row);
+                        target.fetchRow(session, resultSet);
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Receiver was closed
+            } catch (Throwable e) {
+                consumerError = e;
+            } finally {
+                resultSet.setCurrentRow(null);
+            }
+        }
+    }
+
+}
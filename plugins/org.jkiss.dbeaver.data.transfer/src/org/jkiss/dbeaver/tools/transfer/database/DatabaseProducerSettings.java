@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.tools.transfer.database;
 
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipelinedReceiver;
 import org.jkiss.dbeaver.tools.transfer.DataTransferSettings;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferSettings;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
@@ -46,6 +47,12 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean pipelinedTransfer = false;
+    private int pipelineBatchSize = DataTransferPipelinedReceiver.DEFAULT_BATCH_SIZE;
+    private int pipelineQueueSize = DataTransferPipelinedReceiver.DEFAULT_QUEUE_SIZE;
+    private int partitionCount = 1;
+    private String partitionColumn;
+    private boolean partitionPreserveOrder = false;
 
     public DatabaseProducerSettings() {
     }
@@ -108,6 +115,60 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.extractType = extractType;
     }
 
+    public boolean isPipelinedTransfer() {
+        return pipelinedTransfer;
+    }
+
+    public void setPipelinedTransfer(boolean pipelinedTransfer) {
+        this.pipelinedTransfer = pipelinedTransfer;
+    }
+
+    public int getPipelineBatchSize() {
+        return pipelineBatchSize;
+    }
+
+    public void setPipelineBatchSize(int pipelineBatchSize) {
+        if (pipelineBatchSize > 0) {
+            this.pipelineBatchSize = pipelineBatchSize;
+        }
+    }
+
+    public int getPipelineQueueSize() {
+        return pipelineQueueSize;
+    }
+
+    public void setPipelineQueueSize(int pipelineQueueSize) {
+        if (pipelineQueueSize > 0) {
+            this.pipelineQueueSize = pipelineQueueSize;
+        }
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        if (partitionCount > 0) {
+            this.partitionCount = partitionCount;
+        }
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public void setPartitionColumn(String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+    }
+
+    public boolean isPartitionPreserveOrder() {
+        return partitionPreserveOrder;
+    }
+
+    public void setPartitionPreserveOrder(boolean partitionPreserveOrder) {
+        this.partitionPreserveOrder = partitionPreserveOrder;
+    }
+
     @Override
     public void loadSettings(DBRRunnableContext runnableContext, DataTransferSettings dataTransferSettings, Map<String, Object> settings) {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
@@ -117,6 +178,12 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
         selectedRowsOnly = CommonUtils.toBoolean(settings.get("selectedRowsOnly"));
+        pipelinedTransfer = CommonUtils.toBoolean(settings.get("pipelinedTransfer"));
+        setPipelineBatchSize(CommonUtils.toInt(settings.get("pipelineBatchSize"), pipelineBatchSize));
+        setPipelineQueueSize(CommonUtils.toInt(settings.get("pipelineQueueSize"), pipelineQueueSize));
+        setPartitionCount(CommonUtils.toInt(settings.get("partitionCount"), partitionCount));
+        partitionColumn = CommonUtils.nullIfEmpty(CommonUtils.toString(settings.get("partitionColumn")));
+        partitionPreserveOrder = CommonUtils.toBoolean(settings.get("partitionPreserveOrder"));
     }
 
     @Override
@@ -128,6 +195,14 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
         settings.put("selectedRowsOnly", selectedRowsOnly);
+        settings.put("pipelinedTransfer", pipelinedTransfer);
+        settings.put("pipelineBatchSize", pipelineBatchSize);
+        settings.put("pipelineQueueSize", pipelineQueueSize);
+        settings.put("partitionCount", partitionCount);
+        if (partitionColumn != null) {
+            settings.put("partitionColumn", partitionColumn);
+        }
+        settings.put("partitionPreserveOrder", partitionPreserveOrder);
     }
 
     @Override
@@ -139,6 +214,11 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, pipelinedTransfer);
+        if (partitionCount > 1) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_partition_count, partitionCount);
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_partition_preserve_order, partitionPreserveOrder);
+        }
 
         return summary.toString();
     }
@@ -95,6 +95,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private List<Object[]> previewRows;
     private DBDAttributeBinding[] rsAttributes;
     private DBSObjectContainer container;
+    // Consumer which created this one for a parallel load of a data chunk
+    private DatabaseTransferConsumer parentConsumer;
 
     public void setContainer(DBSObjectContainer container) {
         this.container = container;
@@ -186,7 +188,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         AbstractExecutionSource executionSource = new AbstractExecutionSource(containerMapping.getSource(), targetContext, this);
 
         DBSDataManipulator targetObject = getTargetObject();
-        if (targetObject != null && !isPreview && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
+        if (targetObject != null && !isPreview && parentConsumer == null && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
             // Truncate target tables
             if (targetObject.isFeatureSupported(DBSDataManipulator.FEATURE_DATA_TRUNCATE)) {
                 targetObject.truncateData(
@@ -530,6 +532,72 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     @Override
     public void close() {
         closeExporter();
+        if (parentConsumer != null) {
+            // Chunk statistics are reported by the parent consumer
+            synchronized (parentConsumer.statistics) {
+                parentConsumer.statistics.accumulate(statistics);
+            }
+            statistics.reset();
+        }
+    }
+
+    /**
+     * Checks whether data can be loaded in parallel by several chunk consumers.
+     * Chunks are loaded in separate connections and transactions, so rows order is not preserved.
+     * Transactions which commit every N rows of the source can't be reproduced by chunks,
+     * so parallel load is possible only when each row is committed separately.
+     */
+    public boolean isChunkedLoadSupported() {
+        DBSDataManipulator targetObject = getTargetObject();
+        if (isPreview || containerMapping == null || targetObject == null) {
+            return false;
+        }
+        return settings.isOpenNewConnections() &&
+            !targetObject.getDataSource().getContainer().getDriver().isEmbedded() &&
+            !settings.isDisableReferentialIntegrity() &&
+            (!settings.isUseTransactions() || settings.getCommitAfterRows() == 1) &&
+            // Auto-generated values would be assigned in the load order
+            settings.isTransferAutoGeneratedColumns();
+    }
+
+    /**
+     * Prepares target for the load by chunk consumers.
+     * Target table is truncated here once (if needed), chunk consumers never truncate it.
+     */
+    public void prepareChunkedLoad(@NotNull DBRProgressMonitor monitor) throws DBException {
+        DBSDataManipulator targetObject = getTargetObject();
+        if (targetObject == null || !settings.isTruncateBeforeLoad() || containerMapping.getMappingType() != DatabaseMappingType.existing) {
+            return;
+        }
+        if (!targetObject.isFeatureSupported(DBSDataManipulator.FEATURE_DATA_TRUNCATE)) {
+            log.error("Table '" + targetObject.getName() + "' doesn't support truncate operation");
+            return;
+        }
+        try (DBCSession session = DBUtils.openUtilSession(monitor, targetObject, "Truncate target table")) {
+            targetObject.truncateData(
+                session,
+                new AbstractExecutionSource(containerMapping.getSource(), session.getExecutionContext(), this));
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+            if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                txnManager.commit(session);
+            }
+        }
+    }
+
+    /**
+     * Creates consumer which loads a chunk of the source data in its own connection.
+     * Statistics of the chunk consumer are added to this consumer statistics when chunk consumer is closed.
+     */
+    @NotNull
+    public DatabaseTransferConsumer createChunkConsumer() {
+        DatabaseTransferConsumer chunkConsumer = new DatabaseTransferConsumer();
+        chunkConsumer.localTargetObject = localTargetObject;
+        chunkConsumer.targetObjectContainer = targetObjectContainer;
+        chunkConsumer.container = container;
+        chunkConsumer.settings = settings;
+        chunkConsumer.containerMapping = containerMapping;
+        chunkConsumer.parentConsumer = this;
+        return chunkConsumer;
     }
 
     private void initExporter(DBRProgressMonitor monitor) throws DBException {
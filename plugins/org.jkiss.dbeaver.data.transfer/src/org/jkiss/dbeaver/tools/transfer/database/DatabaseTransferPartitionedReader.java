@@ -0,0 +1,503 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.tools.transfer.DataTransferBufferedResultSet;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads a single table in several partitions split by ranges of a numeric key column.
+ * <p>
+ * Each partition is read in its own isolated execution context and thread.
+ * Rows of all partitions are passed to a single data receiver in the caller thread.
+ * If row order must be preserved then partitions are ordered by key and passed one by one in key order,
+ * otherwise rows are passed as soon as they are read.
+ */
+public class DatabaseTransferPartitionedReader {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitionedReader.class);
+
+    private static final long QUEUE_POLL_TIMEOUT = 100;
+    private static final int PARTITION_BATCH_SIZE = 1000;
+    private static final int PARTITION_QUEUE_SIZE = 8;
+
+    private final DBSDataContainer dataContainer;
+    private final DBSEntityAttribute keyAttribute;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    private final DatabaseProducerSettings settings;
+    private final long readFlags;
+    @Nullable
+    private String defaultCatalog;
+    @Nullable
+    private String defaultSchema;
+
+    private final DBCStatistics statistics = new DBCStatistics();
+    private final AtomicReference<List<DBCAttributeMetaData>> firstResultAttributes = new AtomicReference<>();
+    private final AtomicReference<Throwable> readerError = new AtomicReference<>();
+    private final List<PartitionReader> readers = new ArrayList<>();
+    private BlockingQueue<Batch> sharedQueue;
+    private volatile boolean stopped;
+
+    private DatabaseTransferPartitionedReader(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull DatabaseProducerSettings settings,
+        long readFlags)
+    {
+        this.dataContainer = dataContainer;
+        this.keyAttribute = keyAttribute;
+        this.dataFilter = dataFilter;
+        this.settings = settings;
+        this.readFlags = readFlags;
+    }
+
+    /**
+     * Creates partitioned reader for the specified container.
+     * Returns null if container can't be partitioned (it is not a table, has no numeric key or has LOB columns)
+     * or if required row order can't be produced by partitions.
+     */
+    @Nullable
+    public static DatabaseTransferPartitionedReader create(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull DatabaseProducerSettings settings,
+        long readFlags) throws DBException
+    {
+        if (!(dataContainer instanceof DBSEntity entity) || settings.getPartitionCount() < 2) {
+            return null;
+        }
+        List<? extends DBSEntityAttribute> attributes = entity.getAttributes(monitor);
+        if (CommonUtils.isEmpty(attributes)) {
+            return null;
+        }
+        for (DBSEntityAttribute attr : attributes) {
+            if (attr.getDataKind() == DBPDataKind.CONTENT || attr.getDataKind().isComplex()) {
+                log.debug("Table '" + entity.getName() + "' contains LOB or complex columns and can't be read in partitions");
+                return null;
+            }
+        }
+
+        DBSEntityAttribute keyAttribute = null;
+        if (!CommonUtils.isEmpty(settings.getPartitionColumn())) {
+            keyAttribute = entity.getAttribute(monitor, settings.getPartitionColumn());
+            if (keyAttribute == null) {
+                log.warn("Partition column '" + settings.getPartitionColumn() + "' not found in table '" + entity.getName() + "'");
+            }
+        } else {
+            List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (identifier.size() == 1) {
+                keyAttribute = identifier.get(0);
+            }
+        }
+        if (keyAttribute == null || keyAttribute.getDataKind() != DBPDataKind.NUMERIC) {
+            log.debug("No numeric partition key found in table '" + entity.getName() + "'");
+            return null;
+        }
+        if (settings.isPartitionPreserveOrder()) {
+            // Concatenated partitions are ordered only by a key without NULLs (NULLs position depends on database)
+            if (dataFilter != null && dataFilter.hasOrdering()) {
+                log.debug("Table '" + entity.getName() + "' is read with custom ordering and can't be read in partitions");
+                return null;
+            }
+            if (!keyAttribute.isRequired()) {
+                log.debug("Partition key of table '" + entity.getName() + "' is nullable and can't be used to preserve row order");
+                return null;
+            }
+        }
+        return new DatabaseTransferPartitionedReader(dataContainer, keyAttribute, dataFilter, settings, readFlags);
+    }
+
+    /**
+     * Sets default catalog and schema of partition contexts. They are applied the same way as in the producer context.
+     */
+    public void setContextDefaults(@Nullable String defaultCatalog, @Nullable String defaultSchema) {
+        this.defaultCatalog = defaultCatalog;
+        this.defaultSchema = defaultSchema;
+    }
+
+    /**
+     * Reads all partitions and passes rows to the data receiver.
+     * Returns null if key range can't be determined. In this case nothing is passed to the receiver.
+     */
+    @Nullable
+    public DBCStatistics readData(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull DBCExecutionSource source,
+        @NotNull DBDDataReceiver dataReceiver) throws DBException
+    {
+        List<String> conditions = makePartitionConditions(session);
+        if (conditions == null) {
+            return null;
+        }
+        boolean preserveOrder = settings.isPartitionPreserveOrder();
+        if (!preserveOrder) {
+            sharedQueue = new ArrayBlockingQueue<>(PARTITION_QUEUE_SIZE * conditions.size());
+        }
+
+        DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+        for (int i = 0; i < conditions.size(); i++) {
+            DBDDataFilter partitionFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            String where = partitionFilter.getWhere();
+            partitionFilter.setWhere(CommonUtils.isEmpty(where) ? conditions.get(i) : "(" + where + ") AND (" + conditions.get(i) + ")");
+            if (preserveOrder) {
+                partitionFilter.setOrder(DBUtils.getQuotedIdentifier(keyAttribute));
+            }
+            readers.add(new PartitionReader(
+                i, monitor, instance, source, partitionFilter, preserveOrder ? new ArrayBlockingQueue<>(PARTITION_QUEUE_SIZE) : sharedQueue));
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            for (PartitionReader reader : readers) {
+                reader.start();
+            }
+            List<DBCAttributeMetaData> resultAttributes = waitForResultAttributes(monitor);
+            if (resultAttributes == null) {
+                checkReaderError();
+                return statistics;
+            }
+            // Partition sessions are closed when partitions are read, so rows are served in the caller session
+            DataTransferBufferedResultSet resultSet = new DataTransferBufferedResultSet(
+                session, resultAttributes, dataContainer.getName());
+            try {
+                dataReceiver.fetchStart(session, resultSet, 0, -1);
+                if (preserveOrder) {
+                    for (PartitionReader reader : readers) {
+                        if (!transferRows(monitor, session, resultSet, dataReceiver, reader.queue, 1)) {
+                            break;
+                        }
+                    }
+                } else {
+                    transferRows(monitor, session, resultSet, dataReceiver, sharedQueue, readers.size());
+                }
+                checkReaderError();
+                dataReceiver.fetchEnd(session, resultSet);
+            } finally {
+                dataReceiver.close();
+            }
+        } finally {
+            stopped = true;
+            for (PartitionReader reader : readers) {
+                reader.monitor.cancel();
+            }
+            for (PartitionReader reader : readers) {
+                try {
+                    reader.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        checkReaderError();
+        log.debug("Table '" + dataContainer.getName() + "' read in " + readers.size() + " partitions (" +
+            statistics.getRowsFetched() + " rows in " + (System.currentTimeMillis() - startTime) + "ms)");
+        return statistics;
+    }
+
+    /**
+     * Makes key range conditions. The first and the last ranges are open to include rows
+     * which were inserted after key range was read.
+     * Key range is read with the same data filter as partitions.
+     */
+    @Nullable
+    private List<String> makePartitionConditions(@NotNull DBCSession session) throws DBCException {
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT MIN(").append(keyName).append("), MAX(").append(keyName).append(") FROM ")
+            .append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML));
+        if (dataFilter != null && dataFilter.hasConditions()) {
+            SQLUtils.appendQueryConditions(session.getDataSource(), query, null, dataFilter);
+        }
+        BigInteger minValue, maxValue;
+        try (DBCStatement dbStat = DBUtils.makeStatement(session, query.toString(), false)) {
+            dbStat.executeStatement();
+            try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                if (dbResult == null || !dbResult.nextRow()) {
+                    return null;
+                }
+                minValue = toBigInteger(dbResult.getAttributeValue(0));
+                maxValue = toBigInteger(dbResult.getAttributeValue(1));
+            }
+        }
+        if (minValue == null || maxValue == null) {
+            return null;
+        }
+        int partitionCount = settings.getPartitionCount();
+        BigInteger span = maxValue.subtract(minValue).add(BigInteger.ONE);
+        if (span.compareTo(BigInteger.valueOf(partitionCount)) < 0) {
+            return null;
+        }
+
+        List<String> conditions = new ArrayList<>(partitionCount);
+        BigInteger prevBound = null;
+        for (int i = 1; i <= partitionCount; i++) {
+            BigInteger bound = i == partitionCount ? null :
+                minValue.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitionCount)));
+            StringBuilder condition = new StringBuilder();
+            if (prevBound != null) {
+                condition.append(keyName).append(">=").append(prevBound);
+            }
+            if (bound != null) {
+                if (prevBound != null) {
+                    condition.append(" AND ");
+                }
+                condition.append(keyName).append("<").append(bound);
+            }
+            if (prevBound == null && !keyAttribute.isRequired()) {
+                condition.insert(0, "(").append(" OR ").append(keyName).append(" IS NULL)");
+            }
+            conditions.add(condition.toString());
+            prevBound = bound;
+        }
+        return conditions;
+    }
+
+    @Nullable
+    private static BigInteger toBigInteger(@Nullable Object value) {
+        if (value instanceof BigInteger bigInteger) {
+            return bigInteger;
+        } else if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal.setScale(0, RoundingMode.FLOOR).toBigInteger();
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue()).setScale(0, RoundingMode.FLOOR).toBigInteger();
+        } else if (value instanceof Number number) {
+            return BigInteger.valueOf(number.longValue());
+        }
+        return null;
+    }
+
+    @Nullable
+    private List<DBCAttributeMetaData> waitForResultAttributes(@NotNull DBRProgressMonitor monitor) {
+        for (;;) {
+            List<DBCAttributeMetaData> resultAttributes = firstResultAttributes.get();
+            if (resultAttributes != null || readerError.get() != null || monitor.isCanceled()) {
+                return resultAttributes;
+            }
+            boolean anyAlive = false;
+            for (PartitionReader reader : readers) {
+                anyAlive |= reader.isAlive();
+            }
+            if (!anyAlive) {
+                return firstResultAttributes.get();
+            }
+            try {
+                Thread.sleep(QUEUE_POLL_TIMEOUT / 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    private boolean transferRows(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull DataTransferBufferedResultSet resultSet,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull BlockingQueue<Batch> queue,
+        int partitionCount) throws DBException
+    {
+        int finished = 0;
+        try {
+            while (finished < partitionCount) {
+                checkReaderError();
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                Batch batch = queue.poll(QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+                for (Object[] row : batch.rows) {
+                    resultSet.setCurrentRow(row);
+                    dataReceiver.fetchRow(session, resultSet);
+                }
+                if (batch.last) {
+                    finished++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            resultSet.setCurrentRow(null);
+        }
+        return true;
+    }
+
+    private void checkReaderError() throws DBException {
+        Throwable error = readerError.get();
+        if (error instanceof DBException dbException) {
+            throw dbException;
+        } else if (error != null) {
+            throw new DBException("Error reading table partition", error);
+        }
+    }
+
+    private static class Batch {
+        final List<Object[]> rows;
+        final boolean last;
+
+        Batch(@NotNull List<Object[]> rows, boolean last) {
+            this.rows = rows;
+            this.last = last;
+        }
+    }
+
+    private class PartitionReader extends Thread implements DBDDataReceiver {
+        private final int partitionNumber;
+        // Each partition thread has its own monitor. Job monitor is not thread-safe.
+        private final WorkerProgressMonitor monitor;
+        private final DBSInstance instance;
+        private final DBCExecutionSource source;
+        private final DBDDataFilter partitionFilter;
+        private final BlockingQueue<Batch> queue;
+
+        private DBCAttributeMetaData[] attributes;
+        private DBDValueHandler[] valueHandlers;
+        private List<Object[]> currentBatch = new ArrayList<>(PARTITION_BATCH_SIZE);
+
+        PartitionReader(
+            int partitionNumber,
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBSInstance instance,
+            @NotNull DBCExecutionSource source,
+            @NotNull DBDDataFilter partitionFilter,
+            @NotNull BlockingQueue<Batch> queue)
+        {
+            super("Data transfer partition " + (partitionNumber + 1) + " of " + dataContainer.getName());
+            setDaemon(true);
+            this.partitionNumber = partitionNumber;
+            this.monitor = new WorkerProgressMonitor(monitor);
+            this.instance = instance;
+            this.source = source;
+            this.partitionFilter = partitionFilter;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                DBCExecutionContext context = instance.openIsolatedContext(
+                    monitor, "Data transfer partition " + (partitionNumber + 1), source.getExecutionContext());
+                try {
+                    if (defaultCatalog != null || defaultSchema != null) {
+                        DBExecUtils.setExecutionContextDefaults(
+                            monitor, context.getDataSource(), context, defaultCatalog, null, defaultSchema);
+                    }
+                    try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, getName())) {
+                        session.enableLogging(false);
+                        AbstractExecutionSource partitionSource = new AbstractExecutionSource(
+                            dataContainer, context, source.getExecutionController());
+                        DBCStatistics partitionStatistics = dataContainer.readData(
+                            partitionSource, session, this, partitionFilter, -1, -1, readFlags, settings.getFetchSize());
+                        synchronized (statistics) {
+                            statistics.accumulate(partitionStatistics);
+                        }
+                    }
+                } finally {
+                    context.close();
+                }
+            } catch (Throwable e) {
+                if (!stopped) {
+                    readerError.compareAndSet(null, e);
+                }
+            } finally {
+                putBatch(new Batch(currentBatch, true));
+            }
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            List<DBCAttributeMetaData> metaAttributes = resultSet.getMeta().getAttributes();
+            if (!DataTransferBufferedResultSet.isBufferable(session, metaAttributes)) {
+                throw new DBCException("Result set contains LOB or complex attributes and can't be read in partitions");
+            }
+            attributes = metaAttributes.toArray(new DBCAttributeMetaData[0]);
+            valueHandlers = DataTransferBufferedResultSet.getValueHandlers(session, attributes);
+            if (partitionNumber == 0 || !settings.isPartitionPreserveOrder()) {
+                firstResultAttributes.compareAndSet(null, List.copyOf(metaAttributes));
+            }
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            if (stopped) {
+                throw new DBCException("Partition read stopped");
+            }
+            currentBatch.add(DataTransferBufferedResultSet.readRow(session, resultSet, attributes, valueHandlers));
+            if (currentBatch.size() >= PARTITION_BATCH_SIZE) {
+                putBatch(new Batch(currentBatch, false));
+                currentBatch = new ArrayList<>(PARTITION_BATCH_SIZE);
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void putBatch(@NotNull Batch batch) {
+            try {
+                while (!queue.offer(batch, QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    if (stopped || monitor.isCanceled()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
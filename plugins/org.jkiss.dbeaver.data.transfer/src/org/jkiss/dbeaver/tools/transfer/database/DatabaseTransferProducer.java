@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -41,6 +42,7 @@ import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipelinedReceiver;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
@@ -220,6 +222,13 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     DBCSavepoint savepoint = null;
                     try {
                         AbstractExecutionSource transferSource = new AbstractExecutionSource(dataContainer, context, consumer);
+                        DBDDataReceiver dataReceiver = consumer;
+                        DataTransferPipelinedReceiver pipelinedReceiver = null;
+                        if (settings.isPipelinedTransfer()) {
+                            pipelinedReceiver = new DataTransferPipelinedReceiver(
+                                consumer, settings.getPipelineBatchSize(), settings.getPipelineQueueSize());
+                            dataReceiver = pipelinedReceiver;
+                        }
                         session.enableLogging(false);
                         if (!selectiveExportFromUI && (newConnection || forceDataReadTransactions)) {
                             // Turn off auto-commit in source DB
@@ -264,17 +273,36 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                         try {
                             monitor.subTask("Read data");
 
+                            DatabaseTransferPartitionedReader partitionedReader = null;
+                            if (!selectiveExportFromUI && settings.getPartitionCount() > 1) {
+                                partitionedReader = DatabaseTransferPartitionedReader.create(monitor, dataContainer, dataFilter, settings, readFlags);
+                                if (partitionedReader != null) {
+                                    partitionedReader.setContextDefaults(defaultCatalog, defaultSchema);
+                                }
+                            }
+                            DBCStatistics partitionedStatistics = partitionedReader == null ? null :
+                                partitionedReader.readData(monitor, session, transferSource, consumer);
+
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            if (partitionedStatistics != null) {
+                                // Table was read in parallel partitions
+                                producerStatistics.accumulate(partitionedStatistics);
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
-                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, dataReceiver, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                if (pipelinedReceiver != null) {
+                                    pipelinedReceiver.checkTransferError();
+                                }
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
                                 int segmentSize = settings.getSegmentSize();
                                 for (; ; ) {
                                     DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        transferSource, session, dataReceiver, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    if (pipelinedReceiver != null) {
+                                        pipelinedReceiver.checkTransferError();
+                                    }
                                     if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                         // Done
                                         break;
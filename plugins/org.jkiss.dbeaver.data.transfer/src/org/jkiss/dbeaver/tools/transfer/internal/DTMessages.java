@@ -32,11 +32,16 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_job_task_export_table_data;
     public static String data_transfer_wizard_job_task_retrieve;
     public static String data_transfer_wizard_output_checkbox_compress;
+    public static String data_transfer_wizard_output_checkbox_async_write;
+    public static String data_transfer_wizard_output_checkbox_async_write_tip;
     public static String data_transfer_wizard_output_checkbox_split_files;
     public static String data_transfer_wizard_output_checkbox_split_files_tip;
     public static String data_transfer_wizard_output_checkbox_new_connection;
     public static String data_transfer_wizard_output_checkbox_select_row_count;
     public static String data_transfer_wizard_output_checkbox_selected_columns_only;
+    public static String data_transfer_wizard_output_checkbox_pipelined_transfer;
+    public static String data_transfer_wizard_output_label_partition_count;
+    public static String data_transfer_wizard_output_checkbox_partition_preserve_order;
     public static String data_transfer_wizard_output_checkbox_selected_rows_only;
     public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
     public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
@@ -0,0 +1,296 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writer which moves encoding, compression and file output to a dedicated thread.
+ * <p>
+ * Exporter writes characters into reusable char buffers on the fetching thread.
+ * Full buffers are passed to the writer thread through a bounded queue, so the fetching thread
+ * blocks only if the output can't keep up. The writer thread encodes characters and writes them to the
+ * target stream (which may compress data). Buffers are returned to the pool after they are written.
+ * <p>
+ * {@link #flush()} does not wait for the writer thread. Use {@link #drain()} to make sure all
+ * data was written to the target stream. Use {@link #abort()} to stop the writer thread if export failed.
+ */
+public class StreamAsyncWriter extends Writer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUE_SIZE = 16;
+    private static final long QUEUE_POLL_TIMEOUT = 100;
+
+    private static final char[] END_OF_DATA = new char[0];
+
+    private final BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final ConcurrentLinkedQueue<char[]> bufferPool = new ConcurrentLinkedQueue<>();
+    private final StatOutputStream targetStream;
+    private final Writer targetWriter;
+    private final float averageBytesPerChar;
+    private final WriterThread writerThread;
+
+    private char[] buffer;
+    private int bufferLength;
+    private long charsWritten;
+    private volatile long charsEncoded;
+    private volatile long bytesEncoded;
+    private volatile Throwable writeError;
+    private boolean closed;
+
+    public StreamAsyncWriter(@NotNull OutputStream stream, @NotNull Charset charset, @NotNull String name) {
+        this.targetStream = new StatOutputStream(stream);
+        this.targetWriter = new OutputStreamWriter(targetStream, charset);
+        this.averageBytesPerChar = charset.canEncode() ? charset.newEncoder().averageBytesPerChar() : 1;
+        this.buffer = new char[BUFFER_SIZE];
+        this.writerThread = new WriterThread(name);
+        this.writerThread.start();
+    }
+
+    /**
+     * Estimated number of bytes written to the target stream including data which is still queued.
+     * Queued characters are converted to bytes using the encoding ratio observed so far.
+     */
+    public long getEstimatedBytesWritten() {
+        long encodedChars = charsEncoded;
+        long encodedBytes = bytesEncoded;
+        double bytesPerChar = encodedChars > 0 ? (double) encodedBytes / encodedChars : averageBytesPerChar;
+        return encodedBytes + (long) ((charsWritten - encodedChars) * bytesPerChar);
+    }
+
+    /**
+     * Throws error which happened in the writer thread
+     */
+    public void checkError() throws IOException {
+        Throwable error = writeError;
+        if (error instanceof IOException ioe) {
+            throw ioe;
+        } else if (error != null) {
+            throw new IOException("Error writing output", error);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (bufferLength == buffer.length) {
+            submitBuffer();
+        }
+        buffer[bufferLength++] = (char) c;
+        charsWritten++;
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+        while (len > 0) {
+            if (bufferLength == buffer.length) {
+                submitBuffer();
+            }
+            int count = Math.min(len, buffer.length - bufferLength);
+            System.arraycopy(cbuf, off, buffer, bufferLength, count);
+            bufferLength += count;
+            charsWritten += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        while (len > 0) {
+            if (bufferLength == buffer.length) {
+                submitBuffer();
+            }
+            int count = Math.min(len, buffer.length - bufferLength);
+            str.getChars(off, off + count, buffer, bufferLength);
+            bufferLength += count;
+            charsWritten += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Does nothing. Data is written by the writer thread when buffer is full or on {@link #drain()}.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkError();
+    }
+
+    /**
+     * Passes all buffered data to the writer thread and waits until it is written and flushed to the target stream.
+     */
+    public void drain() throws IOException {
+        if (bufferLength > 0) {
+            submitBuffer();
+        }
+        Chunk flushChunk = new Chunk(null, 0);
+        putChunk(flushChunk);
+        try {
+            while (!flushChunk.await(QUEUE_POLL_TIMEOUT)) {
+                checkError();
+                if (!writerThread.isAlive()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Output drain interrupted", e);
+        }
+        checkError();
+    }
+
+    /**
+     * Writes all pending data and stops the writer thread. Target stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            closed = true;
+            try {
+                putChunk(new Chunk(END_OF_DATA, 0));
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // Writer thread has already failed
+                writerThread.interrupt();
+            }
+            bufferPool.clear();
+        }
+    }
+
+    /**
+     * Stops the writer thread. Pending data is discarded. Target stream is not closed.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        bufferPool.clear();
+    }
+
+    private void submitBuffer() throws IOException {
+        if (closed) {
+            throw new IOException("Output writer is closed");
+        }
+        putChunk(new Chunk(buffer, bufferLength));
+        buffer = bufferPool.poll();
+        if (buffer == null) {
+            buffer = new char[BUFFER_SIZE];
+        }
+        bufferLength = 0;
+    }
+
+    private void putChunk(@NotNull Chunk chunk) throws IOException {
+        checkError();
+        try {
+            while (!queue.offer(chunk, QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkError();
+                if (!writerThread.isAlive()) {
+                    throw new IOException("Output writer thread is terminated");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Output write interrupted", e);
+        }
+    }
+
+    private static class Chunk {
+        private final char[] chars;
+        private final int length;
+        private volatile boolean processed;
+
+        Chunk(char[] chars, int length) {
+            this.chars = chars;
+            this.length = length;
+        }
+
+        synchronized void markProcessed() {
+            processed = true;
+            notifyAll();
+        }
+
+        synchronized boolean await(long timeout) throws InterruptedException {
+            if (!processed) {
+                wait(timeout);
+            }
+            return processed;
+        }
+    }
+
+    private class WriterThread extends Thread {
+        WriterThread(@NotNull String name) {
+            super("Export writer: " + name);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (;;) {
+                    Chunk chunk = queue.take();
+                    if (chunk.chars == END_OF_DATA) {
+                        break;
+                    }
+                    if (chunk.chars == null) {
+                        // Drain request
+                        targetWriter.flush();
+                        chunk.markProcessed();
+                        continue;
+                    }
+                    targetWriter.write(chunk.chars, 0, chunk.length);
+                    // Flush encoder once per chunk, so encoded byte count matches encoded chars
+                    targetWriter.flush();
+                    bytesEncoded = targetStream.getBytesWritten();
+                    charsEncoded += chunk.length;
+                    if (chunk.chars.length == BUFFER_SIZE && bufferPool.size() < QUEUE_SIZE) {
+                        bufferPool.offer(chunk.chars);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Writer was closed
+            } catch (Throwable e) {
+                writeError = e;
+            }
+        }
+    }
+}
@@ -135,6 +135,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
     private boolean outputClipboard = false;
     private boolean useSingleFile = false;
     private boolean compressResults = false;
+    private boolean asyncWrite = false;
     private boolean splitOutFiles = false;
     private long maxOutFileSize = 10 * 1000 * 1000;
     private final Map<DBSDataContainer, StreamMappingContainer> dataMappings = new LinkedHashMap<>();
@@ -244,6 +245,17 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         this.compressResults = compressResults;
     }
 
+    /**
+     * Text output is encoded, compressed and written in a separate thread
+     */
+    public boolean isAsyncWrite() {
+        return asyncWrite;
+    }
+
+    public void setAsyncWrite(boolean asyncWrite) {
+        this.asyncWrite = asyncWrite;
+    }
+
     public boolean isSplitOutFiles() {
         return splitOutFiles;
     }
@@ -329,6 +341,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         );
 
         compressResults = CommonUtils.getBoolean(settings.get("compressResults"), compressResults);
+        asyncWrite = CommonUtils.getBoolean(settings.get("asyncWrite"), asyncWrite);
         splitOutFiles = CommonUtils.getBoolean(settings.get("splitOutFiles"), splitOutFiles);
         maxOutFileSize = CommonUtils.toLong(settings.get("maxOutFileSize"), maxOutFileSize);
 
@@ -411,6 +424,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("useSingleFile", useSingleFile);
 
         settings.put("compressResults", compressResults);
+        settings.put("asyncWrite", asyncWrite);
         settings.put("splitOutFiles", splitOutFiles);
         settings.put("maxOutFileSize", maxOutFileSize);
 
@@ -454,6 +468,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_compress, compressResults);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_async_write, asyncWrite);
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_settings_label_binaries, lobExtractType);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_settings_label_encoding, lobEncoding);
@@ -63,6 +63,7 @@ import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.io.ByteOrderMark;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -132,6 +133,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
     private PrintWriter writer;
+    private StreamAsyncWriter asyncWriter;
     private int multiFileNumber;
     private long bytesWritten = 0;
 
@@ -196,10 +198,19 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     @Override
     public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
         try {
+            if (asyncWriter != null) {
+                asyncWriter.checkError();
+            }
             // Check for file split
             if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
-                writer.flush();
-                if (bytesWritten >= settings.getMaxOutFileSize()) {
+                long fileBytesWritten;
+                if (asyncWriter != null) {
+                    fileBytesWritten = asyncWriter.getEstimatedBytesWritten();
+                } else {
+                    writer.flush();
+                    fileBytesWritten = bytesWritten;
+                }
+                if (fileBytesWritten >= settings.getMaxOutFileSize()) {
                     // First add footer for the previous file
                     exportFooterInFile(session.getProgressMonitor());
                     // Make new file with the header
@@ -377,7 +388,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         try {
             if (outputClipboard) {
                 this.outputBuffer = new StringWriter(2048);
-                this.writer = new PrintWriter(this.outputBuffer, true);
+                this.writer = new PrintWriter(this.outputBuffer);
             } else {
                 openOutputStreams(session.getProgressMonitor());
             }
@@ -513,8 +524,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             this.outputStream = zipStream;
         }
 
+        // Text is written by a separate thread which also counts written bytes
+        boolean asyncWrite = !parameters.isBinary && settings.isAsyncWrite();
+
         // If we need to split files - use stream wrapper to calculate file size
-        if (settings.isSplitOutFiles()) {
+        if (settings.isSplitOutFiles() && !asyncWrite) {
             this.outputStream = new OutputStreamStatProxy(this.outputStream);
         }
 
@@ -529,8 +543,14 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
         }
 
-        if (!parameters.isBinary) {
-            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
+        if (asyncWrite) {
+            this.asyncWriter = new StreamAsyncWriter(
+                this.outputStream,
+                Charset.forName(settings.getOutputEncoding()),
+                outputFile.getFileName().toString());
+            this.writer = new PrintWriter(this.asyncWriter);
+        } else if (!parameters.isBinary) {
+            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()));
         }
     }
 
@@ -538,6 +558,15 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         if (this.writer != null) {
             this.writer.flush();
         }
+        if (asyncWriter != null) {
+            try {
+                // Wait for all pending data
+                asyncWriter.close();
+            } catch (IOException e) {
+                log.error("Error writing output file " + outputFile, e);
+            }
+            asyncWriter = null;
+        }
 
         // Finish zip stream
         if (zipStream != null) {
@@ -626,6 +655,13 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             closeExporter();
             return;
         }
+        if (exception != null) {
+            // Export failed: stop the writer thread and close output file
+            if (asyncWriter != null) {
+                asyncWriter.abort();
+            }
+            closeExporter();
+        }
 
         if (!parameters.isBinary && settings.isOutputClipboard() && exception == null) {
             if (outputBuffer != null) {
@@ -1004,6 +1040,14 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
         @Override
         public OutputStream getOutputStream() {
+            if (asyncWriter != null) {
+                // Raw output must go after all text written so far
+                try {
+                    asyncWriter.drain();
+                } catch (IOException e) {
+                    log.error("Error writing output file " + outputFile, e);
+                }
+            }
             return outputStream;
         }
 
@@ -1023,7 +1067,8 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             if (writer != null) {
                 writer.flush();
             }
-            if (outputStream != null) {
+            if (outputStream != null && asyncWriter == null) {
+                // Async writer flushes output stream by itself
                 outputStream.flush();
             }
         }
@@ -51,6 +51,7 @@ public class StreamTransferResultSet implements DBCResultSet {
     private final List<DBCAttributeMetaData> metaAttrs;
     // Stream row: values in source attributes order
     private Object[] streamRow;
+    private StreamRowValues streamRowValues;
     private final List<StreamDataImporterColumnInfo> attributeMappings;
     private DateTimeFormatter dateTimeFormat;
     private ZoneId dateTimeZoneId;
@@ -71,6 +72,16 @@ public class StreamTransferResultSet implements DBCResultSet {
 
     public void setStreamRow(Object[] streamRow) {
         this.streamRow = streamRow;
+        this.streamRowValues = null;
+    }
+
+    /**
+     * Sets current row which values are read from the source on demand.
+     * Allows importers to skip conversion of the columns which are not consumed.
+     */
+    public void setStreamRow(StreamRowValues streamRowValues) {
+        this.streamRow = null;
+        this.streamRowValues = streamRowValues;
     }
 
     @Override
@@ -87,7 +98,7 @@ public class StreamTransferResultSet implements DBCResultSet {
     public Object getAttributeValue(int index) throws DBCException {
         StreamDataImporterColumnInfo attr = this.attributeMappings.get(index);
 
-        Object value = streamRow[index];
+        Object value = streamRowValues != null ? streamRowValues.getValue(index) : streamRow[index];
         if (value != null && dateTimeFormat != null && attr.getDataKind() == DBPDataKind.DATETIME && !(value instanceof Date)) {
             // Convert string to timestamp
             try {
@@ -190,4 +201,14 @@ public class StreamTransferResultSet implements DBCResultSet {
             //this.dateTimeFormat = this.dateTimeFormat.withZone(dateTimeZoneId);
         }
     }
+
+    /**
+     * Values of the current stream row
+     */
+    public interface StreamRowValues {
+        /**
+         * Returns value of the source attribute with the specified index
+         */
+        Object getValue(int index) throws DBCException;
+    }
 }
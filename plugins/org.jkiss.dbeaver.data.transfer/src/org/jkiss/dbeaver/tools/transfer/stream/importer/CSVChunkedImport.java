@@ -0,0 +1,396 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.utils.csv.CSVChunkSplitter;
+import org.jkiss.utils.csv.CSVTokenizer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports a single CSV file in several threads.
+ * <p>
+ * File is split into chunks at record boundaries. Chunks are parsed by worker threads,
+ * each worker loads rows through its own chunk consumer (and thus its own target connection and transaction).
+ * Rows order is not preserved. Used only if target commits each row separately.
+ */
+class CSVChunkedImport {
+
+    private static final Log log = Log.getLog(CSVChunkedImport.class);
+
+    // Files smaller than two chunks are imported sequentially
+    private static final long MIN_CHUNK_SIZE = 16 * 1024 * 1024;
+    // More chunks than threads for better load balance
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long WORKER_JOIN_TIMEOUT = 100;
+
+    private final DataImporterCSV importer;
+    private final DatabaseTransferConsumer consumer;
+    private final StreamEntityMapping entityMapping;
+    private final Map<String, Object> properties;
+    private final Path inputFile;
+    private final long fileSize;
+    private final int threadCount;
+    private final int chunkCount;
+
+    private final Queue<Chunk> pendingChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong totalRows = new AtomicLong();
+    private final AtomicReference<Throwable> workerError = new AtomicReference<>();
+    private volatile boolean stopped;
+
+    private CSVChunkedImport(
+        @NotNull DataImporterCSV importer,
+        @NotNull DatabaseTransferConsumer consumer,
+        @NotNull Path inputFile,
+        long fileSize,
+        int threadCount,
+        int chunkCount)
+    {
+        this.importer = importer;
+        this.consumer = consumer;
+        this.entityMapping = importer.getSite().getSourceObject();
+        this.properties = importer.getSite().getProcessorProperties();
+        this.inputFile = inputFile;
+        this.fileSize = fileSize;
+        this.threadCount = threadCount;
+        this.chunkCount = chunkCount;
+    }
+
+    /**
+     * Creates chunked import.
+     * Returns null if the file must be imported sequentially (rows order is required, target doesn't support
+     * parallel load in separate transactions, load commits several rows at once, encoding doesn't allow splitting
+     * or file is too small).
+     */
+    @Nullable
+    static CSVChunkedImport create(@NotNull DataImporterCSV importer, @NotNull IDataTransferConsumer consumer, int threadCount) {
+        if (!(consumer instanceof DatabaseTransferConsumer databaseConsumer) || !databaseConsumer.isChunkedLoadSupported()) {
+            log.debug("Target doesn't support parallel load. Sequential CSV import is used.");
+            return null;
+        }
+        if (importer.getSite().getSettings().getMaxRows() > 0) {
+            // First rows of the file must be imported
+            log.debug("Rows limit is set. Sequential CSV import is used.");
+            return null;
+        }
+        Map<String, Object> properties = importer.getSite().getProcessorProperties();
+        char[] specialChars = importer.getSpecialChars(properties);
+        Charset charset = importer.getCharset(properties);
+        if (!new CSVChunkSplitter(specialChars[0], specialChars[1], specialChars[2]).isCharsetSupported(charset)) {
+            log.debug("CSV file in encoding " + charset.name() + " can't be split. Sequential CSV import is used.");
+            return null;
+        }
+        Path inputFile = importer.getSite().getSourceObject().getInputFile();
+        long fileSize;
+        try {
+            fileSize = Files.size(inputFile);
+        } catch (IOException e) {
+            log.debug("Can't get CSV file size. Sequential CSV import is used.", e);
+            return null;
+        }
+        int chunkCount = (int) Math.min((long) threadCount * CHUNKS_PER_THREAD, fileSize / MIN_CHUNK_SIZE);
+        if (chunkCount < 2) {
+            return null;
+        }
+        return new CSVChunkedImport(importer, databaseConsumer, inputFile, fileSize, threadCount, chunkCount);
+    }
+
+    void runImport(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPDataSource streamDataSource,
+        boolean trimWhitespaces,
+        boolean emptyStringNull,
+        @Nullable String nullValueMark) throws DBException
+    {
+        long startTime = System.currentTimeMillis();
+        List<Chunk> chunks = new ArrayList<>();
+        List<ChunkWorker> workers = new ArrayList<>();
+        try {
+            monitor.subTask("Split CSV file into chunks");
+            long[] boundaries = splitFile();
+            for (int i = 0; i < boundaries.length - 1; i++) {
+                chunks.add(new Chunk(i, boundaries[i], boundaries[i + 1]));
+            }
+            pendingChunks.addAll(chunks);
+
+            consumer.prepareChunkedLoad(monitor);
+
+            DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+            for (int i = 0; i < Math.min(threadCount, chunks.size()); i++) {
+                ChunkWorker worker = new ChunkWorker(i, monitor, context, trimWhitespaces, emptyStringNull, nullValueMark);
+                workers.add(worker);
+                worker.start();
+            }
+            waitForWorkers(monitor, workers);
+        } catch (IOException e) {
+            throw new DBException("IO error reading CSV", e);
+        } finally {
+            stopped = true;
+            for (ChunkWorker worker : workers) {
+                worker.monitor.cancel();
+            }
+            for (ChunkWorker worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            consumer.close();
+        }
+
+        Throwable error = workerError.get();
+        if (error instanceof DBException dbException) {
+            throw dbException;
+        } else if (error instanceof IOException) {
+            throw new DBException("IO error reading CSV", error);
+        } else if (error != null) {
+            throw new DBException("Error importing CSV file chunk", error);
+        }
+
+        for (Chunk chunk : chunks) {
+            String chunkInfo = "Chunk " + (chunk.index + 1) + " of " + chunks.size() +
+                " [" + chunk.start + "-" + chunk.end + "]: " + chunk.rows + " rows in " + chunk.loadTime + "ms";
+            log.debug(chunkInfo);
+            consumer.getStatistics().addMessage(chunkInfo);
+        }
+        log.debug("CSV file '" + inputFile.getFileName() + "' imported in " + chunks.size() + " chunks by " + workers.size() +
+            " threads (" + totalRows.get() + " rows in " + (System.currentTimeMillis() - startTime) + "ms)");
+    }
+
+    @NotNull
+    private long[] splitFile() throws IOException {
+        char[] specialChars = importer.getSpecialChars(properties);
+        CSVChunkSplitter splitter = new CSVChunkSplitter(specialChars[0], specialChars[1], specialChars[2]);
+        try (InputStream inputStream = Files.newInputStream(inputFile)) {
+            return splitter.split(
+                inputStream, fileSize, chunkCount, importer.getHeaderPosition(properties) != DataImporterCSV.HeaderPosition.none);
+        }
+    }
+
+    private void waitForWorkers(@NotNull DBRProgressMonitor monitor, @NotNull List<ChunkWorker> workers) {
+        long reportedRows = 0;
+        for (ChunkWorker worker : workers) {
+            try {
+                while (worker.isAlive()) {
+                    if (monitor.isCanceled() || workerError.get() != null) {
+                        return;
+                    }
+                    worker.join(WORKER_JOIN_TIMEOUT);
+                    // Workers don't report progress, their monitors are not shown
+                    long rowCount = totalRows.get();
+                    if (rowCount != reportedRows) {
+                        reportedRows = rowCount;
+                        monitor.subTask(Long.toUnsignedString(rowCount) + " rows processed");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean isStopped(@NotNull DBRProgressMonitor monitor) {
+        return stopped || monitor.isCanceled() || workerError.get() != null;
+    }
+
+    private static class Chunk {
+        final int index;
+        final long start;
+        final long end;
+        long rows;
+        long loadTime;
+
+        Chunk(int index, long start, long end) {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private class ChunkWorker extends Thread {
+        // Each worker has its own monitor. Job monitor is not thread-safe.
+        private final WorkerProgressMonitor monitor;
+        private final DBCExecutionContext context;
+        private final boolean trimWhitespaces;
+        private final boolean emptyStringNull;
+        private final String nullValueMark;
+
+        ChunkWorker(
+            int workerNumber,
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBCExecutionContext context,
+            boolean trimWhitespaces,
+            boolean emptyStringNull,
+            @Nullable String nullValueMark)
+        {
+            super("CSV import worker " + (workerNumber + 1) + " of " + inputFile.getFileName());
+            setDaemon(true);
+            this.monitor = new WorkerProgressMonitor(monitor);
+            this.context = context;
+            this.trimWhitespaces = trimWhitespaces;
+            this.emptyStringNull = emptyStringNull;
+            this.nullValueMark = nullValueMark;
+        }
+
+        @Override
+        public void run() {
+            DatabaseTransferConsumer chunkConsumer = consumer.createChunkConsumer();
+            try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, getName())) {
+                LocalStatement localStatement = new LocalStatement(session, "SELECT * FROM Stream");
+                StreamTransferResultSet resultSet = new StreamTransferResultSet(session, localStatement, entityMapping);
+
+                chunkConsumer.fetchStart(session, resultSet, -1, -1);
+                try {
+                    importer.applyTransformHints(
+                        resultSet, chunkConsumer, properties, StreamImporterAbstract.PROP_TIMESTAMP_FORMAT, StreamImporterAbstract.PROP_TIMESTAMP_ZONE);
+                    for (Chunk chunk = pendingChunks.poll(); chunk != null && !isStopped(monitor); chunk = pendingChunks.poll()) {
+                        loadChunk(session, resultSet, chunkConsumer, chunk);
+                    }
+                } finally {
+                    chunkConsumer.fetchEnd(session, resultSet);
+                }
+            } catch (Throwable e) {
+                if (!stopped) {
+                    workerError.compareAndSet(null, e);
+                }
+            } finally {
+                chunkConsumer.close();
+            }
+        }
+
+        private void loadChunk(
+            @NotNull DBCSession session,
+            @NotNull StreamTransferResultSet resultSet,
+            @NotNull DatabaseTransferConsumer chunkConsumer,
+            @NotNull Chunk chunk) throws DBException, IOException
+        {
+            long startTime = System.currentTimeMillis();
+            try (Reader reader = importer.openStreamReader(openChunkStream(chunk), properties, true)) {
+                try (CSVTokenizer tokenizer = importer.openCSVTokenizer(reader, properties)) {
+                    DataImporterCSV.CSVRowValues rowValues =
+                        new DataImporterCSV.CSVRowValues(tokenizer, trimWhitespaces, emptyStringNull, nullValueMark);
+                    while (!isStopped(monitor) && tokenizer.nextRecord()) {
+                        resultSet.setStreamRow(rowValues);
+                        chunkConsumer.fetchRow(session, resultSet);
+                        chunk.rows++;
+                        totalRows.incrementAndGet();
+                    }
+                }
+            } finally {
+                chunk.loadTime = System.currentTimeMillis() - startTime;
+            }
+        }
+
+        @NotNull
+        private InputStream openChunkStream(@NotNull Chunk chunk) throws IOException {
+            SeekableByteChannel channel = Files.newByteChannel(inputFile);
+            try {
+                channel.position(chunk.start);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new ChunkInputStream(Channels.newInputStream(channel), chunk.end - chunk.start);
+        }
+    }
+
+    /**
+     * Reads the specified number of bytes from the underlying stream
+     */
+    private static class ChunkInputStream extends FilterInputStream {
+        private long remaining;
+
+        ChunkInputStream(@NotNull InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = super.read(b, off, (int) Math.min(len, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+}
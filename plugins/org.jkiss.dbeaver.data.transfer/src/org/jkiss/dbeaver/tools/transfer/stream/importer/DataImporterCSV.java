@@ -34,7 +34,7 @@ import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.Pair;
-import org.jkiss.utils.csv.CSVReader;
+import org.jkiss.utils.csv.CSVTokenizer;
 import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
@@ -57,6 +57,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARALLEL_THREADS = "parallelThreads";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
 
     public enum HeaderPosition {
@@ -80,8 +81,8 @@ public class DataImporterCSV extends StreamImporterAbstract {
         final boolean columnIsByteLength = CommonUtils.getBoolean(processorProperties.get(PROP_COLUMN_IS_BYTE_LENGTH), false);
 
         try (Reader reader = openStreamReader(inputStream, processorProperties, true)) {
-            try (CSVReader csvReader = openCSVReader(reader, processorProperties)) {
-                String[] header = getNextLine(csvReader);
+            try (CSVTokenizer tokenizer = openCSVTokenizer(reader, processorProperties)) {
+                String[] header = getNextLine(tokenizer);
                 if (header == null) {
                     return columnsInfo;
                 }
@@ -106,7 +107,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
                         // Include first line (header that does not exist) for sampling
                         line = header;
                     } else {
-                        line = getNextLine(csvReader);
+                        line = getNextLine(tokenizer);
                         if (line == null) {
                             break;
                         }
@@ -153,11 +154,19 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return power;
     }
 
-    private HeaderPosition getHeaderPosition(Map<String, Object> processorProperties) {
+    HeaderPosition getHeaderPosition(Map<String, Object> processorProperties) {
         return CommonUtils.valueOf(HeaderPosition.class, CommonUtils.toString(processorProperties.get(PROP_HEADER)), HeaderPosition.top);
     }
 
-    private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
+    CSVTokenizer openCSVTokenizer(Reader reader, Map<String, Object> processorProperties) {
+        char[] specialChars = getSpecialChars(processorProperties);
+        return new CSVTokenizer(reader, specialChars[0], specialChars[1], specialChars[2]);
+    }
+
+    /**
+     * Returns delimiter, quote and escape characters
+     */
+    char[] getSpecialChars(Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
@@ -167,12 +176,15 @@ public class DataImporterCSV extends StreamImporterAbstract {
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return new char[]{delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0)};
     }
 
-    private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
-        final String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
-        final Charset charset = Charset.forName(encoding);
+    Charset getCharset(Map<String, Object> processorProperties) {
+        return Charset.forName(CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+    }
+
+    Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
+        final Charset charset = getCharset(processorProperties);
         if (useBufferedStream) {
             inputStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
         }
@@ -184,17 +196,15 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return new InputStreamReader(inputStream, charset);
     }
 
-    private String[] getNextLine(CSVReader csvReader) throws IOException {
-        while (true) {
-            String[] line = csvReader.readNext();
-            if (line == null) {
-                return null;
-            }
-            if (line.length == 0) {
-                continue;
-            }
-            return line;
+    private String[] getNextLine(CSVTokenizer tokenizer) throws IOException {
+        if (!tokenizer.nextRecord()) {
+            return null;
         }
+        String[] line = new String[tokenizer.getFieldCount()];
+        for (int i = 0; i < line.length; i++) {
+            line[i] = tokenizer.getField(i);
+        }
+        return line;
     }
 
     @Override
@@ -207,6 +217,15 @@ public class DataImporterCSV extends StreamImporterAbstract {
         boolean trimWhitespaces = CommonUtils.getBoolean(properties.get(PROP_TRIM_WHITESPACES), false);
         String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
 
+        int parallelThreads = CommonUtils.toInt(properties.get(PROP_PARALLEL_THREADS), 1);
+        if (parallelThreads > 1) {
+            CSVChunkedImport chunkedImport = CSVChunkedImport.create(this, consumer, parallelThreads);
+            if (chunkedImport != null) {
+                chunkedImport.runImport(monitor, streamDataSource, trimWhitespaces, emptyStringNull, nullValueMark);
+                return;
+            }
+        }
+
         DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
         try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
             LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
@@ -217,25 +236,19 @@ public class DataImporterCSV extends StreamImporterAbstract {
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
             try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                try (CSVTokenizer tokenizer = openCSVTokenizer(reader, properties)) {
+                    // Field values are converted to strings only when consumer reads them
+                    CSVRowValues rowValues = new CSVRowValues(tokenizer, trimWhitespaces, emptyStringNull, nullValueMark);
 
                     int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
                     boolean headerRead = false;
                     for (long lineNum = 0; ; ) {
                         if (monitor.isCanceled()) {
                             break;
                         }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            if (csvReader.getParser().isPending()) {
-                                throw new IOException("Un-terminated quote sequence was detected");
-                            }
+                        if (!tokenizer.nextRecord()) {
                             break;
                         }
-                        if (line.length == 0) {
-                            continue;
-                        }
                         if (headerPosition != HeaderPosition.none && !headerRead) {
                             // First line is a header
                             headerRead = true;
@@ -245,36 +258,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
                             break;
                         }
 
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (trimWhitespaces) {
-                            for (int i = 0; i < line.length; i++) {
-                                line[i] = line[i].trim();
-                            }
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-
-                        resultSet.setStreamRow(line);
+                        resultSet.setStreamRow(rowValues);
                         consumer.fetchRow(producerSession, resultSet);
                         lineNum++;
 
@@ -296,4 +280,33 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     }
 
+    static class CSVRowValues implements StreamTransferResultSet.StreamRowValues {
+        private final CSVTokenizer tokenizer;
+        private final boolean trimWhitespaces;
+        private final boolean emptyStringNull;
+        private final String nullValueMark;
+
+        CSVRowValues(CSVTokenizer tokenizer, boolean trimWhitespaces, boolean emptyStringNull, String nullValueMark) {
+            this.tokenizer = tokenizer;
+            this.trimWhitespaces = trimWhitespaces;
+            this.emptyStringNull = emptyStringNull;
+            this.nullValueMark = CommonUtils.isEmpty(nullValueMark) ? null : nullValueMark;
+        }
+
+        @Override
+        public Object getValue(int index) {
+            if (index >= tokenizer.getFieldCount()) {
+                // Stream row may be shorter than header
+                return null;
+            }
+            if (emptyStringNull && tokenizer.isFieldEmpty(index, trimWhitespaces)) {
+                return null;
+            }
+            if (nullValueMark != null && tokenizer.fieldEquals(index, nullValueMark, trimWhitespaces)) {
+                return null;
+            }
+            return tokenizer.getField(index, trimWhitespaces);
+        }
+    }
+
 }
@@ -33,10 +33,15 @@ import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.dpi.DPIController;
 import org.jkiss.dbeaver.model.dpi.DPIDataSourceParameters;
 import org.jkiss.dbeaver.model.dpi.DPISession;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.registry.*;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
@@ -49,13 +54,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DPIControllerImpl implements DPIController {
 
     private static final Log log = Log.getLog(DPIControllerImpl.class);
 
     private final DPIContext context;
-    private final Map<String, DPISession> sessions = new LinkedHashMap<>();
+    // Requests are processed by several server threads
+    private final Map<String, DPISession> sessions = new ConcurrentHashMap<>();
     private RestServer<?> server;
 
     public DPIControllerImpl(DPIContext context) {
@@ -133,7 +140,7 @@ public class DPIControllerImpl implements DPIController {
     }
 
     @Override
-    public synchronized Object callMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
+    public Object callMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
         Object object = context.getObject(objectId);
         if (object == null) {
             throw new DBException("DPI object '" + objectId + "' not found");
@@ -171,7 +178,57 @@ public class DPIControllerImpl implements DPIController {
         return invokeObjectMethod(object, method, null);
     }
 
+    @Override
+    public Map<String, Object> readProperties(@NotNull String objectId, @NotNull String[] propertyNames) throws DBException {
+        Object object = context.getObject(objectId);
+        if (object == null) {
+            throw new DBException("DPI object '" + objectId + "' not found");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String propertyName : propertyNames) {
+            Method method = DBXTreeItem.findPropertyReadMethod(object.getClass(), propertyName);
+            if (method == null) {
+                log.debug("Property '" + propertyName + "' not found in object '" + object.getClass() + "'");
+                continue;
+            }
+            try {
+                result.put(propertyName, invokeObjectMethod(object, method, null));
+            } catch (DBException e) {
+                // Client will read this property separately and get the error
+                log.debug("Error reading property '" + propertyName + "'", e);
+            }
+        }
+        return result;
+    }
+
     private Object invokeObjectMethod(Object object, Method method, Object[] args) throws DBException {
+        // Requests are processed by several server threads, but connections are not thread safe
+        synchronized (getCallLock(object)) {
+            return invokeObjectMethodImpl(object, method, args);
+        }
+    }
+
+    /**
+     * Returns lock object for calls of the specified object.
+     * Calls of the same execution context are serialized, other objects are locked by their data source.
+     */
+    @NotNull
+    private static Object getCallLock(@NotNull Object object) {
+        if (object instanceof DBCResultSet resultSet) {
+            return resultSet.getSession().getExecutionContext();
+        } else if (object instanceof DBCStatement statement) {
+            return statement.getSession().getExecutionContext();
+        } else if (object instanceof DBCSession session) {
+            return session.getExecutionContext();
+        } else if (object instanceof DBCExecutionContext) {
+            return object;
+        } else if (object instanceof DBSObject dbObject && dbObject.getDataSource() != null) {
+            return dbObject.getDataSource();
+        }
+        return object;
+    }
+
+    private Object invokeObjectMethodImpl(Object object, Method method, Object[] args) throws DBException {
         boolean originalAccessible = method.canAccess(object);
         method.setAccessible(true);
         try {
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.dpi.server;
 
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.dpi.model.DPIConstants;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
 import org.jkiss.dbeaver.model.app.DBPApplication;
 import org.jkiss.dbeaver.model.dpi.DPIController;
@@ -40,6 +41,7 @@ public class DPIRestServer {
             .builder(DPIController.class, dpiController)
             .setFilter(address -> address.getAddress().isLoopbackAddress())
             .setPort(portNumber)
+            .setThreadCount(Integer.getInteger(DPIConstants.PROP_SERVER_THREADS, DPIConstants.DEFAULT_SERVER_THREADS))
             .setGson(dpiContext.getGson())
             .create();
         dpiController.setServer(restServer);
@@ -25,4 +25,12 @@ public class DPIConstants {
     public static final String PARAM_SERVER_PORT = "serverPort";
 
     public static final String SERVER_INI_FILE = "server.ini";
+
+    // System property with the number of requests processed by DPI server in parallel.
+    // Calls of the same execution context (or data source) are serialized anyway.
+    public static final String PROP_SERVER_THREADS = "dbeaver.dpi.server.threads";
+    public static final int DEFAULT_SERVER_THREADS = 4;
+
+    // System property which forces JSON protocol instead of binary one (useful for debugging)
+    public static final String PROP_JSON_PROTOCOL = "dbeaver.dpi.json";
 }
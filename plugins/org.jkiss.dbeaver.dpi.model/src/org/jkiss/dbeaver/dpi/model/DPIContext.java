@@ -28,7 +28,8 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * DPI context
+ * DPI context.
+ * Objects cache is shared by all threads which perform DPI calls.
  */
 public class DPIContext {
     private static final Log log = Log.getLog(DPIContext.class);
@@ -60,16 +61,16 @@ public class DPIContext {
         this.dpiController = dpiController;
     }
 
-    public Object getObject(String id) {
+    public synchronized Object getObject(String id) {
         return objectIdCache.get(id);
     }
 
-    public void addObject(String id, Object object) {
+    public synchronized void addObject(String id, Object object) {
         objectIdCache.put(id, object);
         objectValueCache.put(object, id);
     }
 
-    public void pruneObject(String id) {
+    public synchronized void pruneObject(String id) {
         Object removed = objectIdCache.remove(id);
         if (removed != null) {
             String removedId = objectValueCache.remove(removed);
@@ -83,7 +84,7 @@ public class DPIContext {
         }
     }
 
-    public String getOrCreateObjectId(Object object) {
+    public synchronized String getOrCreateObjectId(Object object) {
         String id = objectValueCache.get(object);
         if (id == null) {
             id = String.valueOf(objectCount.incrementAndGet());
@@ -92,11 +93,11 @@ public class DPIContext {
         return id;
     }
 
-    public String getObjectId(Object object) {
+    public synchronized String getObjectId(Object object) {
         return objectValueCache.get(object);
     }
 
-    public boolean hasObject(Object object) {
+    public synchronized boolean hasObject(Object object) {
         return objectValueCache.containsKey(object);
     }
 
@@ -16,6 +16,9 @@
  */
 package org.jkiss.dbeaver.dpi.model.client;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -35,8 +38,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class DPIClientProxy implements DPIClientObject, InvocationHandler {
     private static final Log log = Log.getLog(DPIClientProxy.class);
@@ -44,12 +46,15 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
     public static final Object SELF_REFERENCE = new Object();
     public static final Object NULL_VALUE = new Object();
 
+    private static final Type PROPERTY_VALUES_TYPE = new TypeToken<Map<String, JsonElement>>() {}.getType();
+
     private final DPIContext context;
     private final String objectId;
     private final String objectType;
     private final String objectToString;
     private final Integer objectHashCode;
     private final transient Object objectInstance;
+    // Caches are guarded by this proxy. Remote calls are performed without locks, so they may run in parallel.
     private Map<String, Object> objectContainers;
     private Map<String, Object> propertyValues;
     private Map<Class<?>, Object> factoryObjects;
@@ -94,7 +99,7 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
 
     @Override
     public Object dpiPropertyValue(@Nullable DBRProgressMonitor monitor, @NotNull String propertyName) throws DBException {
-        Object value = propertyValues == null ? null : propertyValues.get(propertyName);
+        Object value = getCachedPropertyValue(propertyName);
         if (value == NULL_VALUE) {
             return null;
         } else if (value != null) {
@@ -111,16 +116,9 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         }
         if (controller instanceof RestProxy) {
             // Try to get property class
-            try {
-                Type returnType = null;
-                Class<?> localClass = dpiClassLoader().loadClass(dpiObjectType());
-                Method getter = DBXTreeItem.findPropertyReadMethod(localClass, propertyName);
-                if (getter != null) {
-                    returnType = getter.getGenericReturnType();
-                }
-                ((RestProxy) controller).setNextCallResultType(returnType);
-            } catch (ClassNotFoundException e) {
-                log.debug("Cannot resolve local class '" + dpiObjectType() + "'");
+            Class<?> localClass = getLocalClass();
+            if (localClass != null) {
+                ((RestProxy) controller).setNextCallResultType(getPropertyType(localClass, propertyName));
             }
         }
         Object propValue = controller.readProperty(this.objectId, propertyName);
@@ -130,6 +128,42 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         return propValue;
     }
 
+    @Override
+    public void dpiPrefetchProperties(@NotNull DBRProgressMonitor monitor, @NotNull Collection<String> propertyNames) throws DBException {
+        List<String> missingProperties = new ArrayList<>();
+        for (String propertyName : propertyNames) {
+            if (getCachedPropertyValue(propertyName) == null) {
+                missingProperties.add(propertyName);
+            }
+        }
+        if (missingProperties.size() < 2) {
+            // Nothing to batch
+            return;
+        }
+        DPIController controller = context.getDpiController();
+        if (controller == null) {
+            throw new DBException("No DPI controller in client context");
+        }
+        if (controller instanceof RestProxy) {
+            // Values are converted to local property types below
+            ((RestProxy) controller).setNextCallResultType(PROPERTY_VALUES_TYPE);
+        }
+        Map<String, Object> values = controller.readProperties(this.objectId, missingProperties.toArray(new String[0]));
+        if (values == null) {
+            return;
+        }
+        Class<?> localClass = getLocalClass();
+        Gson gson = context.getGson();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof JsonElement) {
+                Type propertyType = localClass == null ? null : getPropertyType(localClass, entry.getKey());
+                value = gson.fromJson((JsonElement) value, propertyType == null ? Object.class : propertyType);
+            }
+            cachePropertyValue(entry.getKey(), wrapObjectValue(value));
+        }
+    }
+
     @Override
     public Object dpiObjectMethod(@Nullable DBRProgressMonitor monitor, @NotNull String methodName, @Nullable Object[] arguments) throws DBException {
         return invokeRemoteMethod(methodName, arguments, null);
@@ -164,6 +198,10 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
                     return dpiClassLoader();
                 case "dpiPropertyValue":
                     return dpiPropertyValue((DBRProgressMonitor) args[0], (String) args[1]);
+                case "dpiPrefetchProperties":
+                    //noinspection unchecked
+                    dpiPrefetchProperties((DBRProgressMonitor) args[0], (Collection<String>) args[1]);
+                    return null;
                 case "dpiObjectMethod":
                     return dpiObjectMethod((DBRProgressMonitor) args[0], (String) args[1], (Object[]) args[2]);
                 default:
@@ -176,8 +214,8 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         if (containerAnno != null) {
             if (containerAnno.root()) {
                 return context.getRootObject();
-            } else if (objectContainers != null) {
-                Object container = objectContainers.get(methodName);
+            } else {
+                Object container = getCachedContainer(methodName);
                 if (container != null) {
                     if (container == SELF_REFERENCE) {
                         return objectInstance;
@@ -189,11 +227,11 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
 
         boolean isElement = DPISerializer.getMethodAnno(method, DPIElement.class) != null ||
             method.getDeclaringClass().getAnnotation(DPIElement.class) != null;
-        if (isElement && propertyValues != null) {
-            Object result = propertyValues.get(getElementKey(method, args));
+        if (isElement) {
+            Object result = getCachedPropertyValue(getElementKey(method, args));
             if (result == null && method.getParameterTypes().length == 0) {
                 // Try property
-                result = propertyValues.get(BeanUtils.getPropertyNameFromGetter(method.getName()));
+                result = getCachedPropertyValue(BeanUtils.getPropertyNameFromGetter(method.getName()));
             }
             if (result != null) {
                 return unwrapObjectValue(result);
@@ -201,8 +239,8 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         }
 
         Property propAnnotation = method.getAnnotation(Property.class);
-        if (propAnnotation != null && propertyValues != null) {
-            Object result = propertyValues.get(getPropertyKey(method, propAnnotation));
+        if (propAnnotation != null) {
+            Object result = getCachedPropertyValue(getPropertyKey(method, propAnnotation));
             if (result != null) {
                 return unwrapObjectValue(result);
             }
@@ -217,11 +255,9 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
                 // Return type is specified in the first factory parameter
                 dpiFactoryClass = (Class<?>) args[0];
 
-                if (factoryObjects != null) {
-                    Object cachedResult = factoryObjects.get(dpiFactoryClass);
-                    if (cachedResult != null) {
-                        return unwrapObjectValue(cachedResult);
-                    }
+                Object cachedResult = getCachedFactoryObject(dpiFactoryClass);
+                if (cachedResult != null) {
+                    return unwrapObjectValue(cachedResult);
                 }
             }
         }
@@ -234,29 +270,49 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
             cachePropertyValue(getPropertyKey(method, propAnnotation), wrapObjectValue(result));
         } else if (dpiFactoryClass != null) {
             // Cache factory result
-            if (factoryObjects == null) {
-                factoryObjects = new HashMap<>();
-            }
-            factoryObjects.put(dpiFactoryClass, wrapObjectValue(result));
+            cacheFactoryObject(dpiFactoryClass, wrapObjectValue(result));
         } else if (isElement) {
             cachePropertyValue(getElementKey(method, args), wrapObjectValue(result));
         } else if (containerAnno != null) {
-            if (objectContainers == null) {
-                objectContainers = new HashMap<>();
-            }
-            objectContainers.put(methodName, wrapObjectValue(result));
+            cacheContainer(methodName, wrapObjectValue(result));
         }
 
         return result;
     }
 
-    private void cachePropertyValue(String propertyName, Object value) {
+    private synchronized Object getCachedPropertyValue(String propertyName) {
+        return propertyValues == null ? null : propertyValues.get(propertyName);
+    }
+
+    private synchronized void cachePropertyValue(String propertyName, Object value) {
         if (propertyValues == null) {
             propertyValues = new HashMap<>();
         }
         propertyValues.put(propertyName, value);
     }
 
+    private synchronized Object getCachedContainer(String methodName) {
+        return objectContainers == null ? null : objectContainers.get(methodName);
+    }
+
+    private synchronized void cacheContainer(String methodName, Object value) {
+        if (objectContainers == null) {
+            objectContainers = new HashMap<>();
+        }
+        objectContainers.put(methodName, value);
+    }
+
+    private synchronized Object getCachedFactoryObject(Class<?> factoryClass) {
+        return factoryObjects == null ? null : factoryObjects.get(factoryClass);
+    }
+
+    private synchronized void cacheFactoryObject(Class<?> factoryClass, Object value) {
+        if (factoryObjects == null) {
+            factoryObjects = new HashMap<>();
+        }
+        factoryObjects.put(factoryClass, value);
+    }
+
     private Object invokeRemoteMethod(@NotNull String methodName, @Nullable Object[] args, @Nullable Type returnType) throws DBException {
         DPIController controller = context.getDpiController();
         if (controller == null) {
@@ -269,6 +325,22 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         return controller.callMethod(this.objectId, methodName, args);
     }
 
+    @Nullable
+    private Class<?> getLocalClass() {
+        try {
+            return dpiClassLoader().loadClass(dpiObjectType());
+        } catch (ClassNotFoundException e) {
+            log.debug("Cannot resolve local class '" + dpiObjectType() + "'");
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Type getPropertyType(@NotNull Class<?> localClass, @NotNull String propertyName) {
+        Method getter = DBXTreeItem.findPropertyReadMethod(localClass, propertyName);
+        return getter == null ? null : getter.getGenericReturnType();
+    }
+
     private static Object wrapObjectValue(Object result) {
         return result == null ? NULL_VALUE : result;
     }
@@ -91,6 +91,7 @@ public class DPIProcessControllerImpl implements DPIProcessController {
             dpiRestClient = RestClient
                 .builder(getRemoteEndpoint(), DPIController.class)
                 .setGson(DPISerializer.createSerializer(dpiContext))
+                .setBinaryProtocol(!Boolean.getBoolean(DPIConstants.PROP_JSON_PROTOCOL))
                 .create();
 
             validateRestClient();
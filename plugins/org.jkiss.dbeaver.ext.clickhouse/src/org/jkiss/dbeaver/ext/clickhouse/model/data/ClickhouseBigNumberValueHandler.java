@@ -32,6 +32,11 @@ public class ClickhouseBigNumberValueHandler extends JDBCNumberValueHandler {
         super(type, formatSettings);
     }
 
+    @Override
+    protected boolean isPrimitiveFetchSupported() {
+        return false;
+    }
+
     @Nullable
     @Override
     protected Object fetchColumnValue(
@@ -40,6 +40,11 @@ public class DB2DecFloatValueHandler extends JDBCNumberValueHandler {
         super(type, formatSettings);
     }
 
+    @Override
+    protected boolean isPrimitiveFetchSupported() {
+        return false;
+    }
+
     @Nullable
     @Override
     protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index) throws DBCException, SQLException {
@@ -0,0 +1,295 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.duckdb.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.generic.model.GenericBulkLoader;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableBase;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableColumn;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DuckDB bulk loader based on the Appender API.
+ * <p>
+ * Appender writes rows directly into table storage, but it requires values for all table columns.
+ * If some table columns are not mapped then rows are inserted with a prepared statement.
+ */
+public class DuckBulkLoader extends GenericBulkLoader {
+
+    private static final Log log = Log.getLog(DuckBulkLoader.class);
+
+    private static final String DEFAULT_SCHEMA = "main";
+
+    private static final Map<Class<?>, Class<?>> APPEND_TYPES = new HashMap<>();
+
+    static {
+        APPEND_TYPES.put(Boolean.class, Boolean.TYPE);
+        APPEND_TYPES.put(Byte.class, Byte.TYPE);
+        APPEND_TYPES.put(Short.class, Short.TYPE);
+        APPEND_TYPES.put(Integer.class, Integer.TYPE);
+        APPEND_TYPES.put(Long.class, Long.TYPE);
+        APPEND_TYPES.put(Float.class, Float.TYPE);
+        APPEND_TYPES.put(Double.class, Double.TYPE);
+        APPEND_TYPES.put(BigDecimal.class, BigDecimal.class);
+        APPEND_TYPES.put(String.class, String.class);
+        APPEND_TYPES.put(byte[].class, byte[].class);
+    }
+
+    private Object appender;
+    private GenericTableColumn[] appendColumns;
+    private DBDValueHandler[] appendValueHandlers;
+    // Positions of table columns in the source values
+    private int[] sourcePositions;
+    private Method beginRowMethod;
+    private Method endRowMethod;
+    private Method flushMethod;
+    private Method closeMethod;
+    private Method appendNullMethod;
+    private Method appendStringMethod;
+    private Method appendDateTimeMethod;
+    private final Map<Class<?>, Method> appendMethods = new HashMap<>();
+
+    public DuckBulkLoader(@NotNull DuckDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (dataContainer instanceof GenericTableBase table) {
+            boolean appenderCreated = false;
+            try {
+                appenderCreated = createAppender(session, table, attributes);
+            } catch (Exception e) {
+                Throwable cause = e instanceof InvocationTargetException ? ((InvocationTargetException) e).getTargetException() : e;
+                log.debug("Can't create DuckDB appender, use prepared insert: " + cause.getMessage());
+                discardAppender();
+            }
+            if (appenderCreated) {
+                try {
+                    // Appended rows must be rolled back if the load is aborted
+                    startLoad(session);
+                } catch (DBCException e) {
+                    close();
+                    throw e;
+                }
+                return this;
+            }
+        }
+        return super.createBulkLoad(session, dataContainer, attributes, source, batchSize, options);
+    }
+
+    private boolean createAppender(
+        @NotNull DBCSession session,
+        @NotNull GenericTableBase table,
+        @NotNull DBSAttributeBase[] attributes) throws Exception
+    {
+        List<? extends GenericTableColumn> tableColumns = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
+        appendColumns = tableColumns.toArray(new GenericTableColumn[0]);
+        sourcePositions = new int[appendColumns.length];
+        appendValueHandlers = new DBDValueHandler[appendColumns.length];
+        for (int i = 0; i < appendColumns.length; i++) {
+            sourcePositions[i] = ArrayUtils.indexOf(attributes, appendColumns[i]);
+            if (sourcePositions[i] < 0) {
+                // Appender can't skip columns
+                return false;
+            }
+            appendValueHandlers[i] = DBUtils.findValueHandler(session, appendColumns[i]);
+        }
+
+        Connection connection = ((JDBCSession) session).getOriginal();
+        Class<?> connectionClass = connection.getClass();
+        String schemaName = table.getSchema() == null ? DEFAULT_SCHEMA : table.getSchema().getName();
+        Method createWithCatalogMethod = findMethod(connectionClass, "createAppender", String.class, String.class, String.class);
+        if (table.getCatalog() != null && createWithCatalogMethod != null) {
+            appender = createWithCatalogMethod.invoke(connection, table.getCatalog().getName(), schemaName, table.getName());
+        } else {
+            Method createMethod = connectionClass.getMethod("createAppender", String.class, String.class);
+            appender = createMethod.invoke(connection, schemaName, table.getName());
+        }
+
+        Class<?> appenderClass = appender.getClass();
+        beginRowMethod = appenderClass.getMethod("beginRow");
+        endRowMethod = appenderClass.getMethod("endRow");
+        flushMethod = appenderClass.getMethod("flush");
+        closeMethod = appenderClass.getMethod("close");
+        appendStringMethod = appenderClass.getMethod("append", String.class);
+        appendNullMethod = findMethod(appenderClass, "appendNull");
+        appendDateTimeMethod = findMethod(appenderClass, "appendLocalDateTime", LocalDateTime.class);
+        for (Map.Entry<Class<?>, Class<?>> type : APPEND_TYPES.entrySet()) {
+            Method appendMethod = findMethod(appenderClass, "append", type.getValue());
+            if (appendMethod != null) {
+                appendMethods.put(type.getKey(), appendMethod);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes appender which was created but can't be used. Its methods may be not resolved yet.
+     */
+    private void discardAppender() {
+        if (appender != null) {
+            try {
+                appender.getClass().getMethod("close").invoke(appender);
+            } catch (Throwable e) {
+                log.debug("Error closing appender", e);
+            }
+            appender = null;
+        }
+    }
+
+    @Nullable
+    private static Method findMethod(@NotNull Class<?> theClass, @NotNull String name, Class<?>... parameterTypes) {
+        try {
+            return theClass.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            // Not supported by this driver version
+            return null;
+        }
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (appender == null) {
+            super.addRow(session, attributeValues);
+            return;
+        }
+        try {
+            beginRowMethod.invoke(appender);
+            for (int i = 0; i < appendColumns.length; i++) {
+                appendValue(appendColumns[i], appendValueHandlers[i], attributeValues[sourcePositions[i]]);
+            }
+            endRowMethod.invoke(appender);
+        } catch (Throwable e) {
+            throw makeAppenderException("Error appending row", e);
+        }
+    }
+
+    private void appendValue(
+        @NotNull GenericTableColumn column,
+        @NotNull DBDValueHandler valueHandler,
+        @Nullable Object value) throws Exception
+    {
+        if (DBUtils.isNullValue(value)) {
+            if (appendNullMethod != null) {
+                appendNullMethod.invoke(appender);
+            } else {
+                appendStringMethod.invoke(appender, (Object) null);
+            }
+            return;
+        }
+        if (value instanceof Timestamp timestamp) {
+            value = timestamp.toLocalDateTime();
+        }
+        if (value instanceof LocalDateTime && appendDateTimeMethod != null) {
+            appendDateTimeMethod.invoke(appender, value);
+            return;
+        }
+        Method appendMethod = appendMethods.get(value.getClass());
+        if (appendMethod != null) {
+            appendMethod.invoke(appender, value);
+        } else {
+            // Appender casts strings to the column type
+            appendStringMethod.invoke(
+                appender,
+                valueHandler.getValueDisplayString(column, value, DBDDisplayFormat.NATIVE));
+        }
+    }
+
+    @NotNull
+    private static DBCException makeAppenderException(@NotNull String message, @NotNull Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            e = ((InvocationTargetException) e).getTargetException();
+        }
+        return new DBCException(message, e);
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (appender == null) {
+            super.flushRows(session);
+            return;
+        }
+        try {
+            flushMethod.invoke(appender);
+        } catch (Throwable e) {
+            throw makeAppenderException("Error flushing appender", e);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        if (appender == null) {
+            super.finishBulkLoad(session);
+            return;
+        }
+        try {
+            Object theAppender = appender;
+            appender = null;
+            // Close flushes all pending rows
+            closeMethod.invoke(theAppender);
+        } catch (Throwable e) {
+            throw makeAppenderException("Error closing appender", e);
+        }
+        commitLoad(session);
+    }
+
+    @Override
+    public void close() {
+        if (appender != null) {
+            // Load was aborted. Appender has no way to discard pending rows, so they are flushed
+            // into the load transaction which is rolled back by the generic loader.
+            try {
+                closeMethod.invoke(appender);
+            } catch (Throwable e) {
+                log.debug("Error closing appender", e);
+            }
+            appender = null;
+        }
+        super.close();
+    }
+}
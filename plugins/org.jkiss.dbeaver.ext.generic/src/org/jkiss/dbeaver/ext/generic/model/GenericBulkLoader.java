@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.generic.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.util.Map;
+
+/**
+ * Bulk loader which inserts all rows with a single prepared statement in one transaction.
+ * <p>
+ * Used by embedded databases where a batched insert in one transaction is the fastest load path.
+ * Subclasses may tune database settings for the load time in {@link #beforeLoad} and restore them in {@link #afterLoad}.
+ */
+public class GenericBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(GenericBulkLoader.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 10000;
+
+    protected final GenericDataSource dataSource;
+    protected GenericTableBase table;
+    protected DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private DBCStatement statement;
+    private int batchSize;
+    private int batchRows;
+    private DBCSession loadSession;
+    private boolean restoreAutoCommit;
+    private boolean loadStarted;
+    private boolean loadFinished;
+
+    public GenericBulkLoader(@NotNull GenericDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof GenericTableBase)) {
+            throw new DBCException("Bulk load is supported only for tables");
+        }
+        this.table = (GenericTableBase) dataContainer;
+        this.attributes = attributes;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+
+        try {
+            startLoad(session);
+            statement = session.prepareStatement(DBCStatementType.QUERY, getInsertQuery(), false, false, false);
+        } catch (DBCException e) {
+            close();
+            throw e;
+        }
+        return this;
+    }
+
+    /**
+     * Prepares database and starts the load transaction.
+     * Rows loaded after this call are rolled back in {@link #close()} unless {@link #commitLoad} was called.
+     */
+    protected void startLoad(@NotNull DBCSession session) throws DBCException {
+        this.loadSession = session;
+        beforeLoad(session);
+        loadStarted = true;
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && txnManager.isAutoCommit()) {
+            // All rows are loaded in a single transaction
+            txnManager.setAutoCommit(session.getProgressMonitor(), false);
+            restoreAutoCommit = true;
+        }
+    }
+
+    /**
+     * Commits the load transaction and marks the load as finished.
+     */
+    protected void commitLoad(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit bulk load");
+            txnManager.commit(session);
+        }
+        loadFinished = true;
+    }
+
+    /**
+     * Prepares database for the load. Called before the load transaction is started.
+     */
+    protected void beforeLoad(@NotNull DBCSession session) throws DBCException {
+    }
+
+    /**
+     * Restores database settings changed in {@link #beforeLoad}. Called after the load is finished or aborted.
+     */
+    protected void afterLoad(@NotNull DBCSession session) throws DBCException {
+    }
+
+    @NotNull
+    protected String getInsertQuery() {
+        StringBuilder query = new StringBuilder();
+        query.append("INSERT INTO ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                query.append(",");
+            }
+            query.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        query.append(") VALUES (");
+        for (int i = 0; i < attributes.length; i++) {
+            query.append(i > 0 ? ",?" : "?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i].bindValueObject(session, statement, attributes[i], i, attributeValues[i]);
+        }
+        statement.addToBatch();
+        batchRows++;
+        if (batchRows >= batchSize) {
+            executeBatch();
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        executeBatch();
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        executeBatch();
+        commitLoad(session);
+    }
+
+    private void executeBatch() throws DBCException {
+        if (batchRows > 0) {
+            statement.executeStatementBatch();
+            batchRows = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+        if (restoreAutoCommit) {
+            restoreAutoCommit = false;
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(loadSession.getExecutionContext());
+            if (txnManager != null) {
+                try {
+                    if (!loadFinished) {
+                        // Do not commit partially loaded data on auto-commit switch
+                        txnManager.rollback(loadSession, null);
+                    }
+                    txnManager.setAutoCommit(loadSession.getProgressMonitor(), true);
+                } catch (DBCException e) {
+                    log.debug("Error restoring auto-commit mode after bulk load", e);
+                }
+            }
+        }
+        if (loadStarted) {
+            loadStarted = false;
+            try {
+                afterLoad(loadSession);
+            } catch (DBCException e) {
+                log.debug("Error restoring settings after bulk load", e);
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.ext.generic.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.generic.GenericConstants;
 import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaObject;
@@ -33,6 +34,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectReference;
 import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 import org.jkiss.utils.CommonUtils;
 
 import java.sql.SQLException;
@@ -78,6 +80,29 @@ public class GenericStructureAssistant extends JDBCStructureAssistant<GenericExe
         return getSupportedObjectTypes();
     }
 
+    @Nullable
+    @Override
+    protected List<? extends AbstractObjectCache<?, ?>> getSearchObjectCaches(@NotNull GenericExecutionContext executionContext,
+                                                                              @NotNull DBSObjectType objectType, @NotNull ObjectsSearchParams params) {
+        if (objectType != RelationalObjectType.TYPE_TABLE) {
+            return null;
+        }
+        DBSObject parentObject = params.getParentObject();
+        GenericStructContainer container;
+        if (parentObject instanceof GenericSchema schema) {
+            container = schema;
+        } else if (parentObject == null && !params.isGlobalSearch() && executionContext.getDefaultSchema() != null) {
+            container = executionContext.getDefaultSchema();
+        } else if (CommonUtils.isEmpty(dataSource.getCatalogs()) && CommonUtils.isEmpty(dataSource.getSchemas())) {
+            // All tables are in the data source itself
+            container = dataSource;
+        } else {
+            // Catalog tables may be spread over its schemas
+            return null;
+        }
+        return List.of(container.getTableCache());
+    }
+
     @Override
     protected void findObjectsByMask(@NotNull GenericExecutionContext executionContext, @NotNull JDBCSession session,
                                      @NotNull DBSObjectType objectType, @NotNull ObjectsSearchParams params,
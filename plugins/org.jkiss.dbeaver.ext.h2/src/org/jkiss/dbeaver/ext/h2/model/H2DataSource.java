@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.ext.h2.model;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.generic.model.GenericBulkLoader;
 import org.jkiss.dbeaver.ext.generic.model.GenericDataSource;
 import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaModel;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -26,6 +27,7 @@ import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 
 import java.sql.Connection;
 
@@ -69,6 +71,14 @@ public class H2DataSource extends GenericDataSource {
         return super.getConnectionURL(connectionInfo);
     }
 
+    @Override
+    public <T> T getAdapter(Class<T> adapter) {
+        if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new GenericBulkLoader(this));
+        }
+        return super.getAdapter(adapter);
+    }
+
     @Override
     protected Connection openConnection(@NotNull DBRProgressMonitor monitor, @Nullable JDBCExecutionContext context, @NotNull String purpose) throws DBCException {
         return super.openConnection(monitor, context, purpose);
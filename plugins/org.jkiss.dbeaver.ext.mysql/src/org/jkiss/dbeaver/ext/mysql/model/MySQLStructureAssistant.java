@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectReference;
 import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -85,6 +86,20 @@ public class MySQLStructureAssistant extends JDBCStructureAssistant<MySQLExecuti
         };
     }
 
+    @Nullable
+    @Override
+    protected List<? extends AbstractObjectCache<?, ?>> getSearchObjectCaches(@NotNull MySQLExecutionContext executionContext,
+                                                                              @NotNull DBSObjectType objectType, @NotNull ObjectsSearchParams params) {
+        if (objectType != RelationalObjectType.TYPE_TABLE) {
+            return null;
+        }
+        MySQLCatalog catalog = params.getParentObject() instanceof MySQLCatalog ? (MySQLCatalog) params.getParentObject() : null;
+        if (catalog == null && !params.isGlobalSearch()) {
+            catalog = executionContext.getContextDefaults().getDefaultCatalog();
+        }
+        return catalog == null ? null : List.of(catalog.getTableCache());
+    }
+
     @Override
     protected void findObjectsByMask(@NotNull MySQLExecutionContext executionContext, @NotNull JDBCSession session, @NotNull DBSObjectType objectType,
                                      @NotNull ObjectsSearchParams params, @NotNull List<DBSObjectReference> references)
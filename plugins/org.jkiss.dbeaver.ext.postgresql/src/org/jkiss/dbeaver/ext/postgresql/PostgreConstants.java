@@ -51,6 +51,8 @@ public class PostgreConstants {
     public static final String PROP_DD_PLAIN_STRING = "postgresql.dd.plain.string";
     public static final String PROP_DD_TAG_STRING = "postgresql.dd.tag.string";
     public static final String PROP_SHOW_DATABASE_STATISTICS = "show-database-statistics";
+    public static final String PROP_COPY_STREAMING = "copy-streaming";
+    public static final String PROP_COPY_BINARY = "copy-binary";
 
     public static final String PROP_SSL = "ssl";
 
@@ -0,0 +1,323 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes values in PostgreSQL binary COPY format.
+ * Only types with simple and stable binary representation are supported.
+ */
+class PostgreCopyBinaryEncoder {
+
+    static final byte[] HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    // 2000-01-01 - PostgreSQL epoch
+    private static final long PG_EPOCH_SECONDS = 946684800L;
+    private static final long PG_EPOCH_DAYS = 10957L;
+
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+    private static final short NUMERIC_NAN = (short) 0xC000;
+
+    private PostgreCopyBinaryEncoder() {
+    }
+
+    static boolean isTypeSupported(long typeId) {
+        switch ((int) typeId) {
+            case PostgreOid.BOOL:
+            case PostgreOid.INT2:
+            case PostgreOid.INT4:
+            case PostgreOid.INT8:
+            case PostgreOid.FLOAT4:
+            case PostgreOid.FLOAT8:
+            case PostgreOid.NUMERIC:
+            case PostgreOid.TEXT:
+            case PostgreOid.VARCHAR:
+            case PostgreOid.BPCHAR:
+            case PostgreOid.NAME:
+            case PostgreOid.BYTEA:
+            case PostgreOid.UUID:
+            case PostgreOid.DATE:
+            case PostgreOid.TIMESTAMP:
+            case PostgreOid.TIMESTAMPTZ:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static void writeHeader(@NotNull DataOutputStream out) throws IOException {
+        out.write(HEADER);
+        // Flags
+        out.writeInt(0);
+        // Header extension length
+        out.writeInt(0);
+    }
+
+    static void writeTrailer(@NotNull DataOutputStream out) throws IOException {
+        out.writeShort(-1);
+    }
+
+    /**
+     * Writes field length and value. Null values must be handled by caller.
+     * @param strValue value string representation. Used for text types and for values of unknown classes.
+     */
+    static void writeValue(@NotNull DataOutputStream out, long typeId, @NotNull Object value, @NotNull String strValue)
+        throws IOException, DBCException
+    {
+        switch ((int) typeId) {
+            case PostgreOid.BOOL:
+                out.writeInt(1);
+                out.writeByte(value instanceof Boolean bool ? (bool ? 1 : 0) : (CommonUtils.toBoolean(value) ? 1 : 0));
+                break;
+            case PostgreOid.INT2:
+                out.writeInt(2);
+                out.writeShort((int) toLong(value, strValue, Short.MIN_VALUE, Short.MAX_VALUE, "smallint"));
+                break;
+            case PostgreOid.INT4:
+                out.writeInt(4);
+                out.writeInt((int) toLong(value, strValue, Integer.MIN_VALUE, Integer.MAX_VALUE, "integer"));
+                break;
+            case PostgreOid.INT8:
+                out.writeInt(8);
+                out.writeLong(toLong(value, strValue, Long.MIN_VALUE, Long.MAX_VALUE, "bigint"));
+                break;
+            case PostgreOid.FLOAT4:
+                out.writeInt(4);
+                out.writeFloat(value instanceof Number number ? number.floatValue() : Float.parseFloat(strValue));
+                break;
+            case PostgreOid.FLOAT8:
+                out.writeInt(8);
+                out.writeDouble(value instanceof Number number ? number.doubleValue() : Double.parseDouble(strValue));
+                break;
+            case PostgreOid.NUMERIC:
+                writeNumeric(out, value, strValue);
+                break;
+            case PostgreOid.BYTEA:
+                if (!(value instanceof byte[] bytes)) {
+                    throw new DBCException("Can't write value of type " + value.getClass().getName() + " as bytea");
+                }
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            case PostgreOid.UUID: {
+                UUID uuid = value instanceof UUID ? (UUID) value : UUID.fromString(strValue);
+                out.writeInt(16);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+                break;
+            }
+            case PostgreOid.DATE:
+                out.writeInt(4);
+                out.writeInt((int) (toLocalDate(value, strValue).toEpochDay() - PG_EPOCH_DAYS));
+                break;
+            case PostgreOid.TIMESTAMP: {
+                LocalDateTime dateTime = toLocalDateTime(value, strValue);
+                out.writeInt(8);
+                out.writeLong(toMicros(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano()));
+                break;
+            }
+            case PostgreOid.TIMESTAMPTZ: {
+                Instant instant = toInstant(value, strValue);
+                out.writeInt(8);
+                out.writeLong(toMicros(instant.getEpochSecond(), instant.getNano()));
+                break;
+            }
+            default: {
+                // Text types
+                byte[] bytes = (value instanceof String str ? str : strValue).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+        }
+    }
+
+    private static long toMicros(long epochSecond, int nanos) {
+        return (epochSecond - PG_EPOCH_SECONDS) * 1000000L + nanos / 1000;
+    }
+
+    private static long toLong(
+        @NotNull Object value,
+        @NotNull String strValue,
+        long minValue,
+        long maxValue,
+        @NotNull String typeName
+    ) throws DBCException {
+        long longValue = toLong(value, strValue, typeName);
+        if (longValue < minValue || longValue > maxValue) {
+            throw new DBCException("Value " + longValue + " is out of range for type " + typeName);
+        }
+        return longValue;
+    }
+
+    private static long toLong(@NotNull Object value, @NotNull String strValue, @NotNull String typeName) throws DBCException {
+        if (value instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Number number) {
+            // Fractional values must not be truncated silently
+            try {
+                return new BigDecimal(number.toString()).longValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new DBCException("Value " + number + " can't be written as " + typeName, e);
+            }
+        }
+        return Long.parseLong(strValue.trim());
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value, @NotNull String strValue) throws DBCException {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        } else if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        } else if (value instanceof Temporal || value instanceof java.util.Date) {
+            return toLocalDateTime(value, strValue).toLocalDate();
+        }
+        return LocalDate.parse(strValue.trim());
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value, @NotNull String strValue) throws DBCException {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        } else if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        } else if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().atStartOfDay();
+        } else if (value instanceof LocalDate localDate) {
+            return localDate.atStartOfDay();
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof Instant || value instanceof java.util.Date) {
+            return LocalDateTime.ofInstant(toInstant(value, strValue), ZoneId.systemDefault());
+        }
+        try {
+            return Timestamp.valueOf(strValue.trim()).toLocalDateTime();
+        } catch (IllegalArgumentException e) {
+            throw new DBCException("Can't convert value '" + strValue + "' to timestamp", e);
+        }
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value, @NotNull String strValue) throws DBCException {
+        if (value instanceof Instant instant) {
+            return instant;
+        } else if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        } else if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof java.util.Date date) {
+            return date.toInstant();
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.toInstant();
+        }
+        return toLocalDateTime(value, strValue).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static void writeNumeric(@NotNull DataOutputStream out, @NotNull Object value, @NotNull String strValue) throws IOException, DBCException {
+        BigDecimal decimal;
+        if (value instanceof BigDecimal bigDecimal) {
+            decimal = bigDecimal;
+        } else if (value instanceof BigInteger bigInteger) {
+            decimal = new BigDecimal(bigInteger);
+        } else if (value instanceof Double || value instanceof Float) {
+            double doubleValue = ((Number) value).doubleValue();
+            if (Double.isNaN(doubleValue)) {
+                out.writeInt(8);
+                out.writeShort(0);
+                out.writeShort(0);
+                out.writeShort(NUMERIC_NAN);
+                out.writeShort(0);
+                return;
+            }
+            if (Double.isInfinite(doubleValue)) {
+                throw new DBCException("Infinite values can't be written as numeric");
+            }
+            decimal = BigDecimal.valueOf(doubleValue);
+        } else if (value instanceof Number number) {
+            decimal = BigDecimal.valueOf(number.longValue());
+        } else {
+            decimal = new BigDecimal(strValue.trim());
+        }
+
+        short sign = decimal.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+        int scale = Math.max(decimal.scale(), 0);
+        String plain = decimal.abs().setScale(scale).toPlainString();
+        int dotPos = plain.indexOf('.');
+        String intPart = dotPos < 0 ? plain : plain.substring(0, dotPos);
+        String fracPart = dotPos < 0 ? "" : plain.substring(dotPos + 1);
+        // Align both parts to base 10000 digits
+        intPart = "0".repeat((4 - intPart.length() % 4) % 4) + intPart;
+        fracPart = fracPart + "0".repeat((4 - fracPart.length() % 4) % 4);
+
+        List<Short> digits = new ArrayList<>();
+        for (int i = 0; i < intPart.length(); i += 4) {
+            digits.add(Short.parseShort(intPart.substring(i, i + 4)));
+        }
+        for (int i = 0; i < fracPart.length(); i += 4) {
+            digits.add(Short.parseShort(fracPart.substring(i, i + 4)));
+        }
+        int weight = intPart.length() / 4 - 1;
+        int start = 0, end = digits.size();
+        while (start < end && digits.get(start) == 0) {
+            start++;
+            weight--;
+        }
+        while (end > start && digits.get(end - 1) == 0) {
+            end--;
+        }
+        if (start == end) {
+            // Zero
+            weight = 0;
+            sign = NUMERIC_POS;
+        }
+
+        out.writeInt(8 + (end - start) * 2);
+        out.writeShort(end - start);
+        out.writeShort(weight);
+        out.writeShort(sign);
+        out.writeShort(scale);
+        for (int i = start; i < end; i++) {
+            out.writeShort(digits.get(i));
+        }
+    }
+
+}
@@ -17,7 +17,9 @@
 package org.jkiss.dbeaver.ext.postgresql.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.PostgreConstants;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
@@ -34,10 +36,7 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
+import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -48,7 +47,11 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Bulk loader based on CopyManager
+ * Bulk loader based on CopyManager.
+ * <p>
+ * In streaming mode (default) rows are encoded directly into CopyIn stream of the connection.
+ * Otherwise rows are staged in a temporary CSV file which is copied to the server at the end of the load.
+ * Binary COPY format may be used in streaming mode if all target columns have supported types.
  *
  * //        new CopyManager((BaseConnection) conn)
  * //            .copyIn(
@@ -67,6 +70,18 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     private Writer csvWriter;
     private Path csvFile;
 
+    private boolean streaming;
+    private boolean binaryFormat;
+    private Method copyInStreamMethod;
+    private Method writeToCopyMethod;
+    private Method flushCopyMethod;
+    private Method endCopyMethod;
+    private Method cancelCopyMethod;
+    private Method isActiveMethod;
+    private Object copyIn;
+    private ByteArrayOutputStream copyBuffer;
+    private DataOutputStream copyData;
+
     private AttrMapping[] mappings;
 
     private int copyBufferSize = 100 * 1024;
@@ -98,6 +113,8 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         Map<String, Object> options) throws DBCException
     {
         this.table = (PostgreTableReal) dataContainer;
+        this.streaming = getLoadOption(options, PostgreConstants.PROP_COPY_STREAMING, true);
+        this.binaryFormat = streaming && getLoadOption(options, PostgreConstants.PROP_COPY_BINARY, false);
         try {
             // Use reflection to create copy manager
             Connection pgConnection = ((JDBCSession) session).getOriginal();
@@ -106,24 +123,8 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
-
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
             tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
             mappings = new AttrMapping[tableAttrs.size()];
@@ -137,6 +138,41 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                     ArrayUtils.indexOf(attributes, attr)
                 );
                 mappings[i] = mapping;
+                if (binaryFormat && mapping.srcPos >= 0 && !PostgreCopyBinaryEncoder.isTypeSupported(attr.getTypeId())) {
+                    log.debug("Column " + attr.getName() + " type " + attr.getTypeName() + " is not supported by binary COPY. Use CSV format.");
+                    binaryFormat = false;
+                }
+            }
+
+            if (streaming) {
+                // Get method copyIn(final String sql)
+                copyInStreamMethod = copyManagerClass.getMethod("copyIn", String.class);
+                Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, driverClassLoader);
+                writeToCopyMethod = copyInClass.getMethod("writeToCopy", byte[].class, Integer.TYPE, Integer.TYPE);
+                flushCopyMethod = copyInClass.getMethod("flushCopy");
+                endCopyMethod = copyInClass.getMethod("endCopy");
+                Class<?> copyOperationClass = Class.forName("org.postgresql.copy.CopyOperation", true, driverClassLoader);
+                cancelCopyMethod = copyOperationClass.getMethod("cancelCopy");
+                isActiveMethod = copyOperationClass.getMethod("isActive");
+
+                copyBuffer = new ByteArrayOutputStream(copyBufferSize);
+                copyData = new DataOutputStream(copyBuffer);
+            } else {
+                // Get method copyIn(final String sql, Reader from, int bufferSize)
+                copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+
+                Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
+                csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
+                try {
+                    Files.createFile(csvFile);
+                } catch (IOException ex) {
+                    throw new IOException("Can't create CSV file " + csvFile);
+                }
+
+                csvWriter = new BufferedWriter(
+                    Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
+                    copyBufferSize
+                    );
             }
         } catch (Exception e) {
             throw new DBCException("Can't instantiate CopyManager", e);
@@ -144,8 +180,44 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         return this;
     }
 
+    private boolean getLoadOption(@Nullable Map<String, Object> options, @NotNull String name, boolean defaultValue) {
+        if (options != null && options.containsKey(name)) {
+            return CommonUtils.getBoolean(options.get(name), defaultValue);
+        }
+        return CommonUtils.getBoolean(
+            dataSource.getContainer().getActualConnectionConfiguration().getProviderProperty(name),
+            defaultValue);
+    }
+
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (!streaming) {
+            try {
+                csvWriter.write(formatCsvLine(attributeValues));
+            } catch (IOException e) {
+                throw new DBCException("Error writing CSV line", e);
+            }
+            return;
+        }
+        if (copyIn == null) {
+            startCopy(session);
+        }
+        try {
+            if (binaryFormat) {
+                writeBinaryRow(attributeValues);
+            } else {
+                copyData.write(formatCsvLine(attributeValues).getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new DBCException("Error encoding COPY row", e);
+        }
+        if (copyBuffer.size() >= copyBufferSize) {
+            sendCopyBuffer();
+        }
+    }
+
+    @NotNull
+    private String formatCsvLine(@NotNull Object[] attributeValues) {
         StringBuilder line = new StringBuilder();
         boolean hasCell = false;
         for (AttrMapping mapping : mappings) {
@@ -168,10 +240,33 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             }
         }
         line.append("\n");
-        try {
-            csvWriter.write(line.toString());
-        } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+        return line.toString();
+    }
+
+    private void writeBinaryRow(@NotNull Object[] attributeValues) throws IOException, DBCException {
+        int fieldCount = 0;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                fieldCount++;
+            }
+        }
+        copyData.writeShort(fieldCount);
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos < 0) {
+                continue;
+            }
+            Object srcValue = attributeValues[mapping.srcPos];
+            if (DBUtils.isNullValue(srcValue)) {
+                copyData.writeInt(-1);
+            } else {
+                String strValue = srcValue instanceof String str ? str : mapping.valueHandler.getValueDisplayString(
+                    mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
+                try {
+                    PostgreCopyBinaryEncoder.writeValue(copyData, mapping.tableAttr.getTypeId(), srcValue, strValue);
+                } catch (RuntimeException e) {
+                    throw new DBCException("Error encoding value of column " + mapping.tableAttr.getName(), e);
+                }
+            }
         }
     }
 
@@ -181,8 +276,76 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             '"';
     }
 
+    @NotNull
+    private String getCopyQuery() {
+        StringBuilder query = new StringBuilder();
+        query.append("COPY ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        boolean hasColumn = false;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                if (hasColumn) {
+                    query.append(",");
+                }
+                query.append(DBUtils.getQuotedIdentifier(mapping.tableAttr));
+                hasColumn = true;
+            }
+        }
+        query.append(") FROM STDIN ");
+        if (binaryFormat) {
+            query.append("(FORMAT BINARY)");
+        } else {
+            query.append("(FORMAT CSV, ESCAPE '\\')");
+        }
+        return query.toString();
+    }
+
+    private void startCopy(@NotNull DBCSession session) throws DBCException {
+        String queryText = getCopyQuery();
+        session.getProgressMonitor().subTask("Copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+        try {
+            copyIn = copyInStreamMethod.invoke(copyManager, queryText);
+            if (binaryFormat) {
+                PostgreCopyBinaryEncoder.writeHeader(copyData);
+            }
+        } catch (Throwable e) {
+            throw makeCopyException("Error starting COPY on remote server", e);
+        }
+    }
+
+    private void sendCopyBuffer() throws DBCException {
+        if (copyBuffer.size() == 0) {
+            return;
+        }
+        try {
+            byte[] data = copyBuffer.toByteArray();
+            copyBuffer.reset();
+            writeToCopyMethod.invoke(copyIn, data, 0, data.length);
+        } catch (Throwable e) {
+            throw makeCopyException("Error sending COPY data to remote server", e);
+        }
+    }
+
+    @NotNull
+    private static DBCException makeCopyException(@NotNull String message, @NotNull Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            e = ((InvocationTargetException) e).getTargetException();
+        }
+        return new DBCException(message, e);
+    }
+
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (streaming) {
+            if (copyIn != null) {
+                sendCopyBuffer();
+                try {
+                    flushCopyMethod.invoke(copyIn);
+                } catch (Throwable e) {
+                    throw makeCopyException("Error flushing COPY data", e);
+                }
+            }
+            return;
+        }
         try {
             csvWriter.flush();
         } catch (IOException e) {
@@ -192,6 +355,10 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        if (streaming) {
+            finishStreamingLoad(session);
+            return;
+        }
         try {
             csvWriter.flush();
             csvWriter.close();
@@ -204,7 +371,7 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
         session.getProgressMonitor().subTask("Copy into " + tableFQN);
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
+        String queryText = getCopyQuery();
 
         try {
             Object rowCount;
@@ -212,25 +379,69 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                 rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
             }
 
-            // Commit changes
-            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
-            if (txnManager != null && !txnManager.isAutoCommit()) {
-                session.getProgressMonitor().subTask("Commit COPY");
-                txnManager.commit(session);
-            }
+            commitChanges(session);
 
             log.debug("CSV has been imported (" + rowCount + ")");
         } catch (Throwable e) {
-            if (e instanceof InvocationTargetException) {
-                e = ((InvocationTargetException) e).getTargetException();
+            throw makeCopyException("Error copying dataset on remote server", e);
+        }
+    }
+
+    private void finishStreamingLoad(@NotNull DBCSession session) throws DBCException {
+        if (copyIn == null) {
+            // No rows
+            return;
+        }
+        try {
+            if (binaryFormat) {
+                PostgreCopyBinaryEncoder.writeTrailer(copyData);
             }
-            throw new DBCException("Error copying dataset on remote server", e);
+            sendCopyBuffer();
+            Object rowCount = endCopyMethod.invoke(copyIn);
+            copyIn = null;
+
+            commitChanges(session);
+
+            log.debug("COPY has been finished (" + rowCount + ")");
+        } catch (DBCException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw makeCopyException("Error finishing COPY on remote server", e);
+        }
+    }
+
+    private void commitChanges(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit COPY");
+            txnManager.commit(session);
         }
     }
 
     @Override
 
     public void close() {
+        if (copyIn != null) {
+            // Load wasn't finished. Connection can't be used until COPY is canceled.
+            try {
+                if ((Boolean) isActiveMethod.invoke(copyIn)) {
+                    cancelCopyMethod.invoke(copyIn);
+                }
+            } catch (Throwable e) {
+                log.debug("Error canceling COPY", e);
+            }
+            copyIn = null;
+        }
+        copyBuffer = null;
+        copyData = null;
+        if (csvWriter != null) {
+            try {
+                csvWriter.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            csvWriter = null;
+        }
         if (csvFile != null && Files.exists(csvFile)) {
             try {
                 Files.delete(csvFile);
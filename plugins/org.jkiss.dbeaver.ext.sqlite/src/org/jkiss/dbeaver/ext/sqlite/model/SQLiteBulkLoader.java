@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.sqlite.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.generic.model.GenericBulkLoader;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.utils.ArrayUtils;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * SQLite bulk loader.
+ * Loads all rows in a single transaction with relaxed journal and sync settings, which are restored after the load.
+ */
+public class SQLiteBulkLoader extends GenericBulkLoader {
+
+    private static final Log log = Log.getLog(SQLiteBulkLoader.class);
+
+    private static final String[] FAST_JOURNAL_MODES = {"WAL", "MEMORY", "OFF"};
+
+    private String originalJournalMode;
+    private String originalSynchronous;
+
+    public SQLiteBulkLoader(@NotNull SQLiteDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void beforeLoad(@NotNull DBCSession session) throws DBCException {
+        JDBCSession jdbcSession = (JDBCSession) session;
+        try {
+            originalSynchronous = JDBCUtils.queryString(jdbcSession, "PRAGMA synchronous");
+            JDBCUtils.executeStatement(jdbcSession, "PRAGMA synchronous = OFF");
+        } catch (SQLException e) {
+            log.debug("Can't change synchronous mode for bulk load: " + e.getMessage());
+            originalSynchronous = null;
+        }
+        try {
+            String journalMode = JDBCUtils.queryString(jdbcSession, "PRAGMA journal_mode");
+            // Switching from/to WAL is expensive and WAL is fast enough for bulk inserts
+            if (journalMode != null && !ArrayUtils.contains(FAST_JOURNAL_MODES, journalMode.toUpperCase(Locale.ENGLISH))) {
+                JDBCUtils.queryString(jdbcSession, "PRAGMA journal_mode = MEMORY");
+                originalJournalMode = journalMode;
+            }
+        } catch (SQLException e) {
+            log.debug("Can't change journal mode for bulk load: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected void afterLoad(@NotNull DBCSession session) throws DBCException {
+        JDBCSession jdbcSession = (JDBCSession) session;
+        try {
+            if (originalJournalMode != null) {
+                JDBCUtils.queryString(jdbcSession, "PRAGMA journal_mode = " + originalJournalMode);
+                originalJournalMode = null;
+            }
+            if (originalSynchronous != null) {
+                JDBCUtils.executeStatement(jdbcSession, "PRAGMA synchronous = " + originalSynchronous);
+                originalSynchronous = null;
+            }
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+    }
+}
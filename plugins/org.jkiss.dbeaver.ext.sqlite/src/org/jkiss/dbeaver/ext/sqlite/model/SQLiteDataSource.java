@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 
@@ -114,6 +115,14 @@ public class SQLiteDataSource extends GenericDataSource {
         return SQLiteTable.class;
     }
 
+    @Override
+    public <T> T getAdapter(Class<T> adapter) {
+        if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new SQLiteBulkLoader(this));
+        }
+        return super.getAdapter(adapter);
+    }
+
     @Override
     public ErrorType discoverErrorType(@NotNull Throwable error) {
         if (error instanceof SQLException && ((SQLException) error).getErrorCode() == 19) {
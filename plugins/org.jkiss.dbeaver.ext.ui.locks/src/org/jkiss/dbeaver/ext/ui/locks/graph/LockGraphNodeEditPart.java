@@ -45,7 +45,7 @@ public class LockGraphNodeEditPart extends AbstractGraphicalEditPart {
 	protected IFigure createFigure() {
 		LockGraphNode node = (LockGraphNode) getModel();
 		LockGraph graph = (LockGraph) getParent().getModel();
-		LockGraphNodeFigure nodeFigure = new LockGraphNodeFigure(node.getTitle(),(node == graph.getSelection()));
+		LockGraphNodeFigure nodeFigure = new LockGraphNodeFigure(node.getTitle(), node == graph.getSelection(), node.isDeadlocked());
 		this.targetAnchor = new LockGraphConnectionAnchor(nodeFigure);
 		this.sourceAnchor = new LockGraphConnectionAnchor(nodeFigure);
 		return nodeFigure;
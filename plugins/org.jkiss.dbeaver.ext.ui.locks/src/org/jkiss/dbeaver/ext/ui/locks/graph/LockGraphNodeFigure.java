@@ -27,9 +27,13 @@ public class LockGraphNodeFigure extends Figure {
 	private RectangleFigure rectangleFigure;
 
 	public LockGraphNodeFigure(String  title,boolean selected) {
+		this(title, selected, false);
+	}
+
+	public LockGraphNodeFigure(String title, boolean selected, boolean deadlocked) {
 		setLayoutManager(new XYLayout());
 		this.rectangleFigure = new RectangleFigure();
-		this.rectangleFigure.setBackgroundColor(selected ? ColorConstants.orange : ColorConstants.lightGray);
+		this.rectangleFigure.setBackgroundColor(selected ? ColorConstants.orange : deadlocked ? ColorConstants.red : ColorConstants.lightGray);
 		add(this.rectangleFigure);
 		this.label = new Label();
 		this.label.setText(title); //$NON-NLS-1$		
@@ -32,9 +32,12 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCFactory;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractDataSource;
+import org.jkiss.dbeaver.model.impl.data.DictionaryCache;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshot;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCConnectionImpl;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFactoryDefault;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
@@ -86,6 +89,8 @@ public abstract class JDBCDataSource extends AbstractDataSource
 
     private final transient List<Connection> closingConnections = new ArrayList<>();
     protected List<Path> tempFiles;
+    private JDBCMetadataSnapshot metadataSnapshot;
+    private volatile DictionaryCache dictionaryCache;
 
 
     protected JDBCDataSource(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSourceContainer container, @NotNull SQLDialect dialect)
@@ -453,6 +458,14 @@ public abstract class JDBCDataSource extends AbstractDataSource
         }
         defaultRemoteInstance = null;
 
+        synchronized (this) {
+            if (metadataSnapshot != null) {
+                metadataSnapshot.save();
+                metadataSnapshot = null;
+            }
+        }
+        dictionaryCache = null;
+
         if (tempFiles != null) {
             for (Path tmpFile : tempFiles) {
                 try {
@@ -469,6 +482,50 @@ public abstract class JDBCDataSource extends AbstractDataSource
         }
     }
 
+    /**
+     * Returns cache of dictionary values used to resolve foreign key descriptions.
+     * Returns null if dictionary cache is disabled.
+     */
+    @Nullable
+    public DictionaryCache getDictionaryCache() {
+        DictionaryCache cache = this.dictionaryCache;
+        if (cache == null) {
+            DBPPreferenceStore preferenceStore = getContainer().getPreferenceStore();
+            int cacheSize = preferenceStore.getInt(ModelPreferences.RESULT_SET_DICTIONARY_CACHE_SIZE);
+            if (cacheSize <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                cache = this.dictionaryCache;
+                if (cache == null) {
+                    cache = new DictionaryCache(
+                        cacheSize,
+                        preferenceStore.getLong(ModelPreferences.RESULT_SET_DICTIONARY_CACHE_TTL) * 1000);
+                    this.dictionaryCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns persistent metadata snapshot of this data source.
+     * Returns null if metadata snapshots are disabled for this data source.
+     */
+    @Nullable
+    public synchronized JDBCMetadataSnapshot getMetadataSnapshot() {
+        DBPPreferenceStore preferenceStore = getContainer().getPreferenceStore();
+        if (!preferenceStore.getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED)) {
+            return null;
+        }
+        if (metadataSnapshot == null) {
+            metadataSnapshot = new JDBCMetadataSnapshot(
+                JDBCMetadataSnapshot.getSnapshotFile(getContainer()),
+                preferenceStore.getLong(ModelPreferences.META_SNAPSHOT_MAX_SIZE));
+        }
+        return metadataSnapshot;
+    }
+
     @Override
     public void initialize(@NotNull DBRProgressMonitor monitor)
         throws DBException
@@ -791,6 +848,8 @@ public abstract class JDBCDataSource extends AbstractDataSource
             return adapter.cast(DBUtils.getDefaultContext(getDefaultInstance(), false));
         } else if (adapter == DBCQueryTransformProvider.class) {
             return adapter.cast(this);
+        } else if (adapter == DictionaryCache.class) {
+            return adapter.cast(getDictionaryCache());
         }
         return null;
     }
@@ -22,12 +22,14 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPAdaptable;
 import org.jkiss.dbeaver.model.DBPTransactionIsolation;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCSavepointImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCStatementCache;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
@@ -63,6 +65,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
+    private volatile JDBCStatementCache statementCache;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
@@ -87,6 +90,29 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         return dbCon;
     }
 
+    /**
+     * Returns cache of prepared statements used for metadata reading.
+     * Returns null if statement cache is disabled.
+     */
+    @Nullable
+    public JDBCStatementCache getStatementCache() {
+        JDBCStatementCache cache = this.statementCache;
+        if (cache == null) {
+            int cacheSize = dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.META_STATEMENT_CACHE_SIZE);
+            if (cacheSize <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                cache = this.statementCache;
+                if (cache == null) {
+                    cache = new JDBCStatementCache(cacheSize);
+                    this.statementCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     public void connect(DBRProgressMonitor monitor) throws DBCException {
         connect(monitor, null, null, null, true);
     }
@@ -187,6 +213,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
+            if (statementCache != null) {
+                // Cached statements belong to the closed connection
+                statementCache.invalidate();
+            }
             // If we cannot determine if connection is in autocommit mode, assume that it is not
             if (connection != null && !dataSource.closeConnection(connection, purpose, !isAutoCommit(false))) {
                 log.debug("Connection close timeout");
@@ -17,16 +17,20 @@
 package org.jkiss.dbeaver.model.impl.jdbc;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.struct.DirectObjectReference;
 import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectReference;
 import org.jkiss.dbeaver.model.struct.DBSObjectType;
 import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -68,8 +72,22 @@ public abstract class JDBCStructureAssistant<CONTEXT extends JDBCExecutionContex
     public List<DBSObjectReference> findObjectsByMask(@NotNull DBRProgressMonitor monitor, @NotNull CONTEXT executionContext,
                                                       @NotNull ObjectsSearchParams params) throws DBException {
         List<DBSObjectReference> references = new ArrayList<>();
+        List<DBSObjectType> remoteTypes = new ArrayList<>();
+        for (DBSObjectType type : params.getObjectTypes()) {
+            if (references.size() >= params.getMaxResults()) {
+                break;
+            }
+            List<? extends AbstractObjectCache<?, ?>> caches = params.isSearchInComments() || params.isSearchInDefinitions() ?
+                null : getSearchObjectCaches(executionContext, type, params);
+            if (caches == null || !findCachedObjectsByMask(caches, type, params, references)) {
+                remoteTypes.add(type);
+            }
+        }
+        if (remoteTypes.isEmpty() || references.size() >= params.getMaxResults()) {
+            return references;
+        }
         try (JDBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.META, ModelMessages.model_jdbc_find_objects_by_name)) {
-            for (DBSObjectType type : params.getObjectTypes()) {
+            for (DBSObjectType type : remoteTypes) {
                 try {
                     findObjectsByMask(executionContext, session, type, params, references);
                 } catch (Exception e) {
@@ -83,6 +101,40 @@ public abstract class JDBCStructureAssistant<CONTEXT extends JDBCExecutionContex
         return references;
     }
 
+    /**
+     * Returns caches which contain all objects of the specified type in the search scope.
+     * If all these caches are fully loaded then objects are searched locally, without database queries.
+     * Returns null if search scope can't be mapped to caches.
+     */
+    @Nullable
+    protected List<? extends AbstractObjectCache<?, ?>> getSearchObjectCaches(@NotNull CONTEXT executionContext, @NotNull DBSObjectType objectType,
+                                                                              @NotNull ObjectsSearchParams params) {
+        return null;
+    }
+
+    /**
+     * Searches objects in caches.
+     * @return false if some of the caches isn't fully loaded. Nothing is added to references in this case.
+     */
+    protected boolean findCachedObjectsByMask(@NotNull List<? extends AbstractObjectCache<?, ?>> caches, @NotNull DBSObjectType objectType,
+                                              @NotNull ObjectsSearchParams params, @NotNull List<? super DBSObjectReference> references) {
+        for (AbstractObjectCache<?, ?> cache : caches) {
+            if (!cache.isFullyCached()) {
+                return false;
+            }
+        }
+        int maxResults = params.getMaxResults();
+        for (AbstractObjectCache<?, ?> cache : caches) {
+            if (references.size() >= maxResults) {
+                break;
+            }
+            for (DBSObject object : cache.findCachedObjectsByMask(params.getMask(), params.isCaseSensitive(), maxResults - references.size())) {
+                references.add(new DirectObjectReference(object.getParentObject(), objectType, object));
+            }
+        }
+        return true;
+    }
+
     protected abstract void findObjectsByMask(@NotNull CONTEXT executionContext, @NotNull JDBCSession session, @NotNull DBSObjectType objectType,
                                   @NotNull ObjectsSearchParams params, @NotNull List<DBSObjectReference> references) throws DBException, SQLException;
 }
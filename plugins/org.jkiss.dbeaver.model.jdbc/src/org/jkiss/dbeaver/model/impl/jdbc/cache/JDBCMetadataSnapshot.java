@@ -0,0 +1,415 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent snapshot of metadata read by object caches of a single data source.
+ * <p>
+ * Snapshot keeps raw values which were read by caches from metadata result sets.
+ * Objects are re-created from these values by the cache itself, so snapshot doesn't depend on model classes.
+ * Entries are evicted in LRU order when the total snapshot size exceeds the maximum size.
+ * Snapshot is loaded on first access and saved on data source shutdown.
+ */
+public class JDBCMetadataSnapshot {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshot.class);
+
+    private static final String SNAPSHOTS_FOLDER = "metadata-snapshots"; //$NON-NLS-1$
+    private static final String SNAPSHOT_FILE_EXT = ".dbsnap"; //$NON-NLS-1$
+
+    private static final int FILE_MAGIC = 0x44425353;
+    private static final int FILE_VERSION = 1;
+
+    // Approximate memory overhead of a single entry and a single row
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int ROW_OVERHEAD = 16;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_BYTE = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_FLOAT = 8;
+    private static final byte TYPE_DECIMAL = 9;
+    private static final byte TYPE_TIMESTAMP = 10;
+    private static final byte TYPE_DATE = 11;
+    private static final byte TYPE_TIME = 12;
+    private static final byte TYPE_BYTES = 13;
+
+    private final Path file;
+    private final long maxSize;
+    // Access-ordered, eldest entry is the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    private boolean loaded;
+    private boolean dirty;
+
+    public JDBCMetadataSnapshot(@NotNull Path file, long maxSize) {
+        this.file = file;
+        this.maxSize = maxSize;
+    }
+
+    @NotNull
+    public static Path getSnapshotFile(@NotNull DBPDataSourceContainer container) {
+        return DBWorkbench.getPlatform().getWorkspace().getMetadataFolder()
+            .resolve(SNAPSHOTS_FOLDER)
+            .resolve(CommonUtils.escapeFileName(container.getProject().getName()))
+            .resolve(CommonUtils.escapeFileName(container.getId()) + SNAPSHOT_FILE_EXT);
+    }
+
+    @NotNull
+    public Path getFile() {
+        return file;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getSize() {
+        ensureLoaded();
+        return totalSize;
+    }
+
+    public synchronized int getEntryCount() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    /**
+     * Returns entry which was loaded from disk and wasn't used in this session yet.
+     * Each stale entry is returned only once, following reads must go to the database.
+     */
+    @Nullable
+    synchronized Entry takeStaleEntry(@NotNull String key) {
+        ensureLoaded();
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.stale) {
+            return null;
+        }
+        entry.stale = false;
+        return entry;
+    }
+
+    synchronized void putEntry(@NotNull String key, @NotNull Entry entry) {
+        ensureLoaded();
+        removeEntry(key);
+        if (entry.size > maxSize) {
+            log.debug("Metadata snapshot entry '" + key + "' exceeds maximum snapshot size");
+            return;
+        }
+        entries.put(key, entry);
+        totalSize += entry.size;
+        dirty = true;
+        for (Iterator<Entry> iter = entries.values().iterator(); totalSize > maxSize && iter.hasNext(); ) {
+            Entry eldest = iter.next();
+            iter.remove();
+            totalSize -= eldest.size;
+        }
+    }
+
+    synchronized void removeEntry(@NotNull String key) {
+        ensureLoaded();
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalSize -= entry.size;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes all entries and the snapshot file
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalSize = 0;
+        loaded = true;
+        dirty = false;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Error deleting metadata snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Writes snapshot to disk if it was changed
+     */
+    public synchronized void save() {
+        if (!loaded || !dirty) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Error saving metadata snapshot " + file, e);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                log.debug("Unsupported metadata snapshot format in " + file);
+                return;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = in.readUTF();
+                Entry entry = Entry.read(in);
+                entries.put(key, entry);
+                totalSize += entry.size;
+            }
+        } catch (IOException e) {
+            log.debug("Error reading metadata snapshot " + file + ". Snapshot discarded.", e);
+            entries.clear();
+            totalSize = 0;
+        }
+    }
+
+    /**
+     * Values of a single metadata result set.
+     * Each row is an encoded list of (value key index, value) pairs.
+     * Value key is a result set getter name with its column label or index.
+     */
+    static class Entry {
+        final String[] keys;
+        final List<byte[]> rows;
+        final long size;
+        // Entry was loaded from disk and wasn't validated against the database yet
+        boolean stale;
+
+        Entry(@NotNull String[] keys, @NotNull List<byte[]> rows) {
+            this.keys = keys;
+            this.rows = rows;
+            long size = ENTRY_OVERHEAD;
+            for (String key : keys) {
+                size += key.length() * 2L;
+            }
+            for (byte[] row : rows) {
+                size += row.length + ROW_OVERHEAD;
+            }
+            this.size = size;
+        }
+
+        boolean hasSameKeys(@NotNull Entry entry) {
+            return Arrays.equals(keys, entry.keys);
+        }
+
+        @NotNull
+        Set<ByteBuffer> getRowSet() {
+            Set<ByteBuffer> rowSet = new HashSet<>(rows.size());
+            for (byte[] row : rows) {
+                rowSet.add(ByteBuffer.wrap(row));
+            }
+            return rowSet;
+        }
+
+        private void write(@NotNull DataOutputStream out) throws IOException {
+            out.writeInt(keys.length);
+            for (String key : keys) {
+                out.writeUTF(key);
+            }
+            out.writeInt(rows.size());
+            for (byte[] row : rows) {
+                out.writeInt(row.length);
+                out.write(row);
+            }
+        }
+
+        @NotNull
+        private static Entry read(@NotNull DataInputStream in) throws IOException {
+            String[] keys = new String[in.readInt()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = in.readUTF();
+            }
+            int rowCount = in.readInt();
+            List<byte[]> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                byte[] row = new byte[in.readInt()];
+                in.readFully(row);
+                rows.add(row);
+            }
+            Entry entry = new Entry(keys, rows);
+            entry.stale = true;
+            return entry;
+        }
+    }
+
+    /**
+     * Checks whether value can be stored in snapshot
+     */
+    static boolean isSupportedValue(@Nullable Object value) {
+        if (value == null) {
+            return true;
+        }
+        Class<?> valueClass = value.getClass();
+        return valueClass == String.class || valueClass == Integer.class || valueClass == Long.class ||
+            valueClass == Short.class || valueClass == Byte.class || valueClass == Boolean.class ||
+            valueClass == Double.class || valueClass == Float.class || valueClass == BigDecimal.class ||
+            valueClass == Timestamp.class || valueClass == java.sql.Date.class || valueClass == Time.class ||
+            valueClass == byte[].class;
+    }
+
+    static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String str) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, str);
+        } else if (value instanceof Integer intValue) {
+            out.writeByte(TYPE_INT);
+            out.writeInt(intValue);
+        } else if (value instanceof Long longValue) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(longValue);
+        } else if (value instanceof Short shortValue) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort(shortValue);
+        } else if (value instanceof Byte byteValue) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte(byteValue);
+        } else if (value instanceof Boolean boolValue) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(boolValue);
+        } else if (value instanceof Double doubleValue) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(doubleValue);
+        } else if (value instanceof Float floatValue) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(floatValue);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(TYPE_DECIMAL);
+            writeString(out, decimal.toString());
+        } else if (value instanceof Timestamp timestamp) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(date.getTime());
+        } else if (value instanceof Time time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(time.getTime());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(TYPE_BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            throw new IOException("Unsupported snapshot value type: " + value.getClass().getName());
+        }
+    }
+
+    @Nullable
+    static Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_SHORT:
+                return in.readShort();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_DECIMAL:
+                return new BigDecimal(readString(in));
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_TIME:
+                return new Time(in.readLong());
+            case TYPE_BYTES: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException("Bad snapshot value type: " + type);
+        }
+    }
+
+    // writeUTF is limited to 64K, metadata strings (e.g. view definitions) may be longer
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
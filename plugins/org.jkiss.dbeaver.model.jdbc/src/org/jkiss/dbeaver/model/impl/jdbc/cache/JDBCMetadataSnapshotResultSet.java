@@ -0,0 +1,322 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.*;
+
+/**
+ * Result sets which record metadata values into snapshot entries and read them back.
+ * <p>
+ * Only column values read by simple getters are recorded. If cache uses any other result set
+ * feature (metadata, arrays, LOBs, driver-specific objects) then the result set is not recordable.
+ */
+final class JDBCMetadataSnapshotResultSet {
+
+    private static final Set<String> VALUE_GETTERS = Set.of(
+        "getString", "getNString", "getInt", "getLong", "getShort", "getByte", "getBoolean", //$NON-NLS-1$
+        "getDouble", "getFloat", "getBigDecimal", "getObject", "getTimestamp", "getDate", "getTime", "getBytes"); //$NON-NLS-1$
+
+    private JDBCMetadataSnapshotResultSet() {
+    }
+
+    private static boolean isValueGetter(@NotNull Method method) {
+        if (method.getParameterCount() != 1 || !VALUE_GETTERS.contains(method.getName())) {
+            return false;
+        }
+        Class<?> paramType = method.getParameterTypes()[0];
+        return paramType == String.class || paramType == int.class;
+    }
+
+    @NotNull
+    private static String makeValueKey(@NotNull Method method, @NotNull Object column) {
+        return method.getName() + ":" + column;
+    }
+
+    @NotNull
+    private static ResultSet makeProxy(@NotNull InvocationHandler handler) {
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCMetadataSnapshotResultSet.class.getClassLoader(),
+            new Class[]{ResultSet.class},
+            handler);
+    }
+
+    @Nullable
+    private static Object handleObjectMethod(@NotNull Object proxy, @NotNull Method method, @Nullable Object[] args) {
+        switch (method.getName()) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return "Metadata snapshot result set";
+        }
+    }
+
+    @Nullable
+    private static Object getDefaultValue(@NotNull Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        } else if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == float.class) {
+            return 0.0f;
+        }
+        return null;
+    }
+
+    /**
+     * Passes all calls to the original result set and records values read by the caller
+     */
+    static class Recorder implements InvocationHandler {
+        private ResultSet original;
+        private final Map<String, Integer> keys = new LinkedHashMap<>();
+        private final List<byte[]> rows = new ArrayList<>();
+        private final ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+        private final DataOutputStream rowOut = new DataOutputStream(rowBuffer);
+        private final Set<Integer> rowKeys = new HashSet<>();
+        private boolean inRow;
+        private boolean recordable = true;
+
+        /**
+         * Wraps original result set. Caller is responsible for closing the original result set.
+         */
+        @NotNull
+        JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original) throws SQLException {
+            this.original = original;
+            return JDBCResultSetImpl.makeResultSet(session, statement, makeProxy(this), "Record metadata snapshot", true);
+        }
+
+        /**
+         * Index of the current row in the recorded entry
+         */
+        int getRowIndex() {
+            return rows.size();
+        }
+
+        /**
+         * Returns recorded entry or null if result set was read in a way which can't be recorded
+         */
+        @Nullable
+        JDBCMetadataSnapshot.Entry finish() {
+            finishRow();
+            if (!recordable) {
+                return null;
+            }
+            return new JDBCMetadataSnapshot.Entry(keys.keySet().toArray(new String[0]), new ArrayList<>(rows));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return handleObjectMethod(proxy, method, args);
+            }
+            String methodName = method.getName();
+            if (methodName.equals("next")) {
+                finishRow();
+                boolean hasRow = (Boolean) invokeOriginal(method, args);
+                inRow = hasRow;
+                return hasRow;
+            }
+            if (!isValueGetter(method)) {
+                switch (methodName) {
+                    case "close":
+                    case "isClosed":
+                    case "wasNull":
+                    case "getWarnings":
+                    case "clearWarnings":
+                    case "getFetchSize":
+                    case "setFetchSize":
+                        break;
+                    default:
+                        recordable = false;
+                        break;
+                }
+                return invokeOriginal(method, args);
+            }
+            Object result = invokeOriginal(method, args);
+            if (inRow && recordable) {
+                recordValue(makeValueKey(method, args[0]), result == null || original.wasNull() ? null : result);
+            }
+            return result;
+        }
+
+        private Object invokeOriginal(@NotNull Method method, @Nullable Object[] args) throws Throwable {
+            try {
+                return method.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private void recordValue(@NotNull String key, @Nullable Object value) {
+            if (!JDBCMetadataSnapshot.isSupportedValue(value)) {
+                recordable = false;
+                return;
+            }
+            Integer keyIndex = keys.get(key);
+            if (keyIndex == null) {
+                if (keys.size() >= Short.MAX_VALUE) {
+                    recordable = false;
+                    return;
+                }
+                keyIndex = keys.size();
+                keys.put(key, keyIndex);
+            }
+            if (!rowKeys.add(keyIndex)) {
+                // Value was already read
+                return;
+            }
+            try {
+                rowOut.writeShort(keyIndex);
+                JDBCMetadataSnapshot.writeValue(rowOut, value);
+            } catch (IOException e) {
+                recordable = false;
+            }
+        }
+
+        private void finishRow() {
+            if (inRow && recordable) {
+                rows.add(rowBuffer.toByteArray());
+            }
+            inRow = false;
+            rowBuffer.reset();
+            rowKeys.clear();
+        }
+    }
+
+    /**
+     * Reads values recorded in snapshot entry
+     */
+    static class Player implements InvocationHandler {
+        private final JDBCMetadataSnapshot.Entry entry;
+        private int rowIndex = -1;
+        private Object[] rowValues;
+        private boolean lastWasNull;
+        private boolean closed;
+        private Map<String, Integer> keyIndexes;
+
+        Player(@NotNull JDBCMetadataSnapshot.Entry entry) {
+            this.entry = entry;
+        }
+
+        @NotNull
+        JDBCResultSet makeResultSet(@NotNull JDBCSession session) throws SQLException {
+            return JDBCResultSetImpl.makeResultSet(session, null, makeProxy(this), "Read metadata snapshot", true);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return handleObjectMethod(proxy, method, args);
+            }
+            if (isValueGetter(method)) {
+                if (rowValues == null) {
+                    throw new SQLException("No current row in metadata snapshot");
+                }
+                String valueKey = makeValueKey(method, args[0]);
+                Integer keyIndex = getKeyIndexes().get(valueKey);
+                if (keyIndex == null) {
+                    // Snapshot was recorded by a different version of the cache
+                    throw new SQLException("Value '" + valueKey + "' is missing in metadata snapshot");
+                }
+                Object value = rowValues[keyIndex];
+                lastWasNull = value == null;
+                return value == null ? getDefaultValue(method.getReturnType()) : value;
+            }
+            switch (method.getName()) {
+                case "next":
+                    return nextRow();
+                case "close":
+                    closed = true;
+                    rowValues = null;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "wasNull":
+                    return lastWasNull;
+                case "getFetchSize":
+                    return 0;
+                case "getWarnings":
+                case "clearWarnings":
+                case "setFetchSize":
+                    return null;
+                default:
+                    throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+            }
+        }
+
+        @NotNull
+        private Map<String, Integer> getKeyIndexes() {
+            if (keyIndexes == null) {
+                keyIndexes = new HashMap<>(entry.keys.length);
+                for (int i = 0; i < entry.keys.length; i++) {
+                    keyIndexes.put(entry.keys[i], i);
+                }
+            }
+            return keyIndexes;
+        }
+
+        private boolean nextRow() throws SQLException {
+            rowIndex++;
+            if (closed || rowIndex >= entry.rows.size()) {
+                rowValues = null;
+                return false;
+            }
+            byte[] row = entry.rows.get(rowIndex);
+            rowValues = new Object[entry.keys.length];
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(row))) {
+                while (in.available() > 0) {
+                    int keyIndex = in.readShort();
+                    rowValues[keyIndex] = JDBCMetadataSnapshot.readValue(in);
+                }
+            } catch (IOException | IndexOutOfBoundsException e) {
+                throw new SQLException("Corrupted metadata snapshot row", e);
+            }
+            return true;
+        }
+    }
+
+}
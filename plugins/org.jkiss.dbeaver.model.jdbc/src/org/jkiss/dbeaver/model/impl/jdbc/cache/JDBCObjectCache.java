@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.cache;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -26,16 +28,17 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 import org.jkiss.utils.CommonUtils;
 
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
 /**
  * Various objects cache.
@@ -49,6 +52,7 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    private volatile boolean snapshotStale;
 
     protected JDBCObjectCache() {
     }
@@ -99,49 +103,29 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         if (dataSource == null) {
             throw new DBException(ModelMessages.error_not_connected_to_database);
         }
+        JDBCMetadataSnapshot snapshot = null;
+        JDBCMetadataSnapshot.Entry snapshotEntry = null;
         if (owner.isPersisted()) {
+            snapshot = dataSource instanceof JDBCDataSource jdbcDataSource ? jdbcDataSource.getMetadataSnapshot() : null;
+            if (snapshot != null) {
+                snapshotEntry = snapshot.takeStaleEntry(getSnapshotKey(owner));
+                if (snapshotEntry != null && !readSnapshotObjects(monitor, owner, snapshotEntry, tmpObjectList)) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                    snapshotEntry = null;
+                }
+            }
+        }
+        if (owner.isPersisted() && snapshotEntry == null) {
             // Load cache from database only for persisted objects
             try {
-                try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
-                    beforeCacheLoading(session, owner);
-                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                        monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
-                        if (dbResult != null) {
-                            try {
-                                while (dbResult.next()) {
-                                    if (monitor.isCanceled()) {
-                                        return;
-                                    }
-
-                                    OBJECT object = fetchObject(session, owner, dbResult);
-                                    if (object == null || !isValidObject(monitor, owner, object)) {
-                                        continue;
-                                    }
-                                    tmpObjectList.add(object);
-
-                                    // Do not log every object load. This overheats UI in case of long lists
-                                    //monitor.subTask(object.getName());
-                                    if (tmpObjectList.size() == maximumCacheSize) {
-                                        log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                        break;
-                                    }
-                                }
-                            } finally {
-                                dbResult.close();
-                            }
-                        }
-                    } finally {
-                        afterCacheLoading(session, owner);
-                    }
-                } catch (SQLException ex) {
-                    throw new DBException(ex, dataSource);
-                } catch (DBException ex) {
-                    throw ex;
-                } catch (Exception ex) {
-                    throw new DBException("Internal driver error", ex);
+                JDBCMetadataSnapshotResultSet.Recorder recorder = snapshot == null ? null : new JDBCMetadataSnapshotResultSet.Recorder();
+                if (!readObjects(monitor, owner, tmpObjectList, recorder, null)) {
+                    return;
+                }
+                if (recorder != null) {
+                    saveSnapshotEntry(snapshot, owner, recorder);
                 }
             } catch (Exception e) {
                 if (!handleCacheReadError(e)) {
@@ -160,6 +144,230 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         detectCaseSensitivity(owner);
         mergeCache(tmpObjectList);
         this.invalidateObjects(monitor, owner, new CacheIterator());
+
+        this.snapshotStale = snapshotEntry != null;
+        if (snapshotEntry != null) {
+            scheduleSnapshotValidation(owner, snapshot, snapshotEntry);
+        }
+    }
+
+    /**
+     * Reads objects from database.
+     * @param recorder records read metadata values if specified
+     * @param objectRows receives recorded row index of each read object if specified
+     * @return false if read was canceled
+     */
+    private boolean readObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull OWNER owner,
+        @NotNull List<OBJECT> objectList,
+        @Nullable JDBCMetadataSnapshotResultSet.Recorder recorder,
+        @Nullable List<Integer> objectRows)
+        throws DBException
+    {
+        DBPDataSource dataSource = owner.getDataSource();
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
+            beforeCacheLoading(session, owner);
+            try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+                monitor.subTask("Load " + getCacheName());
+                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                dbStat.executeStatement();
+                JDBCResultSet dbResult = dbStat.getResultSet();
+                if (dbResult != null) {
+                    try {
+                        JDBCResultSet fetchResult = recorder == null ? dbResult : recorder.makeResultSet(session, dbStat, dbResult);
+                        while (fetchResult.next()) {
+                            if (monitor.isCanceled()) {
+                                return false;
+                            }
+
+                            OBJECT object = fetchObject(session, owner, fetchResult);
+                            if (object == null || !isValidObject(monitor, owner, object)) {
+                                continue;
+                            }
+                            objectList.add(object);
+                            if (objectRows != null && recorder != null) {
+                                objectRows.add(recorder.getRowIndex());
+                            }
+
+                            // Do not log every object load. This overheats UI in case of long lists
+                            //monitor.subTask(object.getName());
+                            if (objectList.size() == maximumCacheSize) {
+                                log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                                break;
+                            }
+                        }
+                    } finally {
+                        dbResult.close();
+                    }
+                }
+            } finally {
+                afterCacheLoading(session, owner);
+            }
+        } catch (SQLException ex) {
+            throw new DBException(ex, dataSource);
+        } catch (DBException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new DBException("Internal driver error", ex);
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if cached objects were read from metadata snapshot and weren't validated against the database yet
+     */
+    public boolean isSnapshotStale() {
+        return snapshotStale;
+    }
+
+    @NotNull
+    protected String getSnapshotKey(@NotNull OWNER owner) {
+        return getClass().getName() + "/" + DBUtils.getObjectFullId(owner);
+    }
+
+    private boolean readSnapshotObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetadataSnapshot.Entry snapshotEntry,
+        @NotNull List<OBJECT> objectList)
+    {
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Read " + getCacheName() + " from metadata snapshot")) {
+            monitor.subTask("Read " + getCacheName() + " from metadata snapshot");
+            JDBCResultSet dbResult = new JDBCMetadataSnapshotResultSet.Player(snapshotEntry).makeResultSet(session);
+            try {
+                while (dbResult.next()) {
+                    if (monitor.isCanceled()) {
+                        objectList.clear();
+                        return false;
+                    }
+                    OBJECT object = fetchObject(session, owner, dbResult);
+                    if (object == null || !isValidObject(monitor, owner, object)) {
+                        continue;
+                    }
+                    objectList.add(object);
+                }
+            } finally {
+                dbResult.close();
+            }
+            return true;
+        } catch (Exception e) {
+            log.debug("Error reading " + getCacheName() + " from metadata snapshot", e);
+            objectList.clear();
+            return false;
+        }
+    }
+
+    private void saveSnapshotEntry(
+        @NotNull JDBCMetadataSnapshot snapshot,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetadataSnapshotResultSet.Recorder recorder)
+    {
+        JDBCMetadataSnapshot.Entry entry = recorder.finish();
+        if (entry != null) {
+            snapshot.putEntry(getSnapshotKey(owner), entry);
+        } else {
+            snapshot.removeEntry(getSnapshotKey(owner));
+        }
+    }
+
+    private void scheduleSnapshotValidation(
+        @NotNull OWNER owner,
+        @NotNull JDBCMetadataSnapshot snapshot,
+        @NotNull JDBCMetadataSnapshot.Entry snapshotEntry)
+    {
+        AbstractJob validateJob = new AbstractJob("Validate " + getCacheName() + " metadata snapshot") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    validateSnapshotObjects(monitor, owner, snapshot, snapshotEntry);
+                } catch (Exception e) {
+                    log.debug("Error validating " + getCacheName() + " metadata snapshot", e);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        validateJob.setSystem(true);
+        validateJob.schedule();
+    }
+
+    /**
+     * Reads objects from database and applies differences to objects read from the snapshot.
+     * Objects with unchanged metadata are kept as is, changed objects are updated in place.
+     */
+    private void validateSnapshotObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetadataSnapshot snapshot,
+        @NotNull JDBCMetadataSnapshot.Entry snapshotEntry)
+        throws DBException
+    {
+        List<OBJECT> newObjects = new ArrayList<>();
+        List<Integer> objectRows = new ArrayList<>();
+        JDBCMetadataSnapshotResultSet.Recorder recorder = new JDBCMetadataSnapshotResultSet.Recorder();
+        if (!readObjects(monitor, owner, newObjects, recorder, objectRows)) {
+            return;
+        }
+        JDBCMetadataSnapshot.Entry newEntry = recorder.finish();
+        addCustomObjects(newObjects);
+
+        List<OBJECT> addedObjects = new ArrayList<>();
+        List<OBJECT> updatedObjects = new ArrayList<>();
+        Collection<OBJECT> removedObjects;
+        synchronized (this) {
+            if (!snapshotStale || !isFullyCached()) {
+                // Cache was refreshed meanwhile
+                return;
+            }
+            snapshotStale = false;
+            if (newEntry != null) {
+                snapshot.putEntry(getSnapshotKey(owner), newEntry);
+            } else {
+                snapshot.removeEntry(getSnapshotKey(owner));
+            }
+
+            Set<ByteBuffer> snapshotRows = newEntry != null && newEntry.hasSameKeys(snapshotEntry) ?
+                snapshotEntry.getRowSet() : Collections.emptySet();
+            Map<String, OBJECT> oldObjects = new LinkedHashMap<>();
+            for (OBJECT object : getCachedObjects()) {
+                oldObjects.put(object.getName(), object);
+            }
+            List<OBJECT> resultObjects = new ArrayList<>(newObjects.size());
+            for (int i = 0; i < newObjects.size(); i++) {
+                OBJECT newObject = newObjects.get(i);
+                OBJECT oldObject = oldObjects.remove(newObject.getName());
+                if (oldObject == null) {
+                    resultObjects.add(newObject);
+                    addedObjects.add(newObject);
+                    continue;
+                }
+                // Custom objects have no rows
+                boolean changed = i < objectRows.size() &&
+                    !snapshotRows.contains(ByteBuffer.wrap(newEntry.rows.get(objectRows.get(i))));
+                if (changed) {
+                    deepCopyCachedObject(newObject, oldObject);
+                    updatedObjects.add(oldObject);
+                }
+                resultObjects.add(oldObject);
+            }
+            removedObjects = oldObjects.values();
+
+            Comparator<OBJECT> comparator = getListOrderComparator();
+            if (comparator != null) {
+                resultObjects.sort(comparator);
+            }
+            setCache(resultObjects);
+        }
+
+        for (OBJECT object : removedObjects) {
+            DBUtils.fireObjectRemove(object);
+        }
+        for (OBJECT object : addedObjects) {
+            DBUtils.fireObjectAdd(object, Collections.emptyMap());
+        }
+        for (OBJECT object : updatedObjects) {
+            DBUtils.fireObjectUpdate(object);
+        }
     }
 
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -39,7 +40,7 @@ import java.util.Date;
 /**
  * JDBC number value handler
  */
-public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements DBDValueHandlerConfigurable, DBDValueDefaultGenerator {
+public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements DBDValueHandlerConfigurable, DBDValueDefaultGenerator, DBDValueHandlerPrimitive {
 
     private static final Log log = Log.getLog(JDBCNumberValueHandler.class);
 
@@ -209,6 +210,69 @@ public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements
         return false;
     }
 
+    /**
+     * Returns false if handler reads values in its own way, so they can't be fetched as primitives
+     */
+    protected boolean isPrimitiveFetchSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean fetchPrimitiveValue(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @NotNull DBSTypedObject type,
+        int index,
+        @NotNull DBDPrimitiveValueReceiver receiver)
+        throws DBCException
+    {
+        if (!(resultSet instanceof JDBCResultSet dbResult) || !isPrimitiveFetchSupported()) {
+            return false;
+        }
+        // Reads the same way as fetchColumnValue. Errors fall back to the object value read.
+        try {
+            // JDBC uses 1-based indexes
+            switch (type.getTypeID()) {
+                case Types.INTEGER: {
+                    long value = dbResult.getLong(index + 1);
+                    if (dbResult.wasNull()) {
+                        receiver.setNull();
+                    } else {
+                        receiver.setLong(value);
+                    }
+                    return true;
+                }
+                case Types.SMALLINT: {
+                    int value = dbResult.getInt(index + 1);
+                    if (dbResult.wasNull()) {
+                        receiver.setNull();
+                    } else {
+                        receiver.setInt(value);
+                    }
+                    return true;
+                }
+                case Types.DOUBLE:
+                case Types.REAL:
+                case Types.FLOAT: {
+                    if (!isReadDecimalsAsDouble()) {
+                        return false;
+                    }
+                    double value = dbResult.getDouble(index + 1);
+                    if (dbResult.wasNull()) {
+                        receiver.setNull();
+                    } else {
+                        receiver.setDouble(value);
+                    }
+                    return true;
+                }
+                default:
+                    return false;
+            }
+        } catch (SQLException | ClassCastException | NumberFormatException e) {
+            return false;
+        }
+    }
+
     @Override
     protected void bindParameter(JDBCSession session, JDBCPreparedStatement statement, DBSTypedObject paramType,
                                  int paramIndex, Object value) throws SQLException, DBCException {
@@ -257,6 +257,12 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql)
         throws SQLException
     {
+        if (getPurpose() == DBCExecutionPurpose.META) {
+            JDBCStatementCache statementCache = getExecutionContext().getStatementCache();
+            if (statementCache != null) {
+                return createPreparedStatementImpl(statementCache.prepareStatement(getOriginal(), sql), sql);
+            }
+        }
         return createPreparedStatementImpl(getOriginal().prepareStatement(sql), sql);
     }
 
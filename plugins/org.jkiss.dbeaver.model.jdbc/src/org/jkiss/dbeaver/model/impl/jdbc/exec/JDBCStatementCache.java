@@ -0,0 +1,286 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * LRU cache of prepared statements of a single JDBC connection. Statements are keyed by SQL text.
+ * <p>
+ * Cache gives out statement handles. Handle returns statement to the cache on close,
+ * so it can be passed to {@link org.jkiss.dbeaver.model.exec.jdbc.JDBCFactory} as a regular statement.
+ * Statement is removed from the cache while it is in use, so the same statement
+ * is never shared by two sessions. Statement state (parameters, limits, timeout) is reset on checkout.
+ * Cache must be invalidated when the connection is closed or reopened.
+ * <p>
+ * Driver statements are cached rather than {@link JDBCPreparedStatementCachedImpl} instances:
+ * such instance is bound to the session which created it and bypasses the data source statement factory.
+ */
+public class JDBCStatementCache {
+
+    private static final Log log = Log.getLog(JDBCStatementCache.class);
+
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedStatement> statements;
+    private long generation;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public JDBCStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getSize() {
+        return statements.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Takes statement from the cache or prepares a new one.
+     * Returned statement goes back to the cache on close.
+     */
+    @NotNull
+    public PreparedStatement prepareStatement(@NotNull Connection connection, @NotNull String sql) throws SQLException {
+        CachedStatement cached;
+        long statementGeneration;
+        synchronized (this) {
+            cached = statements.remove(sql);
+            if (cached != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+            statementGeneration = generation;
+        }
+        if (cached != null) {
+            try {
+                cached.resetState();
+            } catch (Throwable e) {
+                log.debug("Error resetting cached statement: " + e.getMessage());
+                closeStatement(cached.statement);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            cached = new CachedStatement(connection.prepareStatement(sql));
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+            JDBCStatementCache.class.getClassLoader(),
+            new Class[]{PreparedStatement.class},
+            new StatementHandle(sql, cached, statementGeneration));
+    }
+
+    /**
+     * Closes all cached statements
+     */
+    public void invalidate() {
+        List<PreparedStatement> toClose = new ArrayList<>();
+        synchronized (this) {
+            generation++;
+            for (CachedStatement cached : statements.values()) {
+                toClose.add(cached.statement);
+            }
+            statements.clear();
+            if (hitCount + missCount > 0) {
+                log.debug(toString());
+            }
+        }
+        for (PreparedStatement statement : toClose) {
+            closeStatement(statement);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Statement cache (size=" + statements.size() + "/" + maxSize +
+            ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ")";
+    }
+
+    private void releaseStatement(@NotNull String sql, @NotNull CachedStatement cached, long statementGeneration) {
+        List<PreparedStatement> toClose = new ArrayList<>();
+        try {
+            if (cached.statement.isClosed()) {
+                return;
+            }
+            // Result set isn't closed together with a cached statement
+            ResultSet resultSet = cached.statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (Throwable e) {
+            log.debug("Error releasing cached statement: " + e.getMessage());
+            closeStatement(cached.statement);
+            return;
+        }
+        synchronized (this) {
+            if (statementGeneration != generation) {
+                toClose.add(cached.statement);
+            } else {
+                CachedStatement prevStatement = statements.put(sql, cached);
+                if (prevStatement != null && prevStatement != cached) {
+                    // The same query was prepared by another session meanwhile
+                    toClose.add(prevStatement.statement);
+                }
+                for (Iterator<CachedStatement> iter = statements.values().iterator(); statements.size() > maxSize && iter.hasNext(); ) {
+                    toClose.add(iter.next().statement);
+                    iter.remove();
+                    evictionCount++;
+                }
+            }
+        }
+        for (PreparedStatement statement : toClose) {
+            closeStatement(statement);
+        }
+    }
+
+    private static void closeStatement(@NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (Throwable e) {
+            log.debug("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Statement with its initial state
+     */
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int fetchSize;
+        private final int queryTimeout;
+
+        CachedStatement(@NotNull PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.fetchSize = statement.getFetchSize();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        void resetState() throws SQLException {
+            statement.clearParameters();
+            statement.clearWarnings();
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getMaxFieldSize() != maxFieldSize) {
+                statement.setMaxFieldSize(maxFieldSize);
+            }
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+        }
+    }
+
+    /**
+     * Checked out statement. Closing it returns statement to the cache.
+     */
+    private class StatementHandle implements InvocationHandler {
+        private final String sql;
+        private final CachedStatement cached;
+        private final long statementGeneration;
+        private boolean closed;
+
+        StatementHandle(@NotNull String sql, @NotNull CachedStatement cached, long statementGeneration) {
+            this.sql = sql;
+            this.cached = cached;
+            this.statementGeneration = statementGeneration;
+        }
+
+        @Nullable
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                case "toString":
+                    if (method.getParameterCount() == 0) {
+                        return "Cached statement: " + sql;
+                    }
+                    break;
+                case "close":
+                    if (method.getParameterCount() == 0) {
+                        if (!closed) {
+                            closed = true;
+                            releaseStatement(sql, cached, statementGeneration);
+                        }
+                        return null;
+                    }
+                    break;
+                case "isClosed":
+                    if (method.getParameterCount() == 0) {
+                        return closed || cached.statement.isClosed();
+                    }
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
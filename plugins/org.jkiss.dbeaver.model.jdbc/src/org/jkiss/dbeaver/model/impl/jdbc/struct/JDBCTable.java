@@ -22,13 +22,16 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.data.*;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
+import org.jkiss.dbeaver.model.impl.data.DictionaryCache;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchWithMultipleInsert;
 import org.jkiss.dbeaver.model.impl.data.ExecuteInsertBatchImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStringValueHandler;
@@ -48,11 +51,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -343,10 +342,12 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         boolean multiRowInsertSupported = getDataSource().getSQLDialect().getDefaultMultiValueInsertMode() == SQLDialect.MultiValueInsertMode.GROUP_ROWS;
         if (CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_USE_MULTI_INSERT)) && multiRowInsertSupported) {
-            return new ExecuteBatchWithMultipleInsert(attributes, keysReceiver, true, session, source, JDBCTable.this);
+            return new DictionaryInvalidatingBatch(
+                new ExecuteBatchWithMultipleInsert(attributes, keysReceiver, true, session, source, JDBCTable.this));
         }
 
-        return new ExecuteInsertBatchImpl(attributes, keysReceiver, true, session, source, JDBCTable.this, useUpsert(session));
+        return new DictionaryInvalidatingBatch(
+            new ExecuteInsertBatchImpl(attributes, keysReceiver, true, session, source, JDBCTable.this, useUpsert(session)));
     }
 
     ////////////////////////////////////////////////////////////////////
@@ -373,7 +374,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         DBSAttributeBase[] attributes = ArrayUtils.concatArrays(updateAttributes, keyAttributes);
 
-        return new ExecuteBatchImpl(attributes, keysReceiver, false) {
+        // Statement is reused (and batched) while NULL key values and custom value binds stay the same
+        return new DictionaryInvalidatingBatch(new ExecuteBatchImpl(attributes, keysReceiver, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -440,7 +442,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     handlers[k].bindValueObject(statement.getSession(), statement, attribute, paramIndex++, attributeValues[k]);
                 }
             }
-        };
+        });
     }
 
     ////////////////////////////////////////////////////////////////////
@@ -453,7 +455,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         readRequiredMeta(session.getProgressMonitor());
 
-        return new ExecuteBatchImpl(keyAttributes, null, false) {
+        // Statement is reused while NULL key values stay the same
+        return new DictionaryInvalidatingBatch(new ExecuteBatchImpl(keyAttributes, null, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -498,7 +501,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     handlers[k].bindValueObject(statement.getSession(), statement, attribute, paramIndex++, attributeValues[k]);
                 }
             }
-        };
+        });
     }
 
     ////////////////////////////////////////////////////////////////////
@@ -555,6 +558,11 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         );
     }
 
+    /**
+     * Reads dictionary values of the specified keys.
+     * Values without preceding keys are taken from the data source dictionary cache,
+     * keys missing in the cache are read with a single query.
+     */
     @NotNull
     @Override
     public List<DBDLabelValuePair> getDictionaryValues(
@@ -564,13 +572,56 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         @Nullable List<DBDAttributeValue> preceedingKeys,
         boolean sortByValue,
         boolean sortAsc) throws DBException
+    {
+        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
+        DictionaryCache cache = CommonUtils.isEmpty(preceedingKeys) ? getDictionaryCache() : null;
+        if (cache == null) {
+            return readDictionaryValues(monitor, keyColumn, descColumns, keyValues, preceedingKeys, sortByValue, sortAsc);
+        }
+
+        List<DBDLabelValuePair> result = new ArrayList<>(keyValues.size());
+        List<Object> missingKeys = new ArrayList<>();
+        for (Object keyValue : new LinkedHashSet<>(keyValues)) {
+            List<DBDLabelValuePair> cachedValue = DictionaryCache.isCacheableKey(keyValue) ?
+                cache.getValue(this, keyColumn.getName(), descColumns, keyValue) : null;
+            if (cachedValue == null) {
+                missingKeys.add(keyValue);
+            } else {
+                result.addAll(cachedValue);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            List<DBDLabelValuePair> loadedValues = readDictionaryValues(
+                monitor, keyColumn, descColumns, missingKeys, null, sortByValue, sortAsc);
+            cache.putValues(this, keyColumn.getName(), descColumns, missingKeys, loadedValues);
+            if (result.isEmpty()) {
+                return loadedValues;
+            }
+            result.addAll(loadedValues);
+        }
+        // Keep the same order as query would return
+        Comparator<DBDLabelValuePair> comparator = sortByValue ?
+            DBDLabelValuePair::compareTo :
+            Comparator.comparing(DBDLabelValuePair::getLabel, Comparator.nullsFirst(Comparator.naturalOrder()));
+        result.sort(sortAsc ? comparator : comparator.reversed());
+        return result;
+    }
+
+    @NotNull
+    private List<DBDLabelValuePair> readDictionaryValues(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @NotNull List<Object> keyValues,
+        @Nullable List<DBDAttributeValue> preceedingKeys,
+        boolean sortByValue,
+        boolean sortAsc) throws DBException
     {
         DBDValueHandler keyValueHandler = DBUtils.findValueHandler(keyColumn.getDataSource(), keyColumn);
 
         StringBuilder query = new StringBuilder();
         query.append("SELECT ").append(DBUtils.getQuotedIdentifier(keyColumn));
 
-        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
         if (descColumns != null) {
             query.append(", ").append(descColumns);
         }
@@ -627,6 +678,60 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         }
     }
 
+    /**
+     * Returns dictionary cache of the owner data source or null if cache is disabled
+     */
+    @Nullable
+    protected DictionaryCache getDictionaryCache() {
+        DATASOURCE dataSource = getDataSource();
+        return dataSource instanceof JDBCDataSource ? ((JDBCDataSource) dataSource).getDictionaryCache() : null;
+    }
+
+    /**
+     * Drops cached dictionary values of this table. Must be called when table data is modified.
+     */
+    protected void invalidateDictionaryCache() {
+        DictionaryCache cache = getDictionaryCache();
+        if (cache != null) {
+            cache.invalidate(this);
+        }
+    }
+
+    /**
+     * Invalidates dictionary cache once batch is executed.
+     * Cache is not invalidated before execution, otherwise concurrent lookups may cache old values again.
+     */
+    private class DictionaryInvalidatingBatch implements ExecuteBatch {
+        private final ExecuteBatch batch;
+
+        DictionaryInvalidatingBatch(@NotNull ExecuteBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void add(@NotNull Object[] attributeValues) throws DBCException {
+            batch.add(attributeValues);
+        }
+
+        @NotNull
+        @Override
+        public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+            DBCStatistics statistics = batch.execute(session, options);
+            invalidateDictionaryCache();
+            return statistics;
+        }
+
+        @Override
+        public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+            batch.generatePersistActions(session, actions, options);
+        }
+
+        @Override
+        public void close() {
+            batch.close();
+        }
+    }
+
     private List<DBDLabelValuePair> readKeyEnumeration(
         @NotNull DBRProgressMonitor monitor,
         @NotNull DBSEntityAttribute keyColumn,
@@ -1041,6 +1146,22 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         @NotNull
         @Override
         public List<DBDLabelValuePair> getValueEntry(@NotNull Object keyValue) throws DBException {
+            DictionaryCache cache = preceedingKeysInfo.isEmpty() && DictionaryCache.isCacheableKey(keyValue) ? getDictionaryCache() : null;
+            if (cache != null) {
+                List<DBDLabelValuePair> cachedValue = cache.getValue(JDBCTable.this, keyColumn.getName(), descColumns, keyValue);
+                if (cachedValue != null) {
+                    return cachedValue;
+                }
+            }
+            List<DBDLabelValuePair> values = readValueEntry(keyValue);
+            if (cache != null) {
+                cache.putValues(JDBCTable.this, keyColumn.getName(), descColumns, Collections.singletonList(keyValue), values);
+            }
+            return values;
+        }
+
+        @NotNull
+        private List<DBDLabelValuePair> readValueEntry(@NotNull Object keyValue) throws DBException {
             DBDDataFilter filter = new DBDDataFilter(this.filter);
             List<DBDAttributeConstraint> constraints = filter.getConstraints();
             DBDAttributeConstraint constraint = new DBDAttributeConstraint(keyColumn, constraints.size());
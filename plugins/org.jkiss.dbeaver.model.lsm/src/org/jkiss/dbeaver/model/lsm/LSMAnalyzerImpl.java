@@ -16,11 +16,13 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ANTLRErrorListener;
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
@@ -32,16 +34,42 @@ import org.jkiss.dbeaver.model.stm.STMParserOverrides;
 import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base analyzer implementation.
+ * <p>
+ * Queries are parsed in two stages: the fast SLL prediction mode with bail-out error strategy is tried first,
+ * and the full LL mode with error recovery is used only if SLL parsing fails.
+ * Parser instances are pooled and reused across calls. All parsers of the analyzer share the DFA and
+ * prediction context cache, which is dropped once the number of DFA states exceeds {@link #getMaxDFAStateCount()}.
+ */
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
-    
+
+    private static final int MAX_POOLED_PARSERS = 4;
+    private static final int MAX_DFA_STATE_COUNT = 100000;
+
     private final SyntaxModel syntaxModel;
-    
+    private final ConcurrentLinkedQueue<Pair<TLexer, TParser>> parserPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledParserCount = new AtomicInteger();
+    private final ThreadLocal<Pair<TLexer, TParser>> activeParser = new ThreadLocal<>();
+    private volatile ParserCache parserCache;
+
+    private final AtomicInteger sllParseCount = new AtomicInteger();
+    private final AtomicInteger llParseCount = new AtomicInteger();
+    private final AtomicInteger cacheResetCount = new AtomicInteger();
+
     public LSMAnalyzerImpl() {
         Pair<TLexer, TParser> pair = this.createParser(STMSource.fromString(""));
         syntaxModel = new SyntaxModel(pair.getSecond());
         syntaxModel.introduce(SelectStatement.class);
+        parserCache = new ParserCache(pair.getSecond().getATN());
     }
 
     @NotNull
@@ -50,21 +78,69 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     @NotNull
     protected abstract STMTreeRuleNode parseSqlQueryImpl(@NotNull TParser parser);
 
+    /**
+     * Maximum number of DFA states kept in the shared parser cache.
+     * The cache is cleared when it grows beyond this limit.
+     */
+    protected int getMaxDFAStateCount() {
+        return MAX_DFA_STATE_COUNT;
+    }
+
+    /**
+     * Number of queries parsed in SLL mode only
+     */
+    public int getSLLParseCount() {
+        return sllParseCount.get();
+    }
+
+    /**
+     * Number of queries which required the full LL parsing
+     */
+    public int getLLParseCount() {
+        return llParseCount.get();
+    }
+
+    /**
+     * Number of shared parser cache resets
+     */
+    public int getCacheResetCount() {
+        return cacheResetCount.get();
+    }
+
     @NotNull
     protected TParser prepareParser(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
-        Pair<TLexer, TParser> pair = this.createParser(source);
+        Pair<TLexer, TParser> pair = activeParser.get();
+        if (pair == null) {
+            pair = parserPool.poll();
+            if (pair != null) {
+                pooledParserCount.decrementAndGet();
+                pair.getFirst().setInputStream(source.getStream());
+                pair.getSecond().setTokenStream(new CommonTokenStream(pair.getFirst()));
+            } else {
+                pair = this.createParser(source);
+            }
+            activeParser.set(pair);
+        } else {
+            // Parser is prepared twice in the same call, start from scratch
+            pair.getFirst().setInputStream(source.getStream());
+            pair.getSecond().setTokenStream(new CommonTokenStream(pair.getFirst()));
+        }
         TLexer lexer = pair.getFirst();
         TParser parser = pair.getSecond();
-        
-        if (errorListener != null) {
-            lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
-            lexer.addErrorListener((ANTLRErrorListener) errorListener);
-            parser.removeErrorListener(ConsoleErrorListener.INSTANCE);
-            parser.addErrorListener((ANTLRErrorListener) errorListener);
+
+        ANTLRErrorListener listener = errorListener != null ? (ANTLRErrorListener) errorListener : ConsoleErrorListener.INSTANCE;
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(listener);
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+
+        ParserCache cache = parserCache;
+        if (!(parser.getInterpreter() instanceof CachedParserATNSimulator simulator) || simulator.cache != cache) {
+            parser.setInterpreter(new CachedParserATNSimulator(parser, cache));
         }
-        
+        parser.setErrorHandler(new DefaultErrorStrategy());
         parser.getInterpreter().setPredictionMode(PredictionMode.LL);
-        
+
         return parser;
     }
 
@@ -73,12 +149,75 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
         try {
             TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            STMTreeRuleNode result = parseTwoStage(parser);
             result.fixup(parser);
             return result;
         } catch (RecognitionException e) {
             log.debug("Recognition exception occurred while trying to parse the query", e);
             return null;
+        } finally {
+            releaseParser();
+        }
+    }
+
+    @NotNull
+    private STMTreeRuleNode parseTwoStage(@NotNull TParser parser) {
+        ANTLRErrorStrategy errorStrategy = parser.getErrorHandler();
+        PredictionMode predictionMode = parser.getInterpreter().getPredictionMode();
+        List<? extends ANTLRErrorListener> errorListeners = new ArrayList<>(parser.getErrorListeners());
+
+        // Stage 1: SLL without error recovery. Succeeds for most of valid queries.
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            sllParseCount.incrementAndGet();
+            return result;
+        } catch (ParseCancellationException e) {
+            // Syntax error or SLL conflict. Query is either invalid or requires full context prediction.
+        } finally {
+            parser.setErrorHandler(errorStrategy);
+            parser.getInterpreter().setPredictionMode(predictionMode);
+            for (ANTLRErrorListener listener : errorListeners) {
+                parser.addErrorListener(listener);
+            }
+        }
+
+        // Stage 2: full LL with error reporting and recovery. Tokens are already buffered in the token stream.
+        parser.reset();
+        llParseCount.incrementAndGet();
+        return parseSqlQueryImpl(parser);
+    }
+
+    private void releaseParser() {
+        Pair<TLexer, TParser> pair = activeParser.get();
+        if (pair == null) {
+            return;
+        }
+        activeParser.remove();
+
+        ParserCache cache = parserCache;
+        if (cache.getStateCount() > getMaxDFAStateCount()) {
+            synchronized (this) {
+                if (parserCache == cache) {
+                    // Parsers still using the old cache switch to the new one on the next call
+                    parserCache = new ParserCache(cache.atn);
+                    cacheResetCount.incrementAndGet();
+                    log.debug("Parser DFA cache reset (" + cache.getStateCount() + " states)");
+                }
+            }
+        }
+
+        // Detach parsed text, so it can be garbage collected
+        pair.getSecond().setTokenStream(null);
+        pair.getFirst().setInputStream(null);
+        pair.getFirst().removeErrorListeners();
+        pair.getSecond().removeErrorListeners();
+        if (pooledParserCount.incrementAndGet() <= MAX_POOLED_PARSERS) {
+            parserPool.offer(pair);
+        } else {
+            pooledParserCount.decrementAndGet();
         }
     }
 
@@ -95,4 +234,38 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
         }
         return null;
     }
+
+    /**
+     * DFA and prediction context cache shared by all parsers of the analyzer
+     */
+    private static class ParserCache {
+        private final ATN atn;
+        private final DFA[] decisionToDFA;
+        private final PredictionContextCache contextCache = new PredictionContextCache();
+
+        ParserCache(@NotNull ATN atn) {
+            this.atn = atn;
+            this.decisionToDFA = new DFA[atn.getNumberOfDecisions()];
+            for (int i = 0; i < decisionToDFA.length; i++) {
+                decisionToDFA[i] = new DFA(atn.getDecisionState(i), i);
+            }
+        }
+
+        int getStateCount() {
+            int count = 0;
+            for (DFA dfa : decisionToDFA) {
+                count += dfa.states.size();
+            }
+            return count;
+        }
+    }
+
+    private static class CachedParserATNSimulator extends ParserATNSimulator {
+        private final ParserCache cache;
+
+        CachedParserATNSimulator(@NotNull Parser parser, @NotNull ParserCache cache) {
+            super(parser, cache.atn, cache.decisionToDFA, cache.contextCache);
+            this.cache = cache;
+        }
+    }
 }
@@ -109,12 +109,19 @@ public final class ModelPreferences
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
     public static final String META_USE_SERVER_SIDE_FILTERS = "database.meta.server.side.filters"; //$NON-NLS-1$
     public static final String META_EXTRA_DDL_INFO = "database.meta.extra.ddl.info"; //$NON-NLS-1$
+    public static final String META_STATEMENT_CACHE_SIZE = "database.meta.statement.cache.size"; //$NON-NLS-1$
+    public static final String META_SNAPSHOT_ENABLED = "database.meta.snapshot.enabled"; //$NON-NLS-1$
+    public static final String META_SNAPSHOT_MAX_SIZE = "database.meta.snapshot.maxsize"; //$NON-NLS-1$
 
     public static final String META_CLIENT_NAME_DISABLE = "database.meta.client.name.disable"; //$NON-NLS-1$
     public static final String META_CLIENT_NAME_OVERRIDE = "database.meta.client.name.override"; //$NON-NLS-1$
     public static final String META_CLIENT_NAME_VALUE = "database.meta.client.name.value"; //$NON-NLS-1$
 
     public static final String CONNECT_USE_ENV_VARS = "database.connect.processEnvVars"; //$NON-NLS-1$
+    // Limits of simultaneous connects when several data sources are connected at once
+    public static final String CONNECT_PARALLEL_MAX = "database.connect.parallel.max"; //$NON-NLS-1$
+    public static final String CONNECT_PARALLEL_PER_DRIVER = "database.connect.parallel.driver"; //$NON-NLS-1$
+    public static final String CONNECT_PARALLEL_PER_HOST = "database.connect.parallel.host"; //$NON-NLS-1$
 
     public static final String RESULT_NATIVE_DATETIME_FORMAT = "resultset.format.datetime.native"; //$NON-NLS-1$
     public static final String RESULT_NATIVE_NUMERIC_FORMAT = "resultset.format.numeric.native"; //$NON-NLS-1$
@@ -126,6 +133,7 @@ public final class ModelPreferences
     // Network
     public static final String NET_TUNNEL_PORT_MIN = "net.tunnel.port.min"; //$NON-NLS-1$
     public static final String NET_TUNNEL_PORT_MAX = "net.tunnel.port.max"; //$NON-NLS-1$
+    public static final String NET_TUNNEL_SHARE_SESSIONS = "net.tunnel.share.sessions"; //$NON-NLS-1$
 
     // ResultSet
     public static final String RESULT_SET_USE_FETCH_SIZE = "resultset.fetch.size"; //$NON-NLS-1$
@@ -138,6 +146,10 @@ public final class ModelPreferences
     public static final String RESULT_SET_REREAD_ON_SCROLLING = "resultset.reread.on.scroll"; //$NON-NLS-1$
     public static final String RESULT_SET_READ_METADATA = "resultset.read.metadata"; //$NON-NLS-1$
     public static final String RESULT_SET_READ_REFERENCES = "resultset.read.references"; //$NON-NLS-1$
+    // Maximum number of cached dictionary (foreign key description) values per data source. Zero disables cache.
+    public static final String RESULT_SET_DICTIONARY_CACHE_SIZE = "resultset.dictionary.cache.size"; //$NON-NLS-1$
+    // Dictionary cache entry time-to-live in seconds
+    public static final String RESULT_SET_DICTIONARY_CACHE_TTL = "resultset.dictionary.cache.ttl"; //$NON-NLS-1$
     public static final String RESULT_SET_MAX_ROWS = "resultset.maxrows"; //$NON-NLS-1$
 
 
@@ -242,12 +254,18 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, META_CASE_SENSITIVE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_EXTRA_DDL_INFO, true);
         PrefUtils.setDefaultPreferenceValue(store, META_USE_SERVER_SIDE_FILTERS, true);
+        PrefUtils.setDefaultPreferenceValue(store, META_STATEMENT_CACHE_SIZE, 0);
+        PrefUtils.setDefaultPreferenceValue(store, META_SNAPSHOT_ENABLED, false);
+        PrefUtils.setDefaultPreferenceValue(store, META_SNAPSHOT_MAX_SIZE, 32 * 1024 * 1024);
 
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_DISABLE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_OVERRIDE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_VALUE, "");
 
         PrefUtils.setDefaultPreferenceValue(store, CONNECT_USE_ENV_VARS, true);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECT_PARALLEL_MAX, 8);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECT_PARALLEL_PER_DRIVER, 4);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECT_PARALLEL_PER_HOST, 2);
 
         PrefUtils.setDefaultPreferenceValue(store, RESULT_NATIVE_DATETIME_FORMAT, false);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_NATIVE_NUMERIC_FORMAT, false);
@@ -259,6 +277,8 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_REREAD_ON_SCROLLING, true);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_READ_METADATA, true);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_READ_REFERENCES, true);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_DICTIONARY_CACHE_SIZE, 10000);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_DICTIONARY_CACHE_TTL, 300);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_MAX_ROWS, 200);
 
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_HEX_ENCODING, GeneralUtils.getDefaultFileEncoding());
@@ -269,6 +289,7 @@ public final class ModelPreferences
         // Network
         PrefUtils.setDefaultPreferenceValue(store, NET_TUNNEL_PORT_MIN, 10000);
         PrefUtils.setDefaultPreferenceValue(store, NET_TUNNEL_PORT_MAX, 60000);
+        PrefUtils.setDefaultPreferenceValue(store, NET_TUNNEL_SHARE_SESSIONS, true);
 
         // ResultSet
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_MAX_ROWS_USE_SQL, false);
@@ -0,0 +1,44 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+
+/**
+ * Value handler which can fetch values without boxing them.
+ */
+public interface DBDValueHandlerPrimitive extends DBDValueHandler {
+
+    /**
+     * Fetches primitive value into the receiver.
+     * Value passed to the receiver is the same as {@link #fetchValueObject} would return, but not boxed.
+     *
+     * @return false if the value can't be fetched as primitive. Then it must be fetched with {@link #fetchValueObject}
+     */
+    boolean fetchPrimitiveValue(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @NotNull DBSTypedObject type,
+        int index,
+        @NotNull DBDPrimitiveValueReceiver receiver)
+        throws DBCException;
+
+}
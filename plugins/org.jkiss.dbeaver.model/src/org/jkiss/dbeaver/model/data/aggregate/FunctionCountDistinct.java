@@ -16,22 +16,45 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.Nullable;
+
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * FunctionCountDistinct
+ * FunctionCountDistinct.
+ * Approximate count switches from exact value set to HyperLogLog sketch when the set grows too big.
  */
-public class FunctionCountDistinct implements IAggregateFunction {
+public class FunctionCountDistinct implements IAggregateFunctionApproximate {
+
+    private static final int MAX_EXACT_VALUES = 4096;
 
     private int count = 0;
     private Set<Object> cache = new HashSet<>();
+    private boolean approximate;
+    private HyperLogLogSketch sketch;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (sketch != null) {
+            // Duplicates never change the sketch. Some new values may not change it too, it only affects value count.
+            return sketch.add(value);
+        }
         if (!cache.contains(value)) {
             count++;
             cache.add(value);
+            if (approximate && cache.size() > MAX_EXACT_VALUES) {
+                sketch = new HyperLogLogSketch();
+                for (Object cachedValue : cache) {
+                    sketch.add(cachedValue);
+                }
+                cache = null;
+            }
             return true;
         }
         return false;
@@ -39,6 +62,18 @@ public class FunctionCountDistinct implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            return sketch.estimate();
+        }
         return count;
     }
+
+    @Nullable
+    @Override
+    public String getErrorBound() {
+        if (sketch == null) {
+            return null;
+        }
+        return String.format("\u00B1%.2f%%", sketch.getRelativeError() * 100);
+    }
 }
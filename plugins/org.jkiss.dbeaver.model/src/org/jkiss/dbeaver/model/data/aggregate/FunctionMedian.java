@@ -16,25 +16,52 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Median
+ * Median. Approximate median is evaluated with KLL quantile sketch.
  */
-public class FunctionMedian implements IAggregateFunction {
+public class FunctionMedian implements IAggregateFunctionApproximate {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
-    private final List<Comparable<?>> cache = new ArrayList<>();
+    private List<Comparable<?>> cache = new ArrayList<>();
+    private KLLQuantileSketch<Comparable<?>> sketch;
+    private boolean sketchFailed;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        if (approximate) {
+            cache = null;
+            sketch = new KLLQuantileSketch<>(AggregateUtils::compareValues);
+        } else {
+            cache = new ArrayList<>();
+            sketch = null;
+        }
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
         value = FunctionNumeric.getComparable(value, aggregateAsStrings);
         if (value != null) {
-            cache.add((Comparable<?>) value);
+            if (sketch != null) {
+                if (sketchFailed) {
+                    return false;
+                }
+                try {
+                    sketch.update((Comparable<?>) value);
+                } catch (Exception e) {
+                    log.debug("Can't sort value collection: " + e.getMessage());
+                    sketchFailed = true;
+                    return false;
+                }
+            } else {
+                cache.add((Comparable<?>) value);
+            }
             return true;
         }
         return false;
@@ -42,20 +69,48 @@ public class FunctionMedian implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            if (sketchFailed) {
+                return null;
+            }
+            if (!sketch.isCompacted()) {
+                // All values are still in the sketch
+                return getExactMedian(sketch.getItems());
+            }
+            try {
+                return sketch.getQuantile(0.5);
+            } catch (Exception e) {
+                log.debug("Can't sort value collection: " + e.getMessage());
+                return null;
+            }
+        }
+        return getExactMedian(cache);
+    }
+
+    @Nullable
+    @Override
+    public String getErrorBound() {
+        if (sketch == null || !sketch.isCompacted()) {
+            return null;
+        }
+        return String.format("rank \u00B1%.2f%%", sketch.getNormalizedRankError() * 100);
+    }
+
+    private static Object getExactMedian(List<Comparable<?>> values) {
         try {
-            cache.sort(AggregateUtils::compareValues);
+            values.sort(AggregateUtils::compareValues);
         } catch (Exception e) {
             log.debug("Can't sort value collection: " + e.getMessage());
             return null;
         }
 
-        int size = cache.size();
+        int size = values.size();
         int middle = size / 2;
         if (size % 2 == 1) {
-            return cache.get(middle);
+            return values.get(middle);
         } else {
-            Comparable<?> val1 = cache.get(middle - 1);
-            Comparable<?> val2 = cache.get(middle);
+            Comparable<?> val1 = values.get(middle - 1);
+            Comparable<?> val2 = values.get(middle);
             if (val1 instanceof Number && val2 instanceof Number) {
                 return (((Number) val1).doubleValue() + ((Number) val2).doubleValue()) / 2.0;
             }
@@ -16,15 +16,30 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import java.util.ArrayList;
-import java.util.List;
+import org.jkiss.code.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Mode
+ * Mode. Approximate mode is evaluated with Space-Saving top-k sketch.
  */
-public class FunctionMode implements IAggregateFunction {
+public class FunctionMode implements IAggregateFunctionApproximate {
+
+    private Map<Object, ValueCounter> counters = new HashMap<>();
+    private SpaceSavingSketch<Object> sketch;
+    private int valueIndex;
 
-    private final List<Object> cache = new ArrayList<>();
+    @Override
+    public void setApproximate(boolean approximate) {
+        if (approximate) {
+            counters = null;
+            sketch = new SpaceSavingSketch<>();
+        } else {
+            counters = new HashMap<>();
+            sketch = null;
+        }
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
@@ -33,7 +48,12 @@ public class FunctionMode implements IAggregateFunction {
             value = num;
         }
         if (value != null) {
-            cache.add(value);
+            if (sketch != null) {
+                sketch.add(value);
+            } else {
+                counters.computeIfAbsent(value, v -> new ValueCounter(valueIndex)).count++;
+                valueIndex++;
+            }
             return true;
         }
         return false;
@@ -41,24 +61,39 @@ public class FunctionMode implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            return sketch.getTopItem();
+        }
         Object maxValue = null;
-        int maxCount = 0;
-
-        for (int i = 0; i < cache.size(); ++i) {
-            int count = 0;
-            for (int j = 0; j < cache.size(); ++j) {
-                if (cache.get(j).equals(cache.get(i))) {
-                    count++;
-                }
-            }
-            if (count > maxCount) {
-                maxCount = count;
-                maxValue = cache.get(i);
+        ValueCounter maxCounter = null;
+        for (Map.Entry<Object, ValueCounter> entry : counters.entrySet()) {
+            ValueCounter counter = entry.getValue();
+            // The first met value wins on ties
+            if (maxCounter == null || counter.count > maxCounter.count ||
+                (counter.count == maxCounter.count && counter.firstIndex < maxCounter.firstIndex))
+            {
+                maxCounter = counter;
+                maxValue = entry.getKey();
             }
         }
-//        if (maxCount <= 1) {
-//            return null;
-//        }
         return maxValue;
     }
+
+    @Nullable
+    @Override
+    public String getErrorBound() {
+        if (sketch == null || !sketch.isEvicted()) {
+            return null;
+        }
+        return "count \u00B1" + sketch.getMaxError();
+    }
+
+    private static class ValueCounter {
+        private final int firstIndex;
+        private int count;
+
+        ValueCounter(int firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+    }
 }
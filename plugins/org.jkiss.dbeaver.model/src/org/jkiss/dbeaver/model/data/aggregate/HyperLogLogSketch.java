@@ -0,0 +1,123 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.Nullable;
+
+/**
+ * HyperLogLog distinct count estimator (Flajolet et al.) with linear counting for small cardinalities.
+ * <p>
+ * Uses {@code 2^precision} one-byte registers. Relative standard error is {@code 1.04 / sqrt(2^precision)}.
+ */
+public class HyperLogLogSketch {
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLogSketch() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLogSketch(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be in range 4..18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Adds value to the sketch.
+     * Returns false if the sketch was not changed. It is always so for values which were already added.
+     */
+    public boolean add(@Nullable Object value) {
+        return addHash(hash(value));
+    }
+
+    public boolean addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Guard bit limits the rank if all remaining bits are zero
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeroRegisters > 0) {
+            // Linear counting
+            estimate = m * Math.log((double) m / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 64-bit hash of the value. Numbers are hashed by their value, strings by their characters.
+     */
+    public static long hash(@Nullable Object value) {
+        long hash;
+        if (value == null) {
+            hash = NULL_HASH;
+        } else if (value instanceof String str) {
+            // FNV-1a
+            hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < str.length(); i++) {
+                hash ^= str.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hash = ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            hash = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else {
+            hash = value.hashCode();
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.Nullable;
+
+/**
+ * Aggregate function which may compute an approximate result in bounded memory
+ */
+public interface IAggregateFunctionApproximate extends IAggregateFunction {
+
+    /**
+     * Enables approximate evaluation. Must be called before the first value is accumulated.
+     */
+    void setApproximate(boolean approximate);
+
+    /**
+     * Returns human readable error bound of the last result or null if the result is exact
+     */
+    @Nullable
+    String getErrorBound();
+
+}
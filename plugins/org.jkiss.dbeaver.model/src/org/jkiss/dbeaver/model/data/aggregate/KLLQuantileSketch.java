@@ -0,0 +1,167 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * KLL quantile sketch (Karnin, Lang, Liberty "Optimal Quantile Approximation in Streams").
+ * <p>
+ * Keeps a hierarchy of compactors. Items of level {@code h} have weight {@code 2^h}.
+ * When the sketch is full a compactor is sorted and every other item is promoted to the next level.
+ * Memory usage is {@code O(k)} items regardless of the number of accumulated values.
+ */
+public class KLLQuantileSketch<T> {
+
+    public static final int DEFAULT_K = 200;
+    // Fixed seed makes results reproducible for the same input
+    public static final long DEFAULT_SEED = 0x4B4C4CL;
+
+    private static final double CAPACITY_FACTOR = 2.0 / 3.0;
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final List<List<T>> compactors = new ArrayList<>();
+    private final Random random;
+    private int size;
+    private int maxSize;
+    private long count;
+    private boolean compacted;
+
+    public KLLQuantileSketch(@NotNull Comparator<? super T> comparator) {
+        this(DEFAULT_K, comparator);
+    }
+
+    public KLLQuantileSketch(int k, @NotNull Comparator<? super T> comparator) {
+        this(k, comparator, DEFAULT_SEED);
+    }
+
+    public KLLQuantileSketch(int k, @NotNull Comparator<? super T> comparator, long seed) {
+        this.k = k;
+        this.comparator = comparator;
+        this.random = new Random(seed);
+        grow();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns true if some items were dropped by compaction, so quantiles are approximate
+     */
+    public boolean isCompacted() {
+        return compacted;
+    }
+
+    /**
+     * All accumulated items. Valid only if sketch was not compacted.
+     */
+    @NotNull
+    public List<T> getItems() {
+        return compactors.get(0);
+    }
+
+    /**
+     * Normalized rank error with 99% confidence (empirical constant for KLL sketches)
+     */
+    public double getNormalizedRankError() {
+        return compacted ? 2.296 / Math.pow(k, 0.9723) : 0;
+    }
+
+    public void update(@NotNull T item) {
+        compactors.get(0).add(item);
+        size++;
+        count++;
+        while (size >= maxSize) {
+            compress();
+        }
+    }
+
+    /**
+     * Returns item with the specified normalized rank (0..1)
+     */
+    @Nullable
+    public T getQuantile(double rank) {
+        if (count == 0) {
+            return null;
+        }
+        List<WeightedItem<T>> items = new ArrayList<>(size);
+        long totalWeight = 0;
+        for (int level = 0; level < compactors.size(); level++) {
+            long weight = 1L << level;
+            for (T item : compactors.get(level)) {
+                items.add(new WeightedItem<>(item, weight));
+                totalWeight += weight;
+            }
+        }
+        items.sort((o1, o2) -> comparator.compare(o1.item, o2.item));
+        long targetWeight = Math.max(1, (long) Math.ceil(rank * totalWeight));
+        long cumulativeWeight = 0;
+        for (WeightedItem<T> item : items) {
+            cumulativeWeight += item.weight;
+            if (cumulativeWeight >= targetWeight) {
+                return item.item;
+            }
+        }
+        return items.get(items.size() - 1).item;
+    }
+
+    private int getCapacity(int level) {
+        int depth = compactors.size() - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_FACTOR, depth)));
+    }
+
+    private void grow() {
+        compactors.add(new ArrayList<>());
+        maxSize = 0;
+        for (int level = 0; level < compactors.size(); level++) {
+            maxSize += getCapacity(level);
+        }
+    }
+
+    private void compress() {
+        for (int level = 0; level < compactors.size(); level++) {
+            List<T> compactor = compactors.get(level);
+            if (compactor.size() >= getCapacity(level)) {
+                if (level + 1 >= compactors.size()) {
+                    grow();
+                }
+                List<T> nextCompactor = compactors.get(level + 1);
+                compactor.sort(comparator);
+                // Odd item stays at this level
+                int compactSize = compactor.size() & ~1;
+                for (int i = random.nextBoolean() ? 1 : 0; i < compactSize; i += 2) {
+                    nextCompactor.add(compactor.get(i));
+                }
+                compactor.subList(0, compactSize).clear();
+                size -= compactSize / 2;
+                compacted = true;
+                return;
+            }
+        }
+    }
+
+    private record WeightedItem<T>(T item, long weight) {
+    }
+}
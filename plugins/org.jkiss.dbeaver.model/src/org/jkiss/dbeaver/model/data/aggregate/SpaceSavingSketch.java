@@ -0,0 +1,168 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving top-k frequency estimator (Metwally, Agrawal, El Abbadi).
+ * <p>
+ * Keeps at most {@code capacity} counters. When a new item arrives and all counters are used,
+ * the counter with the minimal count is reassigned to the new item. Counts are never underestimated
+ * and overestimated by at most {@code N / capacity}.
+ * Counters are kept in a min-heap, so each update takes {@code O(log capacity)} time.
+ */
+public class SpaceSavingSketch<T> {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters;
+    // Min-heap by count
+    private final Counter<T>[] heap;
+    private int counterCount;
+    private long totalCount;
+    private boolean evicted;
+
+    public SpaceSavingSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns true if some items were evicted, so counts are approximate
+     */
+    public boolean isEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Maximal count overestimation. Items which are not tracked occurred at most this number of times.
+     */
+    public long getMaxError() {
+        return evicted ? heap[0].count : 0;
+    }
+
+    public void add(@NotNull T item) {
+        totalCount++;
+        Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.heapIndex);
+        } else if (counterCount < capacity) {
+            counter = new Counter<>(item, totalCount);
+            counter.count = 1;
+            counter.heapIndex = counterCount;
+            heap[counterCount++] = counter;
+            counters.put(item, counter);
+            siftUp(counter.heapIndex);
+        } else {
+            // Replace the least frequent item
+            counter = heap[0];
+            counters.remove(counter.item);
+            counter.item = item;
+            counter.count++;
+            counter.order = totalCount;
+            counters.put(item, counter);
+            siftDown(0);
+            evicted = true;
+        }
+    }
+
+    /**
+     * Item with the highest estimated count. The earliest added item wins on ties.
+     */
+    @Nullable
+    public T getTopItem() {
+        Counter<T> top = null;
+        for (int i = 0; i < counterCount; i++) {
+            Counter<T> counter = heap[i];
+            if (top == null || counter.count > top.count || (counter.count == top.count && counter.order < top.order)) {
+                top = counter;
+            }
+        }
+        return top == null ? null : top.item;
+    }
+
+    public long getEstimatedCount(@NotNull T item) {
+        Counter<T> counter = counters.get(item);
+        return counter == null ? 0 : counter.count;
+    }
+
+    private void siftUp(int index) {
+        Counter<T> counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            setHeapItem(index, heap[parent]);
+            index = parent;
+        }
+        setHeapItem(index, counter);
+    }
+
+    private void siftDown(int index) {
+        Counter<T> counter = heap[index];
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= counterCount) {
+                break;
+            }
+            if (child + 1 < counterCount && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            setHeapItem(index, heap[child]);
+            index = child;
+        }
+        setHeapItem(index, counter);
+    }
+
+    private void setHeapItem(int index, Counter<T> counter) {
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+
+    private static class Counter<T> {
+        private T item;
+        private long count;
+        private long order;
+        private int heapIndex;
+
+        Counter(T item, long order) {
+            this.item = item;
+            this.order = order;
+        }
+    }
+}
@@ -21,6 +21,8 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 
+import java.util.Collection;
+
 public interface DPIClientObject {
 
     String dpiObjectId();
@@ -32,6 +34,13 @@ public interface DPIClientObject {
     Object dpiPropertyValue(@Nullable DBRProgressMonitor monitor, @NotNull String propertyName)
         throws DBException;
 
+    /**
+     * Reads values of several lazy properties in one remote call.
+     * Values are cached and then returned by {@link #dpiPropertyValue}.
+     */
+    void dpiPrefetchProperties(@NotNull DBRProgressMonitor monitor, @NotNull Collection<String> propertyNames)
+        throws DBException;
+
     Object dpiObjectMethod(
         @Nullable DBRProgressMonitor monitor,
         @NotNull String methodName,
@@ -23,6 +23,8 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.utils.rest.RequestMapping;
 import org.jkiss.utils.rest.RequestParameter;
 
+import java.util.Map;
+
 /**
  * Detached data source proxy.
  */
@@ -58,4 +60,13 @@ public interface DPIController extends AutoCloseable {
         @RequestParameter("object") @NotNull String objectId,
         @RequestParameter("property") @NotNull String propertyName) throws DBException;
 
+    /**
+     * Reads several properties in one call.
+     * Properties which failed to read or have null values are not included in the result.
+     */
+    @RequestMapping
+    Map<String, Object> readProperties(
+        @RequestParameter("object") @NotNull String objectId,
+        @RequestParameter("properties") @NotNull String[] propertyNames) throws DBException;
+
 }
@@ -29,12 +29,16 @@ public class LockGraph {
 	private int maxWidth = 0;
 	private LockGraphNode selection;
 	//private LockManagerViewer lockManagerViewer;
-	private final DBAServerLock lockRoot;
+	private DBAServerLock lockRoot;
 	
 	public DBAServerLock getLockRoot() {
 		return lockRoot;
 	}
 
+	public void setLockRoot(DBAServerLock lockRoot) {
+		this.lockRoot = lockRoot;
+	}
+
 /*
 	public LockManagerViewer getLockManagerViewer() {
 		return lockManagerViewer;
@@ -29,6 +29,14 @@ public abstract class LockGraphManager {
 
     private Map<Object, LockGraphNode> nodes = new HashMap<>();
     private Map<Object, LockGraph> graphIndex = new HashMap<>();
+    private final LockWaitGraph waitGraph = new LockWaitGraph();
+
+    /**
+     * Returns wait-for graph of the locks passed to the last {@link #buildGraphs} call
+     */
+    public LockWaitGraph getWaitGraph() {
+        return waitGraph;
+    }
 
     public LockGraph getGraph(DBAServerLock curLock) {
 
@@ -123,34 +131,88 @@ public abstract class LockGraphManager {
         return graph;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    /**
+     * Builds graphs of the new locks state.
+     * Only graphs of added, removed or re-pointed locks are rebuilt, other graphs keep their layout.
+     */
     public void buildGraphs(Map<Object, ? extends DBAServerLock> locks) {
 
-        Set<DBAServerLock> roots = new HashSet<>();
-
-        this.nodes.clear();
+        // Apply changes since the previous refresh
+        LockWaitGraph.Delta delta = waitGraph.update(locks);
 
-        this.graphIndex.clear();
+        Set<LockGraph> changedGraphs = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object id : delta.getRemovedLocks()) {
+            addChangedGraph(changedGraphs, id);
+        }
+        for (Object id : delta.getAddedLocks()) {
+            addChangedGraph(changedGraphs, id);
+        }
+        for (Object id : delta.getChangedWaits()) {
+            addChangedGraph(changedGraphs, id);
+        }
+        this.graphIndex.values().removeIf(changedGraphs::contains);
+        // Nodes of rebuilt graphs are re-created, so they don't keep old edges
+        this.nodes.keySet().retainAll(this.graphIndex.keySet());
 
+        // Lock objects are re-read on each refresh, so wait links are set for all of them
         for (DBAServerLock l : locks.values()) {
+            l.waitThis().clear();
+        }
 
-            if (locks.containsKey(l.getHoldID()) && (!l.getHoldID().equals(l.getId()))) {
+        Set<DBAServerLock> roots = new LinkedHashSet<>();
+        for (DBAServerLock l : locks.values()) {
 
-                DBAServerLock holder = locks.get(l.getHoldID());
+            DBAServerLock holder = waitGraph.getHolder(l.getId());
+            if (holder != null) {
                 l.setHoldBy(holder);
                 holder.waitThis().add(l);
+            } else if (!graphIndex.containsKey(l.getId())) {
+                roots.add(l);
+            }
 
+            LockGraphNode node = nodes.get(l.getId());
+            if (node == null) {
+                node = new LockGraphNode(l);
+                nodes.put(l.getId(), node);
             } else {
-                roots.add(l);
+                node.setLock(l);
             }
+            node.setDeadlocked(waitGraph.isDeadlocked(l.getId()));
+        }
 
-            nodes.put(l.getId(), new LockGraphNode(l));
+        // Kept graphs must reference the new root objects
+        for (LockGraph graph : graphIndex.values()) {
+            graph.setLockRoot(nodes.get(graph.getLockRoot().getId()).getLock());
         }
 
         for (DBAServerLock root : roots) {
             createGraph(root);
         }
 
+        // Locks of deadlock cycles have no root, so build graph from any cycle member
+        for (List<DBAServerLock> cycle : waitGraph.getDeadlocks()) {
+            if (!graphIndex.containsKey(cycle.get(0).getId())) {
+                createGraph(cycle.get(0));
+            }
+        }
+
+    }
+
+    /**
+     * Marks graphs which contain the lock and its current holder as changed
+     */
+    private void addChangedGraph(Set<LockGraph> changedGraphs, Object lockId) {
+        LockGraph graph = graphIndex.get(lockId);
+        if (graph != null) {
+            changedGraphs.add(graph);
+        }
+        DBAServerLock holder = waitGraph.getHolder(lockId);
+        if (holder != null) {
+            graph = graphIndex.get(holder.getId());
+            if (graph != null) {
+                changedGraphs.add(graph);
+            }
+        }
     }
 
 }
@@ -37,6 +37,8 @@ public class LockGraphNode  {
 	
 	private LevelPosition levelPosition;
 
+	private boolean deadlocked;
+
 	public LevelPosition getLevelPosition() {
 		return levelPosition;
 	}
@@ -117,6 +119,25 @@ public class LockGraphNode  {
 	public DBAServerLock getLock() {
 		return lock;
 	}
+
+	/**
+	 * Sets the lock object re-read by refresh
+	 */
+	public void setLock(DBAServerLock lock) {
+		this.lock = lock;
+		this.title = lock.getTitle();
+	}
+
+	/**
+	 * Lock is a part of deadlock cycle
+	 */
+	public boolean isDeadlocked() {
+		return deadlocked;
+	}
+
+	public void setDeadlocked(boolean deadlocked) {
+		this.deadlocked = deadlocked;
+	}
 	
 	
 }
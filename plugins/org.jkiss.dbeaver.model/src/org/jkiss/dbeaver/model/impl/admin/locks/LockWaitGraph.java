@@ -0,0 +1,355 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.admin.locks;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLock;
+
+import java.util.*;
+
+/**
+ * Wait-for graph of server locks.
+ * <p>
+ * Graph is updated incrementally: each {@link #update} call compares new locks with the previous poll
+ * and applies only added, removed and re-pointed wait edges. Deadlock cycles are found with Tarjan's
+ * strongly connected components algorithm, which is re-run only when edges change.
+ * <p>
+ * This class doesn't depend on UI and may be used by headless monitoring tasks.
+ * It is not thread safe.
+ */
+public class LockWaitGraph {
+
+    /**
+     * Difference between two consecutive updates
+     */
+    public static class Delta {
+        private final List<Object> addedLocks = new ArrayList<>();
+        private final List<Object> removedLocks = new ArrayList<>();
+        private final List<Object> changedWaits = new ArrayList<>();
+
+        /**
+         * Ids of locks which appeared in this update
+         */
+        @NotNull
+        public List<Object> getAddedLocks() {
+            return addedLocks;
+        }
+
+        /**
+         * Ids of locks which disappeared in this update
+         */
+        @NotNull
+        public List<Object> getRemovedLocks() {
+            return removedLocks;
+        }
+
+        /**
+         * Ids of existing locks which now wait for another holder (or stopped waiting)
+         */
+        @NotNull
+        public List<Object> getChangedWaits() {
+            return changedWaits;
+        }
+
+        public boolean isEmpty() {
+            return addedLocks.isEmpty() && removedLocks.isEmpty() && changedWaits.isEmpty();
+        }
+    }
+
+    private final Map<Object, DBAServerLock> locks = new LinkedHashMap<>();
+    // Waiter id -> holder id
+    private final Map<Object, Object> holders = new HashMap<>();
+    // Holder id -> waiter ids
+    private final Map<Object, Set<Object>> waiters = new HashMap<>();
+
+    private boolean analyzed;
+    private final List<List<Object>> deadlocks = new ArrayList<>();
+    private final Set<Object> deadlocked = new HashSet<>();
+
+    /**
+     * Applies new locks state.
+     *
+     * @param newLocks all current locks by id. Lock waits for the lock with id {@link DBAServerLock#getHoldID()}.
+     * @return changes since the previous update
+     */
+    @NotNull
+    public Delta update(@NotNull Map<?, ? extends DBAServerLock> newLocks) {
+        Delta delta = new Delta();
+        for (Iterator<Map.Entry<Object, DBAServerLock>> iter = locks.entrySet().iterator(); iter.hasNext(); ) {
+            Object id = iter.next().getKey();
+            if (!newLocks.containsKey(id)) {
+                iter.remove();
+                removeWait(id);
+                delta.removedLocks.add(id);
+            }
+        }
+        for (Map.Entry<?, ? extends DBAServerLock> entry : newLocks.entrySet()) {
+            Object id = entry.getKey();
+            DBAServerLock lock = entry.getValue();
+            boolean added = locks.put(id, lock) == null;
+            if (added) {
+                delta.addedLocks.add(id);
+            }
+            Object holdId = lock.getHoldID();
+            if (holdId == null || holdId.equals(id) || !newLocks.containsKey(holdId)) {
+                holdId = null;
+            }
+            Object prevHoldId = holders.get(id);
+            if (!Objects.equals(prevHoldId, holdId)) {
+                removeWait(id);
+                if (holdId != null) {
+                    holders.put(id, holdId);
+                    waiters.computeIfAbsent(holdId, k -> new LinkedHashSet<>()).add(id);
+                }
+                if (!added) {
+                    delta.changedWaits.add(id);
+                }
+            }
+        }
+        // Locks of removed holders were re-pointed above, drop their own waiter lists
+        for (Object id : delta.removedLocks) {
+            waiters.remove(id);
+        }
+        if (!delta.isEmpty()) {
+            analyzed = false;
+        }
+        return delta;
+    }
+
+    private void removeWait(@NotNull Object waiterId) {
+        Object holdId = holders.remove(waiterId);
+        if (holdId != null) {
+            Set<Object> holderWaiters = waiters.get(holdId);
+            if (holderWaiters != null) {
+                holderWaiters.remove(waiterId);
+                if (holderWaiters.isEmpty()) {
+                    waiters.remove(holdId);
+                }
+            }
+        }
+    }
+
+    public int getLockCount() {
+        return locks.size();
+    }
+
+    @NotNull
+    public Collection<DBAServerLock> getLocks() {
+        return Collections.unmodifiableCollection(locks.values());
+    }
+
+    @Nullable
+    public DBAServerLock getLock(@NotNull Object id) {
+        return locks.get(id);
+    }
+
+    /**
+     * Returns lock which blocks the specified lock or null if lock doesn't wait
+     */
+    @Nullable
+    public DBAServerLock getHolder(@NotNull Object id) {
+        Object holdId = holders.get(id);
+        return holdId == null ? null : locks.get(holdId);
+    }
+
+    /**
+     * Returns locks which directly wait for the specified lock
+     */
+    @NotNull
+    public List<DBAServerLock> getWaiters(@NotNull Object id) {
+        Set<Object> waiterIds = waiters.get(id);
+        if (waiterIds == null) {
+            return Collections.emptyList();
+        }
+        List<DBAServerLock> result = new ArrayList<>(waiterIds.size());
+        for (Object waiterId : waiterIds) {
+            result.add(locks.get(waiterId));
+        }
+        return result;
+    }
+
+    /**
+     * Returns root locks which block other locks but don't wait themselves
+     */
+    @NotNull
+    public List<DBAServerLock> getRootBlockers() {
+        List<DBAServerLock> result = new ArrayList<>();
+        for (Object holdId : waiters.keySet()) {
+            if (!holders.containsKey(holdId)) {
+                result.add(locks.get(holdId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether lock is a part of deadlock cycle
+     */
+    public boolean isDeadlocked(@NotNull Object id) {
+        analyze();
+        return deadlocked.contains(id);
+    }
+
+    /**
+     * Returns deadlock cycles. Each cycle lists locks in wait order.
+     */
+    @NotNull
+    public List<List<DBAServerLock>> getDeadlocks() {
+        analyze();
+        List<List<DBAServerLock>> result = new ArrayList<>(deadlocks.size());
+        for (List<Object> cycle : deadlocks) {
+            result.add(toLocks(cycle));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the longest blocking chains.
+     * Each chain starts with the blocking lock (root blocker or deadlock cycle member)
+     * and ends with the most distant waiting lock.
+     *
+     * @param maxChains maximum number of returned chains
+     */
+    @NotNull
+    public List<List<DBAServerLock>> getLongestBlockingChains(int maxChains) {
+        analyze();
+        Map<Object, Integer> depths = new HashMap<>();
+        for (Object id : holders.keySet()) {
+            computeDepth(id, depths);
+        }
+        // Only leaf waiters end the longest chains
+        List<Object> leaves = new ArrayList<>();
+        for (Object id : holders.keySet()) {
+            if (!waiters.containsKey(id) && depths.get(id) > 0) {
+                leaves.add(id);
+            }
+        }
+        leaves.sort(Comparator.comparing(depths::get).reversed());
+        List<List<DBAServerLock>> result = new ArrayList<>();
+        for (int i = 0; i < leaves.size() && i < maxChains; i++) {
+            List<Object> chain = new ArrayList<>();
+            for (Object id = leaves.get(i); id != null; id = deadlocked.contains(id) ? null : holders.get(id)) {
+                chain.add(id);
+            }
+            Collections.reverse(chain);
+            result.add(toLocks(chain));
+        }
+        return result;
+    }
+
+    // Number of wait edges between lock and its root blocker (or deadlock cycle)
+    private int computeDepth(@NotNull Object id, @NotNull Map<Object, Integer> depths) {
+        List<Object> path = new ArrayList<>();
+        Object cur = id;
+        int depth = 0;
+        while (cur != null) {
+            Integer known = depths.get(cur);
+            if (known != null) {
+                depth = known;
+                break;
+            }
+            if (deadlocked.contains(cur) || !holders.containsKey(cur)) {
+                depths.put(cur, 0);
+                break;
+            }
+            path.add(cur);
+            cur = holders.get(cur);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            depth++;
+            depths.put(path.get(i), depth);
+        }
+        return depths.get(id);
+    }
+
+    @NotNull
+    private List<DBAServerLock> toLocks(@NotNull List<Object> ids) {
+        List<DBAServerLock> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            result.add(locks.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Finds strongly connected components of wait edges (Tarjan's algorithm).
+     * Components of more than one lock are deadlock cycles.
+     * Implemented without recursion because lock chains may be very long.
+     */
+    private void analyze() {
+        if (analyzed) {
+            return;
+        }
+        analyzed = true;
+        deadlocks.clear();
+        deadlocked.clear();
+
+        Map<Object, Integer> index = new HashMap<>();
+        Map<Object, Integer> lowLink = new HashMap<>();
+        Deque<Object> stack = new ArrayDeque<>();
+        Set<Object> onStack = new HashSet<>();
+        Deque<Object> callStack = new ArrayDeque<>();
+        int nextIndex = 0;
+
+        for (Object start : holders.keySet()) {
+            if (index.containsKey(start)) {
+                continue;
+            }
+            callStack.push(start);
+            while (!callStack.isEmpty()) {
+                Object node = callStack.peek();
+                if (!index.containsKey(node)) {
+                    index.put(node, nextIndex);
+                    lowLink.put(node, nextIndex);
+                    nextIndex++;
+                    stack.push(node);
+                    onStack.add(node);
+                }
+                // Each lock waits for at most one holder
+                Object next = holders.get(node);
+                if (next != null && !index.containsKey(next)) {
+                    callStack.push(next);
+                    continue;
+                }
+                if (next != null && onStack.contains(next)) {
+                    lowLink.put(node, Math.min(lowLink.get(node), lowLink.get(next)));
+                }
+                callStack.pop();
+                Object parent = callStack.peek();
+                if (parent != null && onStack.contains(node)) {
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<Object> component = new ArrayList<>();
+                    Object member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    if (component.size() > 1) {
+                        // Stack order is reversed wait order
+                        Collections.reverse(component);
+                        deadlocks.add(component);
+                        deadlocked.addAll(component);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.time.temporal.Temporal;
+import java.util.*;
+
+/**
+ * Bounded LRU cache of dictionary (foreign key description) values of a single data source.
+ * <p>
+ * Values are keyed by dictionary entity full name, key column, description columns and key value.
+ * Entity is referenced by name, so refreshed entity objects share cached values and dropped entities are not held in memory.
+ * Keys which are missing in the dictionary are cached too, so they are not queried again.
+ * Entries expire after time-to-live. Cache of an entity must be invalidated when entity data is changed.
+ */
+public class DictionaryCache {
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final LinkedHashMap<EntryKey, Entry> entries;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxSize    maximum number of cached key values
+     * @param timeToLive entry time-to-live in milliseconds. Zero or negative means no expiration.
+     */
+    public DictionaryCache(int maxSize, long timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Checks whether key value may be cached.
+     * Only immutable values with proper equals/hashCode (numbers, strings, dates, etc) are cached.
+     */
+    public static boolean isCacheableKey(@Nullable Object keyValue) {
+        return keyValue instanceof Number || keyValue instanceof CharSequence || keyValue instanceof Boolean ||
+            keyValue instanceof Character || keyValue instanceof UUID || keyValue instanceof Date || keyValue instanceof Temporal;
+    }
+
+    /**
+     * Returns cached dictionary value.
+     *
+     * @return null if value is not cached, empty list if key is missing in the dictionary
+     * and single value list otherwise.
+     */
+    @Nullable
+    public synchronized List<DBDLabelValuePair> getValue(
+        @NotNull DBSEntity entity,
+        @NotNull String keyColumn,
+        @Nullable String descColumns,
+        @NotNull Object keyValue
+    ) {
+        EntryKey key = new EntryKey(getEntityName(entity), keyColumn, descColumns, keyValue);
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(key);
+            evictionCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value == null ? Collections.emptyList() : Collections.singletonList(entry.value);
+    }
+
+    /**
+     * Puts loaded dictionary values in the cache.
+     *
+     * @param keyValues    requested key values
+     * @param loadedValues values read from the dictionary. Requested keys without loaded value are cached as missing.
+     */
+    public void putValues(
+        @NotNull DBSEntity entity,
+        @NotNull String keyColumn,
+        @Nullable String descColumns,
+        @NotNull Collection<?> keyValues,
+        @NotNull Collection<DBDLabelValuePair> loadedValues
+    ) {
+        Map<Object, DBDLabelValuePair> loadedMap = new HashMap<>();
+        Map<String, DBDLabelValuePair> loadedStrings = new HashMap<>();
+        for (DBDLabelValuePair pair : loadedValues) {
+            Object value = pair.getValue();
+            if (value != null) {
+                loadedMap.putIfAbsent(value, pair);
+                loadedStrings.putIfAbsent(value.toString(), pair);
+            }
+        }
+        String entityName = getEntityName(entity);
+        long expireTime = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : Long.MAX_VALUE;
+        synchronized (this) {
+            for (Object keyValue : keyValues) {
+                if (!isCacheableKey(keyValue)) {
+                    continue;
+                }
+                DBDLabelValuePair pair = loadedMap.get(keyValue);
+                if (pair == null) {
+                    // Driver may return key of a different type (e.g. Integer instead of Long)
+                    pair = loadedStrings.get(keyValue.toString());
+                }
+                entries.put(new EntryKey(entityName, keyColumn, descColumns, keyValue), new Entry(pair, expireTime));
+            }
+            for (Iterator<Entry> iter = entries.values().iterator(); entries.size() > maxSize && iter.hasNext(); ) {
+                iter.next();
+                iter.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    /**
+     * Removes all cached values of the specified entity
+     */
+    public void invalidate(@NotNull DBSEntity entity) {
+        String entityName = getEntityName(entity);
+        synchronized (this) {
+            entries.keySet().removeIf(key -> key.entityName.equals(entityName));
+        }
+    }
+
+    /**
+     * Removes all cached values
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Dictionary cache (size=" + entries.size() + "/" + maxSize +
+            ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ")";
+    }
+
+    @NotNull
+    private static String getEntityName(@NotNull DBSEntity entity) {
+        return DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+    }
+
+    private boolean isExpired(@NotNull Entry entry) {
+        return entry.expireTime < System.currentTimeMillis();
+    }
+
+    private static class EntryKey {
+        private final String entityName;
+        private final String keyColumn;
+        private final String descColumns;
+        private final Object keyValue;
+
+        EntryKey(@NotNull String entityName, @NotNull String keyColumn, @Nullable String descColumns, @NotNull Object keyValue) {
+            this.entityName = entityName;
+            this.keyColumn = keyColumn;
+            this.descColumns = descColumns;
+            this.keyValue = keyValue;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey key = (EntryKey) obj;
+            return entityName.equals(key.entityName) &&
+                keyColumn.equals(key.keyColumn) &&
+                Objects.equals(descColumns, key.descColumns) &&
+                keyValue.equals(key.keyValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return entityName.hashCode() * 31 * 31 + keyColumn.hashCode() * 31 + keyValue.hashCode();
+        }
+    }
+
+    private static class Entry {
+        // Null means missing key
+        private final DBDLabelValuePair value;
+        private final long expireTime;
+
+        Entry(@Nullable DBDLabelValuePair value, long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+    }
+}
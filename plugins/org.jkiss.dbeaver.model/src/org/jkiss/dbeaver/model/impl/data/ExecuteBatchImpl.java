@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueBinder;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
@@ -124,10 +125,13 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             // Here we'll try to reuse prepared statement.
             // It makes a great sense in case of data transfer where we need millions of inserts.
             // We must be aware of nulls because actual insert statements may differ depending on null values.
-            // So if row nulls aren't the same as in previous row we need to prepare new statement and restart batch.
+            // Custom value binders may also produce different query text for different values.
+            // So if row nulls or binds aren't the same as in previous row we need to prepare new statement and restart batch.
             // Quite complicated but works.
             boolean[] prevNulls = new boolean[attributes.length];
             boolean[] nulls = new boolean[attributes.length];
+            String[] prevBinds = new String[attributes.length];
+            String[] binds = new String[attributes.length];
             int statementsInBatch = 0;
 
             for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
@@ -143,21 +147,22 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                 if (reuse) {
                     for (int i = 0; i < rowValues.length; i++) {
                         nulls[i] = DBUtils.isNullValue(rowValues[i]);
+                        binds[i] = handlers[i] instanceof DBDValueBinder ?
+                            ((DBDValueBinder) handlers[i]).makeQueryBind(attributes[i], rowValues[i]) : null;
                     }
-                    if (!Arrays.equals(prevNulls, nulls) && statementsInBatch > 0) {
-                        reuse = false;
-                    }
-                    System.arraycopy(nulls, 0, prevNulls, 0, nulls.length);
-                    if (!reuse && statementsInBatch > 0) {
-                        // Flush batch
-                        if (actions == null) {
-                            flushBatch(statistics, statement);
+                    if (statement != null && (!Arrays.equals(prevNulls, nulls) || !Arrays.equals(prevBinds, binds))) {
+                        // Query text differs from the previous row. Flush batch and prepare new statement.
+                        if (statementsInBatch > 0) {
+                            if (actions == null) {
+                                flushBatch(statistics, statement);
+                            }
+                            statementsInBatch = 0;
                         }
                         statement.close();
                         statement = null;
-                        statementsInBatch = 0;
-                        reuse = true;
                     }
+                    System.arraycopy(nulls, 0, prevNulls, 0, nulls.length);
+                    System.arraycopy(binds, 0, prevBinds, 0, binds.length);
                 }
                 if (statement == null || !reuse) {
                     statement = prepareStatement(session, handlers, rowValues, options);
@@ -24,7 +24,6 @@ import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.time.ExtendedDateFormat;
 
 import java.text.DateFormat;
-import java.text.FieldPosition;
 import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -37,6 +36,13 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Date/time formatter.
+ * <p>
+ * Formatter may be shared by several threads (e.g. parallel data export jobs).
+ * {@link DateTimeFormatter} is immutable, legacy {@link DateFormat} is not thread-safe, so each thread
+ * formats dates with its own copy of it. No locks are used.
+ */
 public class DateTimeDataFormatter implements DBDDataFormatter {
 
     public static final String PROP_PATTERN = "pattern";
@@ -45,8 +51,7 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
     private String pattern;
     private ZoneId zone;
     private DateFormat dateFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DateFormat> threadDateFormat;
     private DateTimeFormatter dateTimeFormatter;
 
     @Override
@@ -61,8 +66,8 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
             locale);
         // We shouldn't use lanient formatter (#7244)
         dateFormat.setLenient(false);
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        final DateFormat prototypeFormat = dateFormat;
+        threadDateFormat = ThreadLocal.withInitial(() -> (DateFormat) prototypeFormat.clone());
         // DateTimeFormatter pattern for nanoseconds is "n" but old "f" (ExtendedDateFormat)
         String java8DatePattern = pattern.replaceAll("f+", "n");
         dateTimeFormatter = DateTimeFormatter.ofPattern(java8DatePattern);
@@ -73,9 +78,12 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         return zone;
     }
 
+    /**
+     * Returns date format of the current thread. Returned format must not be passed to other threads.
+     */
     @NotNull
     public DateFormat getDateFormat() {
-        return dateFormat;
+        return threadDateFormat.get();
     }
 
     @Override
@@ -104,10 +112,7 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
             }
             return dateTimeFormatter.format((TemporalAccessor) value);
         }
-        synchronized (dateFormat) {
-            buffer.setLength(0);
-            return value == null ? null : dateFormat.format(value, buffer, position).toString();
-        }
+        return value == null ? null : threadDateFormat.get().format(value);
     }
 
     @Override
@@ -129,7 +134,7 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
                 }
             }
         }
-        return dateFormat.parse(value);
+        return threadDateFormat.get().parse(value);
     }
 
 }
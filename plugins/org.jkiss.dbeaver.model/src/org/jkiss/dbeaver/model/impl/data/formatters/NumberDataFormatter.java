@@ -26,12 +26,19 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
-import java.text.FieldPosition;
+import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Number formatter.
+ * <p>
+ * Formatter may be shared by several threads (e.g. parallel data export jobs and the results viewer).
+ * {@link DecimalFormat} is not thread-safe, so each thread uses its own copy of the configured format.
+ * Integer values are formatted without {@link DecimalFormat} when format settings allow it. No locks are used.
+ */
 public class NumberDataFormatter implements DBDDataFormatter {
 
     public static final int MAX_DEFAULT_FRACTIONS_DIGITS = 16;
@@ -39,10 +46,20 @@ public class NumberDataFormatter implements DBDDataFormatter {
     private static final Log log = Log.getLog(NumberDataFormatter.class);
 
     private DecimalFormat numberFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DecimalFormat> threadNumberFormat;
+    private volatile boolean unnecessaryRoundingDisabled;
     private boolean nativeSpecialValues;
 
+    // Integer format settings. Integer fast formatting is disabled if integerZeroDigit is 0.
+    private char integerZeroDigit;
+    private char integerGroupingSeparator;
+    private int integerGroupingSize;
+    private int integerMinDigits;
+    private int integerMaxDigits;
+    private String integerPositivePrefix, integerPositiveSuffix;
+    private String integerNegativePrefix, integerNegativeSuffix;
+    private String integerFraction;
+
     public NumberDataFormatter() {
     }
 
@@ -113,9 +130,73 @@ public class NumberDataFormatter implements DBDDataFormatter {
                 numberFormat.setGroupingUsed(false);
             }
         }
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
         nativeSpecialValues = CommonUtils.toBoolean(properties.get(NumberFormatSample.PROP_NATIVE_SPECIAL_VALUES));
+        initIntegerFormat();
+
+        final DecimalFormat prototypeFormat = numberFormat;
+        unnecessaryRoundingDisabled = false;
+        threadNumberFormat = ThreadLocal.withInitial(() -> {
+            DecimalFormat format = (DecimalFormat) prototypeFormat.clone();
+            if (unnecessaryRoundingDisabled) {
+                format.setRoundingMode(RoundingMode.HALF_EVEN);
+            }
+            return format;
+        });
+    }
+
+    private void initIntegerFormat() {
+        integerZeroDigit = 0;
+        if (numberFormat.getMultiplier() != 1 || numberFormat.isDecimalSeparatorAlwaysShown() || numberFormat.getMinimumIntegerDigits() <= 0) {
+            // Rare settings. Leave them to DecimalFormat
+            return;
+        }
+        DecimalFormatSymbols symbols = numberFormat.getDecimalFormatSymbols();
+        integerGroupingSeparator = symbols.getGroupingSeparator();
+        integerGroupingSize = numberFormat.isGroupingUsed() ? numberFormat.getGroupingSize() : 0;
+        integerMinDigits = numberFormat.getMinimumIntegerDigits();
+        integerMaxDigits = numberFormat.getMaximumIntegerDigits();
+        integerPositivePrefix = numberFormat.getPositivePrefix();
+        integerPositiveSuffix = numberFormat.getPositiveSuffix();
+        integerNegativePrefix = numberFormat.getNegativePrefix();
+        integerNegativeSuffix = numberFormat.getNegativeSuffix();
+        int minFractionDigits = Math.min(numberFormat.getMinimumFractionDigits(), numberFormat.getMaximumFractionDigits());
+        if (minFractionDigits > 0) {
+            integerFraction = symbols.getDecimalSeparator() + String.valueOf(symbols.getZeroDigit()).repeat(minFractionDigits);
+        } else {
+            integerFraction = "";
+        }
+        integerZeroDigit = symbols.getZeroDigit();
+    }
+
+    /**
+     * Formats integer value the same way as DecimalFormat does.
+     * Returns null if value can't be formatted without DecimalFormat.
+     */
+    @Nullable
+    private String formatInteger(long value) {
+        String digits = Long.toString(value);
+        int digitsStart = value < 0 ? 1 : 0;
+        int digitCount = digits.length() - digitsStart;
+        if (digitCount > integerMaxDigits) {
+            // DecimalFormat truncates high digits
+            return null;
+        }
+        String prefix = value < 0 ? integerNegativePrefix : integerPositivePrefix;
+        String suffix = value < 0 ? integerNegativeSuffix : integerPositiveSuffix;
+        int totalDigits = Math.max(digitCount, integerMinDigits);
+        StringBuilder result = new StringBuilder(
+            prefix.length() + totalDigits * 2 + integerFraction.length() + suffix.length());
+        result.append(prefix);
+        for (int i = totalDigits; i > 0; i--) {
+            int digitPos = digits.length() - i;
+            result.append(digitPos < digitsStart ? integerZeroDigit : (char) (digits.charAt(digitPos) - '0' + integerZeroDigit));
+            if (integerGroupingSize > 0 && i > 1 && (i - 1) % integerGroupingSize == 0) {
+                result.append(integerGroupingSeparator);
+            }
+        }
+        result.append(integerFraction);
+        result.append(suffix);
+        return result.toString();
     }
 
     @Nullable
@@ -140,19 +221,26 @@ public class NumberDataFormatter implements DBDDataFormatter {
             // Convert to BigDecimal so we don't have rounding issues with high minimum fraction digits set
             value = new BigDecimal(value.toString());
         }
+        if (integerZeroDigit != 0 && (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+            String result = formatInteger(((Number) value).longValue());
+            if (result != null) {
+                return result;
+            }
+        }
         try {
-            synchronized (this) {
-                buffer.setLength(0);
-                try {
-                    return numberFormat.format(value, buffer, position).toString();
-                } catch (ArithmeticException e) {
-                    if (numberFormat.getRoundingMode() == RoundingMode.UNNECESSARY) {
-                        // This type can't use UNNECESSARY rounding. Let's set default one
+            DecimalFormat format = threadNumberFormat.get();
+            try {
+                return format.format(value);
+            } catch (ArithmeticException e) {
+                if (format.getRoundingMode() == RoundingMode.UNNECESSARY) {
+                    // This type can't use UNNECESSARY rounding. Let's set default one
+                    if (!unnecessaryRoundingDisabled) {
                         log.debug("Disabling UNNECESSARY rounding for numbers (" + e.getMessage() + ")");
-                        numberFormat.setRoundingMode(RoundingMode.HALF_EVEN);
+                        unnecessaryRoundingDisabled = true;
                     }
-                    return numberFormat.format(value, buffer, position).toString();
+                    format.setRoundingMode(RoundingMode.HALF_EVEN);
                 }
+                return format.format(value);
             }
         } catch (Exception e) {
             return value.toString();
@@ -162,39 +250,38 @@ public class NumberDataFormatter implements DBDDataFormatter {
     @Override
     public Object parseValue(String value, @Nullable Class<?> typeHint) throws ParseException
     {
-        synchronized (this) {
-            numberFormat.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
-            Number number = numberFormat.parse(value);
-            if (number != null && typeHint != null) {
-                boolean isFloat = number instanceof Double || number instanceof Float;
-                if (typeHint == Byte.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.byteValue();
-                } else if (typeHint == Short.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.shortValue();
-                } else if (typeHint == Integer.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.intValue();
-                } else if (typeHint == Long.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.longValue();
-                } else if (typeHint == Float.class) {
-                    return number.floatValue();
-                } else if (typeHint == Double.class) {
-                    return number.doubleValue();
+        DecimalFormat format = threadNumberFormat.get();
+        format.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
+        Number number = format.parse(value);
+        if (number != null && typeHint != null) {
+            boolean isFloat = number instanceof Double || number instanceof Float;
+            if (typeHint == Byte.class) {
+                if (isFloat) {
+                    return number;
+                }
+                return number.byteValue();
+            } else if (typeHint == Short.class) {
+                if (isFloat) {
+                    return number;
+                }
+                return number.shortValue();
+            } else if (typeHint == Integer.class) {
+                if (isFloat) {
+                    return number;
+                }
+                return number.intValue();
+            } else if (typeHint == Long.class) {
+                if (isFloat) {
+                    return number;
                 }
+                return number.longValue();
+            } else if (typeHint == Float.class) {
+                return number.floatValue();
+            } else if (typeHint == Double.class) {
+                return number.doubleValue();
             }
-            return number;
         }
+        return number;
     }
 
 }
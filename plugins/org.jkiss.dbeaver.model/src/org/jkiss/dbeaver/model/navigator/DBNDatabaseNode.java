@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.dpi.DPIClientObject;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
+import org.jkiss.dbeaver.model.impl.data.DictionaryCache;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeFolder;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
@@ -353,6 +354,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
         if (object instanceof DBPRefreshableObject) {
             DBPDataSource dataSource = object.getDataSource();
             if (object.isPersisted() && dataSource != null) {
+                invalidateDictionaryCache(dataSource, object);
                 DBSObject[] newObject = new DBSObject[1];
                 DBExecUtils.tryExecuteRecover(monitor, dataSource, param -> {
                     try {
@@ -380,6 +382,18 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
         }
     }
 
+    private static void invalidateDictionaryCache(@NotNull DBPDataSource dataSource, @NotNull DBSObject object) {
+        DictionaryCache dictionaryCache = DBUtils.getAdapter(DictionaryCache.class, dataSource);
+        if (dictionaryCache != null) {
+            if (object instanceof DBSEntity entity) {
+                dictionaryCache.invalidate(entity);
+            } else {
+                // Containers and data source refresh drops all cached dictionary values
+                dictionaryCache.invalidateAll();
+            }
+        }
+    }
+
     private void refreshNodeContent(final DBRProgressMonitor monitor, DBSObject newObject, Object source, boolean reflect)
         throws DBException {
         if (isDisposed()) {
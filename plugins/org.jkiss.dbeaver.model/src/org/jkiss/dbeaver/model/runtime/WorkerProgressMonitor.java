@@ -0,0 +1,94 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.runtime;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress monitor of a worker thread of a parallel task.
+ * Cancellation is inherited from the parent monitor. Progress and blocking objects are local,
+ * so several workers never modify the parent monitor state at the same time.
+ */
+public class WorkerProgressMonitor extends BaseProgressMonitor {
+
+    private static final Log log = Log.getLog(WorkerProgressMonitor.class);
+
+    private final DBRProgressMonitor parent;
+    private volatile boolean canceled;
+    private List<DBRBlockingObject> blocks = null;
+    private Thread blockThread;
+
+    public WorkerProgressMonitor(@NotNull DBRProgressMonitor parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled || parent.isCanceled() || super.isCanceled();
+    }
+
+    /**
+     * Cancels this worker only. Parent monitor is not affected.
+     * Active blocks (e.g. running statements) are canceled too, so the worker thread doesn't wait for them.
+     */
+    public void cancel() {
+        this.canceled = true;
+        List<DBRBlockingObject> activeBlocks;
+        Thread activeThread;
+        synchronized (this) {
+            activeBlocks = getActiveBlocks();
+            activeThread = blockThread;
+        }
+        if (activeBlocks != null) {
+            // The innermost block first
+            for (int i = activeBlocks.size() - 1; i >= 0; i--) {
+                try {
+                    BlockCanceler.cancelBlock(this, activeBlocks.get(i), activeThread);
+                } catch (DBException e) {
+                    log.debug("Block cancel error", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+        if (blocks == null) {
+            blocks = new ArrayList<>();
+        }
+        blocks.add(object);
+        blockThread = Thread.currentThread();
+    }
+
+    @Override
+    public synchronized void endBlock() {
+        if (blocks != null && !blocks.isEmpty()) {
+            blocks.remove(blocks.size() - 1);
+        }
+    }
+
+    @Override
+    public synchronized List<DBRBlockingObject> getActiveBlocks() {
+        return blocks == null || blocks.isEmpty() ? null : new ArrayList<>(blocks);
+    }
+
+}
@@ -42,6 +42,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     private List<OBJECT> objectList;
     private Map<String, OBJECT> objectMap;
+    // Built on the first search by mask
+    private ObjectNameIndex<OBJECT> nameIndex;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -101,6 +103,26 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Finds cached objects which names match the SQL LIKE mask.
+     * Doesn't read anything from the database, so the result is complete only if the cache is fully loaded.
+     */
+    @NotNull
+    public List<OBJECT> findCachedObjectsByMask(@NotNull String mask, boolean caseSensitive, int maxResults) {
+        synchronized (cacheSync) {
+            if (objectList == null) {
+                return Collections.emptyList();
+            }
+            if (nameIndex == null) {
+                nameIndex = new ObjectNameIndex<>();
+                for (OBJECT object : objectList) {
+                    nameIndex.add(object, object.getName());
+                }
+            }
+            return nameIndex.find(mask, caseSensitive, maxResults);
+        }
+    }
+
     public int getCacheSize() {
         synchronized (cacheSync) {
             return objectList == null ? 0 : objectList.size();
@@ -122,6 +144,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                     this.objectMap.put(name, object);
                 }
             }
+            if (this.nameIndex != null) {
+                this.nameIndex.add(object, object.getName());
+            }
         }
     }
 
@@ -135,6 +160,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                 if (this.objectMap != null) {
                     this.objectMap.remove(getObjectName(object));
                 }
+                if (this.nameIndex != null) {
+                    this.nameIndex.remove(object);
+                }
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -145,6 +173,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
         synchronized (cacheSync) {
+            if (this.nameIndex != null && this.objectList != null && this.objectList.contains(object)) {
+                this.nameIndex.add(object, newName);
+            }
             if (this.objectMap != null) {
                 if (!caseSensitive) {
                     oldName = oldName.toUpperCase(Locale.ENGLISH);
@@ -183,6 +214,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         synchronized (cacheSync) {
             this.objectList = null;
             this.objectMap = null;
+            this.nameIndex = null;
             this.fullCache = false;
         }
     }
@@ -192,6 +224,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         synchronized (cacheSync) {
             this.objectList = objects;
             this.objectMap = null;
+            this.nameIndex = null;
             this.fullCache = true;
         }
     }
@@ -0,0 +1,210 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+
+import java.util.*;
+
+/**
+ * Trigram index of object names.
+ * <p>
+ * Searches names by SQL LIKE masks ({@code %} and {@code _} wildcards, {@code \} escape).
+ * Names are padded with boundary markers, so prefix and suffix masks use the index too.
+ * Candidates found in the index are always verified against the mask.
+ * Index is not thread-safe.
+ */
+public class ObjectNameIndex<T> {
+
+    private static final char BOUNDARY = '\0';
+    private static final char ESCAPE_CHAR = '\\';
+
+    private final Map<T, String> names = new IdentityHashMap<>();
+    private final Map<Long, Set<T>> trigrams = new HashMap<>();
+
+    public int size() {
+        return names.size();
+    }
+
+    public void add(@NotNull T object, @NotNull String name) {
+        remove(object);
+        names.put(object, name);
+        for (long trigram : getTrigrams(normalize(name))) {
+            trigrams.computeIfAbsent(trigram, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(object);
+        }
+    }
+
+    public void remove(@NotNull T object) {
+        String name = names.remove(object);
+        if (name == null) {
+            return;
+        }
+        for (long trigram : getTrigrams(normalize(name))) {
+            Set<T> objects = trigrams.get(trigram);
+            if (objects != null) {
+                objects.remove(object);
+                if (objects.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        names.clear();
+        trigrams.clear();
+    }
+
+    /**
+     * Finds objects which names match the mask.
+     * Results are ordered by name.
+     */
+    @NotNull
+    public List<T> find(@NotNull String mask, boolean caseSensitive, int maxResults) {
+        Collection<T> candidates = findCandidates(normalize(mask));
+        List<Map.Entry<String, T>> matches = new ArrayList<>();
+        for (T object : candidates) {
+            String name = names.get(object);
+            if (name != null && matchesMask(caseSensitive ? name : normalize(name), caseSensitive ? mask : normalize(mask))) {
+                matches.add(new AbstractMap.SimpleEntry<>(name, object));
+            }
+        }
+        matches.sort(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER));
+        List<T> result = new ArrayList<>(Math.min(matches.size(), maxResults));
+        for (int i = 0; i < matches.size() && i < maxResults; i++) {
+            result.add(matches.get(i).getValue());
+        }
+        return result;
+    }
+
+    @NotNull
+    private Collection<T> findCandidates(@NotNull String mask) {
+        Set<T> candidates = null;
+        for (long trigram : getMaskTrigrams(mask)) {
+            Set<T> objects = trigrams.get(trigram);
+            if (objects == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null) {
+                candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+                candidates.addAll(objects);
+            } else {
+                candidates.retainAll(objects);
+            }
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+        }
+        // No trigrams in mask - check all names
+        return candidates == null ? names.keySet() : candidates;
+    }
+
+    @NotNull
+    private static String normalize(@NotNull String str) {
+        return str.toLowerCase(Locale.ROOT);
+    }
+
+    @NotNull
+    private static List<Long> getTrigrams(@NotNull String name) {
+        String padded = "" + BOUNDARY + BOUNDARY + name + BOUNDARY;
+        List<Long> result = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(makeTrigram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+        }
+        return result;
+    }
+
+    /**
+     * Collects trigrams of literal mask fragments.
+     * Fragments adjacent to the mask start or end are padded with boundary markers.
+     */
+    @NotNull
+    private static List<Long> getMaskTrigrams(@NotNull String mask) {
+        List<Long> result = new ArrayList<>();
+        StringBuilder fragment = new StringBuilder();
+        fragment.append(BOUNDARY).append(BOUNDARY);
+        for (int i = 0; i < mask.length(); i++) {
+            char c = mask.charAt(i);
+            if (c == ESCAPE_CHAR && i + 1 < mask.length()) {
+                fragment.append(mask.charAt(++i));
+            } else if (c == '%' || c == '_') {
+                addFragmentTrigrams(fragment, result);
+                fragment.setLength(0);
+            } else {
+                fragment.append(c);
+            }
+        }
+        fragment.append(BOUNDARY);
+        addFragmentTrigrams(fragment, result);
+        return result;
+    }
+
+    private static void addFragmentTrigrams(@NotNull CharSequence fragment, @NotNull List<Long> result) {
+        for (int i = 0; i + 3 <= fragment.length(); i++) {
+            result.add(makeTrigram(fragment.charAt(i), fragment.charAt(i + 1), fragment.charAt(i + 2)));
+        }
+    }
+
+    private static long makeTrigram(char c1, char c2, char c3) {
+        return ((long) c1 << 32) | ((long) c2 << 16) | c3;
+    }
+
+    /**
+     * Checks that string matches SQL LIKE mask
+     */
+    public static boolean matchesMask(@NotNull String str, @NotNull String mask) {
+        return matchesMask(str, 0, mask, 0);
+    }
+
+    private static boolean matchesMask(@NotNull String str, int strPos, @NotNull String mask, int maskPos) {
+        while (maskPos < mask.length()) {
+            char c = mask.charAt(maskPos);
+            if (c == '%') {
+                // Collapse sequential wildcards
+                while (maskPos < mask.length() && mask.charAt(maskPos) == '%') {
+                    maskPos++;
+                }
+                if (maskPos == mask.length()) {
+                    return true;
+                }
+                for (int i = strPos; i < str.length(); i++) {
+                    if (matchesMask(str, i, mask, maskPos)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (strPos >= str.length()) {
+                return false;
+            }
+            if (c == '_') {
+                maskPos++;
+            } else {
+                if (c == ESCAPE_CHAR && maskPos + 1 < mask.length()) {
+                    c = mask.charAt(++maskPos);
+                }
+                if (str.charAt(strPos) != c) {
+                    return false;
+                }
+                maskPos++;
+            }
+            strPos++;
+        }
+        return strPos == str.length();
+    }
+
+}
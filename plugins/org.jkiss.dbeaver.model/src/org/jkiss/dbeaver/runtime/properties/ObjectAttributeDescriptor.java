@@ -53,6 +53,7 @@ public abstract class ObjectAttributeDescriptor {
     private final int orderNumber;
     private String id;
     private final Method getter;
+    private final ObjectPropertyAccessor accessor;
     private boolean isLazy;
     private IPropertyCacheValidator cacheValidator;
     private final Class<?> declaringClass;
@@ -67,6 +68,7 @@ public abstract class ObjectAttributeDescriptor {
         this.source = source;
         this.parent = parent;
         this.getter = getter;
+        this.accessor = ObjectPropertyAccessor.getAccessor(getter);
         this.orderNumber = orderNumber;
         this.id = id;
         if (CommonUtils.isEmpty(this.id)) {
@@ -119,6 +121,14 @@ public abstract class ObjectAttributeDescriptor {
         return getter;
     }
 
+    /**
+     * Compiled getter. Use it instead of getter reflective invocation.
+     */
+    @NotNull
+    public ObjectPropertyAccessor getAccessor() {
+        return accessor;
+    }
+
     public boolean isNameProperty() {
         return id.equals(DBConstants.PROP_ID_NAME) || orderNumber == 1;
     }
@@ -0,0 +1,199 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.properties;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compiled property getter.
+ * <p>
+ * Getters without parameters and lazy getters with a single progress monitor parameter are compiled
+ * into functional objects with {@link LambdaMetafactory}, so reading a property costs a regular interface call.
+ * Other getters, and getters which can't be compiled, are invoked through reflection.
+ * Accessors are generated once per getter and cached by declaring class.
+ * <p>
+ * Accessors follow {@link Method#invoke} contract: errors thrown by getters are wrapped in {@link InvocationTargetException}.
+ */
+public abstract class ObjectPropertyAccessor {
+
+    private static final Log log = Log.getLog(ObjectPropertyAccessor.class);
+
+    private static final ClassValue<Map<Method, ObjectPropertyAccessor>> ACCESSOR_CACHE = new ClassValue<>() {
+        @Override
+        protected Map<Method, ObjectPropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    protected final Method getter;
+
+    private ObjectPropertyAccessor(@NotNull Method getter) {
+        this.getter = getter;
+    }
+
+    @NotNull
+    public static ObjectPropertyAccessor getAccessor(@NotNull Method getter) {
+        return ACCESSOR_CACHE.get(getter.getDeclaringClass()).computeIfAbsent(getter, ObjectPropertyAccessor::createAccessor);
+    }
+
+    @NotNull
+    public Method getGetter() {
+        return getter;
+    }
+
+    /**
+     * Returns true if getter was compiled. False means that reflection is used.
+     */
+    public abstract boolean isCompiled();
+
+    /**
+     * Reads property value
+     *
+     * @param params getter parameters, the same as for {@link Method#invoke}
+     */
+    public abstract Object invoke(Object object, @Nullable Object[] params)
+        throws IllegalAccessException, IllegalArgumentException, InvocationTargetException;
+
+    void checkTarget(Object object, @Nullable Object[] params, int paramCount) {
+        if (!getter.getDeclaringClass().isInstance(object)) {
+            throw new IllegalArgumentException("Object " + (object == null ? null : object.getClass().getName()) +
+                " is not an instance of " + getter.getDeclaringClass().getName());
+        }
+        if ((params == null ? 0 : params.length) != paramCount) {
+            throw new IllegalArgumentException("Wrong number of arguments for " + getter);
+        }
+    }
+
+    @NotNull
+    private static ObjectPropertyAccessor createAccessor(@NotNull Method getter) {
+        if (!Modifier.isStatic(getter.getModifiers())) {
+            Class<?>[] paramTypes = getter.getParameterTypes();
+            try {
+                if (paramTypes.length == 0) {
+                    return new FunctionAccessor(getter);
+                } else if (paramTypes.length == 1 && paramTypes[0] == DBRProgressMonitor.class) {
+                    return new MonitorFunctionAccessor(getter);
+                }
+            } catch (Throwable e) {
+                log.debug("Can't compile property getter " + getter + ": " + e.getMessage());
+            }
+        }
+        return new ReflectiveAccessor(getter);
+    }
+
+    @NotNull
+    private static CallSite createCallSite(@NotNull Method getter, @NotNull Class<?> functionType, @NotNull MethodType samType)
+        throws ReflectiveOperationException, LambdaConversionException
+    {
+        Class<?> declaringClass = getter.getDeclaringClass();
+        // Lambda class is defined in the declaring class loader, so it sees classes of the getter signature
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        MethodHandle getterHandle = lookup.unreflect(getter);
+        return LambdaMetafactory.metafactory(
+            lookup,
+            "apply",
+            MethodType.methodType(functionType),
+            samType,
+            getterHandle,
+            getterHandle.type().changeReturnType(Object.class));
+    }
+
+    private static class FunctionAccessor extends ObjectPropertyAccessor {
+        private final Function<Object, Object> function;
+
+        @SuppressWarnings("unchecked")
+        FunctionAccessor(@NotNull Method getter) throws Throwable {
+            super(getter);
+            CallSite callSite = createCallSite(getter, Function.class, MethodType.methodType(Object.class, Object.class));
+            this.function = (Function<Object, Object>) callSite.getTarget().invoke();
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return true;
+        }
+
+        @Override
+        public Object invoke(Object object, @Nullable Object[] params) throws InvocationTargetException {
+            checkTarget(object, params, 0);
+            try {
+                return function.apply(object);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    private static class MonitorFunctionAccessor extends ObjectPropertyAccessor {
+        private final BiFunction<Object, Object, Object> function;
+
+        @SuppressWarnings("unchecked")
+        MonitorFunctionAccessor(@NotNull Method getter) throws Throwable {
+            super(getter);
+            CallSite callSite = createCallSite(getter, BiFunction.class, MethodType.methodType(Object.class, Object.class, Object.class));
+            this.function = (BiFunction<Object, Object, Object>) callSite.getTarget().invoke();
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return true;
+        }
+
+        @Override
+        public Object invoke(Object object, @Nullable Object[] params) throws InvocationTargetException {
+            checkTarget(object, params, 1);
+            if (params[0] != null && !(params[0] instanceof DBRProgressMonitor)) {
+                throw new IllegalArgumentException("Progress monitor expected for " + getter);
+            }
+            try {
+                return function.apply(object, params[0]);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    private static class ReflectiveAccessor extends ObjectPropertyAccessor {
+        ReflectiveAccessor(@NotNull Method getter) {
+            super(getter);
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return false;
+        }
+
+        @Override
+        public Object invoke(Object object, @Nullable Object[] params)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException
+        {
+            return getter.invoke(object, params);
+        }
+    }
+}
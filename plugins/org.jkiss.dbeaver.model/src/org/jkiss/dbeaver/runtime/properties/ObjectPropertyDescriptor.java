@@ -428,7 +428,7 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
         } else {
             readPropertyMethod = () -> {
                 try {
-                    return getGetter().invoke(finalObject, params);
+                    return getAccessor().invoke(finalObject, params);
                 } catch (Exception e) {
                     throw new InvocationTargetException(e, e.getMessage());
                 }
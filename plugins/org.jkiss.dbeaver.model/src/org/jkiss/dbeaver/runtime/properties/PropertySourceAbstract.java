@@ -20,8 +20,10 @@ import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPContextProvider;
+import org.jkiss.dbeaver.model.dpi.DPIClientObject;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.PropertyDescriptor;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
@@ -376,7 +378,23 @@ public abstract class PropertySourceAbstract implements DBPPropertyManager, IPro
         {
             try {
                 Map<ObjectPropertyDescriptor, Object> result = new IdentityHashMap<>();
-                for (ObjectPropertyDescriptor prop : obtainLazyProperties()) {
+                List<ObjectPropertyDescriptor> lazyProperties = obtainLazyProperties();
+                if (getEditableValue() instanceof DPIClientObject dpiObject && lazyProperties.size() > 1) {
+                    // Read all properties of detached object in one call
+                    List<String> propertyNames = new ArrayList<>();
+                    for (ObjectPropertyDescriptor prop : lazyProperties) {
+                        if (prop.getParent() == null) {
+                            propertyNames.add(prop.getId());
+                        }
+                    }
+                    try {
+                        dpiObject.dpiPrefetchProperties(monitor, propertyNames);
+                    } catch (DBException e) {
+                        // Properties will be read one by one
+                        log.debug("Error prefetching DPI properties", e);
+                    }
+                }
+                for (ObjectPropertyDescriptor prop : lazyProperties) {
                     if (monitor.isCanceled()) {
                         break;
                     }
@@ -62,8 +62,30 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationSshj.class);
 
+    // Sessions shared by tunnels to the same hosts
+    private static final SSHSessionPool<SSHClient[]> SESSION_POOL = new SSHSessionPool<>(
+        "SSHJ",
+        new SSHSessionPool.SessionController<>() {
+            @Override
+            public boolean isSessionAlive(@NotNull SSHClient[] clients) {
+                for (SSHClient client : clients) {
+                    if (!client.isConnected() || !client.isAuthenticated()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void closeSession(@NotNull SSHClient[] clients) {
+                disconnectClients(clients);
+            }
+        },
+        SSHConstants.SHARED_SESSION_IDLE_TIMEOUT);
+
     private final List<LocalPortListener> listeners = new ArrayList<>();
     private SSHClient[] clients;
+    private String sharedSessionKey;
 
     @Override
     protected synchronized void setupTunnel(
@@ -72,7 +94,41 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
         @NotNull SSHHostConfiguration[] hosts,
         @NotNull SSHPortForwardConfiguration portForward
     ) throws DBException {
-        this.clients = new SSHClient[hosts.length];
+        if (isSessionSharingEnabled()) {
+            final String sessionKey = getSharedSessionKey(configuration, hosts);
+            try {
+                this.clients = SESSION_POOL.acquireSession(sessionKey, () -> openClients(monitor, configuration, hosts));
+            } catch (IOException e) {
+                throw new DBException("Cannot establish SSH session", e);
+            }
+            this.sharedSessionKey = sessionKey;
+        } else {
+            this.clients = openClients(monitor, configuration, hosts);
+        }
+
+        final SSHHostConfiguration host = hosts[hosts.length - 1];
+        try {
+            log.debug(String.format(
+                "Set port forwarding %s:%d -> %s:%d",
+                portForward.getLocalHost(), portForward.getLocalPort(),
+                portForward.getRemoteHost(), portForward.getRemotePort()));
+            setPortForwarding(
+                clients[clients.length - 1],
+                portForward.getLocalHost(), portForward.getLocalPort(),
+                portForward.getRemoteHost(), portForward.getRemotePort());
+        } catch (IOException e) {
+            closeTunnel(monitor);
+            throw new DBException("Cannot establish tunnel to " + host.getHostname() + ":" + host.getPort(), e);
+        }
+    }
+
+    @NotNull
+    private SSHClient[] openClients(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBWHandlerConfiguration configuration,
+        @NotNull SSHHostConfiguration[] hosts
+    ) throws DBException {
+        final SSHClient[] clients = new SSHClient[hosts.length];
 
         final int connectTimeout = configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT);
         final int keepAliveInterval = configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL) / 1000; // sshj uses seconds for keep-alive interval
@@ -145,22 +201,12 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
                     default:
                         break;
                 }
-
-                if (index == hosts.length - 1) {
-                    log.debug(String.format(
-                        "Set port forwarding %s:%d -> %s:%d",
-                        portForward.getLocalHost(), portForward.getLocalPort(),
-                        portForward.getRemoteHost(), portForward.getRemotePort()));
-                    setPortForwarding(
-                        client,
-                        portForward.getLocalHost(), portForward.getLocalPort(),
-                        portForward.getRemoteHost(), portForward.getRemotePort());
-                }
             } catch (IOException e) {
-                closeTunnel(monitor);
+                disconnectClients(clients);
                 throw new DBException("Cannot establish tunnel to " + host.getHostname() + ":" + host.getPort(), e);
             }
         }
+        return clients;
     }
 
     private static void setupHostKeyVerification(
@@ -181,31 +227,50 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
     }
 
     @Override
-    public synchronized void closeTunnel(DBRProgressMonitor monitor) {
+    public void closeTunnel(DBRProgressMonitor monitor) {
+        closeTunnel(false);
+    }
+
+    private synchronized void closeTunnel(boolean invalidateSession) {
         listeners.forEach(LocalPortListener::disconnect);
         listeners.clear();
 
         if (!ArrayUtils.isEmpty(clients)) {
             SSHClient[] clientsCopy = this.clients;
-            new AbstractJob("Close SSHJ clients") {
-                @Override
-                protected IStatus run(DBRProgressMonitor monitor) {
-                    for (SSHClient client : clientsCopy) {
-                        if (client != null && client.isConnected()) {
-                            try {
-                                log.debug("Disconnect SSHJ tunnel " + client);
-                                client.disconnect();
-                            } catch (Throwable e) {
-                                log.debug("Error closing session: " + e.getMessage());
-                            }
-                        }
+            if (sharedSessionKey != null && invalidateSession) {
+                // Broken session must not be reused by other tunnels
+                SESSION_POOL.invalidateSession(sharedSessionKey, clientsCopy);
+            } else if (sharedSessionKey != null) {
+                // Session is closed by the pool when it is not used by other tunnels
+                SESSION_POOL.releaseSession(sharedSessionKey, clientsCopy);
+            } else {
+                new AbstractJob("Close SSHJ clients") {
+                    @Override
+                    protected IStatus run(DBRProgressMonitor monitor) {
+                        disconnectClients(clientsCopy);
+                        return Status.OK_STATUS;
                     }
-                    return Status.OK_STATUS;
-                }
-            }.schedule();
+                }.schedule();
+            }
         }
 
         clients = null;
+        sharedSessionKey = null;
+    }
+
+    private static void disconnectClients(@NotNull SSHClient[] clients) {
+        // Jump host clients are closed after the clients connected through them
+        for (int i = clients.length - 1; i >= 0; i--) {
+            SSHClient client = clients[i];
+            if (client != null && client.isConnected()) {
+                try {
+                    log.debug("Disconnect SSHJ tunnel " + client);
+                    client.disconnect();
+                } catch (Throwable e) {
+                    log.debug("Error closing session: " + e.getMessage());
+                }
+            }
+        }
     }
 
     @Override
@@ -220,7 +285,7 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
-        closeTunnel(monitor);
+        closeTunnel(true);
         initTunnel(monitor, savedConfiguration, savedConnectionInfo);
     }
 
@@ -23,6 +23,8 @@ public class SSHConstants {
 
     public static final int DEFAULT_SSH_PORT = 22;
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    // Shared session is closed when it is not used by any tunnel for this time
+    public static final long SHARED_SESSION_IDLE_TIMEOUT = 30000;
 
     public static final String PROP_IMPLEMENTATION = "implementation";
     public static final String PROP_AUTH_TYPE = "authType";
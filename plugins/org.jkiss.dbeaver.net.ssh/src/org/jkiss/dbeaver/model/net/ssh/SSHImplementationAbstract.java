@@ -22,6 +22,7 @@ import com.jcraft.jsch.JUnixSocketFactory;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.net.DBWUtils;
@@ -32,7 +33,9 @@ import org.jkiss.dbeaver.model.net.ssh.registry.SSHImplementationDescriptor;
 import org.jkiss.dbeaver.model.net.ssh.registry.SSHImplementationRegistry;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.registry.RegistryConstants;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.SecurityUtils;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -207,6 +210,36 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
         return new SSHHostConfiguration(username, hostname, port, authentication);
     }
 
+    /**
+     * Checks whether tunnels to the same hosts should share one SSH session
+     */
+    protected static boolean isSessionSharingEnabled() {
+        return DBWorkbench.getPlatform().getPreferenceStore().getBoolean(ModelPreferences.NET_TUNNEL_SHARE_SESSIONS);
+    }
+
+    /**
+     * Makes key of a shared session. Sessions are shared only by tunnels with the same hosts and credentials.
+     * Secrets are included as a digest.
+     */
+    @NotNull
+    protected static String getSharedSessionKey(@NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts) {
+        StringBuilder key = new StringBuilder();
+        key.append(configuration.getBooleanProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION))
+            .append('|').append(configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT))
+            .append('|').append(configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL))
+            .append('|').append(configuration.getIntProperty(SSHConstants.PROP_ALIVE_COUNT));
+        for (SSHHostConfiguration host : hosts) {
+            SSHAuthConfiguration auth = host.getAuthConfiguration();
+            key.append('|').append(host.getUsername()).append('@').append(host.getHostname()).append(':').append(host.getPort())
+                .append('/').append(auth.getType());
+            if (auth.getKeyFile() != null) {
+                key.append('/').append(auth.getKeyFile().toAbsolutePath());
+            }
+            key.append('/').append(SecurityUtils.makeDigest(CommonUtils.notEmpty(auth.getKeyValue()), auth.getPassword()));
+        }
+        return key.toString();
+    }
+
     @NotNull
     public static String getJumpServerSettingsPrefix(int index) {
         return SSHConstants.PROP_JUMP_SERVER + index + ".";
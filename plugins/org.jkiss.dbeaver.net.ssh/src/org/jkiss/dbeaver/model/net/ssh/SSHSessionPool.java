@@ -0,0 +1,291 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool of SSH sessions shared by tunnels which connect to the same hosts with the same credentials.
+ * <p>
+ * Sessions are reference counted. Each tunnel adds its own port forwarding to the shared session,
+ * so connections behind one SSH host do not pay for a separate handshake.
+ * Session which is not used by any tunnel is closed after the idle timeout.
+ *
+ * @param <T> session type
+ */
+public class SSHSessionPool<T> {
+
+    private static final Log log = Log.getLog(SSHSessionPool.class);
+
+    public interface SessionController<T> {
+
+        boolean isSessionAlive(@NotNull T session);
+
+        void closeSession(@NotNull T session);
+    }
+
+    @FunctionalInterface
+    public interface SessionOpener<T> {
+
+        @NotNull
+        T openSession() throws DBException, IOException;
+    }
+
+    private static class SessionEntry<T> {
+        private final String key;
+        private T session;
+        private int refCount;
+        private long idleSince;
+
+        SessionEntry(@NotNull String key) {
+            this.key = key;
+        }
+    }
+
+    private final String name;
+    private final SessionController<T> controller;
+    private final long idleTimeout;
+    private final Map<String, SessionEntry<T>> sessions = new HashMap<>();
+    private AbstractJob evictionJob;
+
+    private long openCount;
+    private long reuseCount;
+    private long evictionCount;
+
+    /**
+     * @param idleTimeout time in milliseconds after which unused session is closed. Zero closes unused sessions immediately.
+     */
+    public SSHSessionPool(@NotNull String name, @NotNull SessionController<T> controller, long idleTimeout) {
+        this.name = name;
+        this.controller = controller;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns session for the specified key. Opens new session if there is no live session in the pool.
+     * Each acquired session must be released with {@link #releaseSession}.
+     */
+    @NotNull
+    public T acquireSession(@NotNull String key, @NotNull SessionOpener<T> opener) throws DBException, IOException {
+        SessionEntry<T> entry;
+        synchronized (this) {
+            entry = sessions.computeIfAbsent(key, SessionEntry::new);
+            entry.refCount++;
+        }
+        // Only one session is opened per key, other tunnels wait for it
+        synchronized (entry) {
+            if (entry.session != null && !controller.isSessionAlive(entry.session)) {
+                log.debug("Shared SSH session is broken. Reopen.");
+                closeSession(entry.session);
+                entry.session = null;
+            }
+            if (entry.session != null) {
+                synchronized (this) {
+                    reuseCount++;
+                    log.debug("Reuse shared " + name + " session (" + entry.refCount + " tunnels, " + reuseCount + " handshakes avoided)");
+                }
+                return entry.session;
+            }
+            try {
+                entry.session = opener.openSession();
+            } catch (Throwable e) {
+                releaseEntry(entry);
+                throw e;
+            }
+            synchronized (this) {
+                openCount++;
+            }
+            return entry.session;
+        }
+    }
+
+    /**
+     * Releases session acquired by {@link #acquireSession}.
+     */
+    public void releaseSession(@NotNull String key, @NotNull T session) {
+        SessionEntry<T> entry;
+        synchronized (this) {
+            entry = sessions.get(key);
+        }
+        if (entry == null) {
+            closeSession(session);
+            return;
+        }
+        if (entry.session != session) {
+            // Broken session was replaced after reconnect
+            closeSession(session);
+        }
+        releaseEntry(entry);
+    }
+
+    /**
+     * Releases broken session acquired by {@link #acquireSession} and removes it from the pool.
+     * Session may look alive (e.g. on a half-open socket), so the next tunnel opens a new session.
+     */
+    public void invalidateSession(@NotNull String key, @NotNull T session) {
+        SessionEntry<T> entry;
+        synchronized (this) {
+            entry = sessions.get(key);
+        }
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.session == session) {
+                    entry.session = null;
+                }
+            }
+        }
+        // Detached session is closed on release
+        releaseSession(key, session);
+    }
+
+    private void releaseEntry(@NotNull SessionEntry<T> entry) {
+        T sessionToClose = null;
+        synchronized (this) {
+            entry.refCount--;
+            if (entry.refCount > 0) {
+                return;
+            }
+            if (idleTimeout > 0 && entry.session != null) {
+                entry.idleSince = System.currentTimeMillis();
+                scheduleEviction();
+                return;
+            }
+            sessions.remove(entry.key);
+            sessionToClose = entry.session;
+            entry.session = null;
+        }
+        if (sessionToClose != null) {
+            closeSession(sessionToClose);
+        }
+    }
+
+    /**
+     * Closes all sessions which are not used by any tunnel
+     */
+    public void closeIdleSessions() {
+        closeIdleSessions(Long.MAX_VALUE);
+    }
+
+    private void closeIdleSessions(long maxIdleSince) {
+        List<T> toClose = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<SessionEntry<T>> iter = sessions.values().iterator(); iter.hasNext(); ) {
+                SessionEntry<T> entry = iter.next();
+                if (entry.refCount == 0 && entry.idleSince <= maxIdleSince) {
+                    iter.remove();
+                    if (entry.session != null) {
+                        toClose.add(entry.session);
+                        entry.session = null;
+                        evictionCount++;
+                    }
+                }
+            }
+        }
+        for (T session : toClose) {
+            closeSession(session);
+        }
+    }
+
+    public synchronized int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Number of opened sessions, i.e. performed SSH handshakes
+     */
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * Number of tunnels which reused existing session, i.e. avoided SSH handshakes
+     */
+    public synchronized long getReuseCount() {
+        return reuseCount;
+    }
+
+    /**
+     * Number of sessions closed by idle timeout
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + " session pool (sessions=" + sessions.size() + ", opened=" + openCount +
+            ", reused=" + reuseCount + ", evicted=" + evictionCount + ")";
+    }
+
+    private void closeSession(@NotNull T session) {
+        try {
+            controller.closeSession(session);
+        } catch (Throwable e) {
+            log.debug("Error closing shared SSH session: " + e.getMessage());
+        }
+    }
+
+    private void scheduleEviction() {
+        if (evictionJob == null) {
+            evictionJob = new AbstractJob("Close idle " + name + " sessions") {
+                {
+                    setSystem(true);
+                    setUser(false);
+                }
+
+                @Override
+                protected IStatus run(DBRProgressMonitor monitor) {
+                    closeIdleSessions(System.currentTimeMillis() - idleTimeout);
+                    synchronized (SSHSessionPool.this) {
+                        if (hasIdleSessions()) {
+                            // Check remaining sessions later
+                            schedule(idleTimeout);
+                        }
+                    }
+                    return Status.OK_STATUS;
+                }
+            };
+        }
+        int jobState = evictionJob.getState();
+        if (jobState == AbstractJob.NONE || jobState == AbstractJob.RUNNING) {
+            // Running job will be rescheduled after it is finished
+            evictionJob.schedule(idleTimeout);
+        }
+    }
+
+    private boolean hasIdleSessions() {
+        for (SessionEntry<T> entry : sessions.values()) {
+            if (entry.refCount == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
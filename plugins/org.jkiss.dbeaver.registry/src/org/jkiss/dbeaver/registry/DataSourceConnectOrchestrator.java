@@ -0,0 +1,361 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.dbeaver.model.net.DBWHandlerType;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Connects several data sources in parallel.
+ * <p>
+ * Number of simultaneous connects is limited in total, per driver and per host (SSH tunnel host if tunnel is enabled).
+ * Driver libraries are downloaded and driver classes are loaded once per driver before its data sources are connected.
+ */
+public class DataSourceConnectOrchestrator {
+
+    private static final Log log = Log.getLog(DataSourceConnectOrchestrator.class);
+
+    private static final long STATE_CHECK_PERIOD = 200;
+
+    public static class ConnectResult {
+        private final DataSourceDescriptor dataSource;
+        private boolean connected;
+        private Throwable error;
+        private final Map<DataSourceDescriptor.ConnectPhase, Long> phaseTimes = new EnumMap<>(DataSourceDescriptor.ConnectPhase.class);
+        private long totalTime;
+
+        ConnectResult(DataSourceDescriptor dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @NotNull
+        public DataSourceDescriptor getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Nullable
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * Durations (ms) of connect phases
+         */
+        @NotNull
+        public Map<DataSourceDescriptor.ConnectPhase, Long> getPhaseTimes() {
+            return phaseTimes;
+        }
+
+        /**
+         * Total connect time (ms) including wait for driver load and free connect slot
+         */
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder();
+            str.append("'").append(dataSource.getName()).append("' ")
+                .append(connected ? "connected" : "not connected")
+                .append(" in ").append(totalTime).append("ms");
+            if (!phaseTimes.isEmpty()) {
+                str.append(" (");
+                boolean first = true;
+                for (Map.Entry<DataSourceDescriptor.ConnectPhase, Long> pt : phaseTimes.entrySet()) {
+                    if (!first) {
+                        str.append(", ");
+                    }
+                    first = false;
+                    str.append(pt.getKey().name().toLowerCase(Locale.ENGLISH)).append(": ").append(pt.getValue()).append("ms");
+                }
+                str.append(")");
+            }
+            return str.toString();
+        }
+    }
+
+    private final int maxConnects;
+    private final int maxConnectsPerDriver;
+    private final int maxConnectsPerHost;
+    private final Map<DBPDriver, Semaphore> driverSlots = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> hostSlots = new ConcurrentHashMap<>();
+    private final Semaphore connectSlots;
+    private final Object stateLock = new Object();
+    private long stateVersion;
+
+    public DataSourceConnectOrchestrator() {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        this.maxConnects = Math.max(preferences.getInt(ModelPreferences.CONNECT_PARALLEL_MAX), 1);
+        this.maxConnectsPerDriver = Math.max(preferences.getInt(ModelPreferences.CONNECT_PARALLEL_PER_DRIVER), 1);
+        this.maxConnectsPerHost = Math.max(preferences.getInt(ModelPreferences.CONNECT_PARALLEL_PER_HOST), 1);
+        this.connectSlots = new Semaphore(maxConnects);
+    }
+
+    public DataSourceConnectOrchestrator(int maxConnects, int maxConnectsPerDriver, int maxConnectsPerHost) {
+        this.maxConnects = Math.max(maxConnects, 1);
+        this.maxConnectsPerDriver = Math.max(maxConnectsPerDriver, 1);
+        this.maxConnectsPerHost = Math.max(maxConnectsPerHost, 1);
+        this.connectSlots = new Semaphore(this.maxConnects);
+    }
+
+    /**
+     * Connects all disconnected data sources. Returns connect results in the order of the specified data sources.
+     * <p>
+     * Connect slots are acquired by the calling thread before connect is passed to the thread pool.
+     * So pool threads never wait for a slot and connects to a busy host do not block connects to other hosts.
+     */
+    @NotNull
+    public List<ConnectResult> connect(@NotNull DBRProgressMonitor monitor, @NotNull Collection<DataSourceDescriptor> dataSources) {
+        List<ConnectResult> results = new ArrayList<>();
+        Set<DataSourceDescriptor> processed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DataSourceDescriptor dataSource : dataSources) {
+            if (dataSource.isConnected() || !processed.add(dataSource)) {
+                continue;
+            }
+            results.add(new ConnectResult(dataSource));
+        }
+        if (results.isEmpty()) {
+            return results;
+        }
+
+        monitor.beginTask("Connect to " + results.size() + " data source(s)", results.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConnects, results.size()), runnable -> {
+            Thread thread = new Thread(runnable, "Data source connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Each task gets its own monitor: tasks run in parallel and the parent monitor is not thread-safe
+        List<WorkerProgressMonitor> taskMonitors = new ArrayList<>();
+        Map<ConnectResult, Future<?>> connectFutures = new IdentityHashMap<>();
+        try {
+            long startTime = System.currentTimeMillis();
+            Map<DBPDriver, CompletableFuture<Long>> driverLoads = new HashMap<>();
+            List<ConnectResult> pending = new ArrayList<>();
+            for (ConnectResult result : results) {
+                DBPDriver driver = result.dataSource.getDriver();
+                if (driver.isDeprecated()) {
+                    // The same check as in ConnectJob
+                    result.error = new DBException(
+                        "Driver " + driver.getFullName() + " is deprecated." +
+                        " Please see the connection page for more info.");
+                    continue;
+                }
+                if (!driverLoads.containsKey(driver)) {
+                    WorkerProgressMonitor driverMonitor = new WorkerProgressMonitor(monitor);
+                    taskMonitors.add(driverMonitor);
+                    driverLoads.put(driver, CompletableFuture
+                        .supplyAsync(() -> loadDriver(driverMonitor, driver), executor)
+                        .whenComplete((loadTime, error) -> signalStateChange()));
+                }
+                pending.add(result);
+            }
+
+            while (!pending.isEmpty() && !monitor.isCanceled()) {
+                long stateVersion = getStateVersion();
+                for (Iterator<ConnectResult> iter = pending.iterator(); iter.hasNext(); ) {
+                    ConnectResult result = iter.next();
+                    CompletableFuture<Long> driverLoad = driverLoads.get(result.dataSource.getDriver());
+                    if (!driverLoad.isDone()) {
+                        continue;
+                    }
+                    Long driverLoadTime;
+                    try {
+                        driverLoadTime = driverLoad.join();
+                    } catch (CompletionException | CancellationException e) {
+                        result.error = e instanceof CompletionException ? e.getCause() : e;
+                        result.totalTime = System.currentTimeMillis() - startTime;
+                        iter.remove();
+                        continue;
+                    }
+                    List<Semaphore> slots = tryAcquireSlots(result.dataSource);
+                    if (slots == null) {
+                        // Wait for a free slot. Other data sources may still be connected.
+                        continue;
+                    }
+                    if (driverLoadTime != null) {
+                        result.phaseTimes.put(DataSourceDescriptor.ConnectPhase.DRIVER_LOAD, driverLoadTime);
+                    }
+                    WorkerProgressMonitor connectMonitor = new WorkerProgressMonitor(monitor);
+                    taskMonitors.add(connectMonitor);
+                    connectFutures.put(result, executor.submit(() -> {
+                        try {
+                            connectDataSource(connectMonitor, result);
+                        } finally {
+                            for (Semaphore slot : slots) {
+                                slot.release();
+                            }
+                            result.totalTime = System.currentTimeMillis() - startTime;
+                            signalStateChange();
+                        }
+                    }));
+                    iter.remove();
+                }
+                if (!pending.isEmpty()) {
+                    waitForStateChange(stateVersion);
+                }
+            }
+
+            for (ConnectResult result : results) {
+                Future<?> connectFuture = connectFutures.get(result);
+                if (connectFuture != null) {
+                    try {
+                        connectFuture.get();
+                    } catch (ExecutionException e) {
+                        result.error = e.getCause();
+                    }
+                }
+                log.debug("Data source " + result);
+                monitor.worked(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Stop connects which are not finished yet
+            for (WorkerProgressMonitor taskMonitor : taskMonitors) {
+                taskMonitor.cancel();
+            }
+            for (Future<?> connectFuture : connectFutures.values()) {
+                connectFuture.cancel(true);
+            }
+        } finally {
+            for (WorkerProgressMonitor taskMonitor : taskMonitors) {
+                taskMonitor.cancel();
+            }
+            executor.shutdownNow();
+            monitor.done();
+        }
+        return results;
+    }
+
+    /**
+     * Downloads driver libraries and loads driver class.
+     * Returns load time or null if driver doesn't need to be loaded.
+     */
+    @Nullable
+    private Long loadDriver(@NotNull DBRProgressMonitor monitor, @NotNull DBPDriver driver) {
+        long startTime = System.currentTimeMillis();
+        monitor.subTask("Load driver " + driver.getFullName());
+        try {
+            driver.downloadRequiredDependencies(monitor);
+            if (driver.isCustomDriverLoader() || CommonUtils.isEmpty(driver.getDriverClassName())) {
+                // Driver classes are loaded by data source provider
+                return null;
+            }
+            driver.loadDriver(monitor);
+        } catch (DBException e) {
+            throw new CompletionException(e);
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    private static void connectDataSource(@NotNull DBRProgressMonitor monitor, @NotNull ConnectResult result) {
+        DataSourceDescriptor dataSource = result.dataSource;
+        try {
+            monitor.subTask("Connect to " + dataSource.getName());
+            result.connected = dataSource.connect(monitor, true, true);
+            result.phaseTimes.putAll(dataSource.getConnectPhaseTimes());
+        } catch (Throwable e) {
+            result.error = e;
+        }
+    }
+
+    /**
+     * Acquires total, driver and host connect slots. Returns null if any of them is busy.
+     */
+    @Nullable
+    private List<Semaphore> tryAcquireSlots(@NotNull DataSourceDescriptor dataSource) {
+        List<Semaphore> slots = List.of(
+            connectSlots,
+            driverSlots.computeIfAbsent(dataSource.getDriver(), k -> new Semaphore(maxConnectsPerDriver)),
+            hostSlots.computeIfAbsent(getConnectHost(dataSource), k -> new Semaphore(maxConnectsPerHost)));
+        for (int i = 0; i < slots.size(); i++) {
+            if (!slots.get(i).tryAcquire()) {
+                for (int k = 0; k < i; k++) {
+                    slots.get(k).release();
+                }
+                return null;
+            }
+        }
+        return slots;
+    }
+
+    private long getStateVersion() {
+        synchronized (stateLock) {
+            return stateVersion;
+        }
+    }
+
+    /**
+     * Notifies dispatcher that driver was loaded or connect slots were released
+     */
+    private void signalStateChange() {
+        synchronized (stateLock) {
+            stateVersion++;
+            stateLock.notifyAll();
+        }
+    }
+
+    private void waitForStateChange(long version) throws InterruptedException {
+        synchronized (stateLock) {
+            if (stateVersion == version) {
+                // Wake up periodically to check for cancel
+                stateLock.wait(STATE_CHECK_PERIOD);
+            }
+        }
+    }
+
+    /**
+     * Host which is actually connected: SSH tunnel host or database host
+     */
+    @NotNull
+    private static String getConnectHost(@NotNull DBPDataSourceContainer dataSource) {
+        DBPConnectionConfiguration cfg = dataSource.getConnectionConfiguration();
+        for (DBWHandlerConfiguration handler : cfg.getHandlers()) {
+            if (handler.isEnabled() && handler.getType() == DBWHandlerType.TUNNEL) {
+                String tunnelHost = handler.getStringProperty(DBWHandlerConfiguration.PROP_HOST);
+                if (!CommonUtils.isEmpty(tunnelHost)) {
+                    return tunnelHost.toLowerCase(Locale.ENGLISH);
+                }
+            }
+        }
+        if (!CommonUtils.isEmpty(cfg.getHostName())) {
+            return cfg.getHostName().toLowerCase(Locale.ENGLISH);
+        }
+        // Local or URL-only connection. Do not limit it by host.
+        return dataSource.getId();
+    }
+
+}
@@ -101,6 +101,19 @@ public class DataSourceDescriptor
     // Secret key prefix
     public static final String DATASOURCE_KEY_PREFIX = "/datasources/";
 
+    /**
+     * Connect phases which duration is measured
+     */
+    public enum ConnectPhase {
+        // Driver libraries download and driver class loading. Measured only when driver is pre-loaded.
+        DRIVER_LOAD,
+        AUTH,
+        NETWORK_HANDLER,
+        CONNECT,
+        // Data source initialization (metadata context, bootstrap queries)
+        BOOTSTRAP
+    }
+
     @NotNull
     private final DBPDataSourceRegistry registry;
     @NotNull
@@ -165,6 +178,7 @@ public class DataSourceDescriptor
 
     private volatile boolean connectFailed = false;
     private volatile Date connectTime = null;
+    private final Map<ConnectPhase, Long> connectPhaseTimes = new EnumMap<>(ConnectPhase.class);
     private volatile boolean disposed = false;
     private volatile boolean connecting = false;
 
@@ -788,6 +802,22 @@ public class DataSourceDescriptor
         return connectTime;
     }
 
+    /**
+     * Durations (ms) of phases of the last connect
+     */
+    @NotNull
+    public Map<ConnectPhase, Long> getConnectPhaseTimes() {
+        synchronized (connectPhaseTimes) {
+            return new EnumMap<>(connectPhaseTimes);
+        }
+    }
+
+    private void setConnectPhaseTime(@NotNull ConnectPhase phase, long startTime) {
+        synchronized (connectPhaseTimes) {
+            connectPhaseTimes.put(phase, System.currentTimeMillis() - startTime);
+        }
+    }
+
     @NotNull
     @Override
     public SQLDialectMetadata getScriptDialect() {
@@ -1045,11 +1075,15 @@ public class DataSourceDescriptor
         resolveSecretsIfNeeded();
 
         resolvedConnectionInfo = new DBPConnectionConfiguration(connectionInfo);
+        synchronized (connectPhaseTimes) {
+            connectPhaseTimes.clear();
+        }
 
         // Update auth properties if possible
         lastConnectionError = null;
         try {
             processEvents(monitor, DBPConnectionEventType.BEFORE_CONNECT);
+            long authStartTime = System.currentTimeMillis();
 
             // 1. Get credentials from origin
             boolean authProvidedFromOrigin = false;
@@ -1088,6 +1122,7 @@ public class DataSourceDescriptor
             }
 
             resolveConnectVariables(secretController);
+            setConnectPhaseTime(ConnectPhase.AUTH, authStartTime);
 
             // Handle tunnelHandler
             // Open tunnelHandler and replace connection info with new one
@@ -1117,6 +1152,7 @@ public class DataSourceDescriptor
             // Use ds exclusive lock to initialize network handlers
             Object dsLock = exclusiveLock.acquireExclusiveLock();
             try {
+                long networkStartTime = System.currentTimeMillis();
                 // Setup proxy handler
                 if (proxyConfiguration != null) {
                     monitor.subTask("Initialize proxy");
@@ -1157,6 +1193,9 @@ public class DataSourceDescriptor
                     }
                     monitor.worked(1);
                 }
+                if (proxyConfiguration != null || tunnelConfiguration != null) {
+                    setConnectPhaseTime(ConnectPhase.NETWORK_HANDLER, networkStartTime);
+                }
 
                 monitor.subTask("Connect to data source");
 
@@ -1312,18 +1351,22 @@ public class DataSourceDescriptor
             }
         }
 
+        long startTime = System.currentTimeMillis();
         this.dataSource = provider.openDataSource(monitor, this);
         this.connectTime = new Date();
+        setConnectPhaseTime(ConnectPhase.CONNECT, startTime);
         monitor.worked(1);
 
         if (initialize) {
             monitor.subTask("Initialize data source");
+            startTime = System.currentTimeMillis();
             try {
                 dataSource.initialize(monitor);
             } catch (Throwable e) {
                 log.error("Error initializing datasource", e);
                 throw e;
             }
+            setConnectPhaseTime(ConnectPhase.BOOTSTRAP, startTime);
         }
     }
 
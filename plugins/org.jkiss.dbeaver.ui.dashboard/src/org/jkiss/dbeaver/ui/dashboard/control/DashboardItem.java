@@ -53,6 +53,7 @@ public class DashboardItem extends Composite implements DashboardContainer {
     private final Label titleLabel;
     private final Composite chartComposite;
     private boolean autoUpdateEnabled;
+    private final DashboardQueryCost queryCost = new DashboardQueryCost();
 
     public DashboardItem(DashboardList parent, String dashboardId) {
         super(parent, SWT.DOUBLE_BUFFERED);
@@ -353,6 +354,11 @@ public class DashboardItem extends Composite implements DashboardContainer {
         return lastUpdateTime;
     }
 
+    @Override
+    public DashboardQueryCost getQueryCost() {
+        return queryCost;
+    }
+
     @Override
     public void updateDashboardData(DashboardDataset dataset) {
         UIUtils.asyncExec(() -> {
@@ -360,6 +366,9 @@ public class DashboardItem extends Composite implements DashboardContainer {
                 renderer.updateDashboardData(this, lastUpdateTime, dataset);
                 lastUpdateTime = new Date();
             }
+            if (!titleLabel.isDisposed()) {
+                titleLabel.setToolTipText(queryCost.getUpdateCount() > 0 ? queryCost.toString() : null);
+            }
         });
     }
 
@@ -36,6 +36,7 @@ import org.jkiss.dbeaver.ui.dashboard.control.DashboardRendererBase;
 import org.jkiss.dbeaver.ui.dashboard.model.*;
 import org.jkiss.dbeaver.ui.dashboard.model.data.DashboardDataset;
 import org.jkiss.dbeaver.ui.dashboard.model.data.DashboardDatasetRow;
+import org.jkiss.utils.time.TimeSeriesBuffer;
 
 import java.awt.*;
 import java.text.SimpleDateFormat;
@@ -227,26 +228,22 @@ public class DashboardRendererTimeseries extends DashboardRendererBase {
 
             switch (container.getDashboardCalcType()) {
                 case value: {
-                    int maxDP = 200;
-                    Date startTime = null;
-
+                    // Long intervals are downsampled to the series capacity instead of flooding chart with ticks
+                    TimeSeriesBuffer buffer = new TimeSeriesBuffer(container.getDashboardMaxItems());
                     for (DashboardDatasetRow row : rows) {
-                        if (startTime == null) {
-                            startTime = row.getTimestamp();
-                        } else {
-                            if (container.getDashboardInterval() == DashboardInterval.second || container.getDashboardInterval() == DashboardInterval.millisecond) {
-                                long diffSeconds = (row.getTimestamp().getTime() - startTime.getTime()) / 1000;
-                                if (diffSeconds > maxDP) {
-                                    // Too big difference between start and end points. Stop here otherwise we'll flood chart with too many ticks
-                                    break;
-                                }
-                            }
-                        }
                         Object value = row.getValues()[i];
                         if (value instanceof Number) {
-                            series.addOrUpdate(makeDataItem(container, row), (Number) value);
+                            buffer.add(row.getTimestamp().getTime(), ((Number) value).doubleValue());
                         }
                     }
+                    buffer.flush();
+                    boolean roundValues = buffer.getStep() > 1 && container.getDashboardValueType() != DashboardValueType.decimal;
+                    for (int k = 0; k < buffer.getSize(); k++) {
+                        double value = buffer.getValue(k);
+                        series.addOrUpdate(
+                            makeDataItem(container, new Date(buffer.getTimestamp(k))),
+                            roundValues ? Math.round(value) : value);
+                    }
                     break;
                 }
                 case delta: {
@@ -265,7 +262,7 @@ public class DashboardRendererTimeseries extends DashboardRendererBase {
                                     deltaValue = Math.round(deltaValue);
                                 }
                                 series.addOrUpdate(
-                                    makeDataItem(container, row),
+                                    makeDataItem(container, row.getTimestamp()),
                                     deltaValue);
                             }
                         }
@@ -280,17 +277,17 @@ public class DashboardRendererTimeseries extends DashboardRendererBase {
         }
     }
 
-    private RegularTimePeriod makeDataItem(DashboardContainer container, DashboardDatasetRow row) {
+    private RegularTimePeriod makeDataItem(DashboardContainer container, Date timestamp) {
         switch (container.getDashboardInterval()) {
-            case second: return new FixedMillisecond(row.getTimestamp().getTime());
-            case minute: return new Minute(row.getTimestamp());
-            case hour: return new Hour(row.getTimestamp());
-            case day: return new Day(row.getTimestamp());
-            case week: return new Week(row.getTimestamp());
-            case month: return new Month(row.getTimestamp());
-            case year: return new Year(row.getTimestamp());
+            case second: return new FixedMillisecond(timestamp.getTime());
+            case minute: return new Minute(timestamp);
+            case hour: return new Hour(timestamp);
+            case day: return new Day(timestamp);
+            case week: return new Week(timestamp);
+            case month: return new Month(timestamp);
+            case year: return new Year(timestamp);
             default:
-                return new FixedMillisecond(row.getTimestamp().getTime());
+                return new FixedMillisecond(timestamp.getTime());
         }
     }
 
@@ -78,6 +78,11 @@ public interface DashboardContainer {
 
     Date getLastUpdateTime();
 
+    /**
+     * Statistics of queries executed to update this dashboard
+     */
+    DashboardQueryCost getQueryCost();
+
     void updateDashboardData(DashboardDataset dataset);
 
     void resetDashboardData();
@@ -0,0 +1,79 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.dashboard.model;
+
+/**
+ * Dashboard query cost statistics.
+ * Execution time of a query shared between several dashboards is divided between them by the caller.
+ */
+public class DashboardQueryCost {
+
+    private long lastTime;
+    private int lastRowCount;
+    private int lastConsumers;
+    private long totalTime;
+    private long updateCount;
+
+    public synchronized void addExecution(long time, int rowCount, int consumers) {
+        this.lastTime = time;
+        this.lastRowCount = rowCount;
+        this.lastConsumers = consumers;
+        this.totalTime += lastTime;
+        this.updateCount++;
+    }
+
+    /**
+     * Last query time (ms)
+     */
+    public synchronized long getLastTime() {
+        return lastTime;
+    }
+
+    public synchronized int getLastRowCount() {
+        return lastRowCount;
+    }
+
+    /**
+     * Number of dashboards which shared the last query results
+     */
+    public synchronized int getLastConsumers() {
+        return lastConsumers;
+    }
+
+    public synchronized long getTotalTime() {
+        return totalTime;
+    }
+
+    public synchronized long getUpdateCount() {
+        return updateCount;
+    }
+
+    public synchronized long getAverageTime() {
+        return updateCount == 0 ? 0 : totalTime / updateCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("Query time: ").append(lastTime).append("ms (avg ").append(getAverageTime()).append("ms), rows: ").append(lastRowCount);
+        if (lastConsumers > 1) {
+            str.append(", shared by ").append(lastConsumers).append(" dashboards");
+        }
+        return str.toString();
+    }
+
+}
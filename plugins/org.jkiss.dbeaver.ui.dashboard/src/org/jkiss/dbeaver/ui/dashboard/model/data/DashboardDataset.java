@@ -25,10 +25,16 @@ import java.util.List;
 public class DashboardDataset {
 
     private String[] columnNames;
-    private List<DashboardDatasetRow> rows = new ArrayList<>();
+    private List<DashboardDatasetRow> rows;
 
     public DashboardDataset(String[] columnNames) {
         this.columnNames = columnNames;
+        this.rows = new ArrayList<>();
+    }
+
+    public DashboardDataset(String[] columnNames, int expectedRowCount) {
+        this.columnNames = columnNames;
+        this.rows = new ArrayList<>(expectedRowCount);
     }
 
     public String[] getColumnNames() {
@@ -41,12 +41,16 @@ public class DashboardUpdater {
 
     private static final Log log = Log.getLog(DashboardUpdater.class);
     private Map<DBPDataSourceContainer, List<MapQueryInfo>> mapQueries = new HashMap<>();
+    // Results of queries shared between dashboards of the same data source during one update
+    private Map<DBPDataSourceContainer, Map<String, QueryResultInfo>> queryResults = new HashMap<>();
 
     private static class MapQueryInfo {
         private final DashboardContainer dashboard;
         private final DashboardViewContainer viewContainer;
         private final DashboardMapQuery mapQuery;
         public Date timestamp;
+        private long executeTime;
+        private int consumers;
         private Map<String, Object> mapValue = new HashMap<>();
 
         public MapQueryInfo(DashboardContainer dashboard, DashboardViewContainer viewContainer, DashboardMapQuery mapQuery) {
@@ -56,6 +60,16 @@ public class DashboardUpdater {
         }
     }
 
+    private static class QueryResultInfo {
+        private final List<DashboardContainer> consumers = new ArrayList<>();
+        private int maxRows;
+        private boolean executed;
+        private String[] columnNames;
+        private final List<Object[]> rows = new ArrayList<>();
+        private Date timestamp;
+        private long executeTime;
+    }
+
     public DashboardUpdater() {
     }
 
@@ -75,15 +89,28 @@ public class DashboardUpdater {
             if (mapQuery != null) {
                 List<MapQueryInfo> queryList = mapQueries.computeIfAbsent(
                     dashboard.getDataSourceContainer(), k -> new ArrayList<>());
-                boolean found = false;
+                MapQueryInfo queryInfo = null;
                 for (MapQueryInfo mqi : queryList) {
                     if (mqi.mapQuery == mapQuery) {
-                        found = true;
+                        queryInfo = mqi;
                         break;
                     }
                 }
-                if (!found) {
-                    queryList.add(new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery));
+                if (queryInfo == null) {
+                    queryInfo = new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery);
+                    queryList.add(queryInfo);
+                }
+                queryInfo.consumers++;
+            } else {
+                // Identical queries of the same data source are executed once
+                Map<String, QueryResultInfo> dsResults = queryResults.computeIfAbsent(
+                    dashboard.getDataSourceContainer(), k -> new HashMap<>());
+                for (DashboardQuery query : dashboard.getQueryList()) {
+                    QueryResultInfo resultInfo = dsResults.computeIfAbsent(query.getQueryText(), k -> new QueryResultInfo());
+                    if (!resultInfo.consumers.contains(dashboard)) {
+                        resultInfo.consumers.add(dashboard);
+                    }
+                    resultInfo.maxRows = Math.max(resultInfo.maxRows, dashboard.getDashboardMaxItems());
                 }
             }
         }
@@ -104,7 +131,9 @@ public class DashboardUpdater {
                             }
 
                             try {
+                                long startTime = System.currentTimeMillis();
                                 readMapQueryData(monitor, mqi);
+                                mqi.executeTime = System.currentTimeMillis() - startTime;
                             } catch (DBCException e) {
                                 log.debug("Datasource '" + mqi.dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboard queries for this datasource.");
                                 mqi.dashboard.disableAutoUpdate();
@@ -204,18 +233,33 @@ public class DashboardUpdater {
                 }
             }
             try {
+                long queryTime = 0;
+                int rowCount = 0;
+                int maxConsumers = 1;
                 for (DashboardQuery query : queries) {
-                    try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.getQueryText(), false, false, false)) {
-                        if (dbStat.executeStatement()) {
-                            try (DBCResultSet dbResults = dbStat.openResultSet()) {
-                                if (dbResults != null) {
-                                    fetchDashboardData(dashboard, dbResults);
-                                }
-                            }
+                    QueryResultInfo resultInfo = getQueryResult(dashboard, query);
+                    if (!resultInfo.executed) {
+                        try {
+                            readQueryResult(session, query, resultInfo);
+                            resultInfo.executed = true;
+                        } catch (Exception e) {
+                            // Failed query may be repeated by the next dashboard (e.g. after connection recover)
+                            resultInfo.rows.clear();
+                            resultInfo.columnNames = null;
+                            throw new DBCException("Error updating dashboard " + dashboard.getDashboardId(), e, session.getExecutionContext());
                         }
-                    } catch (Exception e) {
-                        throw new DBCException("Error updating dashboard " + dashboard.getDashboardId(), e, session.getExecutionContext());
                     }
+                    if (resultInfo.columnNames != null) {
+                        fetchDashboardData(dashboard, resultInfo);
+                    }
+                    int consumers = Math.max(resultInfo.consumers.size(), 1);
+                    queryTime += resultInfo.executeTime / consumers;
+                    rowCount += resultInfo.rows.size();
+                    maxConsumers = Math.max(maxConsumers, consumers);
+                }
+                dashboard.getQueryCost().addExecution(queryTime, rowCount, maxConsumers);
+                if (log.isDebugEnabled() && queryTime > dashboard.getUpdatePeriod()) {
+                    log.debug("Dashboard '" + dashboard.getDashboardId() + "' queries are slower than update period: " + dashboard.getQueryCost());
                 }
             } finally {
                 if (revertTxn) {
@@ -225,11 +269,41 @@ public class DashboardUpdater {
         }
     }
 
+    private void readQueryResult(DBCSession session, DashboardQuery query, QueryResultInfo resultInfo) throws DBCException {
+        long startTime = System.currentTimeMillis();
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.getQueryText(), false, false, false)) {
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResults = dbStat.openResultSet()) {
+                    if (dbResults != null) {
+                        List<DBCAttributeMetaData> rsAttrs = dbResults.getMeta().getAttributes();
+                        String[] columnNames = new String[rsAttrs.size()];
+                        for (int i = 0; i < columnNames.length; i++) {
+                            DBCAttributeMetaData rsAttr = rsAttrs.get(i);
+                            columnNames[i] = CommonUtils.isEmpty(rsAttr.getLabel()) ? rsAttr.getName() : rsAttr.getLabel();
+                        }
+                        resultInfo.timestamp = new Date();
+                        while (resultInfo.rows.size() < resultInfo.maxRows && dbResults.nextRow()) {
+                            Object[] values = new Object[columnNames.length];
+                            for (int i = 0; i < columnNames.length; i++) {
+                                values[i] = dbResults.getAttributeValue(i);
+                            }
+                            resultInfo.rows.add(values);
+                        }
+                        resultInfo.columnNames = columnNames;
+                    }
+                }
+            }
+        }
+        resultInfo.executeTime = System.currentTimeMillis() - startTime;
+    }
+
     private void fetchDashboardMapData(DBRProgressMonitor monitor, DashboardContainer dashboard) {
         MapQueryInfo mqi = getMapQueryData(dashboard);
         if (mqi == null) {
             return;
         }
+        int consumers = Math.max(mqi.consumers, 1);
+        dashboard.getQueryCost().addExecution(mqi.executeTime / consumers, mqi.mapValue.size(), consumers);
         Map<String, Object> mapValue = mqi.mapValue;
         if (mapValue != null) {
             String[] mapKeys = dashboard.getMapKeys();
@@ -300,39 +374,36 @@ public class DashboardUpdater {
         }
     }
 
-    private void fetchDashboardData(DashboardContainer dashboard, DBCResultSet dbResults) throws DBCException {
-        DBCResultSetMetaData meta = dbResults.getMeta();
-        List<DBCAttributeMetaData> rsAttrs = meta.getAttributes();
+    private void fetchDashboardData(DashboardContainer dashboard, QueryResultInfo resultInfo) {
+        String[] rsColumns = resultInfo.columnNames;
         List<String> colNames = new ArrayList<>();
-        String tsColName = null;
-        for (DBCAttributeMetaData rsAttr : rsAttrs) {
-            String colName = rsAttr.getLabel();
-            if (CommonUtils.isEmpty(colName)) {
-                colName = rsAttr.getName();
-            }
+        int[] colIndexes = new int[rsColumns.length];
+        int tsColIndex = -1;
+        for (int i = 0; i < rsColumns.length; i++) {
+            String colName = rsColumns[i];
             if (DashboardConstants.RS_COL_TIMESTAMP.equalsIgnoreCase(colName)) {
-                tsColName = colName;
+                tsColIndex = i;
             } else {
+                colIndexes[colNames.size()] = i;
                 colNames.add(colName);
             }
         }
-        DashboardDataset dataset = new DashboardDataset(colNames.toArray(new String[0]));
+        int rowCount = Math.min(resultInfo.rows.size(), dashboard.getDashboardMaxItems());
+        DashboardDataset dataset = new DashboardDataset(colNames.toArray(new String[0]), rowCount);
 
-        while (dbResults.nextRow()) {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            Object[] rsValues = resultInfo.rows.get(rowIndex);
             Object[] values = new Object[colNames.size()];
             Date timestamp;
-            if (tsColName != null) {
-                timestamp = (Date) dbResults.getAttributeValue(tsColName);
+            if (tsColIndex >= 0) {
+                timestamp = (Date) rsValues[tsColIndex];
             } else {
-                timestamp = new Date();
+                timestamp = resultInfo.timestamp;
             }
-            for (int i = 0; i < colNames.size(); i++) {
-                values[i] = dbResults.getAttributeValue(colNames.get(i));
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rsValues[colIndexes[i]];
             }
             dataset.addRow(new DashboardDatasetRow(timestamp, values));
-            if (dataset.getRows().size() >= dashboard.getDashboardMaxItems()) {
-                break;
-            }
         }
 
         switch (dashboard.getDashboardFetchType()) {
@@ -410,6 +481,17 @@ public class DashboardUpdater {
         }
     }
 
+    private QueryResultInfo getQueryResult(DashboardContainer dashboard, DashboardQuery query) {
+        return queryResults
+            .computeIfAbsent(dashboard.getDataSourceContainer(), k -> new HashMap<>())
+            .computeIfAbsent(query.getQueryText(), k -> {
+                QueryResultInfo resultInfo = new QueryResultInfo();
+                resultInfo.consumers.add(dashboard);
+                resultInfo.maxRows = dashboard.getDashboardMaxItems();
+                return resultInfo;
+            });
+    }
+
     private MapQueryInfo getMapQueryData(DashboardContainer dashboard) {
         List<MapQueryInfo> mapQueryInfos = mapQueries.get(dashboard.getDataSourceContainer());
         if (mapQueryInfos != null) {
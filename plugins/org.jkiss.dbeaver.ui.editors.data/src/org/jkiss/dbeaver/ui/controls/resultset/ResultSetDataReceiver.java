@@ -17,18 +17,22 @@
 package org.jkiss.dbeaver.ui.controls.resultset;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDataReceiverInteractive;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerPrimitive;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 
 import java.util.ArrayList;
@@ -47,6 +51,9 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
     private List<Object[]> rows = new ArrayList<>();
+    // Next segment rows are fetched straight into columnar storage if it is enabled
+    @Nullable
+    private ResultSetValueStorage segmentStorage;
     private boolean hasMoreData;
     private boolean nextSegmentRead;
     private long offset;
@@ -112,10 +119,18 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
             resultSetViewer.setMetaData(resultSet, metaColumns);
         }
+        // First segment values may be converted during attributes binding, so they are kept in rows
+        segmentStorage = nextSegmentRead &&
+            DBWorkbench.getPlatform().getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE) ?
+            new ResultSetValueStorage(columnsCount) : null;
     }
 
     @Override
     public void fetchRow(DBCSession session, DBCResultSet resultSet) {
+        if (segmentStorage != null) {
+            fetchStorageRow(session, resultSet, segmentStorage);
+            return;
+        }
         Object[] row = new Object[columnsCount];
         for (int i = 0; i < columnsCount; i++) {
             try {
@@ -129,27 +144,55 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
                     metaAttribute,
                     metaColumns[i].getOrdinalPosition());
             } catch (Throwable e) {
-                // Do not reports the same error multiple times
-                // There are a lot of error could occur during result set fetch
-                // We report certain error only once
-
                 row[i] = new DBDValueError(e);
+                reportFetchError(i, e);
+            }
+        }
+        rows.add(row);
+    }
 
-                List<String> attrErrors = this.attrErrors.computeIfAbsent(
-                    metaColumns[i].getMetaAttribute(),
-                    k -> new ArrayList<>());
-                String errMessage = e.getClass().getName();
-                if (!errMessage.startsWith("java.lang.")) {
-                    errMessage += ":" + e.getMessage();
+    /**
+     * Fetches row values into columnar storage. Primitive values are not boxed.
+     */
+    private void fetchStorageRow(DBCSession session, DBCResultSet resultSet, ResultSetValueStorage storage) {
+        for (int i = 0; i < columnsCount; i++) {
+            try {
+                DBSAttributeBase metaAttribute = metaColumns[i].getAttribute();
+                if (metaAttribute == null) {
+                    storage.setValue(i, null);
+                    continue;
                 }
-                if (!attrErrors.contains(errMessage)) {
-                    log.warn("Can't read column '" + metaColumns[i].getName() + "' value", e);
-                    attrErrors.add(errMessage);
-                    errorList.add(e);
+                DBDValueHandler valueHandler = metaColumns[i].getValueHandler();
+                int index = metaColumns[i].getOrdinalPosition();
+                if (!(valueHandler instanceof DBDValueHandlerPrimitive primitiveHandler) ||
+                    !primitiveHandler.fetchPrimitiveValue(session, resultSet, metaAttribute, index, storage.getColumnWriter(i)))
+                {
+                    storage.setValue(i, valueHandler.fetchValueObject(session, resultSet, metaAttribute, index));
                 }
+            } catch (Throwable e) {
+                storage.setValue(i, new DBDValueError(e));
+                reportFetchError(i, e);
             }
         }
-        rows.add(row);
+        storage.commitRow();
+    }
+
+    private void reportFetchError(int column, Throwable e) {
+        // Do not reports the same error multiple times
+        // There are a lot of error could occur during result set fetch
+        // We report certain error only once
+        List<String> attrErrors = this.attrErrors.computeIfAbsent(
+            metaColumns[column].getMetaAttribute(),
+            k -> new ArrayList<>());
+        String errMessage = e.getClass().getName();
+        if (!errMessage.startsWith("java.lang.")) {
+            errMessage += ":" + e.getMessage();
+        }
+        if (!attrErrors.contains(errMessage)) {
+            log.warn("Can't read column '" + metaColumns[column].getName() + "' value", e);
+            attrErrors.add(errMessage);
+            errorList.add(e);
+        }
     }
 
     @Override
@@ -169,6 +212,8 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         }
 
         final List<Object[]> tmpRows = rows;
+        final ResultSetValueStorage tmpStorage = segmentStorage;
+        segmentStorage = null;
 
         final boolean nextSegmentRead = this.nextSegmentRead;
 
@@ -181,10 +226,15 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         } else {
             monitor.subTask("Append data");
             boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            if (tmpStorage != null) {
+                resultSetViewer.appendData(tmpStorage, resetOldRows);
+            } else {
+                resultSetViewer.appendData(tmpRows, resetOldRows);
+            }
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        int fetchedRows = tmpStorage != null ? tmpStorage.getRowCount() : tmpRows.size();
+        hasMoreData = maxRows > 0 && fetchedRows >= maxRows;
         monitor.done();
 
         UIUtils.syncExec(() -> {
@@ -210,6 +260,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
         attrErrors.clear();
         rows = new ArrayList<>();
+        segmentStorage = null;
     }
 
     @Override
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
@@ -58,6 +59,9 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Columnar storage of fetched rows. Null if rows keep their values
+    @Nullable
+    private ResultSetValueStorage valueStorage;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -362,7 +366,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValuesSnapshot();
     }
 
     @NotNull
@@ -380,28 +384,28 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull ResultSetCellLocation cellLocation) {
-        return DBUtils.getAttributeValue(
+        return getCellValue(
             cellLocation.getAttribute(),
-            attributes,
-            cellLocation.getRow().values,
+            cellLocation.getRow(),
             cellLocation.getRowIndexes());
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(
-            attribute,
-            attributes,
-            row.values,
-            null);
+        return getCellValue(attribute, row, null);
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable int[] rowIndexes) {
+        if (!row.isMaterialized() && attribute.getLevel() == 0 && !attribute.isCustom()) {
+            // Read plain value directly from the columnar storage
+            int index = attribute.getOrdinalPosition();
+            return index < row.getValueCount() ? row.getValue(index) : null;
+        }
         return DBUtils.getAttributeValue(
             attribute,
             attributes,
-            row.values,
+            row.getValuesSnapshot(),
             rowIndexes);
     }
 
@@ -446,7 +450,7 @@ public class ResultSetModel {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
         int rowIndex = 0;
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -556,7 +560,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.getValues()[rootIndex] = value;
             }
             return true;
         }
@@ -865,22 +869,62 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            valueStorage = createValueStorage();
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+            Object[] rowValues = rows.get(i);
+            if (valueStorage != null && rowValues.length == valueStorage.getColumnCount()) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, valueStorage, valueStorage.addRow(rowValues)));
+            } else {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, rowValues));
+            }
         }
         curRows.addAll(newRows);
 
         updateRowColors(resetOldRows, newRows);
     }
 
+    /**
+     * Appends rows fetched directly into columnar storage. Values are not copied.
+     */
+    void appendData(@NotNull ResultSetValueStorage storage, boolean resetOldRows) {
+        if (resetOldRows) {
+            curRows.clear();
+            valueStorage = createValueStorage();
+        }
+        boolean sameLayout = storage.getColumnCount() == attributes.length;
+        int rowCount = storage.getRowCount();
+        int firstRowNum = curRows.size();
+        List<ResultSetRow> newRows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            if (sameLayout) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, storage, i));
+            } else {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, storage.getRow(i)));
+            }
+        }
+        curRows.addAll(newRows);
+
+        updateRowColors(resetOldRows, newRows);
+    }
+
+    @Nullable
+    private ResultSetValueStorage createValueStorage() {
+        return DBWorkbench.getPlatform().getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE) ?
+            new ResultSetValueStorage(attributes.length) : null;
+    }
+
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.valueStorage = null;
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
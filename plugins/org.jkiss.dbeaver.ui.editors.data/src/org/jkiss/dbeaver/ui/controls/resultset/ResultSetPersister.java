@@ -490,48 +490,91 @@ class ResultSetPersister {
         viewer.getActivePresentation().updateValueView();
     }
 
+    /**
+     * Groups adjacent statements which have the same entity, type and attributes.
+     * Statements of one group can be executed in a single batch. Original statement order is kept.
+     * Inserts which read generated keys are never grouped because keys are read for a single statement.
+     *
+     * @param batch if false then each statement makes its own group
+     */
+    @NotNull
+    private static List<List<DataStatementInfo>> groupStatements(@NotNull List<DataStatementInfo> statements, boolean batch) {
+        List<List<DataStatementInfo>> groups = new ArrayList<>();
+        List<Object> prevShape = null;
+        for (DataStatementInfo statement : statements) {
+            List<Object> shape;
+            if (!batch || (statement.type == DBSManipulationType.INSERT && statement.needKeys())) {
+                shape = Collections.singletonList(statement);
+            } else {
+                shape = new ArrayList<>(statement.keyAttributes.size() + statement.updateAttributes.size() + 2);
+                shape.add(statement.entity);
+                shape.add(statement.updateAttributes.size());
+                for (DBDAttributeValue attr : statement.updateAttributes) {
+                    shape.add(attr.getAttribute());
+                }
+                for (DBDAttributeValue attr : statement.keyAttributes) {
+                    shape.add(attr.getAttribute());
+                }
+            }
+            if (groups.isEmpty() || !shape.equals(prevShape)) {
+                groups.add(new ArrayList<>());
+            }
+            groups.get(groups.size() - 1).add(statement);
+            prevShape = shape;
+        }
+        return groups;
+    }
+
     // Reflect data changes in viewer
     // Changes affects only rows which statements executed successfully
     private boolean reflectChanges() {
         boolean rowsChanged = false;
+        Map<ResultSetRow, DataStatementInfo> executedUpdates = getExecutedStatements(updateStatements);
         for (ResultSetRow row : changedRows) {
-            for (DataStatementInfo stat : updateStatements) {
-                if (stat.executed && stat.row == row) {
-                    reflectKeysUpdate(stat);
-                    row.changes = null;
-                    break;
-                }
+            DataStatementInfo stat = executedUpdates.get(row);
+            if (stat != null) {
+                reflectKeysUpdate(stat);
+                row.changes = null;
             }
         }
+        Map<ResultSetRow, DataStatementInfo> executedInserts = getExecutedStatements(insertStatements);
         for (ResultSetRow row : addedRows) {
-            for (DataStatementInfo stat : insertStatements) {
-                if (stat.executed && stat.row == row) {
-                    reflectKeysUpdate(stat);
-                    row.setState(ResultSetRow.STATE_NORMAL);
-                    break;
-                }
+            DataStatementInfo stat = executedInserts.get(row);
+            if (stat != null) {
+                reflectKeysUpdate(stat);
+                row.setState(ResultSetRow.STATE_NORMAL);
             }
         }
+        Map<ResultSetRow, DataStatementInfo> executedDeletes = getExecutedStatements(deleteStatements);
         for (ResultSetRow row : deletedRows) {
-            for (DataStatementInfo stat : deleteStatements) {
-                if (stat.executed && stat.row == row) {
-                    model.cleanupRow(row);
-                    rowsChanged = true;
-                    break;
-                }
+            if (executedDeletes.containsKey(row)) {
+                model.cleanupRow(row);
+                rowsChanged = true;
             }
         }
         model.refreshChangeCount();
         return rowsChanged;
     }
 
+    @NotNull
+    private static Map<ResultSetRow, DataStatementInfo> getExecutedStatements(@NotNull List<DataStatementInfo> statements) {
+        Map<ResultSetRow, DataStatementInfo> result = new IdentityHashMap<>();
+        for (DataStatementInfo stat : statements) {
+            if (stat.executed) {
+                result.putIfAbsent(stat.row, stat);
+            }
+        }
+        return result;
+    }
+
     private void reflectKeysUpdate(DataStatementInfo stat) {
         // Update keys
         if (!stat.updatedCells.isEmpty()) {
             for (Map.Entry<Integer, Object> entry : stat.updatedCells.entrySet()) {
                 ResultSetRow row = stat.row;
-                DBUtils.releaseValue(row.values[entry.getKey()]);
-                row.values[entry.getKey()] = entry.getValue();
+                Object[] rowValues = row.getValues();
+                DBUtils.releaseValue(rowValues[entry.getKey()]);
+                rowValues[entry.getKey()] = entry.getValue();
             }
         }
     }
@@ -741,97 +784,31 @@ class ResultSetPersister {
                     }
                 }
             }
+            // Statements of the same shape are executed in a single batch.
+            // In auto-commit mode each statement is committed separately, so it is executed separately too:
+            // otherwise we can't tell which rows of a failed batch were already saved.
+            boolean batch = generateScript || (txnManager != null && !this.autocommit);
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
+                for (List<DataStatementInfo> group : groupStatements(ResultSetPersister.this.deleteStatements, batch)) {
                     if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                deleteStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
+                    Throwable error = executeStatementGroup(session, group, deleteStats, options);
+                    if (error != null) {
+                        return error;
                     }
-                    monitor.worked(1);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
+                for (List<DataStatementInfo> group : groupStatements(ResultSetPersister.this.insertStatements, batch)) {
                     if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
-                            new ExecutionSource(dataContainer),
-                            options)) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                insertStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
+                    Throwable error = executeStatementGroup(session, group, insertStats, options);
+                    if (error != null) {
+                        return error;
                     }
-                    monitor.worked(1);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
+                for (List<DataStatementInfo> group : groupStatements(ResultSetPersister.this.updateStatements, batch)) {
                     if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            null,
-                            new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
-                            }
-                            // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                updateStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
+                    Throwable error = executeStatementGroup(session, group, updateStats, options);
+                    if (error != null) {
+                        return error;
                     }
-                    monitor.worked(1);
                 }
 
                 return null;
@@ -847,12 +824,81 @@ class ResultSetPersister {
             }
         }
 
-        private void processStatementChanges(DataStatementInfo statement) {
-            statement.executed = true;
+        @Nullable
+        private Throwable executeStatementGroup(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> group,
+            @NotNull DBCStatistics statistics,
+            @NotNull Map<String, Object> options
+        ) {
+            DataStatementInfo first = group.get(0);
+            try {
+                DBSDataManipulator dataContainer = getDataManipulator(first.entity);
+                try (DBSDataManipulator.ExecuteBatch batch = createBatch(session, dataContainer, first, options)) {
+                    for (DataStatementInfo statement : group) {
+                        batch.add(statement.getBatchValues());
+                    }
+                    if (generateScript) {
+                        batch.generatePersistActions(session, script, options);
+                    } else {
+                        DBCStatistics bs = batch.execute(session, options);
+                        // Notify rsv container about statement execute
+                        this.notifyContainer(bs);
+
+                        statistics.accumulate(bs);
+                    }
+                }
+                processStatementChanges(group);
+            } catch (DBException e) {
+                processStatementError(group, session);
+                return e;
+            }
+            session.getProgressMonitor().worked(group.size());
+            return null;
+        }
+
+        @NotNull
+        private DBSDataManipulator.ExecuteBatch createBatch(
+            @NotNull DBCSession session,
+            @NotNull DBSDataManipulator dataContainer,
+            @NotNull DataStatementInfo statement,
+            @NotNull Map<String, Object> options
+        ) throws DBException {
+            switch (statement.type) {
+                case DELETE:
+                    return dataContainer.deleteData(
+                        session,
+                        DBDAttributeValue.getAttributes(statement.keyAttributes),
+                        new ExecutionSource(dataContainer));
+                case INSERT:
+                    return dataContainer.insertData(
+                        session,
+                        DBDAttributeValue.getAttributes(statement.keyAttributes),
+                        statement.needKeys() ? new KeyDataReceiver(statement) : null,
+                        new ExecutionSource(dataContainer),
+                        options);
+                case UPDATE:
+                    return dataContainer.updateData(
+                        session,
+                        DBDAttributeValue.getAttributes(statement.updateAttributes),
+                        DBDAttributeValue.getAttributes(statement.keyAttributes),
+                        null,
+                        new ExecutionSource(dataContainer));
+                default:
+                    throw new DBCException("Unsupported statement type: " + statement.type);
+            }
+        }
+
+        private void processStatementChanges(List<DataStatementInfo> statements) {
+            for (DataStatementInfo statement : statements) {
+                statement.executed = true;
+            }
         }
 
-        private void processStatementError(DataStatementInfo statement, DBCSession session) {
-            statement.executed = false;
+        private void processStatementError(List<DataStatementInfo> statements, DBCSession session) {
+            for (DataStatementInfo statement : statements) {
+                statement.executed = false;
+            }
             if (!generateScript) {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
                 if (txnManager != null) {
@@ -963,6 +1009,21 @@ class ResultSetPersister {
             this.entity = entity;
         }
 
+        /**
+         * Values in the order of batch attributes: updated attributes first, then key attributes
+         */
+        @NotNull
+        Object[] getBatchValues() {
+            Object[] values = new Object[updateAttributes.size() + keyAttributes.size()];
+            for (int i = 0; i < updateAttributes.size(); i++) {
+                values[i] = updateAttributes.get(i).getValue();
+            }
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                values[updateAttributes.size() + i] = keyAttributes.get(i).getValue();
+            }
+            return values;
+        }
+
         boolean needKeys() {
             for (DBDAttributeValue col : keyAttributes) {
                 if (col.getAttribute().isAutoGenerated() && DBUtils.isNullValue(col.getValue())) {
@@ -1047,7 +1108,7 @@ class ResultSetPersister {
                     if (!viewer.getControl().isDisposed() && viewer.getModel().getAttributes() == curAttributes) {
                         for (int i = 0; i < rows.size(); i++) {
                             if (refreshValues[i] != null) {
-                                rows.get(i).values = refreshValues[i];
+                                rows.get(i).setValues(refreshValues[i]);
                             }
                         }
                         viewer.redrawData(false, true);
@@ -49,9 +49,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in columnar storage and row wasn't modified.
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private final ResultSetValueStorage storage;
+    private final int storageIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -63,12 +66,60 @@ public class ResultSetRow {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
         this.values = values;
+        this.storage = null;
+        this.storageIndex = -1;
+        this.state = STATE_NORMAL;
+    }
+
+    ResultSetRow(int rowNumber, @NotNull ResultSetValueStorage storage, int storageIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.storage = storage;
+        this.storageIndex = storageIndex;
         this.state = STATE_NORMAL;
     }
 
+    /**
+     * Returns modifiable row values.
+     * Values of rows kept in columnar storage are materialized on the first call.
+     * Use {@link #getValue(int)} to read values without materialization.
+     */
     @NotNull
     public Object[] getValues() {
-        return values;
+        Object[] rowValues = this.values;
+        if (rowValues == null) {
+            rowValues = storage.getRow(storageIndex);
+            this.values = rowValues;
+        }
+        return rowValues;
+    }
+
+    void setValues(@NotNull Object[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns row values without materialization. The result must not be modified.
+     */
+    @NotNull
+    public Object[] getValuesSnapshot() {
+        Object[] rowValues = this.values;
+        return rowValues != null ? rowValues : storage.getRow(storageIndex);
+    }
+
+    public int getValueCount() {
+        Object[] rowValues = this.values;
+        return rowValues != null ? rowValues.length : storage.getColumnCount();
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        Object[] rowValues = this.values;
+        return rowValues != null ? rowValues[index] : storage.getValue(storageIndex, index);
+    }
+
+    boolean isMaterialized() {
+        return values != null;
     }
 
     public boolean isChanged() {
@@ -127,8 +178,12 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
+        } else if (storage != null) {
+            storage.releaseRow(storageIndex);
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
@@ -0,0 +1,466 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDPrimitiveValueReceiver;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Columnar storage of result set values.
+ * <p>
+ * Integer, long, double and decimal columns are kept in primitive arrays with null bitmaps,
+ * low-cardinality string columns are dictionary-encoded. All other values are kept as objects.
+ * If a value doesn't fit the column representation then the whole column is converted to object column.
+ * <p>
+ * Storage is append-only. Rows are added either as value arrays or value by value with column writers,
+ * which keep primitive values unboxed. Edited rows keep their own copy of values (see {@link ResultSetRow#getValues()}).
+ */
+class ResultSetValueStorage {
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Dictionary encoding is turned off for strings with high cardinality
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+    private static final int DICTIONARY_CHECK_ROWS = 1024;
+
+    private final Column[] columns;
+    private final ColumnWriter[] writers;
+    private int rowCount;
+
+    ResultSetValueStorage(int columnCount) {
+        this.columns = new Column[columnCount];
+        this.writers = new ColumnWriter[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new NullColumn();
+            writers[i] = new ColumnWriter(i);
+        }
+    }
+
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Adds row and returns its index in the storage
+     */
+    int addRow(@NotNull Object[] values) {
+        for (int i = 0; i < columns.length; i++) {
+            setValue(i, i < values.length ? values[i] : null);
+        }
+        return commitRow();
+    }
+
+    /**
+     * Sets value of the row being added. Each column must be set before {@link #commitRow()}.
+     */
+    void setValue(int column, @Nullable Object value) {
+        if (!columns[column].set(rowCount, value)) {
+            columns[column] = convertColumn(columns[column], rowCount, value);
+        }
+    }
+
+    /**
+     * Returns writer of primitive values of the row being added
+     */
+    @NotNull
+    DBDPrimitiveValueReceiver getColumnWriter(int column) {
+        return writers[column];
+    }
+
+    /**
+     * Finishes the row being added and returns its index in the storage
+     */
+    int commitRow() {
+        return rowCount++;
+    }
+
+    @Nullable
+    Object getValue(int row, int column) {
+        return columns[column].get(row);
+    }
+
+    @NotNull
+    Object[] getRow(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].get(row);
+        }
+        return values;
+    }
+
+    void releaseRow(int row) {
+        for (Column column : columns) {
+            if (column instanceof ObjectColumn) {
+                DBUtils.releaseValue(column.get(row));
+            }
+        }
+    }
+
+    @NotNull
+    private Column convertColumn(@NotNull Column column, int row, @NotNull Object value) {
+        Column newColumn = column instanceof NullColumn ? createColumn(value) : new ObjectColumn();
+        for (int i = 0; i < row; i++) {
+            newColumn.set(i, column.get(i));
+        }
+        if (!newColumn.set(row, value)) {
+            // May happen for typed column if the first value doesn't fit (e.g. huge decimal)
+            ObjectColumn objectColumn = new ObjectColumn();
+            objectColumn.set(row, value);
+            return objectColumn;
+        }
+        return newColumn;
+    }
+
+    @NotNull
+    private static Column createColumn(@NotNull Object value) {
+        if (value instanceof Integer) {
+            return new IntColumn();
+        } else if (value instanceof Long) {
+            return new LongColumn();
+        } else if (value instanceof Double) {
+            return new DoubleColumn();
+        } else if (value instanceof BigDecimal) {
+            return new DecimalColumn();
+        } else if (value instanceof String) {
+            return new StringColumn();
+        }
+        return new ObjectColumn();
+    }
+
+    private static int newCapacity(int curCapacity, int row) {
+        return Math.max(row + 1, Math.max(INITIAL_CAPACITY, curCapacity + (curCapacity >> 1)));
+    }
+
+    private abstract static class Column {
+        /**
+         * Sets value. Returns false if value can't be stored in this column.
+         * Values are set in ascending row order.
+         */
+        abstract boolean set(int row, @Nullable Object value);
+
+        @Nullable
+        abstract Object get(int row);
+
+        boolean setInt(int row, int value) {
+            return set(row, value);
+        }
+
+        boolean setLong(int row, long value) {
+            return set(row, value);
+        }
+
+        boolean setDouble(int row, double value) {
+            return set(row, value);
+        }
+    }
+
+    /**
+     * Writes primitive values without boxing if column type matches
+     */
+    private class ColumnWriter implements DBDPrimitiveValueReceiver {
+        private final int column;
+
+        ColumnWriter(int column) {
+            this.column = column;
+        }
+
+        @Override
+        public void setNull() {
+            setValue(column, null);
+        }
+
+        @Override
+        public void setInt(int value) {
+            if (!columns[column].setInt(rowCount, value)) {
+                columns[column] = convertColumn(columns[column], rowCount, value);
+            }
+        }
+
+        @Override
+        public void setLong(long value) {
+            if (!columns[column].setLong(rowCount, value)) {
+                columns[column] = convertColumn(columns[column], rowCount, value);
+            }
+        }
+
+        @Override
+        public void setDouble(double value) {
+            if (!columns[column].setDouble(rowCount, value)) {
+                columns[column] = convertColumn(columns[column], rowCount, value);
+            }
+        }
+    }
+
+    /**
+     * Column without non-null values
+     */
+    private static class NullColumn extends Column {
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            return value == null;
+        }
+
+        @Override
+        Object get(int row) {
+            return null;
+        }
+    }
+
+    private abstract static class PrimitiveColumn extends Column {
+        final BitSet nulls = new BitSet();
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            if (value == null) {
+                nulls.set(row);
+                ensureCapacity(row);
+                return true;
+            }
+            if (!isCompatible(value)) {
+                return false;
+            }
+            ensureCapacity(row);
+            setValue(row, value);
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : getValue(row);
+        }
+
+        abstract boolean isCompatible(@NotNull Object value);
+
+        abstract void ensureCapacity(int row);
+
+        abstract void setValue(int row, @NotNull Object value);
+
+        @NotNull
+        abstract Object getValue(int row);
+    }
+
+    private static class IntColumn extends PrimitiveColumn {
+        private int[] data = new int[0];
+
+        @Override
+        boolean isCompatible(@NotNull Object value) {
+            return value instanceof Integer;
+        }
+
+        @Override
+        void ensureCapacity(int row) {
+            if (row >= data.length) {
+                data = Arrays.copyOf(data, newCapacity(data.length, row));
+            }
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            data[row] = (Integer) value;
+        }
+
+        @Override
+        boolean setInt(int row, int value) {
+            ensureCapacity(row);
+            data[row] = value;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return data[row];
+        }
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private long[] data = new long[0];
+
+        @Override
+        boolean isCompatible(@NotNull Object value) {
+            return value instanceof Long;
+        }
+
+        @Override
+        void ensureCapacity(int row) {
+            if (row >= data.length) {
+                data = Arrays.copyOf(data, newCapacity(data.length, row));
+            }
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            data[row] = (Long) value;
+        }
+
+        @Override
+        boolean setLong(int row, long value) {
+            ensureCapacity(row);
+            data[row] = value;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return data[row];
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private double[] data = new double[0];
+
+        @Override
+        boolean isCompatible(@NotNull Object value) {
+            return value instanceof Double;
+        }
+
+        @Override
+        void ensureCapacity(int row) {
+            if (row >= data.length) {
+                data = Arrays.copyOf(data, newCapacity(data.length, row));
+            }
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            data[row] = (Double) value;
+        }
+
+        @Override
+        boolean setDouble(int row, double value) {
+            ensureCapacity(row);
+            data[row] = value;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return data[row];
+        }
+    }
+
+    /**
+     * Decimals which fit into long unscaled value. Scale is preserved.
+     */
+    private static class DecimalColumn extends PrimitiveColumn {
+        private long[] unscaled = new long[0];
+        private short[] scales = new short[0];
+
+        @Override
+        boolean isCompatible(@NotNull Object value) {
+            if (!(value instanceof BigDecimal decimal)) {
+                return false;
+            }
+            return decimal.unscaledValue().bitLength() < 64 &&
+                decimal.scale() >= Short.MIN_VALUE && decimal.scale() <= Short.MAX_VALUE;
+        }
+
+        @Override
+        void ensureCapacity(int row) {
+            if (row >= unscaled.length) {
+                int capacity = newCapacity(unscaled.length, row);
+                unscaled = Arrays.copyOf(unscaled, capacity);
+                scales = Arrays.copyOf(scales, capacity);
+            }
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            BigDecimal decimal = (BigDecimal) value;
+            unscaled[row] = decimal.unscaledValue().longValue();
+            scales[row] = (short) decimal.scale();
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return new BigDecimal(BigInteger.valueOf(unscaled[row]), scales[row]);
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings. Code -1 means null.
+     */
+    private static class StringColumn extends Column {
+        private int[] codes = new int[0];
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            if (value != null && !(value instanceof String)) {
+                return false;
+            }
+            int code = -1;
+            if (value != null) {
+                Integer index = dictionaryIndex.get(value);
+                if (index == null) {
+                    if (dictionary.size() >= MAX_DICTIONARY_SIZE ||
+                        (row >= DICTIONARY_CHECK_ROWS && dictionary.size() > row / 2))
+                    {
+                        // Too many distinct values, dictionary doesn't save memory
+                        return false;
+                    }
+                    index = dictionary.size();
+                    dictionary.add((String) value);
+                    dictionaryIndex.put((String) value, index);
+                }
+                code = index;
+            }
+            if (row >= codes.length) {
+                codes = Arrays.copyOf(codes, newCapacity(codes.length, row));
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = codes[row];
+            return code < 0 ? null : dictionary.get(code);
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] data = new Object[0];
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            if (row >= data.length) {
+                data = Arrays.copyOf(data, newCapacity(data.length, row));
+            }
+            data[row] = value;
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return data[row];
+        }
+    }
+}
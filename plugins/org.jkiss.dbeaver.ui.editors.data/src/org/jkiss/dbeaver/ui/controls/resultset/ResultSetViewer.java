@@ -55,6 +55,7 @@ import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.data.DictionaryCache;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
@@ -2424,12 +2425,20 @@ public class ResultSetViewer extends Viewer
 
     void appendData(List<Object[]> rows, boolean resetOldRows) {
         model.appendData(rows, resetOldRows);
+        updateAppendStatus(rows.size());
+    }
+
+    void appendData(ResultSetValueStorage storage, boolean resetOldRows) {
+        model.appendData(storage, resetOldRows);
+        updateAppendStatus(storage.getRowCount());
+    }
 
+    private void updateAppendStatus(int appendedRows) {
         UIUtils.asyncExec(() -> {
             String message = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
-                rows.size()) + getExecutionTimeMessage(false);
+                appendedRows) + getExecutionTimeMessage(false);
             String tooltip = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
-                rows.size()) + getExecutionTimeMessage(true);
+                appendedRows) + getExecutionTimeMessage(true);
             setStatus(message, DBPMessageType.INFORMATION);
             setStatusTooltip(tooltip);
             updateEditControls();
@@ -3863,6 +3872,11 @@ public class ResultSetViewer extends Viewer
         DBSDataContainer dataContainer = getDataContainer();
 
         if (dataContainer != null) {
+            // Re-read dictionary values (foreign key descriptions) as well
+            DictionaryCache dictionaryCache = DBUtils.getAdapter(DictionaryCache.class, dataContainer.getDataSource());
+            if (dictionaryCache != null) {
+                dictionaryCache.invalidateAll();
+            }
             DBDDataFilter dataFilter = restoreDataFilter(dataContainer);
             int segmentSize = getSegmentMaxRows();
             Runnable finalizer = () -> {
@@ -4459,10 +4473,10 @@ public class ResultSetViewer extends Viewer
                         cells = new Object[1];
 
                         if (copyCurrent && srcRowIndex >= 0 && srcRowIndex < model.getRowCount()) {
-                            final Object[] origRow = model.getRowData(srcRowIndex);
+                            final ResultSetRow origRow = model.getRow(srcRowIndex);
 
                             try {
-                                cells[0] = docAttribute.getValueHandler().getValueFromObject(session, docAttribute, origRow[0], true, false);
+                                cells[0] = docAttribute.getValueHandler().getValueFromObject(session, docAttribute, origRow.getValue(0), true, false);
                             } catch (DBCException e) {
                                 log.warn(e);
                             }
@@ -4478,7 +4492,7 @@ public class ResultSetViewer extends Viewer
                         cells = new Object[attributes.length];
 
                         if (copyCurrent && srcRowIndex >= 0 && srcRowIndex < model.getRowCount()) {
-                            final Object[] origRow = model.getRowData(srcRowIndex);
+                            final ResultSetRow origRow = model.getRow(srcRowIndex);
 
                             for (int index = 0; index < attributes.length; index++) {
                                 final DBDAttributeBinding metaAttr = attributes[index];
@@ -4487,7 +4501,7 @@ public class ResultSetViewer extends Viewer
                                 if (!metaAttr.isPseudoAttribute() && !metaAttr.isAutoGenerated()) {
                                     final DBSAttributeBase attribute = metaAttr.getAttribute();
                                     try {
-                                        cells[index] = metaAttr.getValueHandler().getValueFromObject(session, attribute, origRow[index], true, false);
+                                        cells[index] = metaAttr.getValueHandler().getValueFromObject(session, attribute, origRow.getValue(index), true, false);
                                     } catch (DBCException e) {
                                         log.warn(e);
                                     }
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunctionApproximate;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -60,6 +61,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     public static final String SETTINGS_SECTION_AGGREGATE = "panel-" + PANEL_ID;
     public static final String PARAM_GROUP_BY_COLUMNS = "groupByColumns";
     public static final String PARAM_GROUP_AS_STRINGS = "groupAsStrings";
+    public static final String PARAM_APPROXIMATE_AGGREGATION = "approximateAggregation";
 
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
@@ -69,6 +71,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private boolean groupByColumns;
     private boolean aggregateAsStrings;
+    private boolean approximateAggregation;
     //private boolean runServerQueries;
 
     private IDialogSettings panelSettings;
@@ -130,6 +133,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void loadSettings() {
         aggregateAsStrings = panelSettings.getBoolean(PARAM_GROUP_AS_STRINGS);
         groupByColumns = panelSettings.getBoolean(PARAM_GROUP_BY_COLUMNS);
+        approximateAggregation = panelSettings.getBoolean(PARAM_APPROXIMATE_AGGREGATION);
         IDialogSettings functionsSection = panelSettings.getSection("functions");
         if (functionsSection != null) {
             final Map<AggregateFunctionDescriptor, Integer> funcIndexes = new HashMap<>();
@@ -167,6 +171,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void saveSettings() {
         panelSettings.put(PARAM_GROUP_BY_COLUMNS, groupByColumns);
         panelSettings.put(PARAM_GROUP_AS_STRINGS, aggregateAsStrings);
+        panelSettings.put(PARAM_APPROXIMATE_AGGREGATION, approximateAggregation);
         IDialogSettings functionsSection = UIUtils.getSettingsSection(panelSettings, "functions");
 
         for (AggregateFunctionDescriptor func : FunctionsRegistry.getInstance().getAggregateFunctions()) {
@@ -275,6 +280,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             }
             try {
                 IAggregateFunction func = funcDesc.createFunction();
+                if (func instanceof IAggregateFunctionApproximate approximateFunc) {
+                    approximateFunc.setApproximate(approximateAggregation);
+                }
                 funcMap.put(func, funcItem);
             } catch (DBException e) {
                 log.error(e);
@@ -306,6 +314,12 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 } else {
                     strValue = result.toString();
                 }
+                if (strValue != null && func instanceof IAggregateFunctionApproximate approximateFunc) {
+                    String errorBound = approximateFunc.getErrorBound();
+                    if (errorBound != null) {
+                        strValue = "~" + strValue + " (" + errorBound + ")";
+                    }
+                }
                 if (strValue != null) {
                     treeItem.setText(1, strValue);
                 }
@@ -326,6 +340,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         contributionManager.add(new Separator());
         contributionManager.add(new GroupByColumnsAction());
         contributionManager.add(new ValueTypeToggleAction());
+        contributionManager.add(new ApproximateAggregationToggleAction());
     }
 
     private class GroupByColumnsAction extends Action {
@@ -360,6 +375,22 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private class ApproximateAggregationToggleAction extends Action {
+        public ApproximateAggregationToggleAction() {
+            super(ResultSetMessages.aggregate_columns_approximate_aggregation_text, IAction.AS_CHECK_BOX);
+            setImageDescriptor(DBeaverIcons.getImageDescriptor(UIIcon.CONFIRM));
+            setToolTipText(ResultSetMessages.aggregate_columns_approximate_aggregation_tip);
+            setChecked(approximateAggregation);
+        }
+
+        @Override
+        public void run() {
+            approximateAggregation = !approximateAggregation;
+            setChecked(approximateAggregation);
+            refresh(false);
+        }
+    }
+
     private class AddFunctionAction extends Action {
         public AddFunctionAction() {
             super(ResultSetMessages.aggregate_columns_add_function_text, DBeaverIcons.getImageDescriptor(UIIcon.ADD));
@@ -45,6 +45,7 @@ import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.impl.data.DictionaryCache;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
@@ -602,6 +603,14 @@ public class SQLQueryJob extends DataSourceJob
             statistics.addExecuteTime(System.currentTimeMillis() - startTime);
             statistics.addStatementsCount();
 
+            if (sqlQuery.isModifiyng() || sqlQuery.getType() == SQLQueryType.UNKNOWN) {
+                // Query may change dictionary tables
+                DictionaryCache dictionaryCache = DBUtils.getAdapter(DictionaryCache.class, session.getDataSource());
+                if (dictionaryCache != null) {
+                    dictionaryCache.invalidateAll();
+                }
+            }
+
             curResult.setHasResultSet(hasResultSet);
 
             long updateCount = -1;
@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class PostgreCopyBinaryEncoderTest {
+
+    @Test
+    public void testNumericZero() throws Exception {
+        assertNumeric(BigDecimal.ZERO, 0, 0, 0);
+        // Negative zero is written as positive
+        assertNumeric(new BigDecimal("-0.00"), 0, 0, 2);
+    }
+
+    @Test
+    public void testNumericScale() throws Exception {
+        assertNumeric(new BigDecimal("12345.678"), 1, 0x0000, 3, 1, 2345, 6780);
+        assertNumeric(new BigDecimal("1.50"), 0, 0x0000, 2, 1, 5000);
+        assertNumeric(7L, 0, 0x0000, 0, 7);
+    }
+
+    @Test
+    public void testNumericNegative() throws Exception {
+        assertNumeric(new BigDecimal("-12345.678"), 1, 0x4000, 3, 1, 2345, 6780);
+        assertNumeric(new BigDecimal("-0.0001"), -1, 0x4000, 4, 1);
+        assertNumeric(-10000L, 1, 0x4000, 0, 1);
+    }
+
+    @Test
+    public void testNumericExponent() throws Exception {
+        // Negative BigDecimal scale
+        assertNumeric(new BigDecimal("1E+20"), 5, 0x0000, 0, 1);
+        assertNumeric(new BigDecimal("-1.23E+9"), 2, 0x4000, 0, 12, 3000);
+        assertNumeric(new BigDecimal("1.5E-10"), -3, 0x0000, 11, 150);
+    }
+
+    @Test
+    public void testNumericNaN() throws Exception {
+        DataInputStream in = encode(PostgreOid.NUMERIC, Double.NaN);
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(0, in.readShort());
+        Assert.assertEquals(0, in.readShort());
+        Assert.assertEquals((short) 0xC000, in.readShort());
+        Assert.assertEquals(0, in.readShort());
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.NUMERIC, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testIntegerRange() throws Exception {
+        DataInputStream in = encode(PostgreOid.INT2, (long) Short.MIN_VALUE);
+        Assert.assertEquals(2, in.readInt());
+        Assert.assertEquals(Short.MIN_VALUE, in.readShort());
+        in = encode(PostgreOid.INT4, "2147483647");
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(Integer.MAX_VALUE, in.readInt());
+
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT2, 40000));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT2, "-32769"));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT4, 3_000_000_000L));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT4, new BigDecimal("-2147483649")));
+    }
+
+    @Test
+    public void testIntegerFraction() throws Exception {
+        DataInputStream in = encode(PostgreOid.INT4, 42.0);
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(42, in.readInt());
+        in = encode(PostgreOid.INT8, new BigDecimal("1.00"));
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(1L, in.readLong());
+        in = encode(PostgreOid.INT8, new BigInteger("9223372036854775807"));
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(Long.MAX_VALUE, in.readLong());
+
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT2, 1.5f));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT4, 2.7));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT8, new BigDecimal("0.1")));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT8, Double.NaN));
+        Assert.assertThrows(DBCException.class, () -> encode(PostgreOid.INT8, new BigInteger("9223372036854775808")));
+    }
+
+    private static void assertNumeric(Object value, int weight, int sign, int scale, int... digits) throws Exception {
+        DataInputStream in = encode(PostgreOid.NUMERIC, value);
+        Assert.assertEquals(8 + digits.length * 2, in.readInt());
+        Assert.assertEquals(digits.length, in.readShort());
+        Assert.assertEquals(weight, in.readShort());
+        Assert.assertEquals(sign, in.readShort());
+        Assert.assertEquals(scale, in.readShort());
+        for (int digit : digits) {
+            Assert.assertEquals(digit, in.readShort());
+        }
+        Assert.assertEquals(0, in.available());
+    }
+
+    private static DataInputStream encode(int typeId, Object value) throws IOException, DBCException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            PostgreCopyBinaryEncoder.writeValue(out, typeId, value, String.valueOf(value));
+        }
+        return new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+    }
+}
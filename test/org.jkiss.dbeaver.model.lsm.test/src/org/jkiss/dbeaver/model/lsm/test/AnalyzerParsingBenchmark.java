@@ -0,0 +1,78 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+
+import java.util.List;
+
+/**
+ * Compares plain LL parsing with the two-stage SLL/LL parsing of {@link SQLStandardAnalyzer}
+ * on the corpus of SELECT statements. Not a part of the test suite.
+ * <p>
+ * Usage: {@code AnalyzerParsingBenchmark [<iterations>]}
+ */
+public class AnalyzerParsingBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 20;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        List<String> corpus = ParseSelectStmtTest.readStatements(
+            ParseSelectStmtTest.class.getResourceAsStream(ParseSelectStmtTest._selectStatementsSqlTextResourceName));
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer();
+        // Warm up
+        for (String text : corpus) {
+            parseLL(text);
+            analyzer.parseSqlQueryTree(STMSource.fromString(text), new STMSkippingErrorListener());
+        }
+
+        long llStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String text : corpus) {
+                parseLL(text);
+            }
+        }
+        long llTime = System.nanoTime() - llStart;
+
+        long twoStageStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String text : corpus) {
+                analyzer.parseSqlQueryTree(STMSource.fromString(text), new STMSkippingErrorListener());
+            }
+        }
+        long twoStageTime = System.nanoTime() - twoStageStart;
+
+        int parseCount = iterations * corpus.size();
+        System.out.println("Parsed " + parseCount + " queries: LL " + (llTime / 1000000) + "ms, SLL/LL " + (twoStageTime / 1000000) + "ms" +
+            " (SLL " + analyzer.getSLLParseCount() + ", LL " + analyzer.getLLParseCount() + ")");
+    }
+
+    private static void parseLL(String text) {
+        SQLStandardParser parser = new SQLStandardParser(new CommonTokenStream(new SQLStandardLexer(CharStreams.fromString(text))));
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        parser.sqlQuery();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.Trees;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class AnalyzerParsingTest {
+
+    private static List<String> readCorpus() {
+        return ParseSelectStmtTest.readStatements(
+            ParseSelectStmtTest.class.getResourceAsStream(ParseSelectStmtTest._selectStatementsSqlTextResourceName));
+    }
+
+    private static String parseLL(String text) {
+        SQLStandardParser parser = new SQLStandardParser(new CommonTokenStream(new SQLStandardLexer(CharStreams.fromString(text))));
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        return Trees.toStringTree(parser.sqlQuery(), parser);
+    }
+
+    @Test
+    public void testTwoStageParsingProducesSameTree() {
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer();
+        SQLStandardParser treePrinter = new SQLStandardParser(new CommonTokenStream(new SQLStandardLexer(CharStreams.fromString(""))));
+        for (int pass = 0; pass < 2; pass++) {
+            // The second pass runs on reused parsers and warmed up DFA cache
+            for (String text : readCorpus()) {
+                STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(text), new STMSkippingErrorListener());
+                Assert.assertNotNull(tree);
+                Assert.assertEquals(parseLL(text), Trees.toStringTree(tree, treePrinter));
+            }
+        }
+        Assert.assertTrue(analyzer.getSLLParseCount() > 0);
+    }
+
+    @Test
+    public void testInvalidQueryFallsBackToLL() {
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer();
+        STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString("SELECT FROM WHERE"), new STMSkippingErrorListener());
+        Assert.assertNotNull(tree);
+        Assert.assertEquals(1, analyzer.getLLParseCount());
+    }
+}
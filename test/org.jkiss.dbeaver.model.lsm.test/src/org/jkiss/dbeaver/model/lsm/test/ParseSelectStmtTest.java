@@ -35,9 +35,9 @@ import java.util.Scanner;
 @RunWith(MockitoJUnitRunner.class)
 public class ParseSelectStmtTest {
     
-    private static final String _selectStatementsSqlTextResourceName = "SelectStatements.sql.txt";
+    static final String _selectStatementsSqlTextResourceName = "SelectStatements.sql.txt";
     
-    private static List<String> readStatements(InputStream stream) {
+    static List<String> readStatements(InputStream stream) {
         List<String> result = new LinkedList<>();
         
         try (Scanner scanner = new Scanner(stream)) {
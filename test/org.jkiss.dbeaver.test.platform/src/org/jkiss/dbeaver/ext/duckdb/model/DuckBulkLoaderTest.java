@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.duckdb.model;
+
+import org.jkiss.dbeaver.ext.generic.model.GenericTableBase;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableColumn;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class DuckBulkLoaderTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final TestAppender appender = new TestAppender();
+    private JDBCSession session;
+    private DBCTransactionManager txnManager;
+    private GenericTableBase table;
+    private DBSAttributeBase[] columns;
+    private volatile boolean autoCommit = true;
+
+    public abstract static class TestConnection implements Connection {
+        public abstract TestAppender createAppender(String schemaName, String tableName);
+    }
+
+    public class TestAppender {
+        private final List<Object> rows = new ArrayList<>();
+
+        public void beginRow() {
+        }
+
+        public void endRow() {
+        }
+
+        public void append(String value) {
+            rows.add(value);
+        }
+
+        public void append(long value) {
+            rows.add(value);
+        }
+
+        public void appendNull() {
+            rows.add(null);
+        }
+
+        public void flush() {
+            events.add("flush");
+        }
+
+        public void close() {
+            events.add("close");
+        }
+    }
+
+    @Before
+    public void init() throws Exception {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(Mockito.mock(DBDValueHandler.class));
+
+        DBCExecutionContext context = Mockito.mock(DBCExecutionContext.class, Mockito.withSettings().extraInterfaces(DBCTransactionManager.class));
+        txnManager = (DBCTransactionManager) context;
+        Mockito.when(context.isConnected()).thenReturn(true);
+        Mockito.when(txnManager.isAutoCommit()).thenAnswer(invocation -> autoCommit);
+        Mockito.doAnswer(invocation -> {
+            autoCommit = invocation.getArgument(1);
+            return null;
+        }).when(txnManager).setAutoCommit(Mockito.any(), Mockito.anyBoolean());
+        Mockito.doAnswer(invocation -> events.add("commit")).when(txnManager).commit(Mockito.any());
+        Mockito.doAnswer(invocation -> events.add("rollback")).when(txnManager).rollback(Mockito.any(), Mockito.any());
+
+        TestConnection connection = Mockito.mock(TestConnection.class);
+        Mockito.when(connection.createAppender("main", "test")).thenReturn(appender);
+
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getExecutionContext()).thenReturn(context);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+
+        GenericTableColumn id = Mockito.mock(GenericTableColumn.class);
+        GenericTableColumn name = Mockito.mock(GenericTableColumn.class);
+        columns = new DBSAttributeBase[]{id, name};
+        table = Mockito.mock(GenericTableBase.class);
+        Mockito.when(table.getName()).thenReturn("test");
+        Mockito.doReturn(List.of(id, name)).when(table).getAttributes(Mockito.any());
+    }
+
+    @Test
+    public void testFinishedLoadIsCommitted() throws Exception {
+        DuckBulkLoader loader = new DuckBulkLoader(Mockito.mock(DuckDataSource.class));
+        DBSDataBulkLoader.BulkLoadManager manager = loader.createBulkLoad(
+            session, table, columns, Mockito.mock(DBCExecutionSource.class), 0, Collections.emptyMap());
+        Assert.assertFalse(autoCommit);
+        manager.addRow(session, new Object[]{1L, "one"});
+        manager.addRow(session, new Object[]{2L, null});
+        manager.finishBulkLoad(session);
+        manager.close();
+
+        Assert.assertEquals(List.of(1L, "one", 2L, null), appender.rows);
+        Assert.assertEquals(List.of("close", "commit"), events);
+        Assert.assertTrue(autoCommit);
+    }
+
+    @Test
+    public void testAbortedLoadIsRolledBack() throws Exception {
+        DuckBulkLoader loader = new DuckBulkLoader(Mockito.mock(DuckDataSource.class));
+        DBSDataBulkLoader.BulkLoadManager manager = loader.createBulkLoad(
+            session, table, columns, Mockito.mock(DBCExecutionSource.class), 0, Collections.emptyMap());
+        manager.addRow(session, new Object[]{1L, "one"});
+        manager.flushRows(session);
+        manager.close();
+
+        // Appender must be closed before rollback, otherwise its rows would be committed after auto-commit restore
+        Assert.assertEquals(List.of("flush", "close", "rollback"), events);
+        Assert.assertTrue(autoCommit);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class FunctionApproximateTest {
+
+    private static final int VALUE_COUNT = 200000;
+
+    @Test
+    public void testSmallInputIsExact() {
+        int[] values = {3, 1, 2, 2, 5, 1};
+        FunctionMedian median = new FunctionMedian();
+        median.setApproximate(true);
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        countDistinct.setApproximate(true);
+        FunctionMode mode = new FunctionMode();
+        mode.setApproximate(true);
+        for (int value : values) {
+            median.accumulate(value, false);
+            countDistinct.accumulate(value, false);
+            mode.accumulate(value, false);
+        }
+        Assert.assertEquals(2.0, median.getResult(values.length));
+        Assert.assertNull(median.getErrorBound());
+        Assert.assertEquals(4, countDistinct.getResult(values.length));
+        Assert.assertNull(countDistinct.getErrorBound());
+        Assert.assertEquals(1, mode.getResult(values.length));
+        Assert.assertNull(mode.getErrorBound());
+    }
+
+    @Test
+    public void testExactModeKeepsFirstValueOnTies() {
+        FunctionMode mode = new FunctionMode();
+        for (Object value : new Object[]{"b", "a", "a", "b", "c"}) {
+            mode.accumulate(value, true);
+        }
+        Assert.assertEquals("b", mode.getResult(5));
+    }
+
+    @Test
+    public void testApproximateMedian() {
+        FunctionMedian median = new FunctionMedian();
+        median.setApproximate(true);
+        Random random = new Random(1);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            median.accumulate(random.nextInt(VALUE_COUNT), false);
+        }
+        Assert.assertNotNull(median.getErrorBound());
+        int result = ((Number) median.getResult(VALUE_COUNT)).intValue();
+        // Uniform distribution: rank error is equal to value error
+        Assert.assertEquals(VALUE_COUNT / 2.0, result, VALUE_COUNT * 0.02);
+    }
+
+    @Test
+    public void testApproximateCountDistinct() {
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        countDistinct.setApproximate(true);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            countDistinct.accumulate("value" + (i % 50000), false);
+        }
+        Assert.assertNotNull(countDistinct.getErrorBound());
+        long result = ((Number) countDistinct.getResult(VALUE_COUNT)).longValue();
+        Assert.assertEquals(50000, result, 50000 * 0.03);
+    }
+
+    @Test
+    public void testExactByDefault() {
+        FunctionMedian median = new FunctionMedian();
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            median.accumulate(i, false);
+            countDistinct.accumulate("value" + (i % 50000), false);
+        }
+        Assert.assertNull(median.getErrorBound());
+        Assert.assertEquals((VALUE_COUNT - 1) / 2.0, median.getResult(VALUE_COUNT));
+        Assert.assertNull(countDistinct.getErrorBound());
+        Assert.assertEquals(50000, countDistinct.getResult(VALUE_COUNT));
+    }
+
+    @Test
+    public void testApproximateCountDistinctIgnoresDuplicates() {
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        countDistinct.setApproximate(true);
+        for (int i = 0; i < 10000; i++) {
+            countDistinct.accumulate("value" + i, false);
+        }
+        Assert.assertNotNull(countDistinct.getErrorBound());
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertFalse(countDistinct.accumulate("value" + i, false));
+        }
+    }
+
+    @Test
+    public void testApproximateMedianIsReproducible() {
+        FunctionMedian median1 = new FunctionMedian();
+        median1.setApproximate(true);
+        FunctionMedian median2 = new FunctionMedian();
+        median2.setApproximate(true);
+        Random random = new Random(2);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            int value = random.nextInt();
+            median1.accumulate(value, false);
+            median2.accumulate(value, false);
+        }
+        Assert.assertNotNull(median1.getErrorBound());
+        Assert.assertEquals(median1.getResult(VALUE_COUNT), median2.getResult(VALUE_COUNT));
+    }
+
+    @Test
+    public void testApproximateMode() {
+        FunctionMode mode = new FunctionMode();
+        mode.setApproximate(true);
+        Random random = new Random(1);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            mode.accumulate(i % 5 == 0 ? 42 : random.nextInt(VALUE_COUNT), false);
+        }
+        Assert.assertNotNull(mode.getErrorBound());
+        Assert.assertEquals(42, ((Number) mode.getResult(VALUE_COUNT)).intValue());
+    }
+
+}
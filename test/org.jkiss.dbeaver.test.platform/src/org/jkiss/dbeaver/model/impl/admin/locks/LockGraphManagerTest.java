@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.admin.locks;
+
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class LockGraphManagerTest {
+
+    @Test
+    public void testIncrementalBuild() {
+        LockGraphManager manager = new LockGraphManager() {};
+        // 1 <- 2 <- 3 and 4 <- 5
+        Map<Object, DBAServerLock> locks = LockWaitGraphTest.locks(1, null, 2, 1, 3, 2, 4, null, 5, 4);
+        manager.buildGraphs(locks);
+        LockGraph graph1 = manager.getGraph(locks.get(3));
+        LockGraph graph4 = manager.getGraph(locks.get(5));
+        Assert.assertEquals(3, graph1.getNodes().size());
+        Assert.assertEquals(2, graph4.getNodes().size());
+        Assert.assertEquals(List.of(locks.get(2)), locks.get(1).waitThis());
+
+        // The same state is re-read: graphs are kept, but reference the new lock objects
+        locks = LockWaitGraphTest.locks(1, null, 2, 1, 3, 2, 4, null, 5, 4);
+        manager.buildGraphs(locks);
+        Assert.assertSame(graph1, manager.getGraph(locks.get(3)));
+        Assert.assertSame(graph4, manager.getGraph(locks.get(5)));
+        Assert.assertSame(locks.get(1), graph1.getLockRoot());
+        Assert.assertSame(locks.get(3), graph1.getNodes().get(2).getLock());
+        Assert.assertEquals(List.of(locks.get(2)), locks.get(1).waitThis());
+        Assert.assertSame(locks.get(1), locks.get(2).getHoldBy());
+
+        // 6 waits for 4: only the second graph is rebuilt
+        locks = LockWaitGraphTest.locks(1, null, 2, 1, 3, 2, 4, null, 5, 4, 6, 4);
+        manager.buildGraphs(locks);
+        Assert.assertSame(graph1, manager.getGraph(locks.get(1)));
+        LockGraph newGraph4 = manager.getGraph(locks.get(6));
+        Assert.assertNotSame(graph4, newGraph4);
+        Assert.assertSame(newGraph4, manager.getGraph(locks.get(4)));
+        Assert.assertEquals(3, newGraph4.getNodes().size());
+        Assert.assertEquals(2, locks.get(4).waitThis().size());
+
+        // 2 is released and 3 now waits for 4
+        locks = LockWaitGraphTest.locks(1, null, 3, 4, 4, null, 5, 4, 6, 4);
+        manager.buildGraphs(locks);
+        LockGraph newGraph1 = manager.getGraph(locks.get(1));
+        Assert.assertNotSame(graph1, newGraph1);
+        Assert.assertEquals(1, newGraph1.getNodes().size());
+        Assert.assertEquals(4, manager.getGraph(locks.get(3)).getNodes().size());
+        Assert.assertSame(manager.getGraph(locks.get(4)), manager.getGraph(locks.get(3)));
+    }
+
+    @Test
+    public void testDeadlockGraph() {
+        LockGraphManager manager = new LockGraphManager() {};
+        // 1 -> 2 -> 1 is a deadlock, 3 waits for the cycle
+        Map<Object, DBAServerLock> locks = LockWaitGraphTest.locks(1, 2, 2, 1, 3, 1);
+        manager.buildGraphs(locks);
+        LockGraph graph = manager.getGraph(locks.get(3));
+        Assert.assertNotNull(graph);
+        Assert.assertEquals(3, graph.getNodes().size());
+        for (LockGraphNode node : graph.getNodes()) {
+            Assert.assertEquals(!node.getLock().getId().equals(3), node.isDeadlocked());
+        }
+
+        // Break the cycle
+        locks = LockWaitGraphTest.locks(1, 2, 2, null, 3, 1);
+        manager.buildGraphs(locks);
+        graph = manager.getGraph(locks.get(3));
+        Assert.assertSame(locks.get(2), graph.getLockRoot());
+        for (LockGraphNode node : graph.getNodes()) {
+            Assert.assertFalse(node.isDeadlocked());
+        }
+    }
+}
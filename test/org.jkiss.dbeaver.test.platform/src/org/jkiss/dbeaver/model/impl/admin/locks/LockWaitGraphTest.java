@@ -0,0 +1,154 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.admin.locks;
+
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class LockWaitGraphTest {
+
+    @Test
+    public void testIncrementalUpdate() {
+        LockWaitGraph graph = new LockWaitGraph();
+        LockWaitGraph.Delta delta = graph.update(locks(1, null, 2, 1, 3, 1));
+        Assert.assertEquals(List.of(1, 2, 3), delta.getAddedLocks());
+        Assert.assertEquals(1, graph.getHolder(2).getId());
+        Assert.assertEquals(2, graph.getWaiters(1).size());
+        Assert.assertEquals(1, graph.getRootBlockers().size());
+
+        // Same state - no changes
+        Assert.assertTrue(graph.update(locks(1, null, 2, 1, 3, 1)).isEmpty());
+
+        // Holder 1 is released, 3 now waits for 2
+        delta = graph.update(locks(2, null, 3, 2, 4, 3));
+        Assert.assertEquals(List.of(1), delta.getRemovedLocks());
+        Assert.assertEquals(List.of(4), delta.getAddedLocks());
+        Assert.assertEquals(List.of(2, 3), delta.getChangedWaits());
+        Assert.assertNull(graph.getHolder(2));
+        Assert.assertEquals(2, graph.getHolder(3).getId());
+        Assert.assertTrue(graph.getWaiters(1).isEmpty());
+        Assert.assertEquals(3, graph.getLockCount());
+    }
+
+    @Test
+    public void testDeadlocks() {
+        LockWaitGraph graph = new LockWaitGraph();
+        // 1 -> 2 -> 3 -> 1 is a deadlock, 4 waits for the cycle, 5 -> 6 is a simple wait, 7 waits for itself
+        graph.update(locks(1, 2, 2, 3, 3, 1, 4, 3, 5, 6, 6, null, 7, 7));
+        List<List<DBAServerLock>> deadlocks = graph.getDeadlocks();
+        Assert.assertEquals(1, deadlocks.size());
+        List<Object> cycle = ids(deadlocks.get(0));
+        Assert.assertEquals(3, cycle.size());
+        // Cycle is in wait order
+        int start = cycle.indexOf(1);
+        Assert.assertEquals(2, cycle.get((start + 1) % 3));
+        Assert.assertEquals(3, cycle.get((start + 2) % 3));
+        Assert.assertTrue(graph.isDeadlocked(1));
+        Assert.assertFalse(graph.isDeadlocked(4));
+        Assert.assertFalse(graph.isDeadlocked(5));
+        Assert.assertFalse(graph.isDeadlocked(7));
+
+        // Break the cycle
+        graph.update(locks(1, 2, 2, 3, 3, null, 4, 3, 5, 6, 6, null, 7, 7));
+        Assert.assertTrue(graph.getDeadlocks().isEmpty());
+        Assert.assertFalse(graph.isDeadlocked(1));
+    }
+
+    @Test
+    public void testBlockingChains() {
+        LockWaitGraph graph = new LockWaitGraph();
+        Object[] state = new Object[2000];
+        // Long chain 0 <- 1 <- ... <- 999 and short chain 1000 <- 1001
+        for (int i = 0; i < 1000; i++) {
+            state[i * 2] = i;
+            state[i * 2 + 1] = i == 0 || i == 1000 ? null : i - 1;
+        }
+        Map<Object, DBAServerLock> locks = locks(state);
+        locks.putAll(locks(1000, null, 1001, 1000));
+        graph.update(locks);
+
+        List<List<DBAServerLock>> chains = graph.getLongestBlockingChains(2);
+        Assert.assertEquals(2, chains.size());
+        Assert.assertEquals(1000, chains.get(0).size());
+        Assert.assertEquals(0, chains.get(0).get(0).getId());
+        Assert.assertEquals(999, chains.get(0).get(999).getId());
+        Assert.assertEquals(List.of(1000, 1001), ids(chains.get(1)));
+        Assert.assertTrue(graph.getDeadlocks().isEmpty());
+    }
+
+    private static List<Object> ids(List<DBAServerLock> locks) {
+        List<Object> result = new ArrayList<>();
+        for (DBAServerLock lock : locks) {
+            result.add(lock.getId());
+        }
+        return result;
+    }
+
+    // Pairs of lock id and holder id
+    static Map<Object, DBAServerLock> locks(Object... idAndHolder) {
+        Map<Object, DBAServerLock> result = new LinkedHashMap<>();
+        for (int i = 0; i < idAndHolder.length; i += 2) {
+            result.put(idAndHolder[i], new TestLock(idAndHolder[i], idAndHolder[i + 1]));
+        }
+        return result;
+    }
+
+    private static class TestLock implements DBAServerLock {
+        private final Object id;
+        private final Object holdId;
+        private final List<DBAServerLock> waiters = new ArrayList<>();
+        private DBAServerLock holdBy;
+
+        TestLock(Object id, Object holdId) {
+            this.id = id;
+            this.holdId = holdId;
+        }
+
+        @Override
+        public String getTitle() {
+            return String.valueOf(id);
+        }
+
+        @Override
+        public Object getId() {
+            return id;
+        }
+
+        @Override
+        public DBAServerLock getHoldBy() {
+            return holdBy;
+        }
+
+        @Override
+        public void setHoldBy(DBAServerLock lock) {
+            this.holdBy = lock;
+        }
+
+        @Override
+        public Object getHoldID() {
+            return holdId;
+        }
+
+        @Override
+        public List<DBAServerLock> waitThis() {
+            return waiters;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+public class DictionaryCacheTest {
+
+    @Test
+    public void testCachedAndMissingKeys() {
+        DBSEntity entity = createEntity("dict");
+        DictionaryCache cache = new DictionaryCache(100, 0);
+        Assert.assertNull(cache.getValue(entity, "id", "name", 1L));
+
+        cache.putValues(entity, "id", "name", List.of(1L, 2L, 3L), List.of(
+            new DBDLabelValuePair("one", 1L),
+            // Driver returned a different number type
+            new DBDLabelValuePair("two", 2)));
+
+        List<DBDLabelValuePair> value = cache.getValue(entity, "id", "name", 1L);
+        Assert.assertNotNull(value);
+        Assert.assertEquals("one", value.get(0).getLabel());
+        Assert.assertEquals("two", cache.getValue(entity, "id", "name", 2L).get(0).getLabel());
+        // Missing key is cached as empty value
+        Assert.assertEquals(Collections.emptyList(), cache.getValue(entity, "id", "name", 3L));
+        // Description columns are a part of the key
+        Assert.assertNull(cache.getValue(entity, "id", "title", 1L));
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        DBSEntity entity = createEntity("dict");
+        DictionaryCache cache = new DictionaryCache(2, 0);
+        cache.putValues(entity, "id", null, List.of(1, 2), List.of(new DBDLabelValuePair("one", 1), new DBDLabelValuePair("two", 2)));
+        // Touch first key, so the second one becomes eldest
+        Assert.assertNotNull(cache.getValue(entity, "id", null, 1));
+        cache.putValues(entity, "id", null, List.of(3), List.of(new DBDLabelValuePair("three", 3)));
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertNotNull(cache.getValue(entity, "id", null, 1));
+        Assert.assertNull(cache.getValue(entity, "id", null, 2));
+        Assert.assertEquals(1, cache.getEvictionCount());
+
+        DictionaryCache ttlCache = new DictionaryCache(10, 50);
+        ttlCache.putValues(entity, "id", null, List.of(1), List.of(new DBDLabelValuePair("one", 1)));
+        Assert.assertNotNull(ttlCache.getValue(entity, "id", null, 1));
+        Thread.sleep(100);
+        Assert.assertNull(ttlCache.getValue(entity, "id", null, 1));
+        Assert.assertEquals(0, ttlCache.getSize());
+    }
+
+    @Test
+    public void testInvalidate() {
+        DBSEntity entity1 = createEntity("dict1");
+        DBSEntity entity2 = createEntity("dict2");
+        DictionaryCache cache = new DictionaryCache(100, 0);
+        cache.putValues(entity1, "id", null, List.of("a"), List.of(new DBDLabelValuePair("A", "a")));
+        cache.putValues(entity2, "id", null, List.of("a"), List.of(new DBDLabelValuePair("B", "a")));
+        cache.invalidate(entity1);
+        Assert.assertNull(cache.getValue(entity1, "id", null, "a"));
+        Assert.assertEquals("B", cache.getValue(entity2, "id", null, "a").get(0).getLabel());
+
+        // Binary keys are never cached
+        Assert.assertFalse(DictionaryCache.isCacheableKey(new byte[]{1}));
+        cache.putValues(entity2, "bin", null, List.of(new byte[]{1}), List.of());
+        Assert.assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testRefreshedEntity() {
+        DBSEntity entity = createEntity("dict");
+        DictionaryCache cache = new DictionaryCache(100, 0);
+        cache.putValues(entity, "id", null, List.of(1), List.of(new DBDLabelValuePair("one", 1)));
+
+        // Refreshed entity object is a different instance with the same name
+        DBSEntity refreshedEntity = createEntity("dict");
+        Assert.assertEquals("one", cache.getValue(refreshedEntity, "id", null, 1).get(0).getLabel());
+        cache.invalidate(refreshedEntity);
+        Assert.assertNull(cache.getValue(entity, "id", null, 1));
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    private static DBSEntity createEntity(String name) {
+        DBSEntity entity = Mockito.mock(DBSEntity.class);
+        Mockito.when(entity.getName()).thenReturn(name);
+        return entity;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueBinder;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ExecuteBatchImplTest {
+
+    private DBCSession session;
+    private DBPDataSourceInfo dataSourceInfo;
+
+    @Before
+    public void setUp() {
+        session = Mockito.mock(DBCSession.class);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        dataSourceInfo = Mockito.mock(DBPDataSourceInfo.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(Mockito.mock(DBRProgressMonitor.class));
+        Mockito.when(dataSource.getInfo()).thenReturn(dataSourceInfo);
+    }
+
+    @Test
+    public void testNullPatternChangeWithoutBatches() throws Exception {
+        Mockito.when(dataSourceInfo.supportsBatchUpdates()).thenReturn(false);
+        TestBatch batch = new TestBatch(Mockito.mock(DBDValueHandler.class));
+        batch.add(new Object[]{1});
+        batch.add(new Object[]{2});
+        batch.add(new Object[]{null});
+        batch.add(new Object[]{3});
+        batch.execute(session, Collections.emptyMap());
+
+        Assert.assertEquals(List.of("id = :id", "id IS NULL", "id = :id"), batch.preparedQueries);
+        Assert.assertEquals(List.of("id = :id", "id = :id", "id IS NULL", "id = :id"), batch.executedQueries);
+    }
+
+    @Test
+    public void testNullPatternChangeWithBatches() throws Exception {
+        Mockito.when(dataSourceInfo.supportsBatchUpdates()).thenReturn(true);
+        TestBatch batch = new TestBatch(Mockito.mock(DBDValueHandler.class));
+        batch.add(new Object[]{1});
+        batch.add(new Object[]{null});
+        batch.add(new Object[]{null});
+        batch.execute(session, Collections.emptyMap());
+
+        Assert.assertEquals(List.of("id = :id", "id IS NULL"), batch.preparedQueries);
+        Assert.assertEquals(List.of("id = :id", "id IS NULL"), batch.flushedQueries);
+    }
+
+    @Test
+    public void testNullPatternChangeInScript() throws Exception {
+        TestBatch batch = new TestBatch(Mockito.mock(DBDValueHandler.class));
+        batch.add(new Object[]{null});
+        batch.add(new Object[]{1});
+        List<DBEPersistAction> actions = new ArrayList<>();
+        batch.generatePersistActions(session, actions, Collections.emptyMap());
+
+        Assert.assertEquals(2, actions.size());
+        Assert.assertEquals("id IS NULL", actions.get(0).getScript());
+        Assert.assertEquals("id = :id", actions.get(1).getScript());
+    }
+
+    @Test
+    public void testValueDependentBind() throws Exception {
+        Mockito.when(dataSourceInfo.supportsBatchUpdates()).thenReturn(false);
+        DBDValueBinder binder = Mockito.mock(DBDValueBinder.class);
+        Mockito.when(binder.makeQueryBind(Mockito.any(), Mockito.any())).thenAnswer(
+            invocation -> "ST_GeomFromText(?, " + invocation.getArgument(1) + ")");
+        TestBatch batch = new TestBatch(binder);
+        batch.add(new Object[]{4326});
+        batch.add(new Object[]{4326});
+        batch.add(new Object[]{3857});
+        batch.execute(session, Collections.emptyMap());
+
+        Assert.assertEquals(List.of("id = ST_GeomFromText(?, 4326)", "id = ST_GeomFromText(?, 3857)"), batch.preparedQueries);
+        Assert.assertEquals(
+            List.of("id = ST_GeomFromText(?, 4326)", "id = ST_GeomFromText(?, 4326)", "id = ST_GeomFromText(?, 3857)"),
+            batch.executedQueries);
+    }
+
+    private static DBSAttributeBase[] makeAttributes(DBDValueHandler handler) {
+        DBDAttributeBinding attribute = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(attribute.getValueHandler()).thenReturn(handler);
+        return new DBSAttributeBase[]{attribute};
+    }
+
+    private static class TestBatch extends ExecuteBatchImpl {
+        private final List<String> preparedQueries = new ArrayList<>();
+        private final List<String> executedQueries = new ArrayList<>();
+        private final List<String> flushedQueries = new ArrayList<>();
+
+        TestBatch(DBDValueHandler handler) {
+            super(makeAttributes(handler), null, true);
+        }
+
+        @NotNull
+        @Override
+        protected DBCStatement prepareStatement(
+            @NotNull DBCSession session,
+            DBDValueHandler[] handlers,
+            Object[] attributeValues,
+            Map<String, Object> options
+        ) throws DBCException {
+            String query;
+            if (attributeValues[0] == null) {
+                query = "id IS NULL";
+            } else if (handlers[0] instanceof DBDValueBinder) {
+                query = "id = " + ((DBDValueBinder) handlers[0]).makeQueryBind(attributes[0], attributeValues[0]);
+            } else {
+                // Named parameter, so script generation doesn't need value conversion
+                query = "id = :id";
+            }
+            preparedQueries.add(query);
+            DBCStatement statement = Mockito.mock(DBCStatement.class);
+            Mockito.when(statement.getQueryString()).thenReturn(query);
+            Mockito.when(statement.executeStatement()).thenAnswer(invocation -> {
+                executedQueries.add(preparedQueries.get(preparedQueries.size() - 1));
+                return false;
+            });
+            Mockito.when(statement.executeStatementBatch()).thenAnswer(invocation -> {
+                flushedQueries.add(preparedQueries.get(preparedQueries.size() - 1));
+                return new int[0];
+            });
+            return statement;
+        }
+
+        @Override
+        protected void bindStatement(
+            @NotNull DBDValueHandler[] handlers,
+            @NotNull DBCStatement statement,
+            Object[] attributeValues
+        ) {
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data.formatters;
+
+import org.jkiss.dbeaver.model.data.DBDDataFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates export of a wide numeric/timestamp table by several data transfer jobs (maxJobCount > 1)
+ * which share the same formatter profile. Not a part of the test suite.
+ * <p>
+ * Usage: {@code DataFormattersBenchmark [<rows> [<max threads>]]}.
+ * The same number of rows is split between 1, 2, 4, ... up to max threads.
+ */
+public class DataFormattersBenchmark {
+
+    private static final int DEFAULT_ROWS = 1_000_000;
+    private static final int DEFAULT_MAX_THREADS = 4;
+
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_THREADS;
+        DBDDataFormatter[] formatters = DataFormattersConcurrencyTest.createFormatters();
+
+        // Warm up
+        DataFormattersConcurrencyTest.formatRows(formatters, DataFormattersConcurrencyTest.generateRows(rowCount / 10));
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Object[][] rows = DataFormattersConcurrencyTest.generateRows(rowCount / threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                long startTime = System.currentTimeMillis();
+                List<Future<List<String>>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> DataFormattersConcurrencyTest.formatRows(formatters, rows)));
+                }
+                long valueCount = 0;
+                for (Future<List<String>> result : results) {
+                    valueCount += result.get().size();
+                }
+                System.out.println("Formatted " + valueCount + " values in " + threads + " thread(s): " +
+                    (System.currentTimeMillis() - startTime) + "ms");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
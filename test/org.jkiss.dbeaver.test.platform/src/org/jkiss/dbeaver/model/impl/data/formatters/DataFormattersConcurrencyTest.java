@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data.formatters;
+
+import org.jkiss.dbeaver.model.data.DBDDataFormatter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DataFormattersConcurrencyTest {
+
+    // Number of columns in generated rows
+    private static final int COLUMN_COUNT = 20;
+
+    private static final Locale[] LOCALES = {
+        Locale.US, Locale.GERMANY, Locale.FRANCE, new Locale("de", "CH"), new Locale("ar", "EG"), new Locale("hi", "IN"),
+        Locale.forLanguageTag("th-TH-u-nu-thai"), Locale.forLanguageTag("en-IN")
+    };
+
+    @Test
+    public void testIntegerFormatSameAsDecimalFormat() throws Exception {
+        Random random = new Random(16);
+        long[] values = {0, 1, -1, 7, -10, 999, 1000, -1000, 123456789, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (Locale locale : LOCALES) {
+            for (int settings = 0; settings < 200; settings++) {
+                Map<String, Object> properties = new NumberFormatSample().getDefaultProperties(locale);
+                if (random.nextBoolean()) {
+                    properties.put(NumberFormatSample.PROP_USE_GROUPING, random.nextBoolean());
+                    properties.put(NumberFormatSample.PROP_GROUPING_SIZE, random.nextInt(5));
+                    properties.put(NumberFormatSample.PROP_MIN_INT_DIGITS, random.nextInt(12));
+                    properties.put(NumberFormatSample.PROP_MAX_INT_DIGITS, 1 + random.nextInt(25));
+                }
+                NumberDataFormatter formatter = new NumberDataFormatter();
+                formatter.init(null, locale, properties);
+                for (int i = 0; i < values.length + 50; i++) {
+                    long value = i < values.length ? values[i] : random.nextLong() >> random.nextInt(64);
+                    // Integral BigDecimal is always formatted by DecimalFormat
+                    String expected = formatter.formatValue(BigDecimal.valueOf(value));
+                    Assert.assertEquals(locale + " " + properties, expected, formatter.formatValue(value));
+                    if (value == (int) value) {
+                        Assert.assertEquals(locale + " " + properties, expected, formatter.formatValue((int) value));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSharedFormattersInParallel() throws Exception {
+        Object[][] rows = generateRows(20000);
+        DBDDataFormatter[] formatters = createFormatters();
+        List<String> expected = formatRows(formatters, rows);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> formatRows(formatters, rows)));
+            }
+            for (Future<List<String>> result : results) {
+                Assert.assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static DBDDataFormatter[] createFormatters() {
+        NumberDataFormatter numberFormatter = new NumberDataFormatter();
+        numberFormatter.init(null, Locale.US, new NumberFormatSample().getDefaultProperties(Locale.US));
+
+        DateTimeDataFormatter timestampFormatter = new DateTimeDataFormatter();
+        timestampFormatter.init(null, Locale.US, new TimestampFormatSample().getDefaultProperties(Locale.US));
+
+        DBDDataFormatter[] formatters = new DBDDataFormatter[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            formatters[i] = i % 4 == 3 ? timestampFormatter : numberFormatter;
+        }
+        return formatters;
+    }
+
+    static Object[][] generateRows(int rowCount) {
+        Random random = new Random(rowCount);
+        Object[][] rows = new Object[rowCount][COLUMN_COUNT];
+        for (Object[] row : rows) {
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                switch (i % 4) {
+                    case 0 -> row[i] = random.nextLong() >> random.nextInt(64);
+                    case 1 -> row[i] = random.nextInt(1000000);
+                    case 2 -> row[i] = random.nextDouble() * 1000000;
+                    default -> row[i] = i % 8 == 3 ?
+                        new Timestamp(random.nextLong() % 4000000000000L) :
+                        LocalDateTime.of(1970 + random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+                }
+            }
+        }
+        return rows;
+    }
+
+    static List<String> formatRows(DBDDataFormatter[] formatters, Object[][] rows) {
+        List<String> result = new ArrayList<>(rows.length * formatters.length);
+        for (Object[] row : rows) {
+            for (int i = 0; i < formatters.length; i++) {
+                result.add(formatters[i].formatValue(row[i]));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFactoryDefault;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class JDBCMetadataSnapshotTest {
+
+    private static final long MAX_SNAPSHOT_SIZE = 1024 * 1024;
+
+    private static final List<Map<String, Object>> ROWS = List.of(
+        Map.of("NAME", "orders", "POSITION", 1, "REMARKS", "Customer orders"),
+        Map.of("NAME", "customers", "POSITION", 2, "REMARKS", "Customers"),
+        Map.of("NAME", "products", "POSITION", 3, "REMARKS", "Product catalog")
+    );
+
+    private Path tempFolder;
+    private Path snapshotFile;
+    private JDBCDataSource dataSource;
+    private DBSObject owner;
+
+    @Before
+    public void setUp() throws IOException {
+        tempFolder = Files.createTempDirectory("dbeaver-snapshot-test");
+        snapshotFile = tempFolder.resolve("test.dbsnap");
+
+        dataSource = Mockito.mock(JDBCDataSource.class);
+        JDBCRemoteInstance instance = Mockito.mock(JDBCRemoteInstance.class);
+        JDBCExecutionContext context = Mockito.mock(JDBCExecutionContext.class);
+        JDBCSession session = Mockito.mock(JDBCSession.class);
+        Mockito.when(dataSource.getDefaultInstance()).thenReturn(instance);
+        Mockito.when(dataSource.getJdbcFactory()).thenReturn(new JDBCFactoryDefault());
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(Mockito.mock(SQLDialect.class));
+        Mockito.when(instance.getDefaultContext(Mockito.any(), Mockito.anyBoolean())).thenReturn(context);
+        Mockito.when(context.openSession(Mockito.any(), Mockito.eq(DBCExecutionPurpose.META), Mockito.anyString())).thenReturn(session);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+
+        owner = Mockito.mock(DBSObject.class);
+        Mockito.when(owner.getName()).thenReturn("public");
+        Mockito.when(owner.isPersisted()).thenReturn(true);
+        Mockito.when(owner.getDataSource()).thenReturn(dataSource);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(tempFolder);
+    }
+
+    @Test
+    public void testObjectsAreRestoredFromSnapshot() throws Exception {
+        TestCache liveCache = new TestCache(false, new CountDownLatch(0));
+        List<TestObject> liveObjects = loadWithNewSnapshot(liveCache);
+        Assert.assertEquals(1, liveCache.prepareCount);
+        Assert.assertFalse(liveCache.isSnapshotStale());
+
+        // Live reads are blocked until the snapshot objects are checked
+        CountDownLatch liveReadLatch = new CountDownLatch(1);
+        TestCache snapshotCache = new TestCache(false, liveReadLatch);
+        List<TestObject> snapshotObjects = loadWithNewSnapshot(snapshotCache);
+        Assert.assertTrue(snapshotCache.isSnapshotStale());
+        Assert.assertEquals(0, snapshotCache.prepareCount);
+        Assert.assertEquals(describe(liveObjects), describe(snapshotObjects));
+
+        // Unchanged objects are kept after validation
+        liveReadLatch.countDown();
+        waitForValidation(snapshotCache);
+        Assert.assertEquals(1, snapshotCache.prepareCount);
+        Assert.assertEquals(snapshotObjects, snapshotCache.getCachedObjects());
+    }
+
+    @Test
+    public void testSnapshotMissingValuesIsRejected() throws Exception {
+        loadWithNewSnapshot(new TestCache(false, new CountDownLatch(0)));
+
+        // Cache reads a value which was not recorded in the snapshot
+        TestCache cache = new TestCache(true, new CountDownLatch(0));
+        List<TestObject> objects = loadWithNewSnapshot(cache);
+        Assert.assertFalse(cache.isSnapshotStale());
+        Assert.assertEquals(1, cache.prepareCount);
+        Assert.assertEquals("Customer orders", objects.get(0).getDescription());
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsDiscarded() throws Exception {
+        Files.write(snapshotFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(snapshotFile, MAX_SNAPSHOT_SIZE);
+        Assert.assertEquals(0, snapshot.getEntryCount());
+
+        Mockito.when(dataSource.getMetadataSnapshot()).thenReturn(snapshot);
+        TestCache cache = new TestCache(false, new CountDownLatch(0));
+        Assert.assertEquals(ROWS.size(), cache.getAllObjects(new VoidProgressMonitor(), owner).size());
+        Assert.assertFalse(cache.isSnapshotStale());
+        Assert.assertEquals(1, cache.prepareCount);
+    }
+
+    /**
+     * Loads cache with snapshot read from disk, like after reconnect, and saves the snapshot
+     */
+    @NotNull
+    private List<TestObject> loadWithNewSnapshot(@NotNull TestCache cache) throws Exception {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(snapshotFile, MAX_SNAPSHOT_SIZE);
+        Mockito.when(dataSource.getMetadataSnapshot()).thenReturn(snapshot);
+        List<TestObject> objects = new ArrayList<>(cache.getAllObjects(new VoidProgressMonitor(), owner));
+        snapshot.save();
+        return objects;
+    }
+
+    private static void waitForValidation(@NotNull TestCache cache) throws InterruptedException {
+        for (int i = 0; i < 100 && cache.isSnapshotStale(); i++) {
+            Thread.sleep(50);
+        }
+        Assert.assertFalse("Snapshot was not validated", cache.isSnapshotStale());
+    }
+
+    @NotNull
+    private static List<String> describe(@NotNull List<TestObject> objects) {
+        return objects.stream()
+            .map(o -> o.getName() + ":" + o.position + ":" + o.getDescription())
+            .collect(Collectors.toList());
+    }
+
+    private class TestCache extends JDBCObjectCache<DBSObject, TestObject> {
+        private final boolean readRemarks;
+        private final CountDownLatch liveReadLatch;
+        private volatile int prepareCount;
+
+        TestCache(boolean readRemarks, @NotNull CountDownLatch liveReadLatch) {
+            this.readRemarks = readRemarks;
+            this.liveReadLatch = liveReadLatch;
+        }
+
+        @NotNull
+        @Override
+        protected String getSnapshotKey(@NotNull DBSObject owner) {
+            return "test";
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareObjectsStatement(@NotNull JDBCSession session, @NotNull DBSObject owner) throws SQLException {
+            try {
+                if (!liveReadLatch.await(10, TimeUnit.SECONDS)) {
+                    throw new SQLException("Unexpected database read");
+                }
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            prepareCount++;
+            JDBCStatement statement = Mockito.mock(JDBCStatement.class);
+            JDBCResultSet resultSet = mockResultSet();
+            Mockito.when(statement.executeStatement()).thenReturn(true);
+            Mockito.when(statement.getResultSet()).thenReturn(resultSet);
+            return statement;
+        }
+
+        @Nullable
+        @Override
+        protected TestObject fetchObject(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull JDBCResultSet resultSet) throws SQLException {
+            return new TestObject(
+                resultSet.getString("NAME"),
+                resultSet.getInt("POSITION"),
+                readRemarks ? resultSet.getString("REMARKS") : null);
+        }
+    }
+
+    @NotNull
+    private static JDBCResultSet mockResultSet() throws SQLException {
+        JDBCResultSet resultSet = Mockito.mock(JDBCResultSet.class);
+        int[] rowIndex = {-1};
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> ++rowIndex[0] < ROWS.size());
+        Mockito.when(resultSet.getString(Mockito.anyString()))
+            .thenAnswer(invocation -> (String) ROWS.get(rowIndex[0]).get(invocation.<String>getArgument(0)));
+        Mockito.when(resultSet.getInt(Mockito.anyString()))
+            .thenAnswer(invocation -> (Integer) ROWS.get(rowIndex[0]).get(invocation.<String>getArgument(0)));
+        return resultSet;
+    }
+
+    private class TestObject implements DBSObject {
+        private final String name;
+        private final int position;
+        private final String description;
+
+        TestObject(String name, int position, String description) {
+            this.name = name;
+            this.position = position;
+            this.description = description;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public DBSObject getParentObject() {
+            return owner;
+        }
+
+        @Nullable
+        @Override
+        public DBPDataSource getDataSource() {
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class JDBCStatementCacheTest {
+
+    private static final String QUERY1 = "SELECT * FROM pg_class";
+    private static final String QUERY2 = "SELECT * FROM pg_attribute";
+
+    @Test
+    public void testStatementIsReusedAfterClose() throws SQLException {
+        PreparedStatement original = Mockito.mock(PreparedStatement.class);
+        Connection connection = mockConnection(original);
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+
+        PreparedStatement statement = cache.prepareStatement(connection, QUERY1);
+        statement.setString(1, "test");
+        statement.close();
+        Assert.assertTrue(statement.isClosed());
+        Assert.assertEquals(1, cache.getSize());
+
+        cache.prepareStatement(connection, QUERY1).close();
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(QUERY1);
+        Mockito.verify(original).setString(1, "test");
+        Mockito.verify(original, Mockito.never()).close();
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testStateIsResetOnCheckout() throws SQLException {
+        PreparedStatement original = Mockito.mock(PreparedStatement.class);
+        // Initial values are read on prepare, changed values on checkout
+        Mockito.when(original.getMaxRows()).thenReturn(0, 100);
+        Mockito.when(original.getFetchSize()).thenReturn(0, 500);
+        Mockito.when(original.getQueryTimeout()).thenReturn(0, 30);
+        Connection connection = mockConnection(original);
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+
+        cache.prepareStatement(connection, QUERY1).close();
+        cache.prepareStatement(connection, QUERY1);
+        Mockito.verify(original).clearParameters();
+        Mockito.verify(original).setMaxRows(0);
+        Mockito.verify(original).setFetchSize(0);
+        Mockito.verify(original).setQueryTimeout(0);
+        Mockito.verify(original, Mockito.never()).setMaxFieldSize(Mockito.anyInt());
+    }
+
+    @Test
+    public void testStatementIsNotSharedWhileInUse() throws SQLException {
+        PreparedStatement original1 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement original2 = Mockito.mock(PreparedStatement.class);
+        Connection connection = mockConnection(original1, original2);
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+
+        PreparedStatement statement1 = cache.prepareStatement(connection, QUERY1);
+        PreparedStatement statement2 = cache.prepareStatement(connection, QUERY1);
+        statement1.execute();
+        statement2.execute();
+        Mockito.verify(original1).execute();
+        Mockito.verify(original2).execute();
+        Assert.assertEquals(2, cache.getMissCount());
+
+        statement1.close();
+        statement2.close();
+        // Only one statement per query is kept
+        Assert.assertEquals(1, cache.getSize());
+        Mockito.verify(original1).close();
+    }
+
+    @Test
+    public void testClosedStatementRejectsCalls() throws SQLException {
+        Connection connection = mockConnection(Mockito.mock(PreparedStatement.class));
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+
+        PreparedStatement statement = cache.prepareStatement(connection, QUERY1);
+        statement.close();
+        Assert.assertThrows(SQLException.class, statement::executeQuery);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedStatementIsEvicted() throws SQLException {
+        PreparedStatement original1 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement original2 = Mockito.mock(PreparedStatement.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(QUERY1)).thenReturn(original1);
+        Mockito.when(connection.prepareStatement(QUERY2)).thenReturn(original2);
+        JDBCStatementCache cache = new JDBCStatementCache(1);
+
+        cache.prepareStatement(connection, QUERY1).close();
+        cache.prepareStatement(connection, QUERY2).close();
+        Assert.assertEquals(1, cache.getSize());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Mockito.verify(original1).close();
+        Mockito.verify(original2, Mockito.never()).close();
+    }
+
+    @Test
+    public void testInvalidateClosesStatements() throws SQLException {
+        PreparedStatement original1 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement original2 = Mockito.mock(PreparedStatement.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(QUERY1)).thenReturn(original1);
+        Mockito.when(connection.prepareStatement(QUERY2)).thenReturn(original2);
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+
+        cache.prepareStatement(connection, QUERY1).close();
+        PreparedStatement statement2 = cache.prepareStatement(connection, QUERY2);
+        cache.invalidate();
+        Mockito.verify(original1).close();
+
+        // Statement of the closed connection is not returned to the cache
+        statement2.close();
+        Mockito.verify(original2).close();
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    private static Connection mockConnection(PreparedStatement statement, PreparedStatement... statements) throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement, statements);
+        return connection;
+    }
+}
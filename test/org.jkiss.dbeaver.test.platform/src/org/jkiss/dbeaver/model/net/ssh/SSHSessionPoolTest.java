@@ -0,0 +1,141 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SSHSessionPoolTest {
+
+    @Test
+    public void testSessionSharing() throws Exception {
+        TestController controller = new TestController();
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>("Test", controller, 0);
+
+        TestSession session1 = pool.acquireSession("host1", TestSession::new);
+        TestSession session2 = pool.acquireSession("host1", TestSession::new);
+        TestSession session3 = pool.acquireSession("host2", TestSession::new);
+        Assert.assertSame(session1, session2);
+        Assert.assertNotSame(session1, session3);
+        Assert.assertEquals(2, pool.getOpenCount());
+        Assert.assertEquals(1, pool.getReuseCount());
+
+        // Session is closed when the last tunnel releases it
+        pool.releaseSession("host1", session1);
+        Assert.assertTrue(controller.closedSessions.isEmpty());
+        pool.releaseSession("host1", session2);
+        Assert.assertEquals(List.of(session1), controller.closedSessions);
+        Assert.assertEquals(1, pool.getSessionCount());
+
+        pool.releaseSession("host2", session3);
+        Assert.assertEquals(0, pool.getSessionCount());
+    }
+
+    @Test
+    public void testBrokenSession() throws Exception {
+        TestController controller = new TestController();
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>("Test", controller, 0);
+
+        TestSession session1 = pool.acquireSession("host", TestSession::new);
+        session1.alive = false;
+        TestSession session2 = pool.acquireSession("host", TestSession::new);
+        Assert.assertNotSame(session1, session2);
+        Assert.assertEquals(List.of(session1), controller.closedSessions);
+
+        pool.releaseSession("host", session1);
+        pool.releaseSession("host", session2);
+        Assert.assertEquals(0, pool.getSessionCount());
+        Assert.assertTrue(controller.closedSessions.contains(session2));
+    }
+
+    @Test
+    public void testInvalidateSession() throws Exception {
+        TestController controller = new TestController();
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>("Test", controller, 60000);
+
+        TestSession session1 = pool.acquireSession("host", TestSession::new);
+        TestSession session2 = pool.acquireSession("host", TestSession::new);
+        // Session looks alive but one of the tunnels found it broken
+        pool.invalidateSession("host", session1);
+        Assert.assertEquals(List.of(session1), controller.closedSessions);
+        TestSession session3 = pool.acquireSession("host", TestSession::new);
+        Assert.assertNotSame(session1, session3);
+        Assert.assertEquals(2, pool.getOpenCount());
+
+        // Other tunnel releases the old session after it was replaced
+        pool.releaseSession("host", session2);
+        Assert.assertEquals(1, pool.getSessionCount());
+        pool.invalidateSession("host", session3);
+        Assert.assertEquals(0, pool.getSessionCount());
+        Assert.assertTrue(controller.closedSessions.contains(session3));
+    }
+
+    @Test
+    public void testOpenError() {
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>("Test", new TestController(), 0);
+        try {
+            pool.acquireSession("host", () -> {
+                throw new IOException("Connection refused");
+            });
+            Assert.fail("Error expected");
+        } catch (Exception e) {
+            Assert.assertEquals("Connection refused", e.getMessage());
+        }
+        Assert.assertEquals(0, pool.getSessionCount());
+    }
+
+    @Test
+    public void testIdleSessions() throws Exception {
+        TestController controller = new TestController();
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>("Test", controller, 60000);
+
+        TestSession session1 = pool.acquireSession("host", TestSession::new);
+        pool.releaseSession("host", session1);
+        // Idle session is kept for the next tunnel
+        Assert.assertTrue(controller.closedSessions.isEmpty());
+        Assert.assertSame(session1, pool.acquireSession("host", TestSession::new));
+        pool.releaseSession("host", session1);
+
+        pool.closeIdleSessions();
+        Assert.assertEquals(List.of(session1), controller.closedSessions);
+        Assert.assertEquals(1, pool.getEvictionCount());
+        Assert.assertEquals(0, pool.getSessionCount());
+    }
+
+    private static class TestSession {
+        private boolean alive = true;
+    }
+
+    private static class TestController implements SSHSessionPool.SessionController<TestSession> {
+        private final List<TestSession> closedSessions = new ArrayList<>();
+
+        @Override
+        public boolean isSessionAlive(@NotNull TestSession session) {
+            return session.alive;
+        }
+
+        @Override
+        public void closeSession(@NotNull TestSession session) {
+            closedSessions.add(session);
+        }
+    }
+}
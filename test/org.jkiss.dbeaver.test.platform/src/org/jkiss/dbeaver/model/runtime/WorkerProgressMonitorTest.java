@@ -0,0 +1,61 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.runtime;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class WorkerProgressMonitorTest {
+
+    @Test
+    public void testCancelActiveBlocks() throws Exception {
+        DBRBlockingObject outerBlock = Mockito.mock(DBRBlockingObject.class);
+        DBRBlockingObject innerBlock = Mockito.mock(DBRBlockingObject.class);
+        WorkerProgressMonitor monitor = new WorkerProgressMonitor(new VoidProgressMonitor());
+        monitor.startBlock(outerBlock, "Outer");
+        monitor.startBlock(innerBlock, "Inner");
+
+        monitor.cancel();
+        Assert.assertTrue(monitor.isCanceled());
+        Mockito.verify(innerBlock).cancelBlock(monitor, Thread.currentThread());
+        Mockito.verify(outerBlock).cancelBlock(monitor, Thread.currentThread());
+    }
+
+    @Test
+    public void testCancelFinishedBlocks() throws Exception {
+        DBRBlockingObject block = Mockito.mock(DBRBlockingObject.class);
+        WorkerProgressMonitor monitor = new WorkerProgressMonitor(new VoidProgressMonitor());
+        monitor.startBlock(block, "Block");
+        monitor.endBlock();
+
+        monitor.cancel();
+        Assert.assertTrue(monitor.isCanceled());
+        Mockito.verify(block, Mockito.never()).cancelBlock(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testParentCancel() {
+        VoidProgressMonitor parent = new VoidProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return true;
+            }
+        };
+        Assert.assertTrue(new WorkerProgressMonitor(parent).isCanceled());
+    }
+}
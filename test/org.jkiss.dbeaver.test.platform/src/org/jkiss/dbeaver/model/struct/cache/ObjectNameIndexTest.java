@@ -0,0 +1,95 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ObjectNameIndexTest {
+
+    @Test
+    public void testMaskMatching() {
+        Assert.assertTrue(ObjectNameIndex.matchesMask("customer", "cust%"));
+        Assert.assertTrue(ObjectNameIndex.matchesMask("customer", "%tom%"));
+        Assert.assertTrue(ObjectNameIndex.matchesMask("customer", "%mer"));
+        Assert.assertTrue(ObjectNameIndex.matchesMask("customer", "c_stomer"));
+        Assert.assertTrue(ObjectNameIndex.matchesMask("customer", "%"));
+        Assert.assertTrue(ObjectNameIndex.matchesMask("my_table", "my\\_table"));
+        Assert.assertFalse(ObjectNameIndex.matchesMask("myxtable", "my\\_table"));
+        Assert.assertFalse(ObjectNameIndex.matchesMask("customer", "cust"));
+        Assert.assertFalse(ObjectNameIndex.matchesMask("customer", "%tomx%"));
+        Assert.assertFalse(ObjectNameIndex.matchesMask("customer", "customer_"));
+    }
+
+    @Test
+    public void testSearch() {
+        ObjectNameIndex<String> index = new ObjectNameIndex<>();
+        for (String name : new String[]{"Customer", "CUSTOMER_ADDRESS", "order", "order_item", "item", "ab"}) {
+            index.add(name, name);
+        }
+        Assert.assertEquals(List.of("Customer", "CUSTOMER_ADDRESS"), index.find("cust%", false, 10));
+        Assert.assertEquals(List.of("Customer"), index.find("Cust%", true, 10));
+        Assert.assertEquals(List.of("item", "order_item"), index.find("%item", false, 10));
+        Assert.assertEquals(List.of("order", "order_item"), index.find("ord%", false, 10));
+        Assert.assertEquals(List.of("order"), index.find("ord%", false, 1));
+        Assert.assertEquals(List.of("ab"), index.find("ab", false, 10));
+        Assert.assertEquals(List.of("ab"), index.find("a%", false, 10));
+        Assert.assertEquals(6, index.find("%", false, 10).size());
+        Assert.assertTrue(index.find("missing%", false, 10).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        ObjectNameIndex<Object> index = new ObjectNameIndex<>();
+        Object table = new Object();
+        index.add(table, "old_name");
+        Assert.assertEquals(1, index.find("old%", false, 10).size());
+
+        index.add(table, "new_name");
+        Assert.assertTrue(index.find("old%", false, 10).isEmpty());
+        Assert.assertEquals(List.of(table), index.find("new%", false, 10));
+
+        index.remove(table);
+        Assert.assertTrue(index.find("%name", false, 10).isEmpty());
+        Assert.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testMatchesFullScan() {
+        Random random = new Random(7);
+        ObjectNameIndex<String> index = new ObjectNameIndex<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 2 + random.nextInt(12);
+            for (int k = 0; k < length; k++) {
+                name.append((char) ('a' + random.nextInt(6)));
+            }
+            names.add(name.toString());
+            index.add(name.toString(), name.toString());
+        }
+        for (String mask : new String[]{"ab%", "%cd%", "%ef", "a_c%", "%a%b%", "abcabc"}) {
+            long expected = names.stream().filter(name -> ObjectNameIndex.matchesMask(name, mask)).count();
+            Assert.assertEquals(mask, expected, index.find(mask, false, Integer.MAX_VALUE).size());
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DataSourceConnectOrchestratorTest {
+
+    private static final long CONNECT_TIME = 50;
+
+    // Current and max number of simultaneous connects by counter key
+    private final Map<String, AtomicInteger> activeConnects = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> maxConnects = new ConcurrentHashMap<>();
+
+    @Test
+    public void testConnectLimits() throws Exception {
+        DBPDriver driver1 = createDriver("driver1");
+        DBPDriver driver2 = createDriver("driver2");
+        List<DataSourceDescriptor> dataSources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            dataSources.add(createDataSource(driver1, "host" + i, null));
+            dataSources.add(createDataSource(driver2, "host" + i, null));
+        }
+
+        List<DataSourceConnectOrchestrator.ConnectResult> results =
+            new DataSourceConnectOrchestrator(3, 2, 1).connect(new VoidProgressMonitor(), dataSources);
+
+        Assert.assertEquals(dataSources.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertSame(dataSources.get(i), results.get(i).getDataSource());
+            Assert.assertTrue(results.get(i).isConnected());
+            Assert.assertNull(results.get(i).getError());
+        }
+        Assert.assertTrue(getMaxConnects("total") <= 3);
+        Assert.assertTrue(getMaxConnects("driver1") <= 2);
+        Assert.assertTrue(getMaxConnects("driver2") <= 2);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(getMaxConnects("host" + i) <= 1);
+        }
+    }
+
+    @Test
+    public void testBusyHostDoesNotBlockOtherHosts() throws Exception {
+        DBPDriver driver = createDriver("driver");
+        // Connects to the first host wait until the second host is connected
+        CountDownLatch otherHostConnected = new CountDownLatch(1);
+        List<DataSourceDescriptor> dataSources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            dataSources.add(createDataSource(driver, "busy", otherHostConnected));
+        }
+        DataSourceDescriptor otherDataSource = createDataSource(driver, "other", null);
+        Mockito.doAnswer(invocation -> {
+            otherHostConnected.countDown();
+            return true;
+        }).when(otherDataSource).connect(Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean());
+        dataSources.add(otherDataSource);
+
+        List<DataSourceConnectOrchestrator.ConnectResult> results =
+            new DataSourceConnectOrchestrator(3, 10, 1).connect(new VoidProgressMonitor(), dataSources);
+
+        for (DataSourceConnectOrchestrator.ConnectResult result : results) {
+            Assert.assertTrue(result.isConnected());
+        }
+        Assert.assertEquals(1, getMaxConnects("busy"));
+    }
+
+    @Test
+    public void testDeprecatedDriverIsNotConnected() throws Exception {
+        DBPDriver driver = createDriver("deprecated");
+        Mockito.when(driver.isDeprecated()).thenReturn(true);
+        DataSourceDescriptor dataSource = createDataSource(driver, "host", null);
+        DataSourceDescriptor otherDataSource = createDataSource(createDriver("driver"), "host", null);
+
+        List<DataSourceConnectOrchestrator.ConnectResult> results =
+            new DataSourceConnectOrchestrator(2, 2, 2).connect(new VoidProgressMonitor(), List.of(dataSource, otherDataSource));
+
+        Assert.assertFalse(results.get(0).isConnected());
+        Assert.assertTrue(results.get(0).getError() instanceof DBException);
+        Assert.assertTrue(results.get(1).isConnected());
+        Mockito.verify(dataSource, Mockito.never()).connect(Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean());
+        Mockito.verify(driver, Mockito.never()).downloadRequiredDependencies(Mockito.any());
+    }
+
+    @Test
+    public void testDriverLoadError() throws Exception {
+        DBPDriver driver = createDriver("broken");
+        Mockito.when(driver.isCustomDriverLoader()).thenReturn(false);
+        Mockito.when(driver.getDriverClassName()).thenReturn("org.example.Driver");
+        DBException loadError = new DBException("Driver class not found");
+        Mockito.doThrow(loadError).when(driver).loadDriver(Mockito.any());
+        DataSourceDescriptor dataSource1 = createDataSource(driver, "host1", null);
+        DataSourceDescriptor dataSource2 = createDataSource(driver, "host2", null);
+
+        List<DataSourceConnectOrchestrator.ConnectResult> results =
+            new DataSourceConnectOrchestrator(2, 2, 2).connect(new VoidProgressMonitor(), List.of(dataSource1, dataSource2));
+
+        for (DataSourceConnectOrchestrator.ConnectResult result : results) {
+            Assert.assertFalse(result.isConnected());
+            Assert.assertSame(loadError, result.getError());
+        }
+        // Driver is loaded once for all its data sources
+        Mockito.verify(driver, Mockito.times(1)).loadDriver(Mockito.any());
+        Mockito.verify(dataSource1, Mockito.never()).connect(Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testDuplicateDataSourceConnectedOnce() throws Exception {
+        DataSourceDescriptor dataSource = createDataSource(createDriver("driver"), "host", null);
+
+        List<DataSourceConnectOrchestrator.ConnectResult> results =
+            new DataSourceConnectOrchestrator(2, 2, 2).connect(new VoidProgressMonitor(), List.of(dataSource, dataSource));
+
+        Assert.assertEquals(1, results.size());
+        Mockito.verify(dataSource, Mockito.times(1)).connect(Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    private static DBPDriver createDriver(String name) {
+        DBPDriver driver = Mockito.mock(DBPDriver.class);
+        Mockito.when(driver.getFullName()).thenReturn(name);
+        Mockito.when(driver.getName()).thenReturn(name);
+        // Driver classes are loaded by provider, so only dependencies are downloaded
+        Mockito.when(driver.isCustomDriverLoader()).thenReturn(true);
+        return driver;
+    }
+
+    private DataSourceDescriptor createDataSource(DBPDriver driver, String host, CountDownLatch connectLatch) throws DBException {
+        DBPConnectionConfiguration configuration = new DBPConnectionConfiguration();
+        configuration.setHostName(host);
+        DataSourceDescriptor dataSource = Mockito.mock(DataSourceDescriptor.class);
+        Mockito.when(dataSource.getDriver()).thenReturn(driver);
+        Mockito.when(dataSource.getConnectionConfiguration()).thenReturn(configuration);
+        Mockito.when(dataSource.getId()).thenReturn(host + "-" + driver.getName());
+        Mockito.when(dataSource.getName()).thenReturn(host + "-" + driver.getName());
+        Mockito.when(dataSource.connect(Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean())).thenAnswer(invocation -> {
+            DBRProgressMonitor monitor = invocation.getArgument(0);
+            String[] counters = { "total", driver.getName(), host };
+            for (String counter : counters) {
+                int active = activeConnects.computeIfAbsent(counter, k -> new AtomicInteger()).incrementAndGet();
+                maxConnects.computeIfAbsent(counter, k -> new AtomicInteger()).accumulateAndGet(active, Math::max);
+            }
+            try {
+                if (connectLatch != null) {
+                    return connectLatch.await(10, TimeUnit.SECONDS) && !monitor.isCanceled();
+                }
+                Thread.sleep(CONNECT_TIME);
+                return true;
+            } finally {
+                for (String counter : counters) {
+                    activeConnects.get(counter).decrementAndGet();
+                }
+            }
+        });
+        return dataSource;
+    }
+
+    private int getMaxConnects(String counter) {
+        AtomicInteger max = maxConnects.get(counter);
+        return max == null ? 0 : max.get();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.properties;
+
+import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Compares reflective and compiled property getter calls. Not a part of the test suite.
+ * <p>
+ * Usage: {@code ObjectPropertyAccessorBenchmark [<iterations>]}
+ */
+public class ObjectPropertyAccessorBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 10_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        BenchmarkBean bean = new BenchmarkBean();
+        Object[] monitorParams = new Object[] { new VoidProgressMonitor() };
+
+        for (String getterName : new String[] { "getName", "getId", "isEnabled", "getDescription" }) {
+            Method getter = findGetter(getterName);
+            Object[] params = getter.getParameterCount() == 0 ? null : monitorParams;
+            ObjectPropertyAccessor accessor = ObjectPropertyAccessor.getAccessor(getter);
+            if (!accessor.isCompiled()) {
+                throw new IllegalStateException("Getter " + getter + " was not compiled");
+            }
+            // The first round is a warm up
+            for (int round = 0; round <= ROUNDS; round++) {
+                int hash = 0;
+                long reflectionStart = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    hash += getter.invoke(bean, params).hashCode();
+                }
+                long reflectionTime = System.nanoTime() - reflectionStart;
+
+                long compiledStart = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    hash += accessor.invoke(bean, params).hashCode();
+                }
+                long compiledTime = System.nanoTime() - compiledStart;
+
+                if (round > 0) {
+                    System.out.println(getterName + " x" + iterations + ": reflection " + (reflectionTime / 1000000) + "ms, " +
+                        "compiled " + (compiledTime / 1000000) + "ms (" + hash + ")");
+                }
+            }
+        }
+    }
+
+    private static Method findGetter(String name) {
+        for (Method method : BenchmarkBean.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Getter " + name + " not found");
+    }
+
+    public static class BenchmarkBean {
+        private int counter;
+
+        @Property
+        public String getName() {
+            return "test";
+        }
+
+        @Property
+        public int getId() {
+            return counter++;
+        }
+
+        @Property
+        public boolean isEnabled() {
+            return (counter++ & 1) == 0;
+        }
+
+        @Property
+        public String getDescription(DBRProgressMonitor monitor) {
+            return monitor.isCanceled() ? "canceled" : "description";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.properties;
+
+import org.jkiss.dbeaver.ext.postgresql.model.*;
+import org.jkiss.dbeaver.model.meta.Property;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+public class ObjectPropertyAccessorTest {
+
+    private static final List<Class<?>> POSTGRE_MODEL_CLASSES = List.of(
+        PostgreSchema.class,
+        PostgreTable.class,
+        PostgreTableColumn.class,
+        PostgreIndex.class,
+        PostgreTableConstraint.class,
+        PostgreTableForeignKey.class,
+        PostgreSequence.class,
+        PostgreProcedure.class,
+        PostgreDataType.class,
+        PostgreRole.class
+    );
+
+    @Test
+    public void testPostgreModelGettersAreCompiled() {
+        for (ObjectPropertyDescriptor prop : ObjectAttributeDescriptor.extractAnnotations(null, POSTGRE_MODEL_CLASSES, null)) {
+            Method getter = prop.getGetter();
+            if (prop.getParent() == null && (getter.getParameterCount() == 0 || prop.isLazy() && getter.getParameterCount() == 1)) {
+                Assert.assertTrue("Getter is not compiled: " + getter, prop.getAccessor().isCompiled());
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledAccessMatchesReflection() throws Exception {
+        PostgreTableColumn column = Mockito.mock(PostgreTableColumn.class);
+        Mockito.when(column.getName()).thenReturn("column1");
+        Mockito.when(column.getOrdinalPosition()).thenReturn(3);
+        for (String getterName : new String[] { "getName", "getOrdinalPosition", "isRequired" }) {
+            Method getter = PostgreTableColumn.class.getMethod(getterName);
+            ObjectPropertyAccessor accessor = ObjectPropertyAccessor.getAccessor(getter);
+            Assert.assertTrue(accessor.isCompiled());
+            Assert.assertEquals(getter.invoke(column), accessor.invoke(column, null));
+        }
+    }
+
+    @Test
+    public void testAccessorIsCached() throws Exception {
+        Method getter = PostgreTableColumn.class.getMethod("getName");
+        Assert.assertSame(ObjectPropertyAccessor.getAccessor(getter), ObjectPropertyAccessor.getAccessor(getter));
+    }
+
+    @Test
+    public void testWrongTargetIsRejected() throws Exception {
+        ObjectPropertyAccessor accessor = ObjectPropertyAccessor.getAccessor(TestBean.class.getMethod("getName"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> accessor.invoke("string", null));
+    }
+
+    public static class TestBean {
+        @Property
+        public String getName() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DataTransferPipelinedReceiverTest {
+
+    private final TestMonitor monitor = new TestMonitor();
+    private DBCSession producerSession;
+    private DBCResultSet sourceResultSet;
+    private volatile Object currentValue;
+    private volatile DBRProgressMonitor consumerMonitor;
+
+    private static class TestMonitor extends VoidProgressMonitor {
+        private volatile boolean canceled;
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+    }
+
+    private static class RecordingReceiver implements DBDDataReceiver {
+        private final List<Object> values = Collections.synchronizedList(new ArrayList<>());
+        private final List<DBCSession> sessions = Collections.synchronizedList(new ArrayList<>());
+        private int failAtRow = -1;
+        private CountDownLatch blocker;
+        private boolean fetchEndCalled;
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) {
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            if (blocker != null) {
+                try {
+                    blocker.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new DBCException("Interrupted", e);
+                }
+            }
+            if (values.size() == failAtRow) {
+                throw new DBCException("Target error");
+            }
+            sessions.add(session);
+            values.add(resultSet.getAttributeValue(0));
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+            fetchEndCalled = true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Before
+    public void init() throws DBCException {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        DBPDataSourceInfo dataSourceInfo = Mockito.mock(DBPDataSourceInfo.class);
+        Mockito.when(dataSource.getInfo()).thenReturn(dataSourceInfo);
+        DBDValueHandler valueHandler = Mockito.mock(DBDValueHandler.class);
+        Mockito.when(valueHandler.fetchValueObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt()))
+            .thenAnswer(invocation -> ((DBCResultSet) invocation.getArgument(1)).getAttributeValue((int) invocation.getArgument(3)));
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(valueHandler);
+
+        DBCSession consumerSession = Mockito.mock(DBCSession.class);
+        Mockito.when(consumerSession.getProgressMonitor()).thenAnswer(invocation -> consumerMonitor);
+        Mockito.when(consumerSession.getDataSource()).thenReturn(dataSource);
+        DBCExecutionContext context = Mockito.mock(DBCExecutionContext.class);
+        Mockito.when(context.openSession(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            consumerMonitor = invocation.getArgument(0);
+            return consumerSession;
+        });
+
+        producerSession = Mockito.mock(DBCSession.class);
+        Mockito.when(producerSession.getProgressMonitor()).thenReturn(monitor);
+        Mockito.when(producerSession.getDataSource()).thenReturn(dataSource);
+        Mockito.when(producerSession.getExecutionContext()).thenReturn(context);
+        Mockito.when(producerSession.getPurpose()).thenReturn(DBCExecutionPurpose.UTIL);
+
+        DBCAttributeMetaData attribute = Mockito.mock(DBCAttributeMetaData.class);
+        Mockito.when(attribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(attribute.getName()).thenReturn("id");
+        DBCResultSetMetaData meta = Mockito.mock(DBCResultSetMetaData.class);
+        Mockito.when(meta.getAttributes()).thenReturn(List.of(attribute));
+        sourceResultSet = Mockito.mock(DBCResultSet.class);
+        Mockito.when(sourceResultSet.getMeta()).thenReturn(meta);
+        Mockito.when(sourceResultSet.getAttributeValue(0)).thenAnswer(invocation -> currentValue);
+    }
+
+    @Test
+    public void testAllRowsTransferred() throws DBCException {
+        RecordingReceiver target = new RecordingReceiver();
+        DataTransferPipelinedReceiver receiver = new DataTransferPipelinedReceiver(target, 100, 2);
+        transfer(receiver, 1050);
+        receiver.checkTransferError();
+
+        Assert.assertEquals(1050, target.values.size());
+        for (int i = 0; i < target.values.size(); i++) {
+            Assert.assertEquals(i, target.values.get(i));
+        }
+        Assert.assertTrue(target.fetchEndCalled);
+        // Consumer works in its own session
+        Assert.assertFalse(target.sessions.contains(producerSession));
+        Assert.assertNotSame(monitor, target.sessions.get(0).getProgressMonitor());
+    }
+
+    @Test
+    public void testConsumerErrorInLastBatch() throws DBCException {
+        RecordingReceiver target = new RecordingReceiver();
+        target.failAtRow = 5;
+        // Whole table fits in one partial batch, so the error can be reported only on fetch end
+        DataTransferPipelinedReceiver receiver = new DataTransferPipelinedReceiver(target, 100, 2);
+        receiver.fetchStart(producerSession, sourceResultSet, 0, -1);
+        for (int i = 0; i < 10; i++) {
+            currentValue = i;
+            receiver.fetchRow(producerSession, sourceResultSet);
+        }
+        try {
+            receiver.fetchEnd(producerSession, sourceResultSet);
+            Assert.fail("Consumer error was not reported by fetchEnd");
+        } catch (DBCException e) {
+            // expected
+        } finally {
+            receiver.close();
+        }
+        Assert.assertFalse(target.fetchEndCalled);
+        // Data containers may swallow fetchEnd errors, so error must be available after the read
+        Assert.assertThrows(DBCException.class, receiver::checkTransferError);
+    }
+
+    @Test
+    public void testConsumerErrorReportedOnFetchRow() throws DBCException {
+        RecordingReceiver target = new RecordingReceiver();
+        target.failAtRow = 0;
+        DataTransferPipelinedReceiver receiver = new DataTransferPipelinedReceiver(target, 1, 1);
+        receiver.fetchStart(producerSession, sourceResultSet, 0, -1);
+        try {
+            Assert.assertThrows(DBCException.class, () -> {
+                for (int i = 0; i < 1000; i++) {
+                    currentValue = i;
+                    receiver.fetchRow(producerSession, sourceResultSet);
+                }
+            });
+        } finally {
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void testCancelFailsTransfer() throws DBCException {
+        RecordingReceiver target = new RecordingReceiver();
+        target.blocker = new CountDownLatch(1);
+        DataTransferPipelinedReceiver receiver = new DataTransferPipelinedReceiver(target, 1, 1);
+        receiver.fetchStart(producerSession, sourceResultSet, 0, -1);
+        try {
+            currentValue = 0;
+            receiver.fetchRow(producerSession, sourceResultSet);
+            currentValue = 1;
+            receiver.fetchRow(producerSession, sourceResultSet);
+            monitor.canceled = true;
+            // Queue is full and consumer is busy, batch can't be queued
+            Assert.assertThrows(DBCException.class, () -> {
+                currentValue = 2;
+                receiver.fetchRow(producerSession, sourceResultSet);
+            });
+        } finally {
+            target.blocker.countDown();
+            receiver.fetchEnd(producerSession, sourceResultSet);
+            receiver.close();
+        }
+        Assert.assertFalse(target.values.contains(2));
+    }
+
+    private void transfer(DataTransferPipelinedReceiver receiver, int rowCount) throws DBCException {
+        try {
+            receiver.fetchStart(producerSession, sourceResultSet, 0, -1);
+            for (int i = 0; i < rowCount; i++) {
+                currentValue = i;
+                receiver.fetchRow(producerSession, sourceResultSet);
+            }
+            receiver.fetchEnd(producerSession, sourceResultSet);
+        } finally {
+            receiver.close();
+        }
+    }
+}
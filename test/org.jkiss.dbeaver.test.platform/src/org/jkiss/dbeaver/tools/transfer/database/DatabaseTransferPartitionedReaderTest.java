@@ -0,0 +1,276 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.sql.SQLDialectQueryGenerator;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseTransferPartitionedReaderTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private final ThreadLocal<Object> currentValue = new ThreadLocal<>();
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Integer, DBRProgressMonitor> contextMonitors = Collections.synchronizedMap(new HashMap<>());
+    private final Map<Integer, DBRProgressMonitor> sessionMonitors = Collections.synchronizedMap(new HashMap<>());
+    private final CountDownLatch lastPartitionRead = new CountDownLatch(1);
+    private final List<DBCExecutionContext> partitionContexts = new ArrayList<>();
+
+    private DBPDataSource dataSource;
+    private DBSEntity table;
+    private DBSEntityAttribute keyAttribute;
+    private DBCSession session;
+    private DatabaseProducerSettings settings;
+
+    @Before
+    public void init() throws Exception {
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getQuotedIdentifier(Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        SQLDialectQueryGenerator queryGenerator = Mockito.mock(SQLDialectQueryGenerator.class);
+        Mockito.when(dialect.getQueryGenerator()).thenReturn(queryGenerator);
+        Mockito.doAnswer(invocation -> {
+            StringBuilder query = invocation.getArgument(1);
+            query.append(" WHERE ").append(((DBDDataFilter) invocation.getArgument(3)).getWhere());
+            return null;
+        }).when(queryGenerator).appendQueryConditions(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+
+        dataSource = Mockito.mock(
+            DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class, DBSObjectContainer.class));
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        Mockito.when(dataSource.getInfo()).thenReturn(Mockito.mock(DBPDataSourceInfo.class));
+        DBDValueHandler valueHandler = Mockito.mock(DBDValueHandler.class);
+        Mockito.when(valueHandler.fetchValueObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt()))
+            .thenAnswer(invocation -> currentValue.get());
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(valueHandler);
+
+        keyAttribute = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(keyAttribute.getName()).thenReturn("ID");
+        Mockito.when(keyAttribute.getDataSource()).thenReturn(dataSource);
+        Mockito.when(keyAttribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(keyAttribute.isRequired()).thenReturn(true);
+
+        DBCAttributeMetaData metaAttribute = Mockito.mock(DBCAttributeMetaData.class);
+        Mockito.when(metaAttribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        DBCResultSetMetaData meta = Mockito.mock(DBCResultSetMetaData.class);
+        Mockito.when(meta.getAttributes()).thenReturn(List.of(metaAttribute));
+        DBCResultSet partitionResultSet = Mockito.mock(DBCResultSet.class);
+        Mockito.when(partitionResultSet.getMeta()).thenReturn(meta);
+
+        // Partition 0 reads rows 1..5, partition 1 reads rows 6..10
+        DBSInstance instance = Mockito.mock(DBSInstance.class);
+        Mockito.when(dataSource.getDefaultInstance()).thenReturn(instance);
+        for (int i = 0; i < 2; i++) {
+            int partition = i;
+            DBCSession partitionSession = Mockito.mock(DBCSession.class);
+            Mockito.when(partitionSession.getDataSource()).thenReturn(dataSource);
+            DBCExecutionContext context = Mockito.mock(DBCExecutionContext.class);
+            Mockito.when(context.getDataSource()).thenReturn(dataSource);
+            partitionContexts.add(context);
+            Mockito.when(context.openSession(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+                sessionMonitors.put(partition, invocation.getArgument(0));
+                return partitionSession;
+            });
+            Mockito.when(instance.openIsolatedContext(Mockito.any(), Mockito.eq("Data transfer partition " + (partition + 1)), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    contextMonitors.put(partition, invocation.getArgument(0));
+                    return context;
+                });
+        }
+
+        table = Mockito.mock(DBSEntity.class, Mockito.withSettings().extraInterfaces(DBSDataContainer.class, DBPQualifiedObject.class));
+        Mockito.when(table.getName()).thenReturn("TEST");
+        Mockito.when(table.getDataSource()).thenReturn(dataSource);
+        Mockito.when(((DBPQualifiedObject) table).getFullyQualifiedName(Mockito.any())).thenReturn("TEST");
+        Mockito.doReturn(List.of(keyAttribute)).when(table).getAttributes(Mockito.any());
+        Mockito.doReturn(keyAttribute).when(table).getAttribute(Mockito.any(), Mockito.eq("ID"));
+        Mockito.when(((DBSDataContainer) table).readData(
+            Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt())).thenAnswer(invocation -> {
+            DBCSession partitionSession = invocation.getArgument(1);
+            DBDDataReceiver receiver = invocation.getArgument(2);
+            DBDDataFilter filter = invocation.getArgument(3);
+            queries.add(filter.getWhere() + " ORDER BY " + filter.getOrder());
+            boolean first = filter.getWhere().contains("ID<6");
+            if (first) {
+                // The first partition is slower than the last one
+                Assert.assertTrue(lastPartitionRead.await(10, TimeUnit.SECONDS));
+            }
+            receiver.fetchStart(partitionSession, partitionResultSet, 0, -1);
+            for (long value = first ? 1 : 6; value <= (first ? 5 : 10); value++) {
+                currentValue.set(value);
+                receiver.fetchRow(partitionSession, partitionResultSet);
+            }
+            receiver.fetchEnd(partitionSession, partitionResultSet);
+            if (!first) {
+                lastPartitionRead.countDown();
+            }
+            return new DBCStatistics();
+        });
+
+        // Key range query
+        DBCResultSet rangeResultSet = Mockito.mock(DBCResultSet.class);
+        Mockito.when(rangeResultSet.nextRow()).thenReturn(true);
+        Mockito.when(rangeResultSet.getAttributeValue(0)).thenReturn(1L);
+        Mockito.when(rangeResultSet.getAttributeValue(1)).thenReturn(10L);
+        DBCStatement rangeStatement = Mockito.mock(DBCStatement.class);
+        Mockito.when(rangeStatement.openResultSet()).thenReturn(rangeResultSet);
+        session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        Mockito.when(session.prepareStatement(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> {
+                queries.add(invocation.getArgument(1));
+                return rangeStatement;
+            });
+
+        settings = new DatabaseProducerSettings();
+        settings.setPartitionCount(2);
+        settings.setPartitionColumn("ID");
+        settings.setPartitionPreserveOrder(true);
+    }
+
+    @Test
+    public void testPreserveOrder() throws Exception {
+        DBDDataFilter dataFilter = new DBDDataFilter();
+        dataFilter.setWhere("NAME IS NOT NULL");
+        DatabaseTransferPartitionedReader reader = DatabaseTransferPartitionedReader.create(monitor, (DBSDataContainer) table, dataFilter, settings, 0);
+        Assert.assertNotNull(reader);
+
+        RecordingReceiver receiver = new RecordingReceiver();
+        DBCStatistics statistics = reader.readData(monitor, session, Mockito.mock(DBCExecutionSource.class), receiver);
+        Assert.assertNotNull(statistics);
+
+        Assert.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), receiver.values);
+        // Key range is read with the same filter as partitions
+        Assert.assertEquals("SELECT MIN(ID), MAX(ID) FROM TEST WHERE NAME IS NOT NULL", queries.get(0));
+        Assert.assertTrue(queries.contains("(NAME IS NOT NULL) AND (ID<6) ORDER BY ID"));
+        Assert.assertTrue(queries.contains("(NAME IS NOT NULL) AND (ID>=6) ORDER BY ID"));
+        // Rows are served in the caller session, partition sessions are already closed
+        Assert.assertSame(session, receiver.resultSet.getSession());
+        Assert.assertNull(receiver.resultSet.getSourceStatement());
+        Assert.assertTrue(receiver.fetchEndCalled);
+    }
+
+    @Test
+    public void testPartitionMonitors() throws Exception {
+        settings.setPartitionPreserveOrder(false);
+        DatabaseTransferPartitionedReader reader = DatabaseTransferPartitionedReader.create(monitor, (DBSDataContainer) table, null, settings, 0);
+        Assert.assertNotNull(reader);
+        RecordingReceiver receiver = new RecordingReceiver();
+        reader.readData(monitor, session, Mockito.mock(DBCExecutionSource.class), receiver);
+
+        Assert.assertEquals(10, receiver.values.size());
+        Assert.assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), new HashSet<>(receiver.values));
+        Assert.assertEquals(2, contextMonitors.size());
+        for (int i = 0; i < 2; i++) {
+            Assert.assertNotSame(monitor, contextMonitors.get(i));
+            Assert.assertSame(contextMonitors.get(i), sessionMonitors.get(i));
+        }
+        Assert.assertNotSame(contextMonitors.get(0), contextMonitors.get(1));
+    }
+
+    @Test
+    public void testPartitionContextDefaults() throws Exception {
+        DBSSchema schema = Mockito.mock(DBSSchema.class);
+        Mockito.doReturn(schema).when((DBSObjectContainer) dataSource).getChild(Mockito.any(), Mockito.eq("PUBLIC"));
+        List<DBCExecutionContextDefaults<DBSCatalog, DBSSchema>> contextDefaults = new ArrayList<>();
+        for (DBCExecutionContext context : partitionContexts) {
+            @SuppressWarnings("unchecked")
+            DBCExecutionContextDefaults<DBSCatalog, DBSSchema> defaults = Mockito.mock(DBCExecutionContextDefaults.class);
+            Mockito.when(defaults.supportsSchemaChange()).thenReturn(true);
+            Mockito.doReturn(defaults).when(context).getContextDefaults();
+            contextDefaults.add(defaults);
+        }
+
+        settings.setPartitionPreserveOrder(false);
+        DatabaseTransferPartitionedReader reader = DatabaseTransferPartitionedReader.create(monitor, (DBSDataContainer) table, null, settings, 0);
+        Assert.assertNotNull(reader);
+        reader.setContextDefaults(null, "PUBLIC");
+        RecordingReceiver receiver = new RecordingReceiver();
+        reader.readData(monitor, session, Mockito.mock(DBCExecutionSource.class), receiver);
+
+        Assert.assertEquals(10, receiver.values.size());
+        for (DBCExecutionContextDefaults<DBSCatalog, DBSSchema> defaults : contextDefaults) {
+            Mockito.verify(defaults).setDefaultSchema(Mockito.any(), Mockito.same(schema));
+        }
+    }
+
+    @Test
+    public void testPreserveOrderNotSupported() throws Exception {
+        DBDDataFilter orderedFilter = new DBDDataFilter();
+        orderedFilter.setOrder("NAME");
+        Assert.assertNull(DatabaseTransferPartitionedReader.create(monitor, (DBSDataContainer) table, orderedFilter, settings, 0));
+
+        Mockito.when(keyAttribute.isRequired()).thenReturn(false);
+        Assert.assertNull(DatabaseTransferPartitionedReader.create(monitor, (DBSDataContainer) table, null, settings, 0));
+
+        settings.setPartitionPreserveOrder(false);
+        Assert.assertNotNull(DatabaseTransferPartitionedReader.create(monitor, (DBSDataContainer) table, null, settings, 0));
+    }
+
+    private static class RecordingReceiver implements DBDDataReceiver {
+        private final List<Object> values = new ArrayList<>();
+        private DBCResultSet resultSet;
+        private boolean fetchEndCalled;
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) {
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            values.add(resultSet.getAttributeValue(0));
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+            fetchEndCalled = true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StreamAsyncWriterTest {
+
+    // Larger than several writer buffers
+    private static final int TEXT_LENGTH = 300_000;
+
+    @Test(timeout = 10000)
+    public void testDrainWritesPendingData() throws IOException {
+        String text = makeText(TEXT_LENGTH);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamAsyncWriter writer = new StreamAsyncWriter(out, StandardCharsets.UTF_8, "test");
+        try {
+            writer.write(text);
+            writer.drain();
+            Assert.assertEquals(text, out.toString(StandardCharsets.UTF_8));
+            Assert.assertEquals(out.size(), writer.getEstimatedBytesWritten());
+
+            // Raw output goes after drained text
+            out.write('|');
+            writer.write("tail");
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals(text + "|tail", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test(timeout = 10000)
+    public void testFileSplit() throws IOException {
+        String text = makeText(TEXT_LENGTH);
+        long maxFileSize = 100_000;
+        ByteArrayOutputStream firstFile = new ByteArrayOutputStream();
+        ByteArrayOutputStream secondFile = new ByteArrayOutputStream();
+
+        StreamAsyncWriter writer = new StreamAsyncWriter(firstFile, StandardCharsets.UTF_8, "test");
+        int pos = 0;
+        while (pos < text.length() && writer.getEstimatedBytesWritten() < maxFileSize) {
+            writer.write(text, pos, 1000);
+            pos += 1000;
+        }
+        Assert.assertTrue(pos < text.length());
+        writer.close();
+        // Estimation is exact once all data is written
+        Assert.assertEquals(firstFile.size(), writer.getEstimatedBytesWritten());
+
+        writer = new StreamAsyncWriter(secondFile, StandardCharsets.UTF_8, "test");
+        writer.write(text, pos, text.length() - pos);
+        writer.close();
+
+        Assert.assertEquals(
+            text,
+            firstFile.toString(StandardCharsets.UTF_8) + secondFile.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test(timeout = 10000)
+    public void testWriteError() {
+        OutputStream failingStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        StreamAsyncWriter writer = new StreamAsyncWriter(failingStream, StandardCharsets.UTF_8, "test");
+        String text = makeText(TEXT_LENGTH);
+        IOException error = Assert.assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                writer.write(text);
+            }
+            writer.drain();
+        });
+        Assert.assertEquals("Disk full", error.getMessage());
+        // Close must not hang after writer thread failure
+        Assert.assertThrows(IOException.class, writer::close);
+    }
+
+    @Test(timeout = 10000)
+    public void testAbort() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch writeReleased = new CountDownLatch(1);
+        boolean[] streamClosed = new boolean[1];
+        OutputStream blockingStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeStarted.countDown();
+                try {
+                    writeReleased.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+
+            @Override
+            public void close() {
+                streamClosed[0] = true;
+            }
+        };
+        StreamAsyncWriter writer = new StreamAsyncWriter(blockingStream, StandardCharsets.UTF_8, "test");
+        String text = makeText(TEXT_LENGTH);
+        writer.write(text);
+        Assert.assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        // Writer thread is blocked on output. Abort must stop it and discard pending data.
+        writer.abort();
+        Assert.assertThrows(IOException.class, () -> writer.write(text));
+        Assert.assertFalse(streamClosed[0]);
+        // Close after abort does nothing
+        writer.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testAbortIdleWriter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamAsyncWriter writer = new StreamAsyncWriter(out, StandardCharsets.UTF_8, "test");
+        writer.write("data");
+        writer.abort();
+        Assert.assertEquals(0, out.size());
+        Assert.assertThrows(IOException.class, writer::drain);
+    }
+
+    private static String makeText(int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; text.length() < length; i++) {
+            // Mix single and multibyte characters
+            text.append("row ").append(i).append(", \u00e4\u00f6\u00fc \u20ac ").append(i % 7).append('\n');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import org.jkiss.utils.rest.BinaryJsonReader;
+import org.jkiss.utils.rest.BinaryJsonWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryJsonTest {
+
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    @Test
+    public void testValues() throws IOException {
+        String json = "{\"string\":\"text \\u00e9\",\"long\":-1234567890123,\"small\":-1,\"double\":1.5," +
+            "\"big\":12345678901234567890.123,\"true\":true,\"false\":false,\"null\":null," +
+            "\"array\":[1,\"a\",[],{}],\"empty\":\"\"}";
+        JsonElement element = JsonParser.parseString(json);
+        Assert.assertEquals(element, readBinary(writeBinary(element, GSON)));
+    }
+
+    @Test
+    public void testObjects() throws IOException {
+        Type type = new TypeToken<List<Map<String, Object>>>() {}.getType();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (double) i);
+            row.put("name", "Object " + (i % 10));
+            row.put("value", i % 2 == 0 ? null : "value");
+            rows.add(row);
+        }
+        byte[] binary = writeBinary(rows, GSON);
+        List<Map<String, Object>> result = GSON.fromJson(readBinary(binary), type);
+        Assert.assertEquals(rows, result);
+
+        // Repeated names and strings are written once
+        int jsonLength = GSON.toJson(rows).getBytes(StandardCharsets.UTF_8).length;
+        Assert.assertTrue("Binary size " + binary.length + " vs JSON size " + jsonLength, binary.length * 2 < jsonLength);
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        long[] values = {0, 1, -1, 63, -64, 64, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        long[] result = GSON.fromJson(readBinary(writeBinary(values, GSON)), long[].class);
+        Assert.assertArrayEquals(values, result);
+
+        BigDecimal decimal = new BigDecimal("-12345678901234567890.000001");
+        Assert.assertEquals(decimal, GSON.fromJson(readBinary(writeBinary(decimal, GSON)), BigDecimal.class));
+        Assert.assertEquals(Double.valueOf(0.1), GSON.fromJson(readBinary(writeBinary(0.1, GSON)), Double.class));
+    }
+
+    @Test
+    public void testSkipNulls() throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", null);
+        map.put("b", "value");
+        JsonElement element = readBinary(writeBinary(map, new Gson()));
+        Assert.assertEquals(JsonParser.parseString("{\"b\":\"value\"}"), element);
+    }
+
+    @Test
+    public void testStreamingRead() throws IOException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("id", "object-1");
+        request.put("text", "quote \" backslash \\ tab \t line\n \u0001");
+        request.put("args", List.of(1, "two", Map.of("three", 3.5)));
+        request.put("nan", Double.NaN);
+        byte[] binary = writeBinary(request, new GsonBuilder().serializeSpecialFloatingPointValues().create());
+
+        // Read directly from the stream, the same way as REST server reads requests
+        Type type = new TypeToken<Map<String, JsonElement>>() {}.getType();
+        Map<String, JsonElement> result = GSON.fromJson(new BinaryJsonReader(new ByteArrayInputStream(binary)), type);
+        Assert.assertEquals(request.keySet(), result.keySet());
+        Assert.assertEquals("object-1", result.get("id").getAsString());
+        Assert.assertEquals(request.get("text"), result.get("text").getAsString());
+        Assert.assertEquals(JsonParser.parseString("[1,\"two\",{\"three\":3.5}]"), result.get("args"));
+        Assert.assertTrue(Double.isNaN(result.get("nan").getAsDouble()));
+    }
+
+    @Test
+    public void testBadData() throws IOException {
+        byte[] binary = writeBinary(List.of("value"), GSON);
+        byte[] badHeader = binary.clone();
+        badHeader[0] = 'X';
+        Assert.assertThrows(JsonSyntaxException.class, () -> readBinary(badHeader));
+        byte[] truncated = Arrays.copyOf(binary, binary.length - 1);
+        Assert.assertThrows(JsonSyntaxException.class, () -> readBinary(truncated));
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        Assert.assertTrue(BinaryJsonReader.read(new ByteArrayInputStream(new byte[0])).isJsonNull());
+    }
+
+    private static byte[] writeBinary(Object value, Gson gson) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (BinaryJsonWriter writer = new BinaryJsonWriter(buffer)) {
+            if (value instanceof JsonElement) {
+                gson.toJson((JsonElement) value, writer);
+            } else {
+                gson.toJson(value, value.getClass(), writer);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private static JsonElement readBinary(byte[] data) throws IOException {
+        return BinaryJsonReader.read(new ByteArrayInputStream(data));
+    }
+}
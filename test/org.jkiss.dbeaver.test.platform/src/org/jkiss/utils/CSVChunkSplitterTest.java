@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.utils.csv.CSVChunkSplitter;
+import org.jkiss.utils.csv.CSVTokenizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CSVChunkSplitterTest {
+
+    private final CSVChunkSplitter splitter = new CSVChunkSplitter(',', '"', '\\');
+
+    @Test
+    public void testChunksStartAtRecordBoundaries() throws IOException {
+        byte[] data = "a,b\n\"1\n2\",3\n4,\"5,\"\"6\"\"\"\n7,8\n9,10\n".getBytes(StandardCharsets.UTF_8);
+        long[] boundaries = splitter.split(new ByteArrayInputStream(data), data.length, 4, false);
+        Assert.assertEquals(0, boundaries[0]);
+        Assert.assertEquals(data.length, boundaries[boundaries.length - 1]);
+        for (int i = 1; i < boundaries.length - 1; i++) {
+            Assert.assertTrue(boundaries[i] > boundaries[i - 1]);
+            Assert.assertEquals('\n', data[(int) boundaries[i] - 1]);
+        }
+        Assert.assertEquals(parse(data, 0, data.length), parseChunks(data, boundaries));
+    }
+
+    @Test
+    public void testSkipHeader() throws IOException {
+        byte[] data = "id,name\n1,a\n2,b\n".getBytes(StandardCharsets.UTF_8);
+        long[] boundaries = splitter.split(new ByteArrayInputStream(data), data.length, 2, true);
+        Assert.assertEquals(8, boundaries[0]);
+        Assert.assertEquals(Arrays.asList(List.of("1", "a"), List.of("2", "b")), parseChunks(data, boundaries));
+
+        byte[] headerOnly = "id,name\n".getBytes(StandardCharsets.UTF_8);
+        boundaries = splitter.split(new ByteArrayInputStream(headerOnly), headerOnly.length, 2, true);
+        Assert.assertArrayEquals(new long[]{headerOnly.length, headerOnly.length}, boundaries);
+    }
+
+    @Test
+    public void testCharsetSupport() {
+        Assert.assertTrue(splitter.isCharsetSupported(StandardCharsets.UTF_8));
+        Assert.assertTrue(splitter.isCharsetSupported(StandardCharsets.ISO_8859_1));
+        Assert.assertFalse(splitter.isCharsetSupported(StandardCharsets.UTF_16));
+        Assert.assertFalse(splitter.isCharsetSupported(StandardCharsets.UTF_16LE));
+        if (Charset.isSupported("Shift_JIS")) {
+            // Multibyte encoding where trail bytes may look like ASCII characters
+            Assert.assertFalse(splitter.isCharsetSupported(Charset.forName("Shift_JIS")));
+        }
+    }
+
+    @Test
+    public void testSplitMatchesWholeFileParse() throws IOException {
+        Random random = new Random(2);
+        String[] alphabet = {"a", "b", " ", ",", "\"", "\\", "\n", "\r", "x", "é", "中"};
+        for (int iteration = 0; iteration < 20000; iteration++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(60); i > 0; i--) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+            List<List<String>> records;
+            try {
+                records = parse(data, 0, data.length);
+            } catch (IOException e) {
+                // Un-terminated quote
+                continue;
+            }
+            boolean skipHeader = random.nextBoolean();
+            long[] boundaries = splitter.split(new ByteArrayInputStream(data), data.length, 1 + random.nextInt(6), skipHeader);
+            List<List<String>> expected = skipHeader && !records.isEmpty() ? records.subList(1, records.size()) : records;
+            Assert.assertEquals(text.toString(), expected, parseChunks(data, boundaries));
+        }
+    }
+
+    private static List<List<String>> parseChunks(byte[] data, long[] boundaries) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            records.addAll(parse(data, (int) boundaries[i], (int) boundaries[i + 1]));
+        }
+        return records;
+    }
+
+    private static List<List<String>> parse(byte[] data, int from, int to) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(data, from, to - from), StandardCharsets.UTF_8);
+        try (CSVTokenizer tokenizer = new CSVTokenizer(reader, ',', '"', '\\', 16)) {
+            while (tokenizer.nextRecord()) {
+                List<String> record = new ArrayList<>();
+                for (int i = 0; i < tokenizer.getFieldCount(); i++) {
+                    record.add(tokenizer.getField(i));
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
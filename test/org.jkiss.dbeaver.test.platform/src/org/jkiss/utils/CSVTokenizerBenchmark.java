@@ -0,0 +1,128 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.utils.csv.CSVReader;
+import org.jkiss.utils.csv.CSVTokenizer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares CSVReader and CSVTokenizer parse speed. Not a part of the test suite.
+ * <p>
+ * Usage: {@code CSVTokenizerBenchmark [<size in chars> | <CSV file path>]}.
+ * Without arguments parses 1G chars of generated data. Generated data is never kept in memory,
+ * so multi-GB runs are possible.
+ */
+public class CSVTokenizerBenchmark {
+
+    private static final long DEFAULT_DATA_SIZE = 1024L * 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        Path file = null;
+        long dataSize = DEFAULT_DATA_SIZE;
+        if (args.length > 0) {
+            if (args[0].chars().allMatch(Character::isDigit)) {
+                dataSize = Long.parseLong(args[0]);
+            } else {
+                file = Path.of(args[0]);
+            }
+        }
+        String source = file != null ? file.toString() : dataSize + " generated chars";
+
+        long startTime = System.currentTimeMillis();
+        long readerRecords = 0;
+        try (CSVReader reader = new CSVReader(openSource(file, dataSize), ',', '"', '\\')) {
+            while (reader.readNext() != null) {
+                readerRecords++;
+            }
+        }
+        long readerTime = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        long tokenizerRecords = 0;
+        long checksum = 0;
+        try (CSVTokenizer tokenizer = new CSVTokenizer(openSource(file, dataSize), ',', '"', '\\')) {
+            while (tokenizer.nextRecord()) {
+                tokenizerRecords++;
+                // Materialize a single column, like an import which maps only some of columns
+                if (tokenizer.getFieldCount() > 1) {
+                    checksum += tokenizer.getField(1).length();
+                }
+            }
+        }
+        long tokenizerTime = System.currentTimeMillis() - startTime;
+
+        if (readerRecords != tokenizerRecords) {
+            throw new IllegalStateException("Record count mismatch: CSVReader " + readerRecords + ", CSVTokenizer " + tokenizerRecords);
+        }
+        System.out.println("CSV parse of " + source + ", " + tokenizerRecords + " records (" + checksum + "): " +
+            "CSVReader " + readerTime + "ms, CSVTokenizer " + tokenizerTime + "ms");
+    }
+
+    private static Reader openSource(Path file, long dataSize) throws IOException {
+        return file != null ? Files.newBufferedReader(file, StandardCharsets.UTF_8) : new GeneratedDataReader(dataSize);
+    }
+
+    /**
+     * Generates CSV data of the specified size without keeping it in memory
+     */
+    private static class GeneratedDataReader extends Reader {
+        private static final String[] RECORDS = {
+            "1,John Smith,\"12 Main St, Springfield\",2023-01-15 10:20:30,1234.56\n",
+            "2,\"Jane \"\"JJ\"\" Doe\",Elm St 5,2022-12-01 00:00:00,-0.5\n",
+            "3,Bob,\"multi\nline\",2021-06-30 23:59:59,0\n",
+        };
+        private final long size;
+        private long position;
+        private int recordIndex;
+        private int recordOffset;
+
+        GeneratedDataReader(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= size && recordOffset == 0) {
+                return -1;
+            }
+            int count = 0;
+            while (count < length && (position < size || recordOffset > 0)) {
+                String record = RECORDS[recordIndex];
+                int chunk = Math.min(length - count, record.length() - recordOffset);
+                record.getChars(recordOffset, recordOffset + chunk, buffer, offset + count);
+                count += chunk;
+                position += chunk;
+                recordOffset += chunk;
+                if (recordOffset == record.length()) {
+                    recordOffset = 0;
+                    recordIndex = (recordIndex + 1) % RECORDS.length;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
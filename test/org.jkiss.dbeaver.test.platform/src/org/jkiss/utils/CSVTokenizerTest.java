@@ -0,0 +1,132 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.utils.csv.CSVReader;
+import org.jkiss.utils.csv.CSVTokenizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CSVTokenizerTest {
+
+    @Test
+    public void testSimpleRecords() throws IOException {
+        List<List<String>> records = parse("a,b,c\n1,,3\r\nx", ',', '"', 32);
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), records.get(0));
+        Assert.assertEquals(Arrays.asList("1", "", "3"), records.get(1));
+        Assert.assertEquals(List.of("x"), records.get(2));
+    }
+
+    @Test
+    public void testQuotedFields() throws IOException {
+        List<List<String>> records = parse("\"a,b\",\"say \"\"hi\"\"\",\"x\\\"y\"\n'q'", ',', '"', 32);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals(Arrays.asList("a,b", "say \"hi\"", "x\"y"), records.get(0));
+        Assert.assertEquals(List.of("'q'"), records.get(1));
+    }
+
+    @Test
+    public void testMultiLineField() throws IOException {
+        List<List<String>> records = parse("1,\"line1\r\nline2\nline3\",2\n3", ',', '"', 16);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals(Arrays.asList("1", "line1\nline2\nline3", "2"), records.get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnterminatedQuote() throws IOException {
+        parse("a,\"b\nc", ',', '"', 16);
+    }
+
+    @Test
+    public void testFieldSlices() throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(new StringReader(" abc ;\"NULL\";;  "), ';', '"', '\\');
+        Assert.assertTrue(tokenizer.nextRecord());
+        Assert.assertEquals(4, tokenizer.getFieldCount());
+        Assert.assertEquals(5, tokenizer.getFieldLength(0));
+        Assert.assertEquals(" abc ", new String(tokenizer.getBuffer(), tokenizer.getFieldStart(0), tokenizer.getFieldLength(0)));
+        Assert.assertEquals("abc", tokenizer.getField(0, true));
+        Assert.assertFalse(tokenizer.isFieldQuoted(0));
+        Assert.assertTrue(tokenizer.isFieldQuoted(1));
+        Assert.assertTrue(tokenizer.fieldEquals(1, "NULL", false));
+        Assert.assertFalse(tokenizer.fieldEquals(0, "abc", false));
+        Assert.assertTrue(tokenizer.fieldEquals(0, "abc", true));
+        Assert.assertTrue(tokenizer.isFieldEmpty(2, false));
+        Assert.assertFalse(tokenizer.isFieldEmpty(3, false));
+        Assert.assertTrue(tokenizer.isFieldEmpty(3, true));
+        Assert.assertFalse(tokenizer.nextRecord());
+    }
+
+    @Test
+    public void testSameResultsAsCSVReader() throws IOException {
+        Random random = new Random(1);
+        char[] alphabet = {'a', 'b', ' ', ',', '"', '\'', '\\', '\n', '\r', ';'};
+        for (int iteration = 0; iteration < 20000; iteration++) {
+            StringBuilder data = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                data.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            char quoteChar = iteration % 2 == 0 ? '"' : '\'';
+            List<List<String>> expected = parseWithReader(data.toString(), quoteChar);
+            List<List<String>> actual;
+            try {
+                actual = parse(data.toString(), ',', quoteChar, 16);
+            } catch (IOException e) {
+                actual = null;
+            }
+            Assert.assertEquals("Data: " + data, expected, actual);
+        }
+    }
+
+    private static List<List<String>> parse(String data, char separator, char quoteChar, int bufferSize) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CSVTokenizer tokenizer = new CSVTokenizer(new StringReader(data), separator, quoteChar, '\\', bufferSize)) {
+            while (tokenizer.nextRecord()) {
+                List<String> record = new ArrayList<>();
+                for (int i = 0; i < tokenizer.getFieldCount(); i++) {
+                    record.add(tokenizer.getField(i));
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static List<List<String>> parseWithReader(String data, char quoteChar) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(data), ',', quoteChar, '\\')) {
+            for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+                if (reader.getParser().isPending()) {
+                    return null;
+                }
+                records.add(Arrays.asList(line));
+            }
+            if (reader.getParser().isPending()) {
+                return null;
+            }
+        }
+        return records;
+    }
+}
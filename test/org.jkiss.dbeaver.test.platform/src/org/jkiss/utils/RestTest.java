@@ -26,7 +26,14 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class RestTest {
     @Test
@@ -50,6 +57,74 @@ public class RestTest {
         server.stop();
     }
 
+    @Test
+    public void restParallelCallsTest() throws Exception {
+        final int threadCount = 4;
+        final RestServer<Controller> server = RestServer
+            .builder(Controller.class, new ControllerImpl(threadCount))
+            .setThreadCount(threadCount)
+            .create();
+        final Controller client = RestClient
+            .builder(URI.create("http://localhost:" + server.getAddress().getPort()), Controller.class)
+            .create();
+
+        // Each call waits for all others, so calls succeed only if they are processed in parallel
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                results.add(executor.submit(client::awaitParallelCalls));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void restLargeResponseTest() {
+        final RestServer<Controller> server = RestServer
+            .builder(Controller.class, new ControllerImpl())
+            .create();
+        final Controller client = RestClient
+            .builder(URI.create("http://localhost:" + server.getAddress().getPort()), Controller.class)
+            .create();
+
+        // Large response is streamed in chunks
+        List<String> rows = client.getRows(100000);
+        Assert.assertEquals(100000, rows.size());
+        Assert.assertEquals("Row 99999 \u00e9", rows.get(99999));
+        Assert.assertEquals(List.of("Row 0 \u00e9"), client.getRows(1));
+
+        server.stop();
+    }
+
+    @Test
+    public void restBinaryProtocolTest() {
+        final RestServer<Controller> server = RestServer
+            .builder(Controller.class, new ControllerImpl())
+            .create();
+        final Controller client = RestClient
+            .builder(URI.create("http://localhost:" + server.getAddress().getPort()), Controller.class)
+            .setBinaryProtocol(true)
+            .create();
+
+        // First call negotiates binary format, next calls send binary requests
+        Assert.assertEquals("1.0", client.getVersion());
+        Assert.assertEquals(Map.of("version", "1.0", "name", "dbeaver"), client.getSettings());
+        Assert.assertEquals("dbeaver", client.getSetting("name"));
+        Assert.assertEquals("cool", client.getSetting("something", "cool"));
+        Assert.assertNull(client.getSetting("something"));
+        List<String> rows = client.getRows(100000);
+        Assert.assertEquals(100000, rows.size());
+        Assert.assertEquals("Row 99999 \u00e9", rows.get(99999));
+
+        server.stop();
+    }
+
     private interface Controller {
         @NotNull
         @RequestMapping("version")
@@ -66,9 +141,26 @@ public class RestTest {
         @Nullable
         @RequestMapping("setting/default")
         Object getSetting(@RequestParameter("key") @NotNull String key, @RequestParameter("default") @Nullable Object def);
+
+        @RequestMapping("parallel")
+        boolean awaitParallelCalls() throws InterruptedException;
+
+        @NotNull
+        @RequestMapping("rows")
+        List<String> getRows(@RequestParameter("count") int count);
     }
 
     private static class ControllerImpl implements Controller {
+        private final CountDownLatch parallelCalls;
+
+        ControllerImpl() {
+            this(1);
+        }
+
+        ControllerImpl(int parallelCallCount) {
+            this.parallelCalls = new CountDownLatch(parallelCallCount);
+        }
+
         @NotNull
         @Override
         public String getVersion() {
@@ -92,5 +184,21 @@ public class RestTest {
         public Object getSetting(@NotNull String key, @Nullable Object def) {
             return getSettings().getOrDefault(key, def);
         }
+
+        @Override
+        public boolean awaitParallelCalls() throws InterruptedException {
+            parallelCalls.countDown();
+            return parallelCalls.await(10, TimeUnit.SECONDS);
+        }
+
+        @NotNull
+        @Override
+        public List<String> getRows(int count) {
+            List<String> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add("Row " + i + " \u00e9");
+            }
+            return rows;
+        }
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.utils.time.TimeSeriesBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeSeriesBufferTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testFillToCapacity() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(4);
+        addPoints(buffer, 1, 4);
+        Assert.assertEquals(4, buffer.getSize());
+        Assert.assertEquals(1, buffer.getStep());
+        assertPoints(buffer, new long[]{10, 20, 30, 40}, new double[]{1, 2, 3, 4});
+    }
+
+    @Test
+    public void testDownsampling() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(4);
+        addPoints(buffer, 1, 8);
+        Assert.assertEquals(2, buffer.getStep());
+        // Point 5 was added right after compaction, point 8 is incomplete
+        assertPoints(buffer, new long[]{10, 30, 50, 60}, new double[]{1.5, 3.5, 5, 6.5});
+
+        buffer.flush();
+        Assert.assertEquals(4, buffer.getStep());
+        assertPoints(buffer, new long[]{10, 50, 80}, new double[]{2.5, 5.75, 8});
+    }
+
+    @Test
+    public void testKeepsTimeRange() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(10);
+        addPoints(buffer, 1, 1000);
+        buffer.flush();
+        Assert.assertTrue(buffer.getSize() <= buffer.getCapacity());
+        Assert.assertEquals(10, buffer.getTimestamp(0));
+        long lastTimestamp = 0;
+        for (int i = 0; i < buffer.getSize(); i++) {
+            Assert.assertTrue(buffer.getTimestamp(i) > lastTimestamp);
+            lastTimestamp = buffer.getTimestamp(i);
+        }
+        // The last point aggregates at most one step of source points
+        Assert.assertTrue(lastTimestamp > 10000 - buffer.getStep() * 10L);
+    }
+
+    @Test
+    public void testOddSizeCompaction() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(3);
+        addPoints(buffer, 1, 4);
+        Assert.assertEquals(2, buffer.getStep());
+        assertPoints(buffer, new long[]{10, 30, 40}, new double[]{1.5, 3, 4});
+    }
+
+    @Test
+    public void testMinimalCapacity() {
+        Assert.assertEquals(2, new TimeSeriesBuffer(0).getCapacity());
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(1);
+        Assert.assertEquals(2, buffer.getCapacity());
+        addPoints(buffer, 1, 3);
+        Assert.assertEquals(2, buffer.getStep());
+        assertPoints(buffer, new long[]{10, 30}, new double[]{1.5, 3});
+    }
+
+    @Test
+    public void testFlushAndClear() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(2);
+        buffer.flush();
+        Assert.assertEquals(0, buffer.getSize());
+        addPoints(buffer, 1, 5);
+        buffer.clear();
+        Assert.assertEquals(0, buffer.getSize());
+        Assert.assertEquals(1, buffer.getStep());
+        buffer.flush();
+        Assert.assertEquals(0, buffer.getSize());
+        buffer.add(100, 42);
+        assertPoints(buffer, new long[]{100}, new double[]{42});
+    }
+
+    @Test
+    public void testIndexOutOfBounds() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(4);
+        buffer.add(10, 1);
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> buffer.getValue(1));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> buffer.getTimestamp(-1));
+    }
+
+    private static void addPoints(TimeSeriesBuffer buffer, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            buffer.add(i * 10L, i);
+        }
+    }
+
+    private static void assertPoints(TimeSeriesBuffer buffer, long[] timestamps, double[] values) {
+        Assert.assertEquals(timestamps.length, buffer.getSize());
+        for (int i = 0; i < timestamps.length; i++) {
+            Assert.assertEquals(timestamps[i], buffer.getTimestamp(i));
+            Assert.assertEquals(values[i], buffer.getValue(i), DELTA);
+        }
+    }
+}